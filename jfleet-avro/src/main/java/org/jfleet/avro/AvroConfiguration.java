@@ -15,12 +15,27 @@
  */
 package org.jfleet.avro;
 
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
 import org.jfleet.EntityInfo;
+import org.jfleet.common.GzipCompression;
 
 public class AvroConfiguration<T> {
 
+    public static final int DEFAULT_ENCODER_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_DECIMAL_PRECISION = 38;
+    public static final int DEFAULT_DECIMAL_SCALE = 9;
+
     private final EntityInfo entityInfo;
     private final Class<T> clazz;
+    private GzipCompression compression;
+    private AvroEncoding encoding = AvroEncoding.CONTAINER;
+    private CodecFactory codec = CodecFactory.nullCodec();
+    private int syncInterval = DataFileConstants.DEFAULT_SYNC_INTERVAL;
+    private boolean flushOnEveryBlock = false;
+    private int encoderBufferSize = DEFAULT_ENCODER_BUFFER_SIZE;
+    private int decimalPrecision = DEFAULT_DECIMAL_PRECISION;
+    private int decimalScale = DEFAULT_DECIMAL_SCALE;
 
     @SuppressWarnings("unchecked")
     public AvroConfiguration(EntityInfo entityInfo) {
@@ -41,4 +56,138 @@ public class AvroConfiguration<T> {
         return clazz;
     }
 
+    public GzipCompression getCompression() {
+        return compression;
+    }
+
+    public AvroEncoding getEncoding() {
+        return encoding;
+    }
+
+    public CodecFactory getCodec() {
+        return codec;
+    }
+
+    public int getSyncInterval() {
+        return syncInterval;
+    }
+
+    public boolean isFlushOnEveryBlock() {
+        return flushOnEveryBlock;
+    }
+
+    public int getEncoderBufferSize() {
+        return encoderBufferSize;
+    }
+
+    public int getDecimalPrecision() {
+        return decimalPrecision;
+    }
+
+    public int getDecimalScale() {
+        return decimalScale;
+    }
+
+    public static class Builder<T> {
+
+        private final AvroConfiguration<T> config;
+
+        public Builder(EntityInfo entityInfo) {
+            this.config = new AvroConfiguration<>(entityInfo);
+        }
+
+        public Builder(Class<T> clazz) {
+            this.config = new AvroConfiguration<>(clazz);
+        }
+
+        /**
+         * Compresses the whole Avro file with parallel gzip. Avro blocks can also be compressed with an Avro codec,
+         * keeping the file splittable, so both options are usually not combined.
+         *
+         * @param compression parallel gzip configuration
+         * @return the builder
+         */
+        public Builder<T> compression(GzipCompression compression) {
+            config.compression = compression;
+            return this;
+        }
+
+        /**
+         * Writes an Avro object container file, or raw binary datums without container.
+         *
+         * @param encoding encoding of the output
+         * @return the builder
+         */
+        public Builder<T> encoding(AvroEncoding encoding) {
+            config.encoding = encoding;
+            return this;
+        }
+
+        /**
+         * Codec used to compress each block of the container file: CodecFactory.deflateCodec(level),
+         * CodecFactory.xzCodec(level), CodecFactory.bzip2Codec()... Codecs other than deflate need their optional
+         * dependency (xz, commons-compress, snappy-java or zstd-jni) in the classpath.
+         *
+         * @param codec block codec
+         * @return the builder
+         */
+        public Builder<T> codec(CodecFactory codec) {
+            config.codec = codec;
+            return this;
+        }
+
+        /**
+         * Approximate number of uncompressed bytes of each block in the container file.
+         *
+         * @param syncInterval block size in bytes, from 32 to 2^30
+         * @return the builder
+         */
+        public Builder<T> syncInterval(int syncInterval) {
+            config.syncInterval = syncInterval;
+            return this;
+        }
+
+        /**
+         * Flushes the underlying OutputStream each time a block is written to the container file. Disabled by
+         * default: the stream is flushed when the writer is closed.
+         *
+         * @param flushOnEveryBlock true to flush after each block
+         * @return the builder
+         */
+        public Builder<T> flushOnEveryBlock(boolean flushOnEveryBlock) {
+            config.flushOnEveryBlock = flushOnEveryBlock;
+            return this;
+        }
+
+        /**
+         * Size of the BinaryEncoder buffer used writing raw binary or single object encoding.
+         *
+         * @param encoderBufferSize buffer size in bytes
+         * @return the builder
+         */
+        public Builder<T> encoderBufferSize(int encoderBufferSize) {
+            config.encoderBufferSize = encoderBufferSize;
+            return this;
+        }
+
+        /**
+         * Precision and scale of the decimal logical type used for BigDecimal columns. BigInteger columns use the
+         * same precision with scale 0. Values that can not be represented without rounding fail on write.
+         *
+         * @param precision maximum number of digits
+         * @param scale number of digits to the right of the decimal point
+         * @return the builder
+         */
+        public Builder<T> decimal(int precision, int scale) {
+            config.decimalPrecision = precision;
+            config.decimalScale = scale;
+            return this;
+        }
+
+        public AvroConfiguration<T> build() {
+            return config;
+        }
+
+    }
+
 }
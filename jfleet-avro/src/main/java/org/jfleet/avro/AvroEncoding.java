@@ -0,0 +1,35 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.avro;
+
+public enum AvroEncoding {
+
+    /**
+     * Avro object container file, with schema, blocks and sync markers.
+     */
+    CONTAINER,
+
+    /**
+     * Concatenated binary encoded datums, without schema or any header.
+     */
+    BINARY,
+
+    /**
+     * Binary encoded datums, each one prefixed by the single object encoding header with the schema fingerprint.
+     */
+    SINGLE_OBJECT
+
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.avro;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Type;
+
+/**
+ * Conversion of Java temporal and numeric values to the underlying representation of Avro logical types.
+ * java.util.Date values without time zone information are interpreted in the default time zone, like the rest of
+ * JFleet serializers.
+ */
+final class AvroLogicalTypes {
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long MICROS_PER_DAY = 86_400L * MICROS_PER_SECOND;
+
+    private AvroLogicalTypes() {
+    }
+
+    static int epochDay(LocalDate value) {
+        return (int) value.toEpochDay();
+    }
+
+    static int epochDay(Date value) {
+        if (value instanceof java.sql.Date) {
+            return (int) ((java.sql.Date) value).toLocalDate().toEpochDay();
+        }
+        return (int) value.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    static long timestampMicros(Date value) {
+        if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) value;
+            long seconds = Math.floorDiv(timestamp.getTime(), 1000L);
+            return seconds * MICROS_PER_SECOND + timestamp.getNanos() / 1000;
+        }
+        return value.getTime() * 1000L;
+    }
+
+    static long localTimestampMicros(LocalDateTime value) {
+        return value.toLocalDate().toEpochDay() * MICROS_PER_DAY + value.toLocalTime().toNanoOfDay() / 1000;
+    }
+
+    static long timeMicros(LocalTime value) {
+        return value.toNanoOfDay() / 1000;
+    }
+
+    static long timeMicros(Date value) {
+        if (value instanceof java.sql.Time) {
+            return timeMicros(((java.sql.Time) value).toLocalTime());
+        }
+        return timeMicros(value.toInstant().atZone(ZoneId.systemDefault()).toLocalTime());
+    }
+
+    static byte[] decimal(BigDecimal value, int precision, int scale) {
+        BigDecimal scaled;
+        try {
+            scaled = value.setScale(scale, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new AvroTypeException("Cannot encode decimal " + value + " with scale " + scale);
+        }
+        if (scaled.precision() > precision) {
+            throw new AvroTypeException("Cannot encode decimal " + value + " with precision " + precision);
+        }
+        return scaled.unscaledValue().toByteArray();
+    }
+
+    static byte[] decimal(BigInteger value, int precision) {
+        return decimal(new BigDecimal(value), precision, 0);
+    }
+
+    static LogicalTypes.Decimal decimalType(Schema fieldSchema) {
+        LogicalType logicalType = nonNullSchema(fieldSchema).getLogicalType();
+        if (logicalType instanceof LogicalTypes.Decimal) {
+            return (LogicalTypes.Decimal) logicalType;
+        }
+        throw new AvroTypeException("Field schema is not a decimal: " + fieldSchema);
+    }
+
+    static Schema nonNullSchema(Schema fieldSchema) {
+        if (fieldSchema.getType() != Type.UNION) {
+            return fieldSchema;
+        }
+        for (Schema type : fieldSchema.getTypes()) {
+            if (type.getType() != Type.NULL) {
+                return type;
+            }
+        }
+        return fieldSchema;
+    }
+
+}
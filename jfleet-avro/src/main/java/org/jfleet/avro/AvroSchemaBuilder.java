@@ -17,7 +17,10 @@ package org.jfleet.avro;
 
 import java.util.function.Function;
 
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
+import org.apache.avro.Schema.Type;
 import org.apache.avro.SchemaBuilder;
 import org.apache.avro.SchemaBuilder.BaseFieldTypeBuilder;
 import org.apache.avro.SchemaBuilder.FieldAssembler;
@@ -29,9 +32,17 @@ import org.jfleet.EntityInfo;
 public class AvroSchemaBuilder {
 
     private final EntityInfo entityInfo;
+    private final int decimalPrecision;
+    private final int decimalScale;
 
     public AvroSchemaBuilder(EntityInfo entityInfo) {
+        this(entityInfo, AvroConfiguration.DEFAULT_DECIMAL_PRECISION, AvroConfiguration.DEFAULT_DECIMAL_SCALE);
+    }
+
+    public AvroSchemaBuilder(EntityInfo entityInfo, int decimalPrecision, int decimalScale) {
         this.entityInfo = entityInfo;
+        this.decimalPrecision = decimalPrecision;
+        this.decimalScale = decimalScale;
     }
 
     public Schema build() {
@@ -49,6 +60,11 @@ public class AvroSchemaBuilder {
     }
 
     private FieldAssembler<Schema> getFieldSchema(ColumnInfo columnInfo, FieldAssembler<Schema> fields) {
+        Schema logicalTypeSchema = getLogicalTypeSchema(columnInfo);
+        if (logicalTypeSchema != null) {
+            Schema nullable = Schema.createUnion(logicalTypeSchema, Schema.create(Type.NULL));
+            return fields.name(columnInfo.getColumnName()).type(nullable).noDefault();
+        }
         FieldTypeBuilder<Schema> beginType = fields.name(columnInfo.getColumnName()).type();
         boolean isPrimitive = columnInfo.getFieldType().isPrimitive();
 
@@ -82,4 +98,29 @@ public class AvroSchemaBuilder {
         return typeMapper.apply(forType).noDefault();
     }
 
+    private Schema getLogicalTypeSchema(ColumnInfo columnInfo) {
+        switch (columnInfo.getFieldType().getFieldType()) {
+        case DATE:
+        case LOCALDATE:
+            return ofLogicalType(LogicalTypes.date(), Type.INT);
+        case TIME:
+        case LOCALTIME:
+            return ofLogicalType(LogicalTypes.timeMicros(), Type.LONG);
+        case TIMESTAMP:
+            return ofLogicalType(LogicalTypes.timestampMicros(), Type.LONG);
+        case LOCALDATETIME:
+            return ofLogicalType(LogicalTypes.localTimestampMicros(), Type.LONG);
+        case BIGDECIMAL:
+            return ofLogicalType(LogicalTypes.decimal(decimalPrecision, decimalScale), Type.BYTES);
+        case BIGINTEGER:
+            return ofLogicalType(LogicalTypes.decimal(decimalPrecision, 0), Type.BYTES);
+        default:
+            return null;
+        }
+    }
+
+    private Schema ofLogicalType(LogicalType logicalType, Type baseType) {
+        return logicalType.addToSchema(Schema.create(baseType));
+    }
+
 }
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.avro;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.Schema.Type;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.Encoder;
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityInfo;
+
+/**
+ * DatumWriter that encodes each column of an entity straight to the Encoder, without building an intermediate
+ * GenericRecord. Column writers are resolved once from the schema and the EntityInfo column accessors.
+ *
+ * @param <T> Type of the entity to write
+ */
+public class EntityDatumWriter<T> implements DatumWriter<T> {
+
+    private final EntityInfo entityInfo;
+    private FieldWriter[] fieldWriters;
+
+    public EntityDatumWriter(Schema schema, EntityInfo entityInfo) {
+        this.entityInfo = entityInfo;
+        setSchema(schema);
+    }
+
+    @Override
+    public void setSchema(Schema schema) {
+        List<ColumnInfo> columns = entityInfo.getColumns();
+        List<Field> fields = schema.getFields();
+        FieldWriter[] writers = new FieldWriter[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            writers[i] = buildFieldWriter(columns.get(i), fields.get(i).schema());
+        }
+        this.fieldWriters = writers;
+    }
+
+    @Override
+    public void write(T entity, Encoder encoder) throws IOException {
+        for (FieldWriter fieldWriter : fieldWriters) {
+            fieldWriter.write(entity, encoder);
+        }
+    }
+
+    private FieldWriter buildFieldWriter(ColumnInfo columnInfo, Schema fieldSchema) {
+        Function<Object, Object> accessor = columnInfo.getAccessor();
+        String name = columnInfo.getColumnName();
+        ValueWriter valueWriter = buildValueWriter(columnInfo, fieldSchema);
+        if (fieldSchema.getType() != Type.UNION) {
+            return (entity, encoder) -> {
+                Object value = accessor.apply(entity);
+                if (value == null) {
+                    throw new NullPointerException("null value for non-nullable field " + name);
+                }
+                valueWriter.write(value, encoder);
+            };
+        }
+        int nullIndex = fieldSchema.getIndexNamed(Type.NULL.getName());
+        int valueIndex = nullIndex == 0 ? 1 : 0;
+        return (entity, encoder) -> {
+            Object value = accessor.apply(entity);
+            if (value == null) {
+                encoder.writeIndex(nullIndex);
+                encoder.writeNull();
+            } else {
+                encoder.writeIndex(valueIndex);
+                valueWriter.write(value, encoder);
+            }
+        };
+    }
+
+    private ValueWriter buildValueWriter(ColumnInfo columnInfo, Schema fieldSchema) {
+        switch (columnInfo.getFieldType().getFieldType()) {
+        case STRING:
+            return (value, encoder) -> encoder.writeString((String) value);
+        case ENUMSTRING:
+            return (value, encoder) -> encoder.writeString(((Enum<?>) value).name());
+        case ENUMORDINAL:
+            return (value, encoder) -> encoder.writeInt(((Enum<?>) value).ordinal());
+        case INT:
+            return (value, encoder) -> encoder.writeInt((Integer) value);
+        case SHORT:
+            return (value, encoder) -> encoder.writeInt((Short) value);
+        case BYTE:
+            return (value, encoder) -> encoder.writeInt((Byte) value);
+        case DOUBLE:
+            return (value, encoder) -> encoder.writeDouble((Double) value);
+        case LONG:
+            return (value, encoder) -> encoder.writeLong((Long) value);
+        case FLOAT:
+            return (value, encoder) -> encoder.writeFloat((Float) value);
+        case BOOLEAN:
+            return (value, encoder) -> encoder.writeBoolean((Boolean) value);
+        case LOCALDATE:
+            return (value, encoder) -> encoder.writeInt(AvroLogicalTypes.epochDay((LocalDate) value));
+        case DATE:
+            return (value, encoder) -> encoder.writeInt(AvroLogicalTypes.epochDay((Date) value));
+        case TIMESTAMP:
+            return (value, encoder) -> encoder.writeLong(AvroLogicalTypes.timestampMicros((Date) value));
+        case LOCALDATETIME:
+            return (value, encoder) -> encoder
+                    .writeLong(AvroLogicalTypes.localTimestampMicros((LocalDateTime) value));
+        case LOCALTIME:
+            return (value, encoder) -> encoder.writeLong(AvroLogicalTypes.timeMicros((LocalTime) value));
+        case TIME:
+            return (value, encoder) -> encoder.writeLong(AvroLogicalTypes.timeMicros((Date) value));
+        case BIGDECIMAL:
+        case BIGINTEGER:
+            return decimalWriter(fieldSchema);
+        default:
+            throw new UnsupportedTypeException(
+                    String.format("Unsupported type: %s", columnInfo.getFieldType().getFieldType()));
+        }
+    }
+
+    private ValueWriter decimalWriter(Schema fieldSchema) {
+        LogicalTypes.Decimal decimal = AvroLogicalTypes.decimalType(fieldSchema);
+        int precision = decimal.getPrecision();
+        int scale = decimal.getScale();
+        return (value, encoder) -> {
+            if (value instanceof BigInteger) {
+                encoder.writeBytes(AvroLogicalTypes.decimal((BigInteger) value, precision));
+            } else {
+                encoder.writeBytes(AvroLogicalTypes.decimal((BigDecimal) value, precision, scale));
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface FieldWriter {
+
+        void write(Object entity, Encoder encoder) throws IOException;
+
+    }
+
+    @FunctionalInterface
+    private interface ValueWriter {
+
+        void write(Object value, Encoder encoder) throws IOException;
+
+    }
+
+}
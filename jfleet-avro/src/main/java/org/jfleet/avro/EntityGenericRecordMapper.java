@@ -15,6 +15,15 @@
  */
 package org.jfleet.avro;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Date;
+
+import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
@@ -54,8 +63,31 @@ public class EntityGenericRecordMapper<T> {
             value = ((Enum<?>) value).name();
         } else if (fieldType == FieldTypeEnum.ENUMORDINAL) {
             value = ((Enum<?>) value).ordinal();
+        } else if (fieldType == FieldTypeEnum.LOCALDATE) {
+            value = AvroLogicalTypes.epochDay((LocalDate) value);
+        } else if (fieldType == FieldTypeEnum.DATE) {
+            value = AvroLogicalTypes.epochDay((Date) value);
+        } else if (fieldType == FieldTypeEnum.TIMESTAMP) {
+            value = AvroLogicalTypes.timestampMicros((Date) value);
+        } else if (fieldType == FieldTypeEnum.LOCALDATETIME) {
+            value = AvroLogicalTypes.localTimestampMicros((LocalDateTime) value);
+        } else if (fieldType == FieldTypeEnum.LOCALTIME) {
+            value = AvroLogicalTypes.timeMicros((LocalTime) value);
+        } else if (fieldType == FieldTypeEnum.TIME) {
+            value = AvroLogicalTypes.timeMicros((Date) value);
+        } else if (fieldType == FieldTypeEnum.BIGDECIMAL || fieldType == FieldTypeEnum.BIGINTEGER) {
+            value = ByteBuffer.wrap(decimal(columnInfo, value));
         }
         return value;
     }
 
+    private byte[] decimal(ColumnInfo columnInfo, Object value) {
+        Schema fieldSchema = schema.getField(columnInfo.getColumnName()).schema();
+        LogicalTypes.Decimal decimal = AvroLogicalTypes.decimalType(fieldSchema);
+        if (value instanceof BigInteger) {
+            return AvroLogicalTypes.decimal((BigInteger) value, decimal.getPrecision());
+        }
+        return AvroLogicalTypes.decimal((BigDecimal) value, decimal.getPrecision(), decimal.getScale());
+    }
+
 }
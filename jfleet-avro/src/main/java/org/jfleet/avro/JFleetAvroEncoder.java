@@ -0,0 +1,128 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
+import org.jfleet.EntityInfo;
+import org.jfleet.inspection.JpaEntityInspector;
+
+/**
+ *
+ * Encodes Java objects as Avro binary or single object encoding, without container file. Useful to produce
+ * individual messages. The BinaryEncoder is reused between calls, so instances are not thread safe.
+ *
+ * @param <T> Type of the object to encode
+ */
+public class JFleetAvroEncoder<T> {
+
+    private static final byte[] SINGLE_OBJECT_MAGIC = {(byte) 0xC3, (byte) 0x01};
+
+    private final Schema schema;
+    private final DatumWriter<T> datumWriter;
+    private final EncoderFactory encoderFactory;
+    private final byte[] header;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private BinaryEncoder encoder;
+
+    public JFleetAvroEncoder(EntityInfo entityInfo, AvroEncoding encoding) {
+        this(new AvroConfiguration.Builder<T>(entityInfo).encoding(encoding).build());
+    }
+
+    public JFleetAvroEncoder(Class<T> clazz, AvroEncoding encoding) {
+        this(new AvroConfiguration.Builder<>(clazz).encoding(encoding).build());
+    }
+
+    public JFleetAvroEncoder(AvroConfiguration<T> config) {
+        EntityInfo entityInfo = config.getEntityInfo();
+        if (entityInfo == null) {
+            entityInfo = new JpaEntityInspector(config.getClazz()).inspect();
+        }
+        this.schema = new AvroSchemaBuilder(entityInfo, config.getDecimalPrecision(), config.getDecimalScale())
+                .build();
+        this.datumWriter = new EntityDatumWriter<>(schema, entityInfo);
+        this.encoderFactory = new EncoderFactory().configureBufferSize(config.getEncoderBufferSize());
+        this.header = buildHeader(config.getEncoding(), schema);
+    }
+
+    private static byte[] buildHeader(AvroEncoding encoding, Schema schema) {
+        if (encoding == AvroEncoding.BINARY) {
+            return null;
+        }
+        if (encoding != AvroEncoding.SINGLE_OBJECT) {
+            throw new IllegalArgumentException("Unsupported encoding without container: " + encoding);
+        }
+        long fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+        byte[] header = new byte[SINGLE_OBJECT_MAGIC.length + Long.BYTES];
+        System.arraycopy(SINGLE_OBJECT_MAGIC, 0, header, 0, SINGLE_OBJECT_MAGIC.length);
+        for (int i = 0; i < Long.BYTES; i++) {
+            header[SINGLE_OBJECT_MAGIC.length + i] = (byte) (fingerprint >>> (8 * i));
+        }
+        return header;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     *
+     * Encodes the specified Java object into a new byte array.
+     *
+     * @param entity object to encode
+     * @return encoded bytes
+     * @throws IOException if an error occurs while encoding the object
+     */
+    public byte[] encode(T entity) throws IOException {
+        buffer.reset();
+        encode(entity, buffer);
+        return buffer.toByteArray();
+    }
+
+    /**
+     *
+     * Encodes the specified Java object into the OutputStream, flushing the encoder at the end.
+     *
+     * @param entity object to encode
+     * @param outputStream stream where to write the encoded object
+     * @throws IOException if an error occurs while encoding the object
+     */
+    public void encode(T entity, OutputStream outputStream) throws IOException {
+        BinaryEncoder binaryEncoder = encoderFor(outputStream);
+        write(entity, binaryEncoder);
+        binaryEncoder.flush();
+    }
+
+    BinaryEncoder encoderFor(OutputStream outputStream) {
+        encoder = encoderFactory.binaryEncoder(outputStream, encoder);
+        return encoder;
+    }
+
+    void write(T entity, BinaryEncoder binaryEncoder) throws IOException {
+        if (header != null) {
+            binaryEncoder.writeFixed(header);
+        }
+        datumWriter.write(entity, binaryEncoder);
+    }
+
+}
@@ -26,31 +26,71 @@ import java.util.stream.Stream;
 
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileWriter;
-import org.apache.avro.generic.GenericDatumWriter;
-import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
 import org.jfleet.EntityInfo;
+import org.jfleet.common.CountingOutputStream;
+import org.jfleet.common.GzipCompression;
+import org.jfleet.common.JFleetEvent;
 import org.jfleet.inspection.JpaEntityInspector;
 
 public class JFleetAvroWriter<T> implements Closeable, Consumer<T> {
 
-    private final EntityGenericRecordMapper<T> mapper;
-    private final DataFileWriter<GenericRecord> dataFileWriter;
+    private final DataFileWriter<T> dataFileWriter;
+    private final JFleetAvroEncoder<T> avroEncoder;
+    private final BinaryEncoder binaryEncoder;
+    private final OutputStream outputStream;
+    private final JFleetEvent event;
+    private final CountingOutputStream counter;
+    private long rows = 0;
 
     public JFleetAvroWriter(OutputStream outputStream, EntityInfo entityInfo) throws IOException {
-        Schema schema = new AvroSchemaBuilder(entityInfo).build();
-        DatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
-        this.dataFileWriter = new DataFileWriter<>(datumWriter);
-        this.dataFileWriter.create(schema, outputStream);
-        this.mapper = new EntityGenericRecordMapper<>(schema, entityInfo);
+        this(outputStream, new AvroConfiguration<>(entityInfo));
     }
 
     public JFleetAvroWriter(OutputStream outputStream, Class<T> clazz) throws IOException {
-        this(outputStream, buildEntityInfo(clazz));
+        this(outputStream, new AvroConfiguration<>(clazz));
     }
 
     public JFleetAvroWriter(OutputStream outputStream, AvroConfiguration<T> avroConfiguration) throws IOException {
-        this(outputStream, getEntityInfo(avroConfiguration));
+        this.event = JFleetEvent.fileWrite("Avro");
+        this.counter = event.isRecording() ? new CountingOutputStream(outputStream) : null;
+        this.outputStream = wrap(counter == null ? outputStream : counter, avroConfiguration);
+        if (avroConfiguration.getEntityInfo() != null) {
+            event.entity(avroConfiguration.getEntityInfo());
+        } else {
+            event.entity(avroConfiguration.getClazz(), null);
+        }
+        if (avroConfiguration.getEncoding() == AvroEncoding.CONTAINER) {
+            this.dataFileWriter = createDataFileWriter(this.outputStream, avroConfiguration);
+            this.avroEncoder = null;
+            this.binaryEncoder = null;
+        } else {
+            this.dataFileWriter = null;
+            this.avroEncoder = new JFleetAvroEncoder<>(avroConfiguration);
+            this.binaryEncoder = avroEncoder.encoderFor(this.outputStream);
+        }
+    }
+
+    private static <T> DataFileWriter<T> createDataFileWriter(OutputStream outputStream, AvroConfiguration<T> config)
+            throws IOException {
+        EntityInfo entityInfo = getEntityInfo(config);
+        Schema schema = new AvroSchemaBuilder(entityInfo, config.getDecimalPrecision(), config.getDecimalScale())
+                .build();
+        DatumWriter<T> datumWriter = new EntityDatumWriter<>(schema, entityInfo);
+        DataFileWriter<T> dataFileWriter = new DataFileWriter<>(datumWriter);
+        dataFileWriter.setCodec(config.getCodec());
+        dataFileWriter.setSyncInterval(config.getSyncInterval());
+        dataFileWriter.setFlushOnEveryBlock(config.isFlushOnEveryBlock());
+        return dataFileWriter.create(schema, outputStream);
+    }
+
+    private static OutputStream wrap(OutputStream outputStream, AvroConfiguration<?> config) {
+        GzipCompression compression = config.getCompression();
+        if (compression == null) {
+            return outputStream;
+        }
+        return compression.wrap(outputStream);
     }
 
     private static <T> EntityInfo getEntityInfo(AvroConfiguration<T> config) {
@@ -61,10 +101,6 @@ public class JFleetAvroWriter<T> implements Closeable, Consumer<T> {
         return new JpaEntityInspector(config.getClazz()).inspect();
     }
 
-    private static <T> EntityInfo buildEntityInfo(Class<T> clazz) {
-        return new JpaEntityInspector(clazz).inspect();
-    }
-
     /**
      *
      * Writes the specified Collection of Java objects to an Avro file.
@@ -101,7 +137,12 @@ public class JFleetAvroWriter<T> implements Closeable, Consumer<T> {
      * @throws IOException if an error occurs while writing the records
      */
     public void write(T entity) throws IOException {
-        dataFileWriter.append(mapper.buildAvroRecord(entity));
+        if (dataFileWriter != null) {
+            dataFileWriter.append(entity);
+        } else {
+            avroEncoder.write(entity, binaryEncoder);
+        }
+        rows++;
     }
 
     /**
@@ -122,7 +163,16 @@ public class JFleetAvroWriter<T> implements Closeable, Consumer<T> {
 
     @Override
     public void close() throws IOException {
-        dataFileWriter.close();
+        try {
+            if (dataFileWriter != null) {
+                dataFileWriter.close();
+            } else {
+                binaryEncoder.flush();
+                outputStream.close();
+            }
+        } finally {
+            event.rows(rows).bytes(counter == null ? -1 : counter.getCount()).end();
+        }
     }
 
 }
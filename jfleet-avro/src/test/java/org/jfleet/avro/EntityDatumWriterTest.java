@@ -0,0 +1,204 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.avro;
+
+import static org.jfleet.EntityFieldType.FieldTypeEnum.BIGDECIMAL;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.BIGINTEGER;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.BOOLEAN;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.BYTE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.DATE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.DOUBLE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.ENUMORDINAL;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.ENUMSTRING;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.FLOAT;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.INT;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALDATE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALDATETIME;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALTIME;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LONG;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.SHORT;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.STRING;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.TIME;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.TIMESTAMP;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
+import org.jfleet.EntityInfo;
+import org.jfleet.EntityInfoBuilder;
+import org.junit.jupiter.api.Test;
+
+class EntityDatumWriterTest {
+
+    @Test
+    void shouldEncodeAsGenericRecord() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("fooString", STRING, TestEntity::getFooString)
+                .addColumn("fooInt", INT, TestEntity::getFooInt)
+                .addColumn("fooShort", SHORT, TestEntity::getFooShort)
+                .addColumn("fooByte", BYTE, TestEntity::getFooByte)
+                .addColumn("fooDouble", DOUBLE, TestEntity::getFooDouble)
+                .addColumn("fooLong", LONG, TestEntity::getFooLong)
+                .addColumn("fooFloat", FLOAT, TestEntity::getFooFloat)
+                .addColumn("fooBoolean", BOOLEAN, TestEntity::getFooBoolean)
+                .build();
+        TestEntity testEntity = new TestEntity();
+        testEntity.setFooString("foo");
+        testEntity.setFooInt(1);
+        testEntity.setFooShort((short) 2);
+        testEntity.setFooByte((byte) 3);
+        testEntity.setFooDouble(4.5);
+        testEntity.setFooLong(6L);
+        testEntity.setFooFloat(7.5f);
+        testEntity.setFooBoolean(true);
+
+        assertSameEncoding(entityInfo, testEntity);
+    }
+
+    @Test
+    void shouldEncodeNullsAsGenericRecord() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("fooString", STRING, TestEntity::getFooString)
+                .addColumn("fooInt", INT, TestEntity::getFooInt)
+                .addColumn("fooLong", LONG, TestEntity::getFooLong)
+                .addColumn("fooBoolean", BOOLEAN, TestEntity::getFooBoolean)
+                .build();
+
+        assertSameEncoding(entityInfo, new TestEntity());
+    }
+
+    @Test
+    void shouldEncodePrimitivesAsGenericRecord() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntityWithPrimitives.class)
+                .addField("fooInt")
+                .addField("fooShort")
+                .addField("fooByte")
+                .addField("fooDouble")
+                .addField("fooLong")
+                .addField("fooFloat")
+                .addField("fooBoolean")
+                .build();
+        TestEntityWithPrimitives testEntity = new TestEntityWithPrimitives();
+        testEntity.setFooInt(-100);
+        testEntity.setFooShort((short) 200);
+        testEntity.setFooByte((byte) -3);
+        testEntity.setFooDouble(4.5);
+        testEntity.setFooLong(Long.MAX_VALUE);
+        testEntity.setFooFloat(7.5f);
+        testEntity.setFooBoolean(true);
+
+        assertSameEncoding(entityInfo, testEntity);
+    }
+
+    @Test
+    void shouldEncodeEnumsAsGenericRecord() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntityWithEnum.class)
+                .addColumn("foo", ENUMORDINAL, TestEntityWithEnum::getFoo)
+                .addColumn("bar", ENUMSTRING, TestEntityWithEnum::getBar)
+                .build();
+        TestEntityWithEnum testEntity = new TestEntityWithEnum();
+        testEntity.setFoo(TestEntityWithEnum.WeekDays.TUESDAY);
+        testEntity.setBar(TestEntityWithEnum.WeekDays.SUNDAY);
+
+        assertSameEncoding(entityInfo, testEntity);
+    }
+
+    @Test
+    void shouldEncodeLogicalTypesAsGenericRecord() throws IOException {
+        LocalDateTime dateTime = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999999000);
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("localDate", LOCALDATE, e -> dateTime.toLocalDate())
+                .addColumn("localTime", LOCALTIME, e -> dateTime.toLocalTime())
+                .addColumn("localDateTime", LOCALDATETIME, e -> dateTime)
+                .addColumn("date", DATE, e -> new Date(0))
+                .addColumn("time", TIME, e -> java.sql.Time.valueOf(dateTime.toLocalTime()))
+                .addColumn("timestamp", TIMESTAMP, e -> Timestamp.valueOf(dateTime))
+                .addColumn("decimal", BIGDECIMAL, e -> new BigDecimal("-0.000000001"))
+                .addColumn("integer", BIGINTEGER, e -> BigInteger.valueOf(Long.MIN_VALUE))
+                .addColumn("nullDecimal", BIGDECIMAL, e -> null)
+                .build();
+
+        assertSameEncoding(entityInfo, new TestEntity());
+    }
+
+    @Test
+    void shouldFailWithDecimalThatNeedsRounding() {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("decimal", BIGDECIMAL, e -> new BigDecimal("1.2345"))
+                .build();
+        Schema schema = new AvroSchemaBuilder(entityInfo, 10, 2).build();
+        EntityDatumWriter<TestEntity> writer = new EntityDatumWriter<>(schema, entityInfo);
+
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(new ByteArrayOutputStream(), null);
+        assertThrows(AvroTypeException.class, () -> writer.write(new TestEntity(), encoder));
+    }
+
+    @Test
+    void shouldFailWithDecimalBiggerThanPrecision() {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("decimal", BIGDECIMAL, e -> new BigDecimal("12345.6"))
+                .build();
+        Schema schema = new AvroSchemaBuilder(entityInfo, 5, 2).build();
+        EntityDatumWriter<TestEntity> writer = new EntityDatumWriter<>(schema, entityInfo);
+
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(new ByteArrayOutputStream(), null);
+        assertThrows(AvroTypeException.class, () -> writer.write(new TestEntity(), encoder));
+    }
+
+    @Test
+    void shouldFailWithNullInNonNullableField() {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("fooInt", INT, true, TestEntity::getFooInt)
+                .build();
+        Schema schema = new AvroSchemaBuilder(entityInfo).build();
+        EntityDatumWriter<TestEntity> writer = new EntityDatumWriter<>(schema, entityInfo);
+
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(new ByteArrayOutputStream(), null);
+        assertThrows(NullPointerException.class, () -> writer.write(new TestEntity(), encoder));
+    }
+
+    private <T> void assertSameEncoding(EntityInfo entityInfo, T entity) throws IOException {
+        Schema schema = new AvroSchemaBuilder(entityInfo).build();
+        EntityGenericRecordMapper<T> mapper = new EntityGenericRecordMapper<>(schema, entityInfo);
+        DatumWriter<GenericRecord> genericWriter = new GenericDatumWriter<>(schema);
+        byte[] expected = encode(genericWriter, mapper.buildAvroRecord(entity));
+        byte[] actual = encode(new EntityDatumWriter<>(schema, entityInfo), entity);
+        assertArrayEquals(expected, actual);
+    }
+
+    private <D> byte[] encode(DatumWriter<D> datumWriter, D datum) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
+        datumWriter.write(datum, encoder);
+        encoder.flush();
+        return baos.toByteArray();
+    }
+
+}
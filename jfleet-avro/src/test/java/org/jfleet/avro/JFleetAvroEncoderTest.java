@@ -0,0 +1,137 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.avro;
+
+import static org.jfleet.EntityFieldType.FieldTypeEnum.INT;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.avro.util.Utf8;
+import org.jfleet.EntityInfo;
+import org.jfleet.EntityInfoBuilder;
+import org.junit.jupiter.api.Test;
+
+class JFleetAvroEncoderTest {
+
+    private final EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+            .addColumn("fooString", STRING, TestEntity::getFooString)
+            .addColumn("fooInt", INT, TestEntity::getFooInt)
+            .build();
+
+    @Test
+    void shouldEncodeSingleObject() throws IOException {
+        JFleetAvroEncoder<TestEntity> encoder = new JFleetAvroEncoder<>(entityInfo, AvroEncoding.SINGLE_OBJECT);
+        BinaryMessageDecoder<GenericRecord> decoder = new BinaryMessageDecoder<>(GenericData.get(),
+                encoder.getSchema());
+
+        GenericRecord first = decoder.decode(encoder.encode(entity("foo", 1)));
+        GenericRecord second = decoder.decode(encoder.encode(entity("bar", null)));
+
+        assertEquals(new Utf8("foo"), first.get("fooString"));
+        assertEquals(1, first.get("fooInt"));
+        assertEquals(new Utf8("bar"), second.get("fooString"));
+        assertEquals(null, second.get("fooInt"));
+    }
+
+    @Test
+    void shouldEncodeRawBinary() throws IOException {
+        JFleetAvroEncoder<TestEntity> encoder = new JFleetAvroEncoder<>(entityInfo, AvroEncoding.BINARY);
+        byte[] bytes = encoder.encode(entity("foo", 42));
+
+        GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>(encoder.getSchema());
+        GenericRecord record = reader.read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+        assertEquals(new Utf8("foo"), record.get("fooString"));
+        assertEquals(42, record.get("fooInt"));
+    }
+
+    @Test
+    void shouldWriteRawBinaryStream() throws IOException {
+        AvroConfiguration<TestEntity> config = new AvroConfiguration.Builder<TestEntity>(entityInfo)
+                .encoding(AvroEncoding.BINARY)
+                .encoderBufferSize(16)
+                .build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JFleetAvroWriter<TestEntity> writer = new JFleetAvroWriter<>(outputStream, config)) {
+            for (int i = 0; i < 100; i++) {
+                writer.write(entity("foo" + i, i));
+            }
+        }
+
+        GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>(new AvroSchemaBuilder(entityInfo).build());
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(outputStream.toByteArray(), null);
+        for (int i = 0; i < 100; i++) {
+            GenericRecord record = reader.read(null, decoder);
+            assertEquals(new Utf8("foo" + i), record.get("fooString"));
+            assertEquals(i, record.get("fooInt"));
+        }
+        assertTrue(decoder.isEnd());
+    }
+
+    @Test
+    void shouldWriteContainerWithCodec() throws IOException {
+        AvroConfiguration<TestEntity> config = new AvroConfiguration.Builder<TestEntity>(entityInfo)
+                .codec(CodecFactory.deflateCodec(9))
+                .syncInterval(1024)
+                .flushOnEveryBlock(false)
+                .build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JFleetAvroWriter<TestEntity> writer = new JFleetAvroWriter<>(outputStream, config)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.write(entity("foo" + i, i));
+            }
+        }
+
+        try (DataFileStream<GenericRecord> stream = new DataFileStream<>(
+                new ByteArrayInputStream(outputStream.toByteArray()), new GenericDatumReader<>())) {
+            assertEquals("deflate", stream.getMetaString("avro.codec"));
+            int count = 0;
+            int blocks = 0;
+            while (stream.hasNext()) {
+                blocks++;
+                long inBlock = stream.getBlockCount();
+                for (long i = 0; i < inBlock; i++) {
+                    assertEquals(new Utf8("foo" + count), stream.next().get("fooString"));
+                    count++;
+                }
+            }
+            assertEquals(1000, count);
+            assertTrue(blocks > 1);
+            assertFalse(stream.hasNext());
+        }
+    }
+
+    private static TestEntity entity(String foo, Integer value) {
+        TestEntity entity = new TestEntity();
+        entity.setFooString(foo);
+        entity.setFooInt(value);
+        return entity;
+    }
+
+}
@@ -17,39 +17,67 @@ package org.jfleet.avro;
 
 import static java.util.Arrays.asList;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.BIGDECIMAL;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.BIGINTEGER;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.BOOLEAN;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.BYTE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.CHAR;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.DATE;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.DOUBLE;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.ENUMORDINAL;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.ENUMSTRING;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.FLOAT;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.INT;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALDATE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALDATETIME;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALTIME;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.LONG;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.SHORT;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.STRING;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.TIME;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.TIMESTAMP;
 import static org.jfleet.avro.TestEntityWithEnum.WeekDays.FRIDAY;
 import static org.jfleet.avro.TestEntityWithEnum.WeekDays.SATURDAY;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.data.TimeConversions;
+import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.util.Utf8;
 import org.jfleet.EntityInfo;
 import org.jfleet.EntityInfoBuilder;
+import org.jfleet.columnar.ColumnarBatch;
+import org.jfleet.common.GzipCompression;
 import org.junit.jupiter.api.Test;
 
 class JFleetAvroWriterTest {
@@ -299,7 +327,7 @@ class JFleetAvroWriterTest {
     @Test
     void shouldThrowUnsupportedTypeException() {
         EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
-                .addColumn("foo", BIGDECIMAL, a -> BigDecimal.ZERO)
+                .addColumn("foo", CHAR, a -> 'A')
                 .build();
 
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -416,6 +444,206 @@ class JFleetAvroWriterTest {
         assertEquals(1L, genericRecord.get("some_column"));
     }
 
+    @Test
+    void shouldWriteGzipCompressedFile() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("foo", STRING, TestEntity::getFooString)
+                .build();
+        AvroConfiguration<TestEntity> config = new AvroConfiguration.Builder<TestEntity>(entityInfo)
+                .compression(new GzipCompression.Builder().blockSize(1024).build())
+                .build();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JFleetAvroWriter<TestEntity> avroWriter = new JFleetAvroWriter<>(outputStream, config)) {
+            for (int i = 0; i < 1000; i++) {
+                TestEntity testEntity = new TestEntity();
+                testEntity.setFooString("foo" + i);
+                avroWriter.write(testEntity);
+            }
+        }
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        DatumReader<GenericRecord> datumReader = new GenericDatumReader<>();
+        try (DataFileStream<GenericRecord> dataFileStream = new DataFileStream<>(new GZIPInputStream(inputStream),
+                datumReader)) {
+            int i = 0;
+            while (dataFileStream.hasNext()) {
+                assertEquals(new Utf8("foo" + i), dataFileStream.next().get("foo"));
+                i++;
+            }
+            assertEquals(1000, i);
+        }
+    }
+
+    @Test
+    void shouldCompressGzipBlocksInParallelWhenFlushingEveryAvroBlock() throws Exception {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("foo", STRING, TestEntity::getFooString)
+                .build();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Executor executor = task -> pool.execute(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                task.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+        GzipCompression compression = new GzipCompression.Builder().executor(executor).blockSize(8192)
+                .maxPendingBlocks(4).build();
+        AvroConfiguration<TestEntity> config = new AvroConfiguration.Builder<TestEntity>(entityInfo)
+                .compression(compression)
+                .syncInterval(1024)
+                .flushOnEveryBlock(true)
+                .build();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JFleetAvroWriter<TestEntity> avroWriter = new JFleetAvroWriter<>(outputStream, config)) {
+            for (int i = 0; i < 20_000; i++) {
+                TestEntity testEntity = new TestEntity();
+                testEntity.setFooString("foo" + i);
+                avroWriter.write(testEntity);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        byte[] compressed = outputStream.toByteArray();
+        byte[] content;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            content = gzip.readAllBytes();
+        }
+        // Flushes did not cut members: the output is the same as compressing all the content in one write
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (OutputStream os = new GzipCompression.Builder().executor(Runnable::run).blockSize(8192).build()
+                .wrap(expected)) {
+            os.write(content);
+        }
+        assertTrue(content.length > 4 * 8192);
+        assertArrayEquals(expected.toByteArray(), compressed);
+        assertTrue(maxRunning.get() > 1);
+        try (DataFileStream<GenericRecord> dataFileStream = new DataFileStream<>(new ByteArrayInputStream(content),
+                new GenericDatumReader<>())) {
+            int count = 0;
+            while (dataFileStream.hasNext()) {
+                assertEquals(new Utf8("foo" + count), dataFileStream.next().get("foo"));
+                count++;
+            }
+            assertEquals(20_000, count);
+        }
+    }
+
+    @Test
+    void shouldConvertTemporalTypesToLogicalTypes() throws IOException {
+        LocalDateTime dateTime = LocalDateTime.of(2023, 5, 6, 7, 8, 9, 123456000);
+        Timestamp timestamp = Timestamp.valueOf(dateTime);
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("localDate", LOCALDATE, e -> dateTime.toLocalDate())
+                .addColumn("localTime", LOCALTIME, e -> dateTime.toLocalTime())
+                .addColumn("localDateTime", LOCALDATETIME, e -> dateTime)
+                .addColumn("date", DATE, e -> java.sql.Date.valueOf(dateTime.toLocalDate()))
+                .addColumn("time", TIME, e -> java.sql.Time.valueOf(dateTime.toLocalTime()))
+                .addColumn("timestamp", TIMESTAMP, e -> timestamp)
+                .build();
+
+        try (DataFileReader<GenericRecord> dataFileReader = serializeAndRead(entityInfo, new TestEntity())) {
+            Schema schema = dataFileReader.getSchema();
+            assertEquals("date", logicalType(schema, "localDate"));
+            assertEquals("time-micros", logicalType(schema, "localTime"));
+            assertEquals("local-timestamp-micros", logicalType(schema, "localDateTime"));
+            assertEquals("date", logicalType(schema, "date"));
+            assertEquals("time-micros", logicalType(schema, "time"));
+            assertEquals("timestamp-micros", logicalType(schema, "timestamp"));
+
+            GenericRecord genericRecord = dataFileReader.next();
+            assertEquals(dateTime.toLocalDate(), genericRecord.get("localDate"));
+            assertEquals(dateTime.toLocalTime(), genericRecord.get("localTime"));
+            assertEquals(dateTime, genericRecord.get("localDateTime"));
+            assertEquals(dateTime.toLocalDate(), genericRecord.get("date"));
+            assertEquals(dateTime.toLocalTime().withNano(0), genericRecord.get("time"));
+            assertEquals(timestamp.toInstant(), genericRecord.get("timestamp"));
+        }
+    }
+
+    @Test
+    void shouldConvertNullTemporalTypes() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("localDate", LOCALDATE, e -> null)
+                .addColumn("timestamp", TIMESTAMP, e -> null)
+                .addColumn("decimal", BIGDECIMAL, e -> null)
+                .build();
+
+        try (DataFileReader<GenericRecord> dataFileReader = serializeAndRead(entityInfo, new TestEntity())) {
+            GenericRecord genericRecord = dataFileReader.next();
+            assertNull(genericRecord.get("localDate"));
+            assertNull(genericRecord.get("timestamp"));
+            assertNull(genericRecord.get("decimal"));
+        }
+    }
+
+    @Test
+    void shouldConvertDecimalTypesToLogicalTypes() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("decimal", BIGDECIMAL, e -> new BigDecimal("-1234.5"))
+                .addColumn("integer", BIGINTEGER, e -> new BigInteger("123456789012345678901234567890"))
+                .build();
+
+        try (DataFileReader<GenericRecord> dataFileReader = serializeAndRead(entityInfo, new TestEntity())) {
+            Schema schema = dataFileReader.getSchema();
+            assertEquals("decimal", logicalType(schema, "decimal"));
+            assertEquals(9, ((LogicalTypes.Decimal) nonNull(schema, "decimal").getLogicalType()).getScale());
+            assertEquals(0, ((LogicalTypes.Decimal) nonNull(schema, "integer").getLogicalType()).getScale());
+
+            GenericRecord genericRecord = dataFileReader.next();
+            assertEquals(new BigDecimal("-1234.500000000"), genericRecord.get("decimal"));
+            assertEquals(new BigDecimal("123456789012345678901234567890"), genericRecord.get("integer"));
+        }
+    }
+
+    private static String logicalType(Schema schema, String field) {
+        return nonNull(schema, field).getLogicalType().getName();
+    }
+
+    private static Schema nonNull(Schema schema, String field) {
+        return schema.getField(field).schema().getTypes().get(0);
+    }
+
+    @Test
+    void shouldWriteColumnarBatch() throws IOException {
+        BitSet nulls = new BitSet();
+        nulls.set(1);
+        ColumnarBatch batch = ColumnarBatch.builder("measures", 2)
+                .longColumn("id", new long[] {1, 2})
+                .doubleColumn("value", new double[] {1.5, 2.5}, nulls)
+                .column("name", STRING, new String[] {"John", "Amanda"})
+                .build();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JFleetAvroWriter<ColumnarBatch.Row> avroWriter = new JFleetAvroWriter<>(outputStream,
+                batch.getEntityInfo())) {
+            avroWriter.writeAll(batch.stream());
+        }
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        try (DataFileStream<GenericRecord> dataFileStream = new DataFileStream<>(inputStream,
+                new GenericDatumReader<>())) {
+            assertEquals(Schema.Type.LONG, dataFileStream.getSchema().getField("id").schema().getType());
+            GenericRecord first = dataFileStream.next();
+            assertEquals(1L, first.get("id"));
+            assertEquals(1.5, first.get("value"));
+            assertEquals(new Utf8("John"), first.get("name"));
+            GenericRecord second = dataFileStream.next();
+            assertEquals(2L, second.get("id"));
+            assertNull(second.get("value"));
+            assertEquals(new Utf8("Amanda"), second.get("name"));
+            assertFalse(dataFileStream.hasNext());
+        }
+    }
+
     private <T> DataFileReader<GenericRecord> serializeAndRead(EntityInfo entityInfo, T testEntity)
             throws IOException {
         String path = "/tmp/foo.avro";
@@ -424,7 +652,13 @@ class JFleetAvroWriterTest {
                 avroWriter.write(testEntity);
             }
         }
-        DatumReader<GenericRecord> datumReader = new GenericDatumReader<>();
+        GenericData model = new GenericData();
+        model.addLogicalTypeConversion(new TimeConversions.DateConversion());
+        model.addLogicalTypeConversion(new TimeConversions.TimeMicrosConversion());
+        model.addLogicalTypeConversion(new TimeConversions.TimestampMicrosConversion());
+        model.addLogicalTypeConversion(new TimeConversions.LocalTimestampMicrosConversion());
+        model.addLogicalTypeConversion(new Conversions.DecimalConversion());
+        DatumReader<GenericRecord> datumReader = new GenericDatumReader<>(null, null, model);
         return new DataFileReader<>(new File(path), datumReader);
     }
 
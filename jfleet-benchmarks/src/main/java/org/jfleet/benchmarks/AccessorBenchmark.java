@@ -0,0 +1,90 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.jfleet.benchmarks.entities.TripEntity;
+import org.jfleet.inspection.EntityFieldAccesorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Field accessors created by reflection compared with a getter lambda, for direct and embedded fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessorBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({"bikeId", "starttime", "startStation.stationName"})
+    private String fieldPath;
+
+    private List<TripEntity> trips;
+    private Function<Object, Object> accessor;
+    private Function<TripEntity, Object> getter;
+
+    @Setup
+    public void setup() {
+        trips = new TripGenerator(42, 16, 0).generate(ROWS);
+        accessor = new EntityFieldAccesorFactory().getAccessor(TripEntity.class, fieldPath);
+        switch (fieldPath) {
+        case "bikeId":
+            getter = TripEntity::getBikeId;
+            break;
+        case "starttime":
+            getter = TripEntity::getStarttime;
+            break;
+        default:
+            getter = trip -> trip.getStartStation().getStationName();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void reflectionAccessor(Blackhole bh) {
+        for (TripEntity trip : trips) {
+            bh.consume(accessor.apply(trip));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void getterLambda(Blackhole bh) {
+        for (TripEntity trip : trips) {
+            bh.consume(getter.apply(trip));
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
+import org.jfleet.avro.AvroSchemaBuilder;
+import org.jfleet.avro.EntityDatumWriter;
+import org.jfleet.avro.EntityGenericRecordMapper;
+import org.jfleet.benchmarks.entities.TripEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encodes trips to Avro binary into a stream discarding the content, building an intermediate GenericRecord per
+ * entity or writing the entity directly with EntityDatumWriter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AvroDatumWriterBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"16", "128"})
+    private int stringLength;
+
+    private List<TripEntity> trips;
+    private EntityGenericRecordMapper<TripEntity> mapper;
+    private DatumWriter<GenericRecord> genericWriter;
+    private DatumWriter<TripEntity> entityWriter;
+
+    @Setup
+    public void setup() {
+        trips = new TripGenerator(42, stringLength, 0).generate(ROWS);
+        Schema schema = new AvroSchemaBuilder(BenchmarkEntities.TRIP_WITHOUT_CHAR).build();
+        mapper = new EntityGenericRecordMapper<>(schema, BenchmarkEntities.TRIP_WITHOUT_CHAR);
+        genericWriter = new GenericDatumWriter<>(schema);
+        entityWriter = new EntityDatumWriter<>(schema, BenchmarkEntities.TRIP_WITHOUT_CHAR);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long genericRecord() throws IOException {
+        NullOutputStream out = new NullOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        for (TripEntity trip : trips) {
+            genericWriter.write(mapper.buildAvroRecord(trip), encoder);
+        }
+        encoder.flush();
+        return out.getCount();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long entityDatumWriter() throws IOException {
+        NullOutputStream out = new NullOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        for (TripEntity trip : trips) {
+            entityWriter.write(trip, encoder);
+        }
+        encoder.flush();
+        return out.getCount();
+    }
+
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.benchmarks;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityFieldType;
+import org.jfleet.EntityFieldType.FieldTypeEnum;
+import org.jfleet.EntityInfo;
+import org.jfleet.benchmarks.entities.TripEntity;
+import org.jfleet.inspection.JpaEntityInspector;
+
+/**
+ * EntityInfo of benchmark entities, inspected once.
+ */
+public final class BenchmarkEntities {
+
+    public static final EntityInfo TRIP = new JpaEntityInspector(TripEntity.class).inspect();
+
+    /**
+     * TripEntity without CHAR columns, mapped as STRING, for formats not supporting them like Avro.
+     */
+    public static final EntityInfo TRIP_WITHOUT_CHAR = withoutChar(TRIP);
+
+    private BenchmarkEntities() {
+    }
+
+    private static EntityInfo withoutChar(EntityInfo entityInfo) {
+        List<ColumnInfo> columns = entityInfo.getColumns().stream().map(column -> {
+            if (column.getFieldType().getFieldType() != FieldTypeEnum.CHAR) {
+                return column;
+            }
+            EntityFieldType type = new EntityFieldType(FieldTypeEnum.STRING, false);
+            return new ColumnInfo(column.getColumnName(), type, entity -> {
+                Object value = column.getAccessor().apply(entity);
+                return value == null ? null : value.toString();
+            });
+        }).collect(Collectors.toList());
+        return new EntityInfo(entityInfo.getEntityClass(), entityInfo.getTableName(), columns);
+    }
+
+}
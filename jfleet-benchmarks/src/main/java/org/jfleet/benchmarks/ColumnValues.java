@@ -0,0 +1,61 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityFieldType;
+import org.jfleet.EntityInfo;
+
+/**
+ * Not null column values of a list of entities, with their types, to benchmark type serializers.
+ */
+public class ColumnValues {
+
+    private final Object[] values;
+    private final EntityFieldType[] types;
+
+    public ColumnValues(EntityInfo entityInfo, List<?> entities) {
+        List<Object> valueList = new ArrayList<>();
+        List<EntityFieldType> typeList = new ArrayList<>();
+        for (Object entity : entities) {
+            for (ColumnInfo column : entityInfo.getColumns()) {
+                Object value = column.getAccessor().apply(entity);
+                if (value != null) {
+                    valueList.add(value);
+                    typeList.add(column.getFieldType());
+                }
+            }
+        }
+        this.values = valueList.toArray();
+        this.types = typeList.toArray(new EntityFieldType[0]);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public Object getValue(int i) {
+        return values[i];
+    }
+
+    public EntityFieldType getType(int i) {
+        return types[i];
+    }
+
+}
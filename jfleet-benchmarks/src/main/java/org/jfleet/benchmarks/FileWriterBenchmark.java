@@ -0,0 +1,100 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.jfleet.avro.JFleetAvroWriter;
+import org.jfleet.benchmarks.entities.TripEntity;
+import org.jfleet.csv.JFleetCsvWriter;
+import org.jfleet.parquet.JFleetParquetWriter;
+import org.jfleet.parquet.ParquetConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes a file of trips with each file writer into a stream discarding the content. Parquet is written without
+ * compression to measure the encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FileWriterBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"16", "128"})
+    private int stringLength;
+
+    @Param({"0.01"})
+    private double escapeDensity;
+
+    private List<TripEntity> trips;
+
+    @Setup
+    public void setup() {
+        trips = new TripGenerator(42, stringLength, escapeDensity).generate(ROWS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long csv() throws IOException {
+        NullOutputStream out = new NullOutputStream();
+        try (JFleetCsvWriter<TripEntity> writer = new JFleetCsvWriter<>(out, BenchmarkEntities.TRIP)) {
+            writer.writeAll(trips);
+        }
+        return out.getCount();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long avro() throws IOException {
+        NullOutputStream out = new NullOutputStream();
+        try (JFleetAvroWriter<TripEntity> writer = new JFleetAvroWriter<>(out, BenchmarkEntities.TRIP_WITHOUT_CHAR)) {
+            writer.writeAll(trips);
+        }
+        return out.getCount();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long parquet() throws IOException {
+        NullOutputStream out = new NullOutputStream();
+        ParquetConfiguration<TripEntity> config = new ParquetConfiguration.Builder<TripEntity>(out,
+                BenchmarkEntities.TRIP).withCompressionCodec(CompressionCodecName.UNCOMPRESSED).build();
+        try (JFleetParquetWriter<TripEntity> writer = new JFleetParquetWriter<>(config)) {
+            writer.writeAll(trips);
+        }
+        return out.getCount();
+    }
+
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.benchmarks;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jfleet.JFleetException;
+import org.jfleet.benchmarks.entities.TripEntity;
+import org.jfleet.mysql.LoadDataBulkInsert;
+import org.jfleet.mysql.LoadDataConfiguration;
+import org.jfleet.mysql.LoadDataConfiguration.LoadDataConfigurationBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mysql.jdbc.FakeConnection;
+
+/**
+ * End to end LoadDataBulkInsert of trips into the in process FakeConnection of jfleet-mock-mysql5, which consumes
+ * the LOAD DATA stream at a given bandwidth and latency per batch. It measures the full pipeline: reflection
+ * access, serialization, escaping, encoding, batch writing and transaction handling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoadDataBulkInsertBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int MB = 1024 * 1024;
+
+    @Param({"0", "200"})
+    private int bandwidthMBps;
+
+    @Param({"0", "5"})
+    private int latencyMillis;
+
+    @Param({"10"})
+    private int batchSizeMB;
+
+    @Param({"false", "true"})
+    private boolean concurrent;
+
+    @Param({"32"})
+    private int stringLength;
+
+    @Param({"0.01"})
+    private double escapeDensity;
+
+    private List<TripEntity> trips;
+    private FakeConnection fakeConnection;
+    private LoadDataBulkInsert<TripEntity> bulkInsert;
+
+    @Setup
+    public void setup() {
+        trips = new TripGenerator(42, stringLength, escapeDensity).generate(ROWS);
+        fakeConnection = new FakeConnection((long) bandwidthMBps * MB, latencyMillis, TimeUnit.MILLISECONDS);
+        LoadDataConfiguration config = LoadDataConfigurationBuilder.from(BenchmarkEntities.TRIP)
+                .batchSize(batchSizeMB * MB)
+                .concurrent(concurrent)
+                .errorOnMissingRow(true)
+                .build();
+        bulkInsert = new LoadDataBulkInsert<>(config);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long insertAll() throws JFleetException, SQLException {
+        long before = fakeConnection.getRowsParsed();
+        bulkInsert.insertAll(fakeConnection.getConnection(), trips.stream());
+        long parsed = fakeConnection.getRowsParsed() - before;
+        if (parsed != ROWS) {
+            throw new IllegalStateException("Expected " + ROWS + " rows parsed but were " + parsed);
+        }
+        return parsed;
+    }
+
+}
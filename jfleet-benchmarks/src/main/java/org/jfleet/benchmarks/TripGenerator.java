@@ -0,0 +1,97 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.jfleet.benchmarks.entities.StationEmbedded;
+import org.jfleet.benchmarks.entities.TripEntity;
+
+/**
+ * Generates deterministic TripEntity instances with the shape of the CitiBike data used in samples. Station names
+ * have a configurable length and density of characters that must be escaped in LOAD DATA, COPY or CSV formats.
+ */
+public class TripGenerator {
+
+    private static final char[] ESCAPABLE = {'\t', '\n', '\\', '"', ',', '\r'};
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ 0123456789";
+    private static final String[] USER_TYPES = {"Subscriber", "Customer"};
+    private static final long BASE_TIME = 1_483_228_800_000L;
+
+    private final Random random;
+    private final int stringLength;
+    private final double escapeDensity;
+
+    /**
+     * @param seed seed of the random generator, to generate the same data in each run
+     * @param stringLength length of generated station names
+     * @param escapeDensity probability of each station name character to be an escapable character
+     */
+    public TripGenerator(long seed, int stringLength, double escapeDensity) {
+        this.random = new Random(seed);
+        this.stringLength = stringLength;
+        this.escapeDensity = escapeDensity;
+    }
+
+    public List<TripEntity> generate(int count) {
+        List<TripEntity> trips = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            trips.add(next());
+        }
+        return trips;
+    }
+
+    public TripEntity next() {
+        TripEntity trip = new TripEntity();
+        int duration = 60 + random.nextInt(3600);
+        long start = BASE_TIME + random.nextInt(365 * 24 * 3600) * 1000L;
+        trip.setTripduration(duration);
+        trip.setStarttime(new Date(start));
+        trip.setStoptime(new Date(start + duration * 1000L));
+        trip.setStartStation(nextStation());
+        trip.setEndStation(nextStation());
+        trip.setBikeId(14_000 + random.nextInt(20_000));
+        trip.setUserType(USER_TYPES[random.nextInt(USER_TYPES.length)]);
+        trip.setBirthYear(random.nextInt(10) == 0 ? null : 1940 + random.nextInt(65));
+        trip.setGender((char) ('0' + random.nextInt(3)));
+        return trip;
+    }
+
+    public String nextText() {
+        char[] chars = new char[stringLength];
+        for (int i = 0; i < stringLength; i++) {
+            if (random.nextDouble() < escapeDensity) {
+                chars[i] = ESCAPABLE[random.nextInt(ESCAPABLE.length)];
+            } else {
+                chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+        }
+        return new String(chars);
+    }
+
+    private StationEmbedded nextStation() {
+        StationEmbedded station = new StationEmbedded();
+        station.setStationId(72 + random.nextInt(3000));
+        station.setStationName(nextText());
+        station.setStationLatitude(40.6 + random.nextDouble() * 0.3);
+        station.setStationLongitude(-74.05 + random.nextDouble() * 0.2);
+        return station;
+    }
+
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.benchmarks.entities;
+
+import javax.persistence.Embeddable;
+
+@Embeddable
+public class StationEmbedded {
+
+    private int stationId;
+
+    private String stationName;
+
+    private double stationLatitude;
+
+    private double stationLongitude;
+
+    public int getStationId() {
+        return stationId;
+    }
+
+    public void setStationId(int stationId) {
+        this.stationId = stationId;
+    }
+
+    public String getStationName() {
+        return stationName;
+    }
+
+    public void setStationName(String stationName) {
+        this.stationName = stationName;
+    }
+
+    public double getStationLatitude() {
+        return stationLatitude;
+    }
+
+    public void setStationLatitude(double stationLatitude) {
+        this.stationLatitude = stationLatitude;
+    }
+
+    public double getStationLongitude() {
+        return stationLongitude;
+    }
+
+    public void setStationLongitude(double stationLongitude) {
+        this.stationLongitude = stationLongitude;
+    }
+
+}
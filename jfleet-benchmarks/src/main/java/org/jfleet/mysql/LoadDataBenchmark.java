@@ -0,0 +1,112 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.mysql;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jfleet.benchmarks.BenchmarkEntities;
+import org.jfleet.benchmarks.ColumnValues;
+import org.jfleet.benchmarks.TripGenerator;
+import org.jfleet.benchmarks.entities.TripEntity;
+import org.jfleet.common.StringContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * LOAD DATA serialization pieces. MySqlTypeSerializer doesn't override BaseTypeSerializer, so it also measures the
+ * base serializer. Declared in the same package to access package private classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadDataBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({"16", "128", "1024"})
+    private int stringLength;
+
+    @Param({"0.0", "0.01", "0.1"})
+    private double escapeDensity;
+
+    private String[] texts;
+    private List<TripEntity> trips;
+    private ColumnValues columnValues;
+    private MySqlTypeSerializer typeSerializer;
+    private LoadDataEscaper escaper;
+    private LoadDataRowBuilder rowBuilder;
+    private StringContent content;
+
+    @Setup
+    public void setup() {
+        TripGenerator generator = new TripGenerator(42, stringLength, escapeDensity);
+        texts = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            texts[i] = generator.nextText();
+        }
+        trips = generator.generate(ROWS);
+        columnValues = new ColumnValues(BenchmarkEntities.TRIP, trips);
+        typeSerializer = new MySqlTypeSerializer();
+        escaper = new LoadDataEscaper();
+        rowBuilder = new LoadDataRowBuilder(BenchmarkEntities.TRIP);
+        content = new StringContent(ROWS * (stringLength * 3 + 200));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void escape(Blackhole bh) {
+        for (String text : texts) {
+            bh.consume(escaper.escapeForLoadFile(text));
+        }
+    }
+
+    /**
+     * Serializes all the non null column values of the rows, so times are per row and not per value.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void serializeRowValues(Blackhole bh) {
+        for (int i = 0; i < columnValues.size(); i++) {
+            bh.consume(typeSerializer.toString(columnValues.getValue(i), columnValues.getType(i)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int buildRows() {
+        content.reset();
+        for (TripEntity trip : trips) {
+            rowBuilder.add(content, trip);
+        }
+        return content.getContentSize();
+    }
+
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import org.jfleet.BulkInsert;
+import org.jfleet.LoadReport;
+import org.jfleet.benchmarks.entities.TripEntity;
+import org.jfleet.mock.postgres.FakePgConnection;
+import org.jfleet.mysql.LoadDataBulkInsert;
+import org.jfleet.mysql.LoadDataConfiguration.LoadDataConfigurationBuilder;
+import org.jfleet.postgres.PgCopyBulkInsert;
+import org.jfleet.postgres.PgCopyConfiguration.PgCopyConfigurationBuilder;
+import org.junit.jupiter.api.Test;
+
+import com.mysql.jdbc.FakeConnection;
+
+/**
+ * Cancels loads into the fake connections while a batch is being consumed, at a bandwidth where each batch takes two
+ * seconds, and checks that the fakes stop parsing rows long before the batch would have finished.
+ */
+public class CancelBulkInsertTest {
+
+    private static final int MB = 1024 * 1024;
+    private static final int BANDWIDTH = MB / 2;
+    private static final int ROWS = 1_000_000;
+    private static final long ABORT_MILLIS = 500;
+
+    @Test
+    void cancelStopsParsingLoadDataRows() throws Exception {
+        FakeConnection fake = new FakeConnection(BANDWIDTH, 0, TimeUnit.MILLISECONDS);
+        LoadDataBulkInsert<TripEntity> bulkInsert = new LoadDataBulkInsert<>(
+                LoadDataConfigurationBuilder.from(BenchmarkEntities.TRIP).batchSize(MB).concurrent(false).build());
+        cancelAfterFirstBatch(bulkInsert, fake.getConnection(), fake::getRowsParsed);
+    }
+
+    @Test
+    void cancelStopsParsingPgCopyRows() throws Exception {
+        FakePgConnection fake = new FakePgConnection(BANDWIDTH, 0, TimeUnit.MILLISECONDS);
+        PgCopyBulkInsert<TripEntity> bulkInsert = new PgCopyBulkInsert<>(
+                PgCopyConfigurationBuilder.from(BenchmarkEntities.TRIP).batchSize(MB).concurrent(false).build());
+        cancelAfterFirstBatch(bulkInsert, fake.getConnection(), fake::getRowsParsed);
+    }
+
+    private static void cancelAfterFirstBatch(BulkInsert<TripEntity> bulkInsert, Connection connection,
+            LongSupplier rowsParsed) throws InterruptedException {
+        TripGenerator generator = new TripGenerator(42, 32, 0.01);
+        AtomicLong generated = new AtomicLong();
+        Stream<TripEntity> trips = Stream.generate(generator::next).limit(ROWS)
+                .peek(trip -> generated.incrementAndGet());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CompletableFuture<LoadReport> future = bulkInsert.insertAllAsync(connection, trips, executor);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (rowsParsed.getAsLong() == 0) {
+            assertTrue(System.nanoTime() < deadline, "First batch not loaded");
+            Thread.sleep(10);
+        }
+        // The stream is not consumed while the fake consumes the next batch
+        long previous;
+        do {
+            previous = generated.get();
+            Thread.sleep(50);
+        } while (generated.get() != previous);
+        future.cancel(true);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(ABORT_MILLIS, TimeUnit.MILLISECONDS), "Batch in execution not aborted");
+
+        assertThrows(CancellationException.class, future::join);
+        long parsed = rowsParsed.getAsLong();
+        assertTrue(parsed > 0 && parsed < generated.get(), "Rows of the aborted batch must not be loaded");
+        assertTrue(generated.get() < ROWS, "Stream consumed after cancel");
+    }
+
+}
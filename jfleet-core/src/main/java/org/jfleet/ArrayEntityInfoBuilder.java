@@ -0,0 +1,84 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jfleet.EntityFieldType.FieldTypeEnum;
+
+/**
+ * Builds the EntityInfo of rows represented as Object[] or List, where each column value is read by its position.
+ * Positions are assigned in declaration order unless explicitly specified.
+ *
+ * <pre>
+ * EntityInfo entityInfo = new ArrayEntityInfoBuilder("bike_trip")
+ *         .addColumn("tripduration", INT)
+ *         .addColumn("starttime", TIMESTAMP)
+ *         .buildForList();
+ * </pre>
+ */
+public class ArrayEntityInfoBuilder {
+
+    private final String tableName;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<EntityFieldType> fieldTypes = new ArrayList<>();
+    private final List<Integer> positions = new ArrayList<>();
+
+    public ArrayEntityInfoBuilder(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public ArrayEntityInfoBuilder addColumn(String columnName, FieldTypeEnum fieldTypeEnum) {
+        return addColumn(columnName, new EntityFieldType(fieldTypeEnum), positions.size());
+    }
+
+    public ArrayEntityInfoBuilder addColumn(String columnName, FieldTypeEnum fieldTypeEnum, int position) {
+        return addColumn(columnName, new EntityFieldType(fieldTypeEnum), position);
+    }
+
+    public ArrayEntityInfoBuilder addColumn(String columnName, EntityFieldType fieldType, int position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("Column " + columnName + " has a negative position");
+        }
+        if (columnNames.contains(columnName)) {
+            throw new RuntimeException("Column " + columnName + " declared more than one time");
+        }
+        columnNames.add(columnName);
+        fieldTypes.add(fieldType);
+        positions.add(position);
+        return this;
+    }
+
+    public EntityInfo buildForArray() {
+        List<ColumnInfo> columns = new ArrayList<>();
+        for (int i = 0; i < columnNames.size(); i++) {
+            int position = positions.get(i);
+            columns.add(new ColumnInfo(columnNames.get(i), fieldTypes.get(i), row -> ((Object[]) row)[position]));
+        }
+        return new EntityInfo(Object[].class, tableName, columns);
+    }
+
+    public EntityInfo buildForList() {
+        List<ColumnInfo> columns = new ArrayList<>();
+        for (int i = 0; i < columnNames.size(); i++) {
+            int position = positions.get(i);
+            columns.add(new ColumnInfo(columnNames.get(i), fieldTypes.get(i), row -> ((List<?>) row).get(position)));
+        }
+        return new EntityInfo(List.class, tableName, columns);
+    }
+
+}
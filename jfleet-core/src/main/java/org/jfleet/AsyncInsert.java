@@ -0,0 +1,141 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.jfleet.common.LoadTracker;
+
+/**
+ * Runs a BulkInsert in an executor. Cancelling the returned future cancels the statements in execution and stops
+ * consuming the stream. If the load is already running, the future is cancelled once the load stops using the
+ * connection, so the caller can reuse or close it as soon as the future is done.
+ */
+final class AsyncInsert {
+
+    @FunctionalInterface
+    private interface Load {
+
+        void run(LoadTracker tracker) throws JFleetException, SQLException;
+
+    }
+
+    private AsyncInsert() {
+    }
+
+    static <T> CompletableFuture<LoadReport> insertAll(BulkInsert<T> bulkInsert, Connection conn, Stream<T> stream,
+            Executor executor) {
+        return submit(executor, tracker -> bulkInsert.insertAll(conn, track(stream, tracker), tracker));
+    }
+
+    static <T> CompletableFuture<LoadReport> insertAll(BulkInsert<T> bulkInsert, DataSource dataSource,
+            Stream<T> stream, Executor executor) {
+        return submit(executor, tracker -> {
+            try (Connection conn = dataSource.getConnection()) {
+                boolean autoCommit = conn.getAutoCommit();
+                try {
+                    bulkInsert.insertAll(conn, track(stream, tracker), tracker);
+                    if (!autoCommit) {
+                        tracker.checkCancelled();
+                        conn.commit();
+                    }
+                } catch (SQLException | JFleetException | RuntimeException | Error e) {
+                    // Nobody else can end the transaction of a connection taken from the DataSource
+                    if (!autoCommit) {
+                        rollback(conn, e);
+                    }
+                    throw e;
+                }
+            }
+        });
+    }
+
+    private static <T> Stream<T> track(Stream<T> stream, LoadTracker tracker) {
+        return stream.peek(entity -> tracker.checkCancelled());
+    }
+
+    private static void rollback(Connection conn, Throwable cause) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static CompletableFuture<LoadReport> submit(Executor executor, Load load) {
+        LoadFuture future = new LoadFuture();
+        try {
+            executor.execute(() -> future.run(load));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static final class LoadFuture extends CompletableFuture<LoadReport> {
+
+        private static final int PENDING = 0;
+        private static final int RUNNING = 1;
+        private static final int CANCELLING = 2;
+        private static final int FINISHED = 3;
+
+        private final LoadTracker tracker = new LoadTracker();
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (state.compareAndSet(PENDING, FINISHED)) {
+                tracker.cancel();
+                return super.cancel(mayInterruptIfRunning);
+            }
+            if (state.compareAndSet(RUNNING, CANCELLING)) {
+                // Completed when run exits, the load may still be using the connection
+                tracker.cancel();
+                return true;
+            }
+            return state.get() == CANCELLING || isCancelled();
+        }
+
+        private void run(Load load) {
+            if (!state.compareAndSet(PENDING, RUNNING)) {
+                return;
+            }
+            long init = System.nanoTime();
+            try {
+                load.run(tracker);
+                if (state.compareAndSet(RUNNING, FINISHED)) {
+                    complete(new LoadReport(tracker.getMetrics(), System.nanoTime() - init));
+                }
+            } catch (SQLException | JFleetException | RuntimeException | Error e) {
+                if (state.compareAndSet(RUNNING, FINISHED)) {
+                    completeExceptionally(e);
+                }
+            }
+            if (state.compareAndSet(CANCELLING, FINISHED)) {
+                super.cancel(false);
+            }
+        }
+
+    }
+
+}
@@ -18,8 +18,15 @@ package org.jfleet;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
+import javax.sql.DataSource;
+
+import org.jfleet.common.LoadTracker;
+import org.jfleet.common.VirtualThreads;
+
 public interface BulkInsert<T> {
 
     default void insertAll(Connection conn, Collection<T> collection) throws JFleetException, SQLException {
@@ -28,4 +35,88 @@ public interface BulkInsert<T> {
 
     void insertAll(Connection conn, Stream<T> stream) throws JFleetException, SQLException;
 
+    /**
+     * Inserts all entities of the stream, reporting the metrics of each batch and the statements in execution to
+     * the tracker. Implementations not supporting it insert the stream ignoring the tracker.
+     *
+     * @param conn
+     *            connection to the database
+     * @param stream
+     *            entities to insert
+     * @param tracker
+     *            tracker of this load
+     * @throws JFleetException
+     *             on JFleet errors
+     * @throws SQLException
+     *             on database errors
+     */
+    default void insertAll(Connection conn, Stream<T> stream, LoadTracker tracker)
+            throws JFleetException, SQLException {
+        insertAll(conn, stream);
+    }
+
+    /**
+     * Inserts all entities of the stream in the {@link VirtualThreads#executor()}, without blocking the caller.
+     *
+     * @param conn
+     *            connection to the database, that must not be used until the load finishes
+     * @param stream
+     *            entities to insert
+     * @return a future completed with the report of the load. Cancelling it cancels the statements in execution,
+     *         and the future is done once the load stops using the connection.
+     */
+    default CompletableFuture<LoadReport> insertAllAsync(Connection conn, Stream<T> stream) {
+        return insertAllAsync(conn, stream, VirtualThreads.executor());
+    }
+
+    /**
+     * Inserts all entities of the stream in the executor, without blocking the caller.
+     *
+     * @param conn
+     *            connection to the database, that must not be used until the load finishes
+     * @param stream
+     *            entities to insert
+     * @param executor
+     *            executor running the load
+     * @return a future completed with the report of the load. Cancelling it cancels the statements in execution,
+     *         and the future is done once the load stops using the connection.
+     */
+    default CompletableFuture<LoadReport> insertAllAsync(Connection conn, Stream<T> stream, Executor executor) {
+        return AsyncInsert.insertAll(this, conn, stream, executor);
+    }
+
+    /**
+     * Inserts all entities of the stream in the {@link VirtualThreads#executor()}, using a connection from the
+     * DataSource which is closed when the load finishes.
+     *
+     * @param dataSource
+     *            source of the connection
+     * @param stream
+     *            entities to insert
+     * @return a future completed with the report of the load. Cancelling it cancels the statements in execution,
+     *         and the future is done once the load stops using the connection.
+     */
+    default CompletableFuture<LoadReport> insertAllAsync(DataSource dataSource, Stream<T> stream) {
+        return insertAllAsync(dataSource, stream, VirtualThreads.executor());
+    }
+
+    /**
+     * Inserts all entities of the stream in the executor, using a connection from the DataSource which is closed
+     * when the load finishes. If the connection is not in autocommit mode, the load is committed when it succeeds
+     * and rolled back when it fails or is cancelled.
+     *
+     * @param dataSource
+     *            source of the connection
+     * @param stream
+     *            entities to insert
+     * @param executor
+     *            executor running the load
+     * @return a future completed with the report of the load. Cancelling it cancels the statements in execution,
+     *         and the future is done once the load stops using the connection.
+     */
+    default CompletableFuture<LoadReport> insertAllAsync(DataSource dataSource, Stream<T> stream,
+            Executor executor) {
+        return AsyncInsert.insertAll(this, dataSource, stream, executor);
+    }
+
 }
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public interface CsvBulkInsert {
+
+    default void insertAll(Connection conn, File file) throws JFleetException, SQLException {
+        try (InputStream is = new FileInputStream(file)) {
+            insertAll(conn, is);
+        } catch (IOException e) {
+            throw new JFleetException(e);
+        }
+    }
+
+    void insertAll(Connection conn, InputStream inputStream) throws JFleetException, SQLException;
+
+}
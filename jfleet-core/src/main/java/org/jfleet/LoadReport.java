@@ -0,0 +1,104 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet;
+
+import org.jfleet.common.AggregatedBatchMetrics;
+
+/**
+ * Summary of a load executed with {@link BulkInsert#insertAllAsync(java.sql.Connection, java.util.stream.Stream)}.
+ * Durations are the sum of the durations of all batches.
+ */
+public class LoadReport {
+
+    private final long rows;
+    private final long chars;
+    private final long batches;
+    private final long updatedRows;
+    private final long serializationNanos;
+    private final long waitNanos;
+    private final long executeNanos;
+    private final long commitNanos;
+    private final long elapsedNanos;
+
+    LoadReport(AggregatedBatchMetrics metrics, long elapsedNanos) {
+        this.rows = metrics.getRows();
+        this.chars = metrics.getChars();
+        this.batches = metrics.getBatches();
+        this.updatedRows = metrics.getUpdatedRows();
+        this.serializationNanos = metrics.getSerializationLatency().getTotalNanos();
+        this.waitNanos = metrics.getWaitLatency().getTotalNanos();
+        this.executeNanos = metrics.getExecuteLatency().getTotalNanos();
+        this.commitNanos = metrics.getCommitLatency().getTotalNanos();
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return rows written to the database
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return characters of the content sent to the database, 0 for JDBC batches
+     */
+    public long getChars() {
+        return chars;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * @return rows reported as inserted or updated by the database
+     */
+    public long getUpdatedRows() {
+        return updatedRows;
+    }
+
+    public long getSerializationNanos() {
+        return serializationNanos;
+    }
+
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    public long getExecuteNanos() {
+        return executeNanos;
+    }
+
+    public long getCommitNanos() {
+        return commitNanos;
+    }
+
+    /**
+     * @return nanoseconds since the load started until the last batch was written
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadReport [rows=" + rows + ", chars=" + chars + ", batches=" + batches + ", updatedRows="
+                + updatedRows + ", serializationNanos=" + serializationNanos + ", waitNanos=" + waitNanos
+                + ", executeNanos=" + executeNanos + ", commitNanos=" + commitNanos + ", elapsedNanos="
+                + elapsedNanos + "]";
+    }
+
+}
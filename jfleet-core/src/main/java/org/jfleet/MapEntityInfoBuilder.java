@@ -0,0 +1,261 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.jfleet.EntityFieldType.FieldTypeEnum;
+
+/**
+ * Builds the EntityInfo of rows represented as Map&lt;String, Object&gt;, where each column value is read by its key.
+ *
+ * Keys are resolved once into slot positions when the EntityInfo is built. Rows created with {@link #newRow()} store
+ * their values in an array indexed by those slots, and column accessors read them by position without hashing the
+ * key. Any other Map implementation is read with {@link Map#get(Object)}.
+ *
+ * <pre>
+ * MapEntityInfoBuilder builder = new MapEntityInfoBuilder("bike_trip")
+ *         .addColumn("TripDuration", "tripduration", INT)
+ *         .addColumn("StartTime", "starttime", TIMESTAMP);
+ * EntityInfo entityInfo = builder.build();
+ * Map&lt;String, Object&gt; row = builder.newRow();
+ * row.put("TripDuration", 120);
+ * </pre>
+ */
+public class MapEntityInfoBuilder {
+
+    private final String tableName;
+    private final List<String> keys = new ArrayList<>();
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<EntityFieldType> fieldTypes = new ArrayList<>();
+    private Slots slots;
+
+    public MapEntityInfoBuilder(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public MapEntityInfoBuilder addColumn(String key, FieldTypeEnum fieldTypeEnum) {
+        return addColumn(key, key, new EntityFieldType(fieldTypeEnum));
+    }
+
+    public MapEntityInfoBuilder addColumn(String key, String columnName, FieldTypeEnum fieldTypeEnum) {
+        return addColumn(key, columnName, new EntityFieldType(fieldTypeEnum));
+    }
+
+    public MapEntityInfoBuilder addColumn(String key, String columnName, EntityFieldType fieldType) {
+        if (slots != null) {
+            throw new IllegalStateException("Columns can not be added once rows or EntityInfo have been created");
+        }
+        if (columnNames.contains(columnName)) {
+            throw new RuntimeException("Column " + columnName + " declared more than one time");
+        }
+        columnNames.add(columnName);
+        keys.add(key);
+        fieldTypes.add(fieldType);
+        return this;
+    }
+
+    public EntityInfo build() {
+        Slots rowSlots = getSlots();
+        List<ColumnInfo> columns = new ArrayList<>();
+        for (int i = 0; i < columnNames.size(); i++) {
+            String key = keys.get(i);
+            int slot = rowSlots.indexOf(key);
+            columns.add(new ColumnInfo(columnNames.get(i), fieldTypes.get(i), row -> {
+                if (row instanceof SlotMap) {
+                    SlotMap slotMap = (SlotMap) row;
+                    if (slotMap.slots == rowSlots) {
+                        return slotMap.values[slot];
+                    }
+                }
+                return ((Map<?, ?>) row).get(key);
+            }));
+        }
+        return new EntityInfo(Map.class, tableName, columns);
+    }
+
+    /**
+     * Creates an empty row whose values are stored by slot position. Only the declared keys can be put in it.
+     *
+     * @return an empty row
+     */
+    public Map<String, Object> newRow() {
+        return new SlotMap(getSlots());
+    }
+
+    private Slots getSlots() {
+        if (slots == null) {
+            slots = new Slots(keys);
+        }
+        return slots;
+    }
+
+    private static final class Slots {
+
+        private final String[] keys;
+        private final Map<String, Integer> index = new HashMap<>();
+
+        Slots(List<String> keyList) {
+            this.keys = new String[new LinkedHashSet<>(keyList).size()];
+            int slot = 0;
+            for (String key : keyList) {
+                if (!index.containsKey(key)) {
+                    index.put(key, slot);
+                    keys[slot++] = key;
+                }
+            }
+        }
+
+        int indexOf(Object key) {
+            Integer slot = index.get(key);
+            return slot == null ? -1 : slot;
+        }
+
+    }
+
+    private static final class SlotMap extends AbstractMap<String, Object> {
+
+        private static final Object ABSENT = new Object();
+
+        private final Slots slots;
+        private final Object[] values;
+
+        SlotMap(Slots slots) {
+            this.slots = slots;
+            this.values = new Object[slots.keys.length];
+            Arrays.fill(values, ABSENT);
+        }
+
+        @Override
+        public Object get(Object key) {
+            int slot = slots.indexOf(key);
+            if (slot < 0 || values[slot] == ABSENT) {
+                return null;
+            }
+            return values[slot];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            int slot = slots.indexOf(key);
+            return slot >= 0 && values[slot] != ABSENT;
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            int slot = slots.indexOf(key);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Key " + key + " is not declared in the row schema");
+            }
+            Object previous = values[slot];
+            values[slot] = value;
+            return previous == ABSENT ? null : previous;
+        }
+
+        @Override
+        public Object remove(Object key) {
+            int slot = slots.indexOf(key);
+            if (slot < 0) {
+                return null;
+            }
+            Object previous = values[slot];
+            values[slot] = ABSENT;
+            return previous == ABSENT ? null : previous;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (Object value : values) {
+                        if (value != ABSENT) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+
+        private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+            private int next = advance(0);
+            private int last = -1;
+
+            private int advance(int from) {
+                int slot = from;
+                while (slot < values.length && values[slot] == ABSENT) {
+                    slot++;
+                }
+                return slot;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < values.length;
+            }
+
+            @Override
+            public Entry<String, Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = advance(next + 1);
+                int slot = last;
+                return new SimpleEntry<String, Object>(slots.keys[slot], values[slot]) {
+
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    public Object setValue(Object value) {
+                        values[slot] = value;
+                        return super.setValue(value);
+                    }
+                };
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                values[last] = ABSENT;
+                last = -1;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,302 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.columnar;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityFieldType;
+import org.jfleet.EntityFieldType.FieldTypeEnum;
+import org.jfleet.EntityInfo;
+
+/**
+ * Rows of data already held in columnar form: a set of typed arrays, one per column, with an optional null bitmap,
+ * and a row count.
+ *
+ * LOAD DATA and COPY consume a batch with LoadDataColumnarBulkInsert and PgCopyColumnarBulkInsert, which serialize
+ * each cell by row and column index through a {@link ValueWriter}, without any object per row nor boxed primitive
+ * values.
+ *
+ * The rest of engines (JDBC, CSV, Avro and Parquet) consume the batch using its EntityInfo and its stream of rows.
+ * Each Row only holds its row index and column accessors read the arrays by that index, so no entity is
+ * materialized per row, but primitive values are boxed by the accessors. Rows can be kept, queued or consumed in
+ * parallel while the arrays of the batch are not modified.
+ *
+ * <pre>
+ * ColumnarBatch batch = ColumnarBatch.builder("measures", count)
+ *         .longColumn("id", ids)
+ *         .doubleColumn("value", values, nullValues)
+ *         .column("name", FieldTypeEnum.STRING, names)
+ *         .build();
+ * LoadDataConfiguration config = LoadDataConfigurationBuilder.from(batch.getEntityInfo()).build();
+ * new LoadDataColumnarBulkInsert(config).insertAll(connection, batch);
+ * </pre>
+ */
+public final class ColumnarBatch {
+
+    /**
+     * Receives the value of a cell of the batch. Byte, short, int and long columns are written as long values.
+     */
+    public interface ValueWriter {
+
+        void writeNull();
+
+        void writeLong(long value);
+
+        void writeDouble(double value);
+
+        void writeFloat(float value);
+
+        void writeBoolean(boolean value);
+
+        void writeChar(char value);
+
+        void writeObject(Object value, EntityFieldType fieldType);
+
+    }
+
+    @FunctionalInterface
+    private interface Column {
+
+        void write(int row, ValueWriter writer);
+
+    }
+
+    private final EntityInfo entityInfo;
+    private final Column[] columns;
+    private final int rowCount;
+
+    private ColumnarBatch(EntityInfo entityInfo, Column[] columns, int rowCount) {
+        this.entityInfo = entityInfo;
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    public static Builder builder(String tableName, int rowCount) {
+        return new Builder(tableName, rowCount);
+    }
+
+    public EntityInfo getEntityInfo() {
+        return entityInfo;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Writes the value of a cell, calling the method of the writer matching the column type.
+     *
+     * @param column index of the column, in the order of the EntityInfo columns
+     * @param row index of the row
+     * @param writer writer of the value
+     */
+    public void writeValue(int column, int row, ValueWriter writer) {
+        columns[column].write(row, writer);
+    }
+
+    /**
+     * Returns a sequential stream of the batch rows, one lightweight Row per row index, for the engines consuming
+     * the batch through its EntityInfo.
+     *
+     * @return stream of rows
+     */
+    public Stream<Row> stream() {
+        return IntStream.range(0, rowCount).mapToObj(Row::new);
+    }
+
+    /**
+     * Row of a batch, identified by its index
+     */
+    public static final class Row {
+
+        private final int index;
+
+        private Row(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+    }
+
+    public static class Builder {
+
+        private final String tableName;
+        private final int rowCount;
+        private final List<ColumnInfo> columns = new ArrayList<>();
+        private final List<Column> writers = new ArrayList<>();
+
+        private Builder(String tableName, int rowCount) {
+            if (rowCount < 0) {
+                throw new IllegalArgumentException("Row count can not be negative");
+            }
+            this.tableName = tableName;
+            this.rowCount = rowCount;
+        }
+
+        public Builder longColumn(String name, long[] values) {
+            return longColumn(name, values, null);
+        }
+
+        public Builder longColumn(String name, long[] values, BitSet nulls) {
+            validate(name, values.length);
+            return add(name, FieldTypeEnum.LONG, nulls, i -> values[i], (i, writer) -> writer.writeLong(values[i]));
+        }
+
+        public Builder intColumn(String name, int[] values) {
+            return intColumn(name, values, null);
+        }
+
+        public Builder intColumn(String name, int[] values, BitSet nulls) {
+            validate(name, values.length);
+            return add(name, FieldTypeEnum.INT, nulls, i -> values[i], (i, writer) -> writer.writeLong(values[i]));
+        }
+
+        public Builder shortColumn(String name, short[] values) {
+            return shortColumn(name, values, null);
+        }
+
+        public Builder shortColumn(String name, short[] values, BitSet nulls) {
+            validate(name, values.length);
+            return add(name, FieldTypeEnum.SHORT, nulls, i -> values[i], (i, writer) -> writer.writeLong(values[i]));
+        }
+
+        public Builder byteColumn(String name, byte[] values) {
+            return byteColumn(name, values, null);
+        }
+
+        public Builder byteColumn(String name, byte[] values, BitSet nulls) {
+            validate(name, values.length);
+            return add(name, FieldTypeEnum.BYTE, nulls, i -> values[i], (i, writer) -> writer.writeLong(values[i]));
+        }
+
+        public Builder doubleColumn(String name, double[] values) {
+            return doubleColumn(name, values, null);
+        }
+
+        public Builder doubleColumn(String name, double[] values, BitSet nulls) {
+            validate(name, values.length);
+            return add(name, FieldTypeEnum.DOUBLE, nulls, i -> values[i], (i, writer) -> writer.writeDouble(values[i]));
+        }
+
+        public Builder floatColumn(String name, float[] values) {
+            return floatColumn(name, values, null);
+        }
+
+        public Builder floatColumn(String name, float[] values, BitSet nulls) {
+            validate(name, values.length);
+            return add(name, FieldTypeEnum.FLOAT, nulls, i -> values[i], (i, writer) -> writer.writeFloat(values[i]));
+        }
+
+        public Builder booleanColumn(String name, boolean[] values) {
+            return booleanColumn(name, values, null);
+        }
+
+        public Builder booleanColumn(String name, boolean[] values, BitSet nulls) {
+            validate(name, values.length);
+            return add(name, FieldTypeEnum.BOOLEAN, nulls, i -> values[i],
+                    (i, writer) -> writer.writeBoolean(values[i]));
+        }
+
+        public Builder charColumn(String name, char[] values) {
+            return charColumn(name, values, null);
+        }
+
+        public Builder charColumn(String name, char[] values, BitSet nulls) {
+            validate(name, values.length);
+            return add(name, FieldTypeEnum.CHAR, nulls, i -> values[i], (i, writer) -> writer.writeChar(values[i]));
+        }
+
+        /**
+         * Adds a column of objects: Strings, dates, decimals, enums or boxed values of the specified type. Null
+         * elements are null values.
+         *
+         * @param name column name
+         * @param fieldType type of the column values
+         * @param values column values
+         * @return the builder
+         */
+        public Builder column(String name, FieldTypeEnum fieldType, Object[] values) {
+            validate(name, values.length);
+            EntityFieldType entityFieldType = new EntityFieldType(fieldType, false);
+            columns.add(new ColumnInfo(name, entityFieldType, row -> values[((Row) row).index]));
+            writers.add((i, writer) -> {
+                Object value = values[i];
+                if (value == null) {
+                    writer.writeNull();
+                } else {
+                    writer.writeObject(value, entityFieldType);
+                }
+            });
+            return this;
+        }
+
+        public ColumnarBatch build() {
+            return new ColumnarBatch(new EntityInfo(Row.class, tableName, columns), writers.toArray(new Column[0]),
+                    rowCount);
+        }
+
+        /**
+         * Columns without null bitmap are declared as primitive, so schema based formats mark them as required.
+         */
+        private Builder add(String name, FieldTypeEnum fieldType, BitSet nulls, IntFunction<Object> getter,
+                Column writer) {
+            EntityFieldType entityFieldType = new EntityFieldType(fieldType, nulls == null);
+            Function<Object, Object> accessor;
+            if (nulls == null) {
+                accessor = row -> getter.apply(((Row) row).index);
+                writers.add(writer);
+            } else {
+                accessor = row -> {
+                    int index = ((Row) row).index;
+                    return nulls.get(index) ? null : getter.apply(index);
+                };
+                writers.add((i, valueWriter) -> {
+                    if (nulls.get(i)) {
+                        valueWriter.writeNull();
+                    } else {
+                        writer.write(i, valueWriter);
+                    }
+                });
+            }
+            columns.add(new ColumnInfo(name, entityFieldType, accessor));
+            return this;
+        }
+
+        private void validate(String name, int length) {
+            if (length < rowCount) {
+                throw new IllegalArgumentException("Column " + name + " has " + length + " values but batch has "
+                        + rowCount + " rows");
+            }
+            for (ColumnInfo column : columns) {
+                if (column.getColumnName().equals(name)) {
+                    throw new IllegalArgumentException("Column " + name + " already added");
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.columnar;
+
+import java.util.List;
+
+import org.jfleet.ColumnInfo;
+import org.jfleet.common.RowSource;
+import org.jfleet.common.StringContent;
+
+/**
+ * Source of the rows of a ColumnarBatch, serialized by row index with the row builder of an engine. No object is
+ * created per row.
+ */
+public final class ColumnarRowSource implements RowSource {
+
+    /**
+     * Serializes a row of a batch in the format of an engine.
+     */
+    @FunctionalInterface
+    public interface RowBuilder {
+
+        void add(StringContent stringContent, ColumnarBatch batch, int row);
+
+    }
+
+    private final ColumnarBatch batch;
+    private final RowBuilder rowBuilder;
+    private int row = 0;
+
+    /**
+     * @param batch batch to serialize
+     * @param columns columns of the table, that must be the columns of the batch in the same order
+     * @param rowBuilder serializer of each row
+     */
+    public ColumnarRowSource(ColumnarBatch batch, List<ColumnInfo> columns, RowBuilder rowBuilder) {
+        List<ColumnInfo> batchColumns = batch.getEntityInfo().getColumns();
+        if (batchColumns.size() != columns.size()) {
+            throw new IllegalArgumentException("Batch has " + batchColumns.size() + " columns but "
+                    + columns.size() + " were expected");
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            String name = batchColumns.get(i).getColumnName();
+            String expected = columns.get(i).getColumnName();
+            if (!name.equals(expected)) {
+                throw new IllegalArgumentException("Column " + i + " of batch is " + name + " but " + expected
+                        + " was expected");
+            }
+        }
+        this.batch = batch;
+        this.rowBuilder = rowBuilder;
+    }
+
+    @Override
+    public boolean appendRow(StringContent stringContent) {
+        if (row >= batch.getRowCount()) {
+            return false;
+        }
+        rowBuilder.add(stringContent, batch, row++);
+        return true;
+    }
+
+}
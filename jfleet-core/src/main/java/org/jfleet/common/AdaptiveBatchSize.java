@@ -0,0 +1,207 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adjusts the batch size between bounds from the observed throughput and latency of each written batch, instead of
+ * using a fixed batch size.
+ *
+ * It is an additive increase, multiplicative decrease controller: while a batch is written under the latency ceiling
+ * and its throughput (bytes per second writing and committing it) does not get worse, the batch size grows by a fixed
+ * increment. If the throughput gets worse, the batch size goes back one increment. If a batch exceeds the latency
+ * ceiling, the batch size is multiplied by the decrease factor so transactions do not grow too long.
+ *
+ * The instance keeps its state between inserts, so a configuration reused for several loads converges once. It is
+ * thread safe. The batch size in effect is reported by {@link BatchMetrics#getBatchSize()}.
+ *
+ * <pre>
+ * AdaptiveBatchSize adaptive = new AdaptiveBatchSize.Builder().min(1_024 * 1_024).max(64 * 1_024 * 1_024)
+ *         .latencyCeiling(2, TimeUnit.SECONDS).build();
+ * LoadDataConfiguration config = LoadDataConfigurationBuilder.from(Employee.class).adaptiveBatchSize(adaptive).build();
+ * </pre>
+ */
+public class AdaptiveBatchSize {
+
+    private static final double THROUGHPUT_TOLERANCE = 0.05;
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int increment;
+    private final double decreaseFactor;
+    private final long latencyCeilingNanos;
+
+    private int batchSize;
+    private double lastThroughput = 0;
+
+    private AdaptiveBatchSize(Builder builder) {
+        this.minBatchSize = builder.min;
+        this.maxBatchSize = builder.max;
+        this.increment = builder.increment;
+        this.decreaseFactor = builder.decreaseFactor;
+        this.latencyCeilingNanos = builder.latencyCeilingNanos;
+        this.batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, builder.initial));
+    }
+
+    /**
+     * @return batch size in characters to use for the next batch
+     */
+    public synchronized int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getLatencyCeilingNanos() {
+        return latencyCeilingNanos;
+    }
+
+    /**
+     * Feeds the controller with a successfully written batch.
+     *
+     * @param batchSize
+     *            batch size in effect when the batch was built
+     * @param bytes
+     *            size of the batch content
+     * @param nanos
+     *            time writing and committing the batch
+     */
+    public synchronized void record(int batchSize, long bytes, long nanos) {
+        if (nanos <= 0 || bytes <= 0) {
+            return;
+        }
+        if (nanos > latencyCeilingNanos) {
+            this.batchSize = Math.max(minBatchSize, (int) (Math.min(this.batchSize, batchSize) * decreaseFactor));
+            lastThroughput = 0;
+            return;
+        }
+        if (bytes < batchSize) {
+            // Last batch of a load, not filled: its throughput is not representative
+            return;
+        }
+        double throughput = (double) bytes / nanos;
+        if (throughput >= lastThroughput * (1 - THROUGHPUT_TOLERANCE)) {
+            this.batchSize = (int) Math.min(maxBatchSize, (long) this.batchSize + increment);
+        } else {
+            this.batchSize = Math.max(minBatchSize, this.batchSize - increment);
+        }
+        lastThroughput = throughput;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AdaptiveBatchSize [batchSize=" + batchSize + ", min=" + minBatchSize + ", max=" + maxBatchSize
+                + ", increment=" + increment + ", decreaseFactor=" + decreaseFactor + ", latencyCeilingMs="
+                + latencyCeilingNanos / 1_000_000 + "]";
+    }
+
+    public static class Builder {
+
+        private int min = 1_024 * 1_024;
+        private int max = 64 * 1_024 * 1_024;
+        private int initial = 10 * 1_024 * 1_024;
+        private int increment = 1_024 * 1_024;
+        private double decreaseFactor = 0.5;
+        private long latencyCeilingNanos = TimeUnit.SECONDS.toNanos(5);
+
+        /**
+         * @param min
+         *            lower bound of the batch size in characters
+         * @return the builder
+         */
+        public Builder min(int min) {
+            this.min = min;
+            return this;
+        }
+
+        /**
+         * @param max
+         *            upper bound of the batch size in characters
+         * @return the builder
+         */
+        public Builder max(int max) {
+            this.max = max;
+            return this;
+        }
+
+        /**
+         * @param initial
+         *            batch size of the first batch, clamped to the bounds
+         * @return the builder
+         */
+        public Builder initial(int initial) {
+            this.initial = initial;
+            return this;
+        }
+
+        /**
+         * @param increment
+         *            characters added to, or removed from, the batch size on each step
+         * @return the builder
+         */
+        public Builder increment(int increment) {
+            this.increment = increment;
+            return this;
+        }
+
+        /**
+         * @param decreaseFactor
+         *            factor applied to the batch size when a batch exceeds the latency ceiling, between 0 and 1
+         * @return the builder
+         */
+        public Builder decreaseFactor(double decreaseFactor) {
+            this.decreaseFactor = decreaseFactor;
+            return this;
+        }
+
+        /**
+         * @param latencyCeiling
+         *            maximum time writing and committing a batch before the batch size is reduced
+         * @param unit
+         *            unit of latencyCeiling
+         * @return the builder
+         */
+        public Builder latencyCeiling(long latencyCeiling, TimeUnit unit) {
+            this.latencyCeilingNanos = unit.toNanos(latencyCeiling);
+            return this;
+        }
+
+        public AdaptiveBatchSize build() {
+            if (min <= 0 || max < min) {
+                throw new IllegalArgumentException("Batch size bounds must be positive and min not greater than max");
+            }
+            if (increment <= 0) {
+                throw new IllegalArgumentException("Increment must be positive");
+            }
+            if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+                throw new IllegalArgumentException("Decrease factor must be between 0 and 1");
+            }
+            if (latencyCeilingNanos <= 0) {
+                throw new IllegalArgumentException("Latency ceiling must be positive");
+            }
+            return new AdaptiveBatchSize(this);
+        }
+
+    }
+
+}
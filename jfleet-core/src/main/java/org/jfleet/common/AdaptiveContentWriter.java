@@ -0,0 +1,49 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import java.sql.SQLException;
+
+import org.jfleet.JFleetException;
+
+/**
+ * Measures each batch written by the wrapped ContentWriter and feeds the AdaptiveBatchSize controller.
+ */
+class AdaptiveContentWriter implements ContentWriter {
+
+    private final ContentWriter contentWriter;
+    private final AdaptiveBatchSize adaptiveBatchSize;
+
+    AdaptiveContentWriter(ContentWriter contentWriter, AdaptiveBatchSize adaptiveBatchSize) {
+        this.contentWriter = contentWriter;
+        this.adaptiveBatchSize = adaptiveBatchSize;
+    }
+
+    @Override
+    public void writeContent(StringContent stringContent) throws SQLException, JFleetException {
+        int batchSize = stringContent.getBatchSize();
+        int contentSize = stringContent.getContentSize();
+        long init = System.nanoTime();
+        contentWriter.writeContent(stringContent);
+        adaptiveBatchSize.record(batchSize, contentSize, System.nanoTime() - init);
+    }
+
+    @Override
+    public void waitForWrite() throws SQLException, JFleetException {
+        contentWriter.waitForWrite();
+    }
+
+}
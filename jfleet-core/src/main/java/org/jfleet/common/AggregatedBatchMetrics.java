@@ -0,0 +1,138 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default BatchMetricsListener implementation that aggregates counters and latency histograms of all batches. It is
+ * thread safe and can be polled while the load is running.
+ *
+ * <pre>
+ * AggregatedBatchMetrics metrics = new AggregatedBatchMetrics();
+ * LoadDataConfiguration config = LoadDataConfigurationBuilder.from(Employee.class).metricsListener(metrics).build();
+ * ...
+ * long p99 = metrics.getExecuteLatency().getPercentileNanos(99);
+ * </pre>
+ */
+public class AggregatedBatchMetrics implements BatchMetricsListener {
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder chars = new LongAdder();
+    private final LongAdder updatedRows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram serialization = new LatencyHistogram();
+    private final LatencyHistogram wait = new LatencyHistogram();
+    private final LatencyHistogram execute = new LatencyHistogram();
+    private final LatencyHistogram commit = new LatencyHistogram();
+    private volatile int batchSize = -1;
+
+    @Override
+    public void onBatch(BatchMetrics metrics) {
+        batches.increment();
+        if (metrics.isFailed()) {
+            errors.increment();
+        } else {
+            rows.add(metrics.getRows());
+            if (metrics.getUpdatedRows() > 0) {
+                updatedRows.add(metrics.getUpdatedRows());
+            }
+        }
+        if (metrics.getChars() > 0) {
+            chars.add(metrics.getChars());
+        }
+        if (metrics.getBatchSize() > 0) {
+            batchSize = metrics.getBatchSize();
+        }
+        serialization.record(metrics.getSerializationNanos());
+        wait.record(metrics.getWaitNanos());
+        execute.record(metrics.getExecuteNanos());
+        commit.record(metrics.getCommitNanos());
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return rows of successfully written batches
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    /**
+     * @return characters of the serialized content of all batches
+     */
+    public long getChars() {
+        return chars.sum();
+    }
+
+    public long getUpdatedRows() {
+        return updatedRows.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * @return batch size threshold of the last written batch, or -1 if not known
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public LatencyHistogram getSerializationLatency() {
+        return serialization;
+    }
+
+    public LatencyHistogram getWaitLatency() {
+        return wait;
+    }
+
+    public LatencyHistogram getExecuteLatency() {
+        return execute;
+    }
+
+    public LatencyHistogram getCommitLatency() {
+        return commit;
+    }
+
+    public void reset() {
+        batches.reset();
+        rows.reset();
+        chars.reset();
+        updatedRows.reset();
+        errors.reset();
+        serialization.reset();
+        wait.reset();
+        execute.reset();
+        commit.reset();
+        batchSize = -1;
+    }
+
+    @Override
+    public String toString() {
+        return "AggregatedBatchMetrics [batches=" + getBatches() + ", rows=" + getRows() + ", chars=" + getChars()
+                + ", updatedRows=" + getUpdatedRows() + ", errors=" + getErrors() + ", batchSize=" + batchSize
+                + ", serializationMs=" + serialization.getTotalNanos() / 1_000_000 + ", waitMs="
+                + wait.getTotalNanos() / 1_000_000 + ", executeMs=" + execute.getTotalNanos() / 1_000_000
+                + ", commitMs=" + commit.getTotalNanos() / 1_000_000 + "]";
+    }
+
+}
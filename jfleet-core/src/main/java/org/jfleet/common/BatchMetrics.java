@@ -0,0 +1,127 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+/**
+ * Measures of a single batch sent to the database. Times are in nanoseconds.
+ */
+public final class BatchMetrics {
+
+    private final int rows;
+    private final long chars;
+    private final int batchSize;
+    private final long serializationNanos;
+    private final long waitNanos;
+    private final long executeNanos;
+    private final long commitNanos;
+    private final long updatedRows;
+    private final Throwable error;
+
+    public BatchMetrics(int rows, long chars, long serializationNanos, long waitNanos, long executeNanos,
+            long commitNanos, long updatedRows, Throwable error) {
+        this(rows, chars, -1, serializationNanos, waitNanos, executeNanos, commitNanos, updatedRows, error);
+    }
+
+    public BatchMetrics(int rows, long chars, int batchSize, long serializationNanos, long waitNanos,
+            long executeNanos, long commitNanos, long updatedRows, Throwable error) {
+        this.rows = rows;
+        this.chars = chars;
+        this.batchSize = batchSize;
+        this.serializationNanos = serializationNanos;
+        this.waitNanos = waitNanos;
+        this.executeNanos = executeNanos;
+        this.commitNanos = commitNanos;
+        this.updatedRows = updatedRows;
+        this.error = error;
+    }
+
+    /**
+     * @return number of rows included in the batch
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return size of the batch content in characters, or -1 if the engine does not serialize the content
+     */
+    public long getChars() {
+        return chars;
+    }
+
+    /**
+     * @return batch size threshold in effect when the batch was built, which changes with
+     *         {@link AdaptiveBatchSize}, or -1 if the engine does not serialize the content
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return time building the rows of the batch, including the time consuming them from the source
+     */
+    public long getSerializationNanos() {
+        return serializationNanos;
+    }
+
+    /**
+     * @return time waiting for the previous batch to be written, before this one could be sent
+     */
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    /**
+     * @return time sending and executing the batch in the database
+     */
+    public long getExecuteNanos() {
+        return executeNanos;
+    }
+
+    /**
+     * @return time committing the batch, zero if the transaction is not committed per batch
+     */
+    public long getCommitNanos() {
+        return commitNanos;
+    }
+
+    /**
+     * @return rows updated in the database as reported by the driver, or -1 if not known
+     */
+    public long getUpdatedRows() {
+        return updatedRows;
+    }
+
+    /**
+     * @return the error writing the batch, or null if it was successfully written
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchMetrics [rows=" + rows + ", chars=" + chars + ", batchSize=" + batchSize
+                + ", serializationNanos=" + serializationNanos + ", waitNanos=" + waitNanos + ", executeNanos="
+                + executeNanos + ", commitNanos=" + commitNanos + ", updatedRows=" + updatedRows + ", error=" + error
+                + "]";
+    }
+
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+/**
+ * Receives the metrics of each batch written to the database. It is invoked from the thread that writes the batch,
+ * which is not the caller thread in concurrent mode, and must not block.
+ *
+ * See {@link AggregatedBatchMetrics} for a default implementation which can be polled.
+ */
+@FunctionalInterface
+public interface BatchMetricsListener {
+
+    BatchMetricsListener NONE = metrics -> {
+    };
+
+    void onBatch(BatchMetrics metrics);
+
+}
@@ -15,6 +15,10 @@
  */
 package org.jfleet.common;
 
+import java.io.IOException;
+
+import org.jfleet.JFleetException;
+
 public class ContentBuilder {
 
     private final EntityRowBuilder entityRowBuilder;
@@ -22,8 +26,12 @@ public class ContentBuilder {
     protected StringContent stringContent;
 
     public ContentBuilder(EntityRowBuilder entityRowBuilder, int batchSize, boolean concurrent) {
+        this(entityRowBuilder, batchSize, 0, concurrent);
+    }
+
+    public ContentBuilder(EntityRowBuilder entityRowBuilder, int batchSize, int maxBatchRows, boolean concurrent) {
         this.entityRowBuilder = entityRowBuilder;
-        this.doubleBuffer = new DoubleBufferStringContent(batchSize, concurrent);
+        this.doubleBuffer = new DoubleBufferStringContent(batchSize, maxBatchRows, concurrent);
         this.stringContent = doubleBuffer.next();
     }
 
@@ -35,6 +43,10 @@ public class ContentBuilder {
         return stringContent.isFilled();
     }
 
+    public void setBatchSize(int batchSize) {
+        stringContent.setBatchSize(batchSize);
+    }
+
     public int getContentSize() {
         return stringContent.getContentSize();
     }
@@ -52,4 +64,12 @@ public class ContentBuilder {
         stringContent.inc();
     }
 
+    public boolean add(RowSource rowSource) throws IOException, JFleetException {
+        if (rowSource.appendRow(stringContent)) {
+            stringContent.inc();
+            return true;
+        }
+        return false;
+    }
+
 }
@@ -19,11 +19,13 @@ class DoubleBufferStringContent {
 
     private final StringContent[] buffer;
     private final int batchSize;
+    private final int maxRecords;
     private final int size;
     private int current = 0;
 
-    DoubleBufferStringContent(int batchSize, boolean concurrent) {
+    DoubleBufferStringContent(int batchSize, int maxRecords, boolean concurrent) {
         this.batchSize = batchSize;
+        this.maxRecords = maxRecords;
         this.size = concurrent ? 2 : 1;
         this.buffer = new StringContent[size];
     }
@@ -31,7 +33,7 @@ class DoubleBufferStringContent {
     public StringContent next() {
         int next = (current + 1) % size;
         if (buffer[next] == null) {
-            buffer[next] = new StringContent(batchSize);
+            buffer[next] = new StringContent(batchSize, maxRecords);
         }
         StringContent sc = buffer[next];
         sc.reset();
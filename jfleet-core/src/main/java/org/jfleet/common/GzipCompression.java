@@ -0,0 +1,107 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+
+/**
+ * Configuration of the parallel gzip compression applied to file writers output.
+ *
+ * Content is split in blocks of blockSize bytes, compressed concurrently in the executor and written as a
+ * multi-member gzip stream.
+ */
+public class GzipCompression {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private final Executor executor;
+    private final int blockSize;
+    private final int level;
+    private final int maxPendingBlocks;
+
+    private GzipCompression(Builder builder) {
+        this.executor = builder.executor;
+        this.blockSize = builder.blockSize;
+        this.level = builder.level;
+        this.maxPendingBlocks = builder.maxPendingBlocks;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getMaxPendingBlocks() {
+        return maxPendingBlocks;
+    }
+
+    public OutputStream wrap(OutputStream outputStream) {
+        return new ParallelGzipOutputStream(outputStream, this);
+    }
+
+    public static class Builder {
+
+        private Executor executor = ForkJoinPool.commonPool();
+        private int blockSize = DEFAULT_BLOCK_SIZE;
+        private int level = Deflater.DEFAULT_COMPRESSION;
+        private int maxPendingBlocks = Runtime.getRuntime().availableProcessors() * 2;
+
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder blockSize(int blockSize) {
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        public Builder level(int level) {
+            this.level = level;
+            return this;
+        }
+
+        public Builder maxPendingBlocks(int maxPendingBlocks) {
+            this.maxPendingBlocks = maxPendingBlocks;
+            return this;
+        }
+
+        public GzipCompression build() {
+            if (blockSize <= 0) {
+                throw new IllegalArgumentException("Block size must be positive");
+            }
+            if (maxPendingBlocks <= 0) {
+                throw new IllegalArgumentException("Max pending blocks must be positive");
+            }
+            if (executor == null) {
+                executor = ForkJoinPool.commonPool();
+            }
+            return new GzipCompression(this);
+        }
+
+    }
+
+}
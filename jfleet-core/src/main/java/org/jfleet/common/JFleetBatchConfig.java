@@ -31,4 +31,30 @@ public interface JFleetBatchConfig {
 
     Executor getExecutor();
 
+    default BatchMetricsListener getMetricsListener() {
+        return BatchMetricsListener.NONE;
+    }
+
+    /**
+     * @return the controller adjusting the batch size, or null to use the fixed {@link #getBatchSize()}
+     */
+    default AdaptiveBatchSize getAdaptiveBatchSize() {
+        return null;
+    }
+
+    /**
+     * @return number of rows from which a batch is written even if it does not reach the batch size, 0 for no limit
+     */
+    default int getMaxBatchRows() {
+        return 0;
+    }
+
+    /**
+     * @return maximum time the first row of a batch waits before the batch is written, even if it is not filled, or
+     *         0 to wait until it is filled
+     */
+    default long getLingerNanos() {
+        return 0;
+    }
+
 }
@@ -0,0 +1,183 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import org.jfleet.EntityInfo;
+
+/**
+ * Java Flight Recorder event emitted by JFleet, measured from its creation until {@link #end()} is called.
+ *
+ * JFR is only available since Java 11 (and some Java 8 updates), so event classes are loaded by reflection the first
+ * time. If JFR is not available, or the event type is not enabled in the current recording, a no-op instance is
+ * returned and nothing is measured.
+ *
+ * <pre>
+ * JFleetEvent event = JFleetEvent.batchWrite().entity(entityInfo);
+ * ...
+ * event.rows(rows).chars(chars).end();
+ * </pre>
+ */
+public abstract class JFleetEvent {
+
+    private static final String JFR_FACTORY = "org.jfleet.common.JfrEventFactory";
+
+    static final JFleetEvent DISABLED = new JFleetEvent() {
+
+        @Override
+        public boolean isRecording() {
+            return false;
+        }
+
+        @Override
+        public JFleetEvent entity(Class<?> entityClass, String table) {
+            return this;
+        }
+
+        @Override
+        public JFleetEvent rows(long rows) {
+            return this;
+        }
+
+        @Override
+        public JFleetEvent bytes(long bytes) {
+            return this;
+        }
+
+        @Override
+        public JFleetEvent chars(long chars) {
+            return this;
+        }
+
+        @Override
+        public void end() {
+        }
+    };
+
+    private static final Factory FACTORY = loadFactory();
+
+    /**
+     * Creation of the rows of a batch, in the thread consuming the source.
+     *
+     * @return the started event
+     */
+    public static JFleetEvent batchBuild() {
+        return FACTORY.batchBuild();
+    }
+
+    /**
+     * Execution of a batch in the database.
+     *
+     * @return the started event
+     */
+    public static JFleetEvent batchWrite() {
+        return FACTORY.batchWrite();
+    }
+
+    /**
+     * Commit of a batch transaction.
+     *
+     * @return the started event
+     */
+    public static JFleetEvent commit() {
+        return FACTORY.commit();
+    }
+
+    /**
+     * Lifetime of a file writer, from its creation until it is closed.
+     *
+     * @param format file format: CSV, Avro or Parquet
+     * @return the started event
+     */
+    public static JFleetEvent fileWrite(String format) {
+        return FACTORY.fileWrite(format);
+    }
+
+    /**
+     * @return true if the event will be recorded, and computing its values is worth it
+     */
+    public abstract boolean isRecording();
+
+    public JFleetEvent entity(EntityInfo entityInfo) {
+        if (entityInfo == null) {
+            return this;
+        }
+        return entity(entityInfo.getEntityClass(), entityInfo.getTableName());
+    }
+
+    public abstract JFleetEvent entity(Class<?> entityClass, String table);
+
+    public abstract JFleetEvent rows(long rows);
+
+    /**
+     * @param bytes bytes written to a file
+     * @return the event
+     */
+    public abstract JFleetEvent bytes(long bytes);
+
+    /**
+     * @param chars characters of the serialized content of a batch, before being encoded by the driver
+     * @return the event
+     */
+    public abstract JFleetEvent chars(long chars);
+
+    /**
+     * Ends the measure and commits the event to the recording.
+     */
+    public abstract void end();
+
+    interface Factory {
+
+        JFleetEvent batchBuild();
+
+        JFleetEvent batchWrite();
+
+        JFleetEvent commit();
+
+        JFleetEvent fileWrite(String format);
+
+    }
+
+    private static Factory loadFactory() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return (Factory) Class.forName(JFR_FACTORY).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new Factory() {
+
+                @Override
+                public JFleetEvent batchBuild() {
+                    return DISABLED;
+                }
+
+                @Override
+                public JFleetEvent batchWrite() {
+                    return DISABLED;
+                }
+
+                @Override
+                public JFleetEvent commit() {
+                    return DISABLED;
+                }
+
+                @Override
+                public JFleetEvent fileWrite(String format) {
+                    return DISABLED;
+                }
+            };
+        }
+    }
+
+}
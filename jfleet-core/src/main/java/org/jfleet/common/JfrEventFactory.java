@@ -0,0 +1,156 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFleetEvent factory backed by JFR events. Loaded by reflection only if JFR is available in the JVM.
+ */
+final class JfrEventFactory implements JFleetEvent.Factory {
+
+    @Override
+    public JFleetEvent batchBuild() {
+        return start(new BatchBuildEvent());
+    }
+
+    @Override
+    public JFleetEvent batchWrite() {
+        return start(new BatchWriteEvent());
+    }
+
+    @Override
+    public JFleetEvent commit() {
+        return start(new CommitEvent());
+    }
+
+    @Override
+    public JFleetEvent fileWrite(String format) {
+        FileWriteEvent event = new FileWriteEvent();
+        event.format = format;
+        return start(event);
+    }
+
+    private static JFleetEvent start(JFleetJfrEvent event) {
+        if (!event.isEnabled()) {
+            return JFleetEvent.DISABLED;
+        }
+        event.begin();
+        return new JfrEvent(event);
+    }
+
+    private static final class JfrEvent extends JFleetEvent {
+
+        private final JFleetJfrEvent event;
+
+        JfrEvent(JFleetJfrEvent event) {
+            this.event = event;
+        }
+
+        @Override
+        public boolean isRecording() {
+            return true;
+        }
+
+        @Override
+        public JFleetEvent entity(Class<?> entityClass, String table) {
+            event.entityClass = entityClass;
+            event.table = table;
+            return this;
+        }
+
+        @Override
+        public JFleetEvent rows(long rows) {
+            event.rows = rows;
+            return this;
+        }
+
+        @Override
+        public JFleetEvent bytes(long bytes) {
+            event.bytes = bytes;
+            return this;
+        }
+
+        @Override
+        public JFleetEvent chars(long chars) {
+            event.chars = chars;
+            return this;
+        }
+
+        @Override
+        public void end() {
+            event.end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    @Category("JFleet")
+    abstract static class JFleetJfrEvent extends Event {
+
+        @Label("Entity Class")
+        Class<?> entityClass;
+
+        @Label("Table")
+        String table;
+
+        @Label("Rows")
+        long rows = -1;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes = -1;
+
+        @Label("Characters")
+        long chars = -1;
+
+    }
+
+    @Name("org.jfleet.BatchBuild")
+    @Label("Batch Build")
+    @Description("Rows of a batch consumed from the source and serialized")
+    static class BatchBuildEvent extends JFleetJfrEvent {
+    }
+
+    @Name("org.jfleet.BatchWrite")
+    @Label("Batch Write")
+    @Description("Batch sent and executed in the database")
+    static class BatchWriteEvent extends JFleetJfrEvent {
+    }
+
+    @Name("org.jfleet.Commit")
+    @Label("Commit")
+    @Description("Commit of a batch transaction")
+    static class CommitEvent extends JFleetJfrEvent {
+    }
+
+    @Name("org.jfleet.FileWrite")
+    @Label("File Write")
+    @Description("Rows written by a file writer from its creation until it is closed")
+    static class FileWriteEvent extends JFleetJfrEvent {
+
+        @Label("Format")
+        String format;
+
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jfleet.JFleetException;
+
+/**
+ * Timer thread that periodically invokes a flush action, so rows of a slow source do not wait indefinitely in a
+ * partially filled batch. The action and the code adding rows must synchronize on this object. An error flushing is
+ * kept and rethrown to the thread adding rows.
+ */
+class LingerFlusher implements AutoCloseable {
+
+    private static final long MIN_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @FunctionalInterface
+    interface FlushAction {
+
+        void flush() throws SQLException, JFleetException;
+
+    }
+
+    private final FlushAction flushAction;
+    private final ScheduledExecutorService timer;
+    private Exception error;
+
+    LingerFlusher(long lingerNanos, FlushAction flushAction) {
+        this.flushAction = flushAction;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jfleet-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(MIN_PERIOD_NANOS, lingerNanos / 10);
+        timer.scheduleWithFixedDelay(this::flush, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void flush() {
+        if (error == null) {
+            try {
+                flushAction.flush();
+            } catch (SQLException | JFleetException | RuntimeException e) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * Rethrows the error of a previous flush. Must be invoked synchronized on this object.
+     *
+     * @throws SQLException
+     *             if a flush failed with a SQLException
+     * @throws JFleetException
+     *             if a flush failed with a JFleetException
+     */
+    void checkError() throws SQLException, JFleetException {
+        if (error instanceof SQLException) {
+            throw (SQLException) error;
+        }
+        if (error instanceof JFleetException) {
+            throw (JFleetException) error;
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdown();
+    }
+
+}
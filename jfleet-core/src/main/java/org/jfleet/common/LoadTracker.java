@@ -0,0 +1,119 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks a single load: aggregates the metrics of its batches, and keeps the statements in execution so the load can
+ * be cancelled in the database.
+ */
+public class LoadTracker implements BatchMetricsListener {
+
+    private static Logger logger = LoggerFactory.getLogger(LoadTracker.class);
+
+    /**
+     * Operation in execution in the database which can be aborted, like {@link java.sql.Statement#cancel()}.
+     */
+    @FunctionalInterface
+    public interface Cancellable {
+
+        void cancel() throws SQLException;
+
+    }
+
+    private final AggregatedBatchMetrics metrics = new AggregatedBatchMetrics();
+    private final Set<Cancellable> running = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled = false;
+
+    @Override
+    public void onBatch(BatchMetrics batchMetrics) {
+        metrics.onBatch(batchMetrics);
+    }
+
+    /**
+     * @param listener
+     *            listener of the configuration
+     * @return a listener notifying both the configuration listener and this tracker
+     */
+    public BatchMetricsListener with(BatchMetricsListener listener) {
+        return batchMetrics -> {
+            listener.onBatch(batchMetrics);
+            onBatch(batchMetrics);
+        };
+    }
+
+    /**
+     * Registers an operation executed in the database until it is unregistered. If the load is already cancelled,
+     * the operation is cancelled immediately.
+     *
+     * @param cancellable
+     *            the operation
+     */
+    public void register(Cancellable cancellable) {
+        running.add(cancellable);
+        if (cancelled) {
+            cancel(cancellable);
+        }
+    }
+
+    public void unregister(Cancellable cancellable) {
+        running.remove(cancellable);
+    }
+
+    /**
+     * @throws CancellationException
+     *             if the load is cancelled
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Load cancelled");
+        }
+    }
+
+    /**
+     * Cancels the load, aborting all registered operations.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Cancellable cancellable : running) {
+            cancel(cancellable);
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public AggregatedBatchMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void cancel(Cancellable cancellable) {
+        try {
+            cancellable.cancel();
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Error cancelling statement", e);
+        }
+    }
+
+}
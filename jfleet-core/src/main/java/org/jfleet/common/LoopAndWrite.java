@@ -15,6 +15,7 @@
  */
 package org.jfleet.common;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.stream.Stream;
@@ -30,30 +31,136 @@ public class LoopAndWrite {
     private final JFleetBatchConfig config;
     private final ContentWriter contentWriter;
     private final EntityRowBuilder rowBuilder;
+    private final AdaptiveBatchSize adaptiveBatchSize;
+    private long batchInit;
+    private long firstRowInit;
+    private JFleetEvent buildEvent;
 
     public LoopAndWrite(JFleetBatchConfig config, ContentWriter contentWriter, EntityRowBuilder rowBuilder) {
         this.config = config;
         this.contentWriter = contentWriter;
         this.rowBuilder = rowBuilder;
+        this.adaptiveBatchSize = config.getAdaptiveBatchSize();
+    }
+
+    public LoopAndWrite(JFleetBatchConfig config, ContentWriter contentWriter) {
+        this(config, contentWriter, null);
     }
 
     public <T> void go(Stream<T> stream) throws SQLException, JFleetException {
-        ContentWriter writer = config.isConcurrent() ? new ParallelContentWriter(config.getExecutor(), contentWriter)
-                : contentWriter;
-        ContentBuilder contentBuilder = new ContentBuilder(rowBuilder, config.getBatchSize(), config.isConcurrent());
+        ContentWriter writer = createWriter();
+        ContentBuilder contentBuilder = createContentBuilder();
         Iterator<T> iterator = stream.iterator();
-        while (iterator.hasNext()) {
-            contentBuilder.add(iterator.next());
-            if (contentBuilder.isFilled()) {
-                logger.debug("Writing content");
-                writer.writeContent(contentBuilder.getContent());
-                contentBuilder.reset();
+        startBatch(contentBuilder);
+        long lingerNanos = config.getLingerNanos();
+        if (lingerNanos <= 0) {
+            while (iterator.hasNext()) {
+                add(writer, contentBuilder, iterator.next());
+            }
+            flush(writer, contentBuilder);
+            return;
+        }
+        // Rows are consumed out of the lock, so the timer can write the batch while the source is blocked
+        try (LingerFlusher flusher = new LingerFlusher(lingerNanos,
+                () -> flushLingered(writer, contentBuilder, lingerNanos))) {
+            while (iterator.hasNext()) {
+                T entity = iterator.next();
+                synchronized (flusher) {
+                    flusher.checkError();
+                    add(writer, contentBuilder, entity);
+                }
+            }
+            synchronized (flusher) {
+                flusher.checkError();
+                flush(writer, contentBuilder);
+            }
+        }
+    }
+
+    /**
+     * Loads the rows of a RowSource. Rows are read directly into the batch content, so the linger time of the
+     * configuration is not applied.
+     */
+    public void go(RowSource rowSource) throws SQLException, JFleetException {
+        ContentWriter writer = createWriter();
+        ContentBuilder contentBuilder = createContentBuilder();
+        startBatch(contentBuilder);
+        try {
+            while (contentBuilder.add(rowSource)) {
+                if (contentBuilder.isFilled()) {
+                    logger.debug("Writing content");
+                    writeContent(writer, contentBuilder.getContent());
+                    contentBuilder.reset();
+                    startBatch(contentBuilder);
+                }
             }
+        } catch (IOException e) {
+            throw new JFleetException(e);
+        }
+        flush(writer, contentBuilder);
+    }
+
+    private <T> void add(ContentWriter writer, ContentBuilder contentBuilder, T entity)
+            throws SQLException, JFleetException {
+        if (contentBuilder.getRecords() == 0) {
+            firstRowInit = System.nanoTime();
+        }
+        contentBuilder.add(entity);
+        if (contentBuilder.isFilled()) {
+            logger.debug("Writing content");
+            writeContent(writer, contentBuilder.getContent());
+            contentBuilder.reset();
+            startBatch(contentBuilder);
+        }
+    }
+
+    private void flushLingered(ContentWriter writer, ContentBuilder contentBuilder, long lingerNanos)
+            throws SQLException, JFleetException {
+        if (contentBuilder.getRecords() > 0 && System.nanoTime() - firstRowInit >= lingerNanos) {
+            logger.debug("Writing content after linger time");
+            writeContent(writer, contentBuilder.getContent());
+            contentBuilder.reset();
+            startBatch(contentBuilder);
         }
+    }
+
+    private void flush(ContentWriter writer, ContentBuilder contentBuilder) throws SQLException, JFleetException {
         logger.debug("Flushing content");
-        writer.writeContent(contentBuilder.getContent());
+        writeContent(writer, contentBuilder.getContent());
         writer.waitForWrite();
         contentBuilder.reset();
     }
 
+    private ContentBuilder createContentBuilder() {
+        return new ContentBuilder(rowBuilder, getBatchSize(), config.getMaxBatchRows(), config.isConcurrent());
+    }
+
+    private int getBatchSize() {
+        return adaptiveBatchSize == null ? config.getBatchSize() : adaptiveBatchSize.getBatchSize();
+    }
+
+    private void startBatch(ContentBuilder contentBuilder) {
+        if (adaptiveBatchSize != null) {
+            contentBuilder.setBatchSize(adaptiveBatchSize.getBatchSize());
+        }
+        batchInit = System.nanoTime();
+        buildEvent = JFleetEvent.batchBuild();
+    }
+
+    private void writeContent(ContentWriter writer, StringContent content) throws SQLException, JFleetException {
+        content.setSerializationNanos(System.nanoTime() - batchInit);
+        if (content.getRecords() > 0) {
+            buildEvent.entity(config.getEntityInfo()).rows(content.getRecords()).chars(content.getContentSize()).end();
+        }
+        writer.writeContent(content);
+    }
+
+    private ContentWriter createWriter() {
+        ContentWriter writer = contentWriter;
+        if (adaptiveBatchSize != null) {
+            writer = new AdaptiveContentWriter(writer, adaptiveBatchSize);
+        }
+        return config.isConcurrent() ? new ParallelContentWriter(config.getExecutor(), writer) : writer;
+    }
+
 }
@@ -41,7 +41,9 @@ public class ParallelContentWriter implements ContentWriter {
 
     @Override
     public void writeContent(StringContent stringContent) throws SQLException, JFleetException {
+        long init = System.nanoTime();
         waitForWrite();
+        stringContent.setWaitNanos(System.nanoTime() - init);
         last = CompletableFuture.supplyAsync(() -> {
             try {
                 contentWriter.writeContent(stringContent);
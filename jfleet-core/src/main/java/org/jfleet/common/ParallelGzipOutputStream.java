@@ -0,0 +1,176 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * OutputStream that compresses fixed size blocks in parallel and writes them, in order, as independent gzip
+ * members. The result is a standard multi-member gzip stream, readable by GZIPInputStream or any gzip tool.
+ *
+ * Compression of a block runs in the configured executor while the caller keeps filling the next one. At most
+ * maxPendingBlocks blocks are in flight; once reached, writing blocks until the oldest one is written.
+ *
+ * Closing a stream without content writes an empty gzip member, like GZIPOutputStream, so the output is always a
+ * valid gzip file.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final OutputStream out;
+    private final Executor executor;
+    private final int blockSize;
+    private final int level;
+    private final int maxPendingBlocks;
+    private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+    private byte[] block;
+    private int count = 0;
+    private boolean submitted = false;
+    private boolean closed = false;
+
+    public ParallelGzipOutputStream(OutputStream out, GzipCompression compression) {
+        this.out = out;
+        this.executor = compression.getExecutor();
+        this.blockSize = compression.getBlockSize();
+        this.level = compression.getLevel();
+        this.maxPendingBlocks = compression.getMaxPendingBlocks();
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        block[count++] = (byte) b;
+        if (count == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int size = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, block, count, size);
+            count += size;
+            off += size;
+            len -= size;
+            if (count == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the blocks already compressed and flushes the underlying stream, without waiting for pending blocks.
+     * Buffered content is compressed when its block is full or the stream is closed, so frequent flushes, like the
+     * Avro container file ones, do not cut the stream in small gzip members or serialize the compression.
+     */
+    @Override
+    public void flush() throws IOException {
+        while (!pending.isEmpty() && pending.peek().isDone()) {
+            writeOldest();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                if (count > 0 || !submitted) {
+                    submitBlock();
+                }
+                while (!pending.isEmpty()) {
+                    writeOldest();
+                }
+                out.flush();
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        byte[] toCompress = block;
+        int length = count;
+        pending.add(CompletableFuture.supplyAsync(() -> compress(toCompress, length, level), executor));
+        block = new byte[blockSize];
+        count = 0;
+        submitted = true;
+        while (pending.size() > maxPendingBlocks) {
+            writeOldest();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void writeOldest() throws IOException {
+        try {
+            out.write(pending.poll().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    static byte[] compress(byte[] data, int length, int level) {
+        ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + HEADER.length + 8);
+        member.write(HEADER, 0, HEADER.length);
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            byte[] buffer = new byte[Math.min(Math.max(length, 512), 64 * 1024)];
+            while (!deflater.finished()) {
+                int size = deflater.deflate(buffer);
+                member.write(buffer, 0, size);
+            }
+        } finally {
+            deflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        writeInt(member, (int) crc.getValue());
+        writeInt(member, length);
+        return member.toByteArray();
+    }
+
+    private static void writeInt(ByteArrayOutputStream os, int value) {
+        os.write(value & 0xff);
+        os.write((value >> 8) & 0xff);
+        os.write((value >> 16) & 0xff);
+        os.write((value >> 24) & 0xff);
+    }
+
+}
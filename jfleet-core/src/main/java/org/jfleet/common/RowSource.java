@@ -0,0 +1,39 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import java.io.IOException;
+
+import org.jfleet.JFleetException;
+
+/**
+ * Source of rows already serialized in the target text format. Used when the
+ * information doesn't come from entities and can be written directly into the
+ * content buffer.
+ */
+public interface RowSource {
+
+    /**
+     * Appends next row to the content.
+     *
+     * @param stringContent content where to append the row
+     * @return false if there are no more rows to append
+     * @throws IOException if an error occurs reading the source
+     * @throws JFleetException if the source row is not valid
+     */
+    boolean appendRow(StringContent stringContent) throws IOException, JFleetException;
+
+}
@@ -18,12 +18,26 @@ package org.jfleet.common;
 public class StringContent {
 
     private final StringBuilder sb;
-    private final int batchSize;
+    private int batchSize;
+    private final int maxRecords;
     private int records;
+    private long serializationNanos;
+    private long waitNanos;
 
     public StringContent(int batchSize) {
+        this(batchSize, 0);
+    }
+
+    /**
+     * @param batchSize
+     *            size in characters from which the content is filled
+     * @param maxRecords
+     *            number of records from which the content is filled, 0 for no limit
+     */
+    public StringContent(int batchSize, int maxRecords) {
         this.sb = new StringBuilder(batchSize + Math.min(1024, batchSize / 1000));
         this.batchSize = batchSize;
+        this.maxRecords = maxRecords;
         this.records = 0;
     }
 
@@ -35,17 +49,49 @@ public class StringContent {
         sb.append(value);
     }
 
+    public void append(char[] chars, int offset, int len) {
+        sb.append(chars, offset, len);
+    }
+
+    public void append(long value) {
+        sb.append(value);
+    }
+
+    public void append(double value) {
+        sb.append(value);
+    }
+
+    public void append(float value) {
+        sb.append(value);
+    }
+
     public void inc() {
         this.records++;
     }
 
     public boolean isFilled() {
-        return sb.length() > batchSize;
+        return sb.length() > batchSize || (maxRecords > 0 && records >= maxRecords);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Changes the size from which the content is considered filled.
+     *
+     * @param batchSize
+     *            the new batch size
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
     }
 
     public void reset() {
         this.sb.setLength(0);
         this.records = 0;
+        this.serializationNanos = 0;
+        this.waitNanos = 0;
     }
 
     public int getContentSize() {
@@ -60,4 +106,20 @@ public class StringContent {
         return records;
     }
 
+    public long getSerializationNanos() {
+        return serializationNanos;
+    }
+
+    public void setSerializationNanos(long serializationNanos) {
+        this.serializationNanos = serializationNanos;
+    }
+
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    public void setWaitNanos(long waitNanos) {
+        this.waitNanos = waitNanos;
+    }
+
 }
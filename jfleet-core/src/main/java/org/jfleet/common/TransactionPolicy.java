@@ -52,7 +52,12 @@ public interface TransactionPolicy {
 
         @Override
         public void commit() throws SQLException {
-            this.connection.commit();
+            JFleetEvent event = JFleetEvent.commit();
+            try {
+                this.connection.commit();
+            } finally {
+                event.end();
+            }
         }
 
         @Override
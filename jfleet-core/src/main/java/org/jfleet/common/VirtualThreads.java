@@ -0,0 +1,91 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executor for the concurrent writers that runs each task in a new virtual thread when JFleet runs on Java 21 or
+ * later. JFleet is compiled for Java 8, so virtual threads support is detected at runtime.
+ *
+ * Writers spend most of their time blocked in database I/O. With virtual threads many concurrent loads can wait for
+ * the database without sizing a pool of platform threads or blocking {@code ForkJoinPool.commonPool()}. On previous
+ * Java versions tasks run in a cached pool of daemon platform threads, which also keeps blocking I/O out of the
+ * common pool.
+ */
+public final class VirtualThreads {
+
+    private static Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private static final Executor VIRTUAL_THREADS = createVirtualThreadsExecutor();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true if the JVM supports virtual threads
+     */
+    public static boolean isAvailable() {
+        return VIRTUAL_THREADS != null;
+    }
+
+    /**
+     * @return a shared executor running each task in a new virtual thread, or in a cached pool of daemon platform
+     *         threads if virtual threads are not available
+     */
+    public static Executor executor() {
+        return VIRTUAL_THREADS != null ? VIRTUAL_THREADS : PlatformThreads.EXECUTOR;
+    }
+
+    private static Executor createVirtualThreadsExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Virtual threads not available, using platform threads", e);
+            return null;
+        }
+    }
+
+    private static final class PlatformThreads {
+
+        private static final Executor EXECUTOR = Executors.newCachedThreadPool(new DaemonThreadFactory());
+
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "jfleet-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
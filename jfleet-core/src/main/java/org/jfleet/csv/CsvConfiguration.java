@@ -18,6 +18,7 @@ package org.jfleet.csv;
 import java.nio.charset.Charset;
 
 import org.jfleet.EntityInfo;
+import org.jfleet.common.GzipCompression;
 import org.jfleet.common.TypeSerializer;
 
 public class CsvConfiguration<T> {
@@ -31,6 +32,7 @@ public class CsvConfiguration<T> {
     private char textDelimiter = '"';
     private boolean alwaysDelimitText = false;
     private String lineDelimiter = System.lineSeparator();
+    private GzipCompression compression;
 
     public CsvConfiguration(Class<T> clazz) {
         this.clazz = clazz;
@@ -78,6 +80,10 @@ public class CsvConfiguration<T> {
         return lineDelimiter;
     }
 
+    public GzipCompression getCompression() {
+        return compression;
+    }
+
     public static class Builder<T> {
 
         private Class<T> clazz;
@@ -89,6 +95,7 @@ public class CsvConfiguration<T> {
         private char textDelimiter = '"';
         private boolean alwaysDelimitText = false;
         private String lineDelimiter = System.lineSeparator();
+        private GzipCompression compression;
 
         public Builder(Class<T> clazz) {
             this.clazz = clazz;
@@ -140,6 +147,11 @@ public class CsvConfiguration<T> {
             return this;
         }
 
+        public Builder<T> compression(GzipCompression compression) {
+            this.compression = compression;
+            return this;
+        }
+
         public CsvConfiguration<T> build() {
             CsvConfiguration<T> config = new CsvConfiguration<>(clazz);
             config.entityInfo = entityInfo;
@@ -150,6 +162,7 @@ public class CsvConfiguration<T> {
             config.textDelimiter = textDelimiter;
             config.alwaysDelimitText = alwaysDelimitText;
             config.lineDelimiter = lineDelimiter;
+            config.compression = compression;
             return config;
         }
 
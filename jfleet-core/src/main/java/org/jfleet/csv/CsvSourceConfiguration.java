@@ -0,0 +1,132 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.csv;
+
+import java.nio.charset.Charset;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Describes the format of a CSV file to be loaded directly into the database,
+ * without mapping it to entities.
+ *
+ * Target table and columns are defined by the EntityInfo of the BulkInsert
+ * configuration, in the same order than in the CSV file. Columns present in the
+ * file but not in the table must be skipped by its index.
+ */
+public class CsvSourceConfiguration {
+
+    private Charset charset;
+    private boolean header;
+    private char fieldSeparator;
+    private char textDelimiter;
+    private boolean emptyAsNull;
+    private Set<Integer> skippedColumns;
+
+    private CsvSourceConfiguration() {
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public boolean isHeader() {
+        return header;
+    }
+
+    public char getFieldSeparator() {
+        return fieldSeparator;
+    }
+
+    public char getTextDelimiter() {
+        return textDelimiter;
+    }
+
+    public boolean isEmptyAsNull() {
+        return emptyAsNull;
+    }
+
+    public Set<Integer> getSkippedColumns() {
+        return skippedColumns;
+    }
+
+    public static class Builder {
+
+        private Charset charset = Charset.forName("UTF-8");
+        private boolean header = true;
+        private char fieldSeparator = ',';
+        private char textDelimiter = '"';
+        private boolean emptyAsNull = true;
+        private Set<Integer> skippedColumns = new HashSet<>();
+
+        public Builder charset(Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * @param header if first line of the file is a header and must be ignored
+         * @return the builder
+         */
+        public Builder header(boolean header) {
+            this.header = header;
+            return this;
+        }
+
+        public Builder fieldSeparator(char fieldSeparator) {
+            this.fieldSeparator = fieldSeparator;
+            return this;
+        }
+
+        public Builder textDelimiter(char textDelimiter) {
+            this.textDelimiter = textDelimiter;
+            return this;
+        }
+
+        /**
+         * @param emptyAsNull if an empty and not delimited value is loaded as NULL
+         * @return the builder
+         */
+        public Builder emptyAsNull(boolean emptyAsNull) {
+            this.emptyAsNull = emptyAsNull;
+            return this;
+        }
+
+        /**
+         * @param columnIndexes zero based index of CSV columns not loaded into the table
+         * @return the builder
+         */
+        public Builder skipColumns(int... columnIndexes) {
+            for (int columnIndex : columnIndexes) {
+                skippedColumns.add(columnIndex);
+            }
+            return this;
+        }
+
+        public CsvSourceConfiguration build() {
+            CsvSourceConfiguration config = new CsvSourceConfiguration();
+            config.charset = charset;
+            config.header = header;
+            config.fieldSeparator = fieldSeparator;
+            config.textDelimiter = textDelimiter;
+            config.emptyAsNull = emptyAsNull;
+            config.skippedColumns = new HashSet<>(skippedColumns);
+            return config;
+        }
+
+    }
+
+}
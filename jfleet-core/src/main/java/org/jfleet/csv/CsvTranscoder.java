@@ -0,0 +1,275 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.jfleet.JFleetException;
+import org.jfleet.common.RowSource;
+import org.jfleet.common.StringContent;
+
+/**
+ * Transcodes a CSV file into the tab separated text format used by LOAD DATA
+ * and COPY commands, without creating any intermediate object.
+ *
+ * The source is scanned once in chunks, copying runs of plain characters and
+ * escaping special characters on the fly. Each record is validated to have the
+ * expected number of columns.
+ *
+ * Empty lines are ignored.
+ */
+public class CsvTranscoder implements RowSource {
+
+    private static final int BUFFER_SIZE = 64 * 1_024;
+    private static final char ESCAPE_CHAR = '\\';
+    private static final String NULL_VALUE = "\\N";
+    private static final char TARGET_FIELD_SEPARATOR = '\t';
+    private static final char TARGET_LINE_SEPARATOR = '\n';
+    private static final char NEWLINE_CHAR = '\n';
+    private static final char CARRIAGE_RETURN_CHAR = '\r';
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final char fieldSeparator;
+    private final char textDelimiter;
+    private final boolean emptyAsNull;
+    private final boolean trailingSeparator;
+    private final boolean[] skipped;
+    private final boolean[] escapable = new boolean[128];
+    private boolean skipHeader;
+    private int position = 0;
+    private int limit = 0;
+    private long record = 0;
+
+    /**
+     * @param reader            CSV content
+     * @param config            CSV format configuration
+     * @param columns           number of columns of the target table
+     * @param escapableChars    ASCII characters that must be escaped in the target format
+     * @param trailingSeparator if target format writes the field separator also after the last field
+     */
+    public CsvTranscoder(Reader reader, CsvSourceConfiguration config, int columns, String escapableChars,
+            boolean trailingSeparator) {
+        this.reader = reader;
+        this.fieldSeparator = config.getFieldSeparator();
+        this.textDelimiter = config.getTextDelimiter();
+        this.emptyAsNull = config.isEmptyAsNull();
+        this.skipHeader = config.isHeader();
+        this.trailingSeparator = trailingSeparator;
+        int csvColumns = columns + config.getSkippedColumns().size();
+        this.skipped = new boolean[csvColumns];
+        for (Integer index : config.getSkippedColumns()) {
+            if (index < 0 || index >= csvColumns) {
+                throw new IllegalArgumentException(
+                        "Skipped column " + index + " out of range of " + csvColumns + " CSV columns");
+            }
+            skipped[index] = true;
+        }
+        for (char c : escapableChars.toCharArray()) {
+            if (c >= escapable.length) {
+                throw new IllegalArgumentException("Escapable char must be ASCII");
+            }
+            escapable[c] = true;
+        }
+    }
+
+    @Override
+    public boolean appendRow(StringContent stringContent) throws IOException, JFleetException {
+        if (skipHeader) {
+            skipHeader = false;
+            if (!skipEmptyLines()) {
+                return false;
+            }
+            boolean endOfHeader = false;
+            while (!endOfHeader) {
+                endOfHeader = transcodeField(null);
+            }
+        }
+        if (!skipEmptyLines()) {
+            return false;
+        }
+        record++;
+        int column = 0;
+        int written = 0;
+        boolean endOfRecord = false;
+        while (!endOfRecord) {
+            if (column == skipped.length) {
+                throw new JFleetException("CSV record " + record + " has more than " + skipped.length + " columns");
+            }
+            StringContent target = skipped[column] ? null : stringContent;
+            if (target != null && written > 0 && !trailingSeparator) {
+                target.append(TARGET_FIELD_SEPARATOR);
+            }
+            endOfRecord = transcodeField(target);
+            if (target != null) {
+                written++;
+                if (trailingSeparator) {
+                    target.append(TARGET_FIELD_SEPARATOR);
+                }
+            }
+            column++;
+        }
+        if (column != skipped.length) {
+            throw new JFleetException(
+                    "CSV record " + record + " has " + column + " columns, expected " + skipped.length);
+        }
+        stringContent.append(TARGET_LINE_SEPARATOR);
+        return true;
+    }
+
+    /**
+     * @return true if the field is the last one of the record
+     */
+    private boolean transcodeField(StringContent out) throws IOException, JFleetException {
+        if (fill() && buffer[position] == textDelimiter) {
+            position++;
+            transcodeDelimited(out);
+            return endOfDelimitedField();
+        }
+        return transcodeNotDelimited(out);
+    }
+
+    private boolean transcodeNotDelimited(StringContent out) throws IOException {
+        boolean empty = true;
+        while (fill()) {
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == fieldSeparator || c == NEWLINE_CHAR || c == CARRIAGE_RETURN_CHAR) {
+                    empty &= start == position;
+                    appendRun(out, start, position);
+                    if (empty && emptyAsNull && out != null) {
+                        out.append(NULL_VALUE);
+                    }
+                    return endOfField(c);
+                }
+                if (c < escapable.length && escapable[c]) {
+                    appendRun(out, start, position);
+                    appendEscaped(out, c);
+                    start = position + 1;
+                    empty = false;
+                }
+                position++;
+            }
+            empty &= start == position;
+            appendRun(out, start, position);
+        }
+        if (empty && emptyAsNull && out != null) {
+            out.append(NULL_VALUE);
+        }
+        return true;
+    }
+
+    private void transcodeDelimited(StringContent out) throws IOException, JFleetException {
+        while (fill()) {
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == textDelimiter) {
+                    appendRun(out, start, position);
+                    position++;
+                    if (fill() && buffer[position] == textDelimiter) {
+                        appendChar(out, textDelimiter);
+                        position++;
+                        start = position;
+                        continue;
+                    }
+                    return;
+                }
+                if (c < escapable.length && escapable[c]) {
+                    appendRun(out, start, position);
+                    appendEscaped(out, c);
+                    start = position + 1;
+                }
+                position++;
+            }
+            appendRun(out, start, position);
+        }
+        throw new JFleetException("CSV record " + record + " has a not closed text delimiter");
+    }
+
+    private boolean endOfDelimitedField() throws IOException, JFleetException {
+        if (!fill()) {
+            return true;
+        }
+        char c = buffer[position];
+        if (c == fieldSeparator || c == NEWLINE_CHAR || c == CARRIAGE_RETURN_CHAR) {
+            return endOfField(c);
+        }
+        throw new JFleetException("CSV record " + record + " has unexpected char '" + c + "' after text delimiter");
+    }
+
+    private boolean endOfField(char c) throws IOException {
+        position++;
+        if (c == fieldSeparator) {
+            return false;
+        }
+        if (c == CARRIAGE_RETURN_CHAR && fill() && buffer[position] == NEWLINE_CHAR) {
+            position++;
+        }
+        return true;
+    }
+
+    private boolean skipEmptyLines() throws IOException {
+        while (fill()) {
+            char c = buffer[position];
+            if (c != NEWLINE_CHAR && c != CARRIAGE_RETURN_CHAR) {
+                return true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    private void appendRun(StringContent out, int start, int end) {
+        if (out != null && end > start) {
+            out.append(buffer, start, end - start);
+        }
+    }
+
+    private void appendEscaped(StringContent out, char c) {
+        if (out != null) {
+            out.append(ESCAPE_CHAR);
+            out.append(c);
+        }
+    }
+
+    private void appendChar(StringContent out, char c) {
+        if (c < escapable.length && escapable[c]) {
+            appendEscaped(out, c);
+        } else if (out != null) {
+            out.append(c);
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        int read = 0;
+        while (read == 0) {
+            read = reader.read(buffer, 0, buffer.length);
+        }
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+}
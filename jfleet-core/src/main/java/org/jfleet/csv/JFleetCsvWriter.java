@@ -25,17 +25,30 @@ import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.jfleet.EntityInfo;
+import org.jfleet.common.CountingOutputStream;
+import org.jfleet.common.GzipCompression;
+import org.jfleet.common.JFleetEvent;
 
 public class JFleetCsvWriter<T> implements Closeable, Consumer<T> {
 
     private final CsvSerializer<T> serializer;
+    private final JFleetEvent event;
+    private final CountingOutputStream counter;
+    private long rows = 0;
 
     public JFleetCsvWriter(OutputStream outputStream, Class<T> clazz) throws IOException {
         this(outputStream, new CsvConfiguration<>(clazz));
     }
 
     public JFleetCsvWriter(OutputStream outputStream, CsvConfiguration<T> config) throws IOException {
-        this.serializer = new CsvSerializer<>(outputStream, config);
+        this.event = JFleetEvent.fileWrite("CSV");
+        this.counter = event.isRecording() ? new CountingOutputStream(outputStream) : null;
+        this.serializer = new CsvSerializer<>(wrap(counter == null ? outputStream : counter, config), config);
+        if (config.getEntityInfo() != null) {
+            event.entity(config.getEntityInfo());
+        } else {
+            event.entity(config.getClazz(), null);
+        }
         if (config.isHeader()) {
             serializer.writeHeader();
         }
@@ -45,21 +58,29 @@ public class JFleetCsvWriter<T> implements Closeable, Consumer<T> {
         this(outputStream, new CsvConfiguration<>(entityInfo));
     }
 
+    private static OutputStream wrap(OutputStream outputStream, CsvConfiguration<?> config) {
+        GzipCompression compression = config.getCompression();
+        if (compression == null) {
+            return outputStream;
+        }
+        return compression.wrap(outputStream);
+    }
+
     public void writeAll(Collection<T> collection) throws IOException {
         for (T entry : collection) {
-            serializer.add(entry);
+            add(entry);
         }
     }
 
     public void writeAll(Stream<T> stream) throws IOException {
         Iterator<T> iterator = stream.iterator();
         while (iterator.hasNext()) {
-            serializer.add(iterator.next());
+            add(iterator.next());
         }
     }
 
     public void write(T entity) throws IOException {
-        serializer.add(entity);
+        add(entity);
     }
 
     /**
@@ -72,7 +93,7 @@ public class JFleetCsvWriter<T> implements Closeable, Consumer<T> {
     @Override
     public void accept(T entity) {
         try {
-            serializer.add(entity);
+            add(entity);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -80,7 +101,16 @@ public class JFleetCsvWriter<T> implements Closeable, Consumer<T> {
 
     @Override
     public void close() throws IOException {
-        serializer.close();
+        try {
+            serializer.close();
+        } finally {
+            event.rows(rows).bytes(counter == null ? -1 : counter.getCount()).end();
+        }
+    }
+
+    private void add(T entity) throws IOException {
+        serializer.add(entity);
+        rows++;
     }
 
 }
@@ -36,6 +36,11 @@ import org.jfleet.BulkInsert;
 import org.jfleet.ColumnInfo;
 import org.jfleet.EntityInfo;
 import org.jfleet.JFleetException;
+import org.jfleet.common.BatchMetrics;
+import org.jfleet.common.BatchMetricsListener;
+import org.jfleet.common.JFleetEvent;
+import org.jfleet.common.LoadTracker;
+import org.jfleet.common.LoadTracker.Cancellable;
 import org.jfleet.common.TransactionPolicy;
 import org.jfleet.jdbc.JdbcConfiguration.JdbcConfigurationBuilder;
 
@@ -82,14 +87,26 @@ public class JdbcBulkInsert<T> implements BulkInsert<T> {
 
     @Override
     public void insertAll(Connection conn, Stream<T> stream) throws JFleetException, SQLException {
+        insertAll(conn, stream, new LoadTracker());
+    }
+
+    @Override
+    public void insertAll(Connection conn, Stream<T> stream, LoadTracker tracker)
+            throws JFleetException, SQLException {
         TransactionPolicy txPolicy = TransactionPolicy.getTransactionPolicy(conn, cfg.isAutocommit());
         try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
-            BatchInsert batchInsert = new BatchInsert(txPolicy, pstmt);
-            Iterator<T> iterator = stream.iterator();
-            while (iterator.hasNext()) {
-                batchInsert.add(iterator.next());
+            Cancellable cancellable = pstmt::cancel;
+            tracker.register(cancellable);
+            try {
+                BatchInsert batchInsert = new BatchInsert(txPolicy, pstmt, tracker.with(cfg.getMetricsListener()));
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    batchInsert.add(iterator.next());
+                }
+                batchInsert.finish();
+            } finally {
+                tracker.unregister(cancellable);
             }
-            batchInsert.finish();
         } finally {
             txPolicy.close();
         }
@@ -99,11 +116,14 @@ public class JdbcBulkInsert<T> implements BulkInsert<T> {
 
         private final TransactionPolicy txPolicy;
         private final PreparedStatement pstmt;
+        private final BatchMetricsListener metricsListener;
         private int count = 0;
+        private long batchInit = System.nanoTime();
 
-        BatchInsert(TransactionPolicy txPolicy, PreparedStatement pstmt) {
+        BatchInsert(TransactionPolicy txPolicy, PreparedStatement pstmt, BatchMetricsListener metricsListener) {
             this.txPolicy = txPolicy;
             this.pstmt = pstmt;
+            this.metricsListener = metricsListener;
         }
 
         public void add(T entity) throws SQLException {
@@ -123,8 +143,42 @@ public class JdbcBulkInsert<T> implements BulkInsert<T> {
         }
 
         private void flush() throws SQLException {
-            pstmt.executeBatch();
-            txPolicy.commit();
+            long init = System.nanoTime();
+            long serializationNanos = init - batchInit;
+            long executed = 0;
+            long updated = -1;
+            JFleetEvent event = JFleetEvent.batchWrite();
+            try {
+                updated = updatedRows(pstmt.executeBatch());
+                executed = System.nanoTime();
+                txPolicy.commit();
+            } catch (SQLException | RuntimeException e) {
+                notify(serializationNanos, init, executed, updated, e);
+                throw e;
+            } finally {
+                event.entity(cfg.getEntityInfo()).rows(count).end();
+            }
+            notify(serializationNanos, init, executed, updated, null);
+            batchInit = System.nanoTime();
+        }
+
+        private void notify(long serializationNanos, long init, long executed, long updated, Throwable error) {
+            long end = System.nanoTime();
+            long executeNanos = executed == 0 ? end - init : executed - init;
+            long commitNanos = executed == 0 ? 0 : end - executed;
+            metricsListener.onBatch(new BatchMetrics(count, -1, serializationNanos, 0, executeNanos,
+                    commitNanos, updated, error));
+        }
+
+        private long updatedRows(int[] results) {
+            long updated = 0;
+            for (int result : results) {
+                if (result < 0) {
+                    return -1;
+                }
+                updated += result;
+            }
+            return updated;
         }
 
     }
@@ -16,6 +16,7 @@
 package org.jfleet.jdbc;
 
 import org.jfleet.EntityInfo;
+import org.jfleet.common.BatchMetricsListener;
 import org.jfleet.inspection.JpaEntityInspector;
 
 public class JdbcConfiguration {
@@ -23,6 +24,7 @@ public class JdbcConfiguration {
     private EntityInfo entityInfo;
     private int batchSize;
     private boolean autocommit;
+    private BatchMetricsListener metricsListener;
 
     private JdbcConfiguration() {
     }
@@ -39,12 +41,17 @@ public class JdbcConfiguration {
         return autocommit;
     }
 
+    public BatchMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
     public static class JdbcConfigurationBuilder {
 
         private Class<?> clazz;
         private EntityInfo entityInfo;
         private int batchSize = 10_000;
         private boolean autocommit = true;
+        private BatchMetricsListener metricsListener = BatchMetricsListener.NONE;
 
         public static JdbcConfigurationBuilder from(Class<?> clazz) {
             return new JdbcConfigurationBuilder(clazz);
@@ -72,6 +79,19 @@ public class JdbcConfiguration {
             return this;
         }
 
+        /**
+         * Listener receiving rows and per phase timings of each batch. Bytes are not available in JDBC batches and
+         * are reported as -1.
+         *
+         * @param metricsListener
+         *            the listener
+         * @return the builder
+         */
+        public JdbcConfigurationBuilder metricsListener(BatchMetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
         public JdbcConfiguration build() {
             if (entityInfo == null) {
                 JpaEntityInspector inspector = new JpaEntityInspector(clazz);
@@ -81,6 +101,7 @@ public class JdbcConfiguration {
             conf.autocommit = this.autocommit;
             conf.batchSize = this.batchSize;
             conf.entityInfo = this.entityInfo;
+            conf.metricsListener = this.metricsListener;
             return conf;
         }
     }
@@ -26,6 +26,8 @@ import org.jfleet.BulkInsert;
 import org.jfleet.EntityInfo;
 import org.jfleet.JFleetException;
 import org.jfleet.common.ContentWriter;
+import org.jfleet.common.LoadTracker;
+import org.jfleet.common.LoadTracker.Cancellable;
 import org.jfleet.common.LoopAndWrite;
 import org.jfleet.mysql.LoadDataConfiguration.LoadDataConfigurationBuilder;
 import org.slf4j.Logger;
@@ -56,13 +58,26 @@ public class LoadDataBulkInsert<T> implements BulkInsert<T> {
 
     @Override
     public void insertAll(Connection conn, Stream<T> stream) throws JFleetException, SQLException {
+        insertAll(conn, stream, new LoadTracker());
+    }
+
+    @Override
+    public void insertAll(Connection conn, Stream<T> stream, LoadTracker tracker)
+            throws JFleetException, SQLException {
         LoadDataRowBuilder rowBuilder = new LoadDataRowBuilder(cfg.getEntityInfo());
         MySqlTransactionPolicy txPolicy = getTransactionPolicy(conn, cfg.isAutocommit(), cfg.isErrorOnMissingRow());
         try (Statement stmt = createStatement(conn)) {
-            ContentWriter contentWriter = new LoadDataContentWriter(stmt, txPolicy, mainSql, cfg.getEncoding());
-            ContentWriter wrappedContentWriter = cfg.getWriterWrapper().apply(contentWriter);
-            LoopAndWrite loopAndWrite = new LoopAndWrite(cfg, wrappedContentWriter, rowBuilder);
-            loopAndWrite.go(stream);
+            Cancellable cancellable = stmt::cancel;
+            tracker.register(cancellable);
+            try {
+                ContentWriter contentWriter = new LoadDataContentWriter(stmt, txPolicy, mainSql, cfg.getEncoding(),
+                        tracker.with(cfg.getMetricsListener()), cfg.getEntityInfo());
+                ContentWriter wrappedContentWriter = cfg.getWriterWrapper().apply(contentWriter);
+                LoopAndWrite loopAndWrite = new LoopAndWrite(cfg, wrappedContentWriter, rowBuilder);
+                loopAndWrite.go(stream);
+            } finally {
+                tracker.unregister(cancellable);
+            }
         } finally {
             txPolicy.close();
         }
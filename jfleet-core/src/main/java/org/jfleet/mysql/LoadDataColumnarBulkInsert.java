@@ -0,0 +1,69 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.mysql;
+
+import static org.jfleet.mysql.MySqlTransactionPolicy.getTransactionPolicy;
+import static org.jfleet.mysql.Statement.createStatement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.jfleet.ColumnarBulkInsert;
+import org.jfleet.JFleetException;
+import org.jfleet.columnar.ColumnarBatch;
+import org.jfleet.columnar.ColumnarRowSource;
+import org.jfleet.common.ContentWriter;
+import org.jfleet.common.LoopAndWrite;
+import org.jfleet.common.RowSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads a ColumnarBatch into a table serializing its arrays by row index directly to LOAD DATA format, without
+ * creating any object per row nor boxing primitive values. The EntityInfo of the configuration defines the table and
+ * must have the columns of the batch in the same order, like the EntityInfo of the batch itself.
+ */
+public class LoadDataColumnarBulkInsert implements ColumnarBulkInsert {
+
+    private static Logger logger = LoggerFactory.getLogger(LoadDataColumnarBulkInsert.class);
+
+    private final LoadDataConfiguration cfg;
+    private final String mainSql;
+
+    public LoadDataColumnarBulkInsert(LoadDataConfiguration loadDataConfiguration) {
+        this.cfg = loadDataConfiguration;
+        this.mainSql = new SqlBuilder(cfg.getEntityInfo()).build();
+        logger.debug("SQL Insert for columnar batch into {}: {}", cfg.getEntityInfo().getTableName(), mainSql);
+        logger.debug("Batch size: {} bytes", cfg.getBatchSize());
+    }
+
+    @Override
+    public void insertAll(Connection conn, ColumnarBatch batch) throws JFleetException, SQLException {
+        LoadDataRowBuilder rowBuilder = new LoadDataRowBuilder(cfg.getEntityInfo());
+        RowSource rowSource = new ColumnarRowSource(batch, cfg.getEntityInfo().getColumns(), rowBuilder);
+        MySqlTransactionPolicy txPolicy = getTransactionPolicy(conn, cfg.isAutocommit(), cfg.isErrorOnMissingRow());
+        try (Statement stmt = createStatement(conn)) {
+            ContentWriter contentWriter = new LoadDataContentWriter(stmt, txPolicy, mainSql, cfg.getEncoding(),
+                    cfg.getMetricsListener(), cfg.getEntityInfo());
+            ContentWriter wrappedContentWriter = cfg.getWriterWrapper().apply(contentWriter);
+            LoopAndWrite loopAndWrite = new LoopAndWrite(cfg, wrappedContentWriter);
+            loopAndWrite.go(rowSource);
+        } finally {
+            txPolicy.close();
+        }
+    }
+
+}
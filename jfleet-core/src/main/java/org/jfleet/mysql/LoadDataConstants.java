@@ -20,6 +20,7 @@ class LoadDataConstants {
     public static final char ESCAPED_BY_CHAR = '\\';
     public static final char LINE_TERMINATED_CHAR = '\n';
     public static final char FIELD_TERMINATED_CHAR = '\t';
+    public static final String ESCAPABLE_CHARS = "" + ESCAPED_BY_CHAR + LINE_TERMINATED_CHAR + FIELD_TERMINATED_CHAR;
 
     private LoadDataConstants() {
     }
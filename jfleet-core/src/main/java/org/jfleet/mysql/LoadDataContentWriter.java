@@ -18,8 +18,12 @@ package org.jfleet.mysql;
 import java.nio.charset.Charset;
 import java.sql.SQLException;
 
+import org.jfleet.EntityInfo;
 import org.jfleet.JFleetException;
+import org.jfleet.common.BatchMetrics;
+import org.jfleet.common.BatchMetricsListener;
 import org.jfleet.common.ContentWriter;
+import org.jfleet.common.JFleetEvent;
 import org.jfleet.common.StringBuilderReader;
 import org.jfleet.common.StringContent;
 import org.slf4j.Logger;
@@ -33,29 +37,55 @@ class LoadDataContentWriter implements ContentWriter {
     private final MySqlTransactionPolicy txPolicy;
     private final String mainSql;
     private final Charset charset;
+    private final BatchMetricsListener metricsListener;
+    private final EntityInfo entityInfo;
 
-    LoadDataContentWriter(Statement statement, MySqlTransactionPolicy txPolicy, String mainSql, Charset charset) {
+    LoadDataContentWriter(Statement statement, MySqlTransactionPolicy txPolicy, String mainSql, Charset charset,
+            BatchMetricsListener metricsListener, EntityInfo entityInfo) {
+        this.entityInfo = entityInfo;
         this.statement = statement;
         this.txPolicy = txPolicy;
         this.mainSql = mainSql;
         this.charset = charset;
+        this.metricsListener = metricsListener;
     }
 
     @Override
     public void writeContent(StringContent stringContent) throws SQLException, JFleetException {
         int contentSize = stringContent.getContentSize();
         if (contentSize > 0) {
-            long init = System.nanoTime();
-            ReaderInputStream ris = new ReaderInputStream(new StringBuilderReader(stringContent.getContent()),
-                    charset);
-            statement.setLocalInfileInputStream(ris);
-            statement.execute(mainSql);
-            logger.debug("{} ms writing {} bytes for {} records", (System.nanoTime() - init) / 1_000_000,
-                    contentSize, stringContent.getRecords());
-            long updatedInDB = statement.getUpdatedRows();
             int processed = stringContent.getRecords();
-            txPolicy.commit(processed, updatedInDB);
+            long init = System.nanoTime();
+            long executed = 0;
+            long updatedInDB = -1;
+            JFleetEvent event = JFleetEvent.batchWrite();
+            try {
+                ReaderInputStream ris = new ReaderInputStream(new StringBuilderReader(stringContent.getContent()),
+                        charset);
+                statement.setLocalInfileInputStream(ris);
+                statement.execute(mainSql);
+                executed = System.nanoTime();
+                logger.debug("{} ms writing {} bytes for {} records", (executed - init) / 1_000_000,
+                        contentSize, processed);
+                updatedInDB = statement.getUpdatedRows();
+                txPolicy.commit(processed, updatedInDB);
+            } catch (SQLException | JFleetException | RuntimeException e) {
+                notify(stringContent, init, executed, updatedInDB, e);
+                throw e;
+            } finally {
+                event.entity(entityInfo).rows(processed).chars(contentSize).end();
+            }
+            notify(stringContent, init, executed, updatedInDB, null);
         }
     }
 
+    private void notify(StringContent stringContent, long init, long executed, long updatedInDB, Throwable error) {
+        long end = System.nanoTime();
+        long executeNanos = executed == 0 ? end - init : executed - init;
+        long commitNanos = executed == 0 ? 0 : end - executed;
+        metricsListener.onBatch(new BatchMetrics(stringContent.getRecords(), stringContent.getContentSize(),
+                stringContent.getBatchSize(), stringContent.getSerializationNanos(), stringContent.getWaitNanos(),
+                executeNanos, commitNanos, updatedInDB, error));
+    }
+
 }
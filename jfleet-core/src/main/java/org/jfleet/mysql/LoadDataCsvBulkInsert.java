@@ -0,0 +1,76 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.mysql;
+
+import static org.jfleet.mysql.LoadDataConstants.ESCAPABLE_CHARS;
+import static org.jfleet.mysql.MySqlTransactionPolicy.getTransactionPolicy;
+import static org.jfleet.mysql.Statement.createStatement;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.jfleet.CsvBulkInsert;
+import org.jfleet.JFleetException;
+import org.jfleet.common.ContentWriter;
+import org.jfleet.common.LoopAndWrite;
+import org.jfleet.common.RowSource;
+import org.jfleet.csv.CsvSourceConfiguration;
+import org.jfleet.csv.CsvTranscoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads a CSV file into a table transcoding it directly to LOAD DATA format,
+ * without creating any entity. The EntityInfo of the configuration defines the
+ * table and its columns in the same order than in the CSV file. Accessors and
+ * types of each column are not used.
+ */
+public class LoadDataCsvBulkInsert implements CsvBulkInsert {
+
+    private static Logger logger = LoggerFactory.getLogger(LoadDataCsvBulkInsert.class);
+
+    private final LoadDataConfiguration cfg;
+    private final CsvSourceConfiguration csvConfig;
+    private final String mainSql;
+
+    public LoadDataCsvBulkInsert(LoadDataConfiguration loadDataConfiguration, CsvSourceConfiguration csvConfig) {
+        this.cfg = loadDataConfiguration;
+        this.csvConfig = csvConfig;
+        this.mainSql = new SqlBuilder(cfg.getEntityInfo()).build();
+        logger.debug("SQL Insert for CSV into {}: {}", cfg.getEntityInfo().getTableName(), mainSql);
+        logger.debug("Batch size: {} bytes", cfg.getBatchSize());
+    }
+
+    @Override
+    public void insertAll(Connection conn, InputStream inputStream) throws JFleetException, SQLException {
+        int columns = cfg.getEntityInfo().getColumns().size();
+        InputStreamReader reader = new InputStreamReader(inputStream, csvConfig.getCharset());
+        RowSource rowSource = new CsvTranscoder(reader, csvConfig, columns, ESCAPABLE_CHARS, true);
+        MySqlTransactionPolicy txPolicy = getTransactionPolicy(conn, cfg.isAutocommit(), cfg.isErrorOnMissingRow());
+        try (Statement stmt = createStatement(conn)) {
+            ContentWriter contentWriter = new LoadDataContentWriter(stmt, txPolicy, mainSql, cfg.getEncoding(),
+                    cfg.getMetricsListener(), cfg.getEntityInfo());
+            ContentWriter wrappedContentWriter = cfg.getWriterWrapper().apply(contentWriter);
+            LoopAndWrite loopAndWrite = new LoopAndWrite(cfg, wrappedContentWriter);
+            loopAndWrite.go(rowSource);
+        } finally {
+            txPolicy.close();
+        }
+    }
+
+}
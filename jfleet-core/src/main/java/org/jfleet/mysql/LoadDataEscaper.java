@@ -56,7 +56,7 @@ class LoadDataEscaper {
         return -1;
     }
 
-    private boolean isEscapable(char character) {
+    boolean isEscapable(char character) {
         switch (character) {
         case ESCAPED_BY_CHAR:
         case LINE_TERMINATED_CHAR:
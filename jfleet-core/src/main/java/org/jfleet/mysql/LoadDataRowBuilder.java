@@ -15,20 +15,26 @@
  */
 package org.jfleet.mysql;
 
+import static org.jfleet.mysql.LoadDataConstants.ESCAPED_BY_CHAR;
 import static org.jfleet.mysql.LoadDataConstants.FIELD_TERMINATED_CHAR;
 import static org.jfleet.mysql.LoadDataConstants.LINE_TERMINATED_CHAR;
 
 import java.util.List;
 
 import org.jfleet.ColumnInfo;
+import org.jfleet.EntityFieldType;
 import org.jfleet.EntityInfo;
+import org.jfleet.columnar.ColumnarBatch;
+import org.jfleet.columnar.ColumnarBatch.ValueWriter;
+import org.jfleet.columnar.ColumnarRowSource;
 import org.jfleet.common.EntityRowBuilder;
 import org.jfleet.common.StringContent;
 
-class LoadDataRowBuilder implements EntityRowBuilder {
+class LoadDataRowBuilder implements EntityRowBuilder, ColumnarRowSource.RowBuilder {
 
     private final LoadDataEscaper escaper = new LoadDataEscaper();
     private final MySqlTypeSerializer typeSerializer = new MySqlTypeSerializer();
+    private final ContentValueWriter valueWriter = new ContentValueWriter();
     private final List<ColumnInfo> columns;
 
     LoadDataRowBuilder(EntityInfo entityInfo) {
@@ -52,4 +58,58 @@ class LoadDataRowBuilder implements EntityRowBuilder {
         stringContent.append(LINE_TERMINATED_CHAR);
     }
 
+    @Override
+    public void add(StringContent stringContent, ColumnarBatch batch, int row) {
+        valueWriter.content = stringContent;
+        for (int i = 0; i < columns.size(); i++) {
+            batch.writeValue(i, row, valueWriter);
+            stringContent.append(FIELD_TERMINATED_CHAR);
+        }
+        stringContent.append(LINE_TERMINATED_CHAR);
+    }
+
+    private class ContentValueWriter implements ValueWriter {
+
+        private StringContent content;
+
+        @Override
+        public void writeNull() {
+            content.append("\\N");
+        }
+
+        @Override
+        public void writeLong(long value) {
+            content.append(value);
+        }
+
+        @Override
+        public void writeDouble(double value) {
+            content.append(value);
+        }
+
+        @Override
+        public void writeFloat(float value) {
+            content.append(value);
+        }
+
+        @Override
+        public void writeBoolean(boolean value) {
+            content.append(value ? '1' : '0');
+        }
+
+        @Override
+        public void writeChar(char value) {
+            if (escaper.isEscapable(value)) {
+                content.append(ESCAPED_BY_CHAR);
+            }
+            content.append(value);
+        }
+
+        @Override
+        public void writeObject(Object value, EntityFieldType fieldType) {
+            content.append(escaper.escapeForLoadFile(typeSerializer.toString(value, fieldType)));
+        }
+
+    }
+
 }
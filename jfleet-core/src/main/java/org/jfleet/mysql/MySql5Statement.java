@@ -51,4 +51,9 @@ class MySql5Statement implements org.jfleet.mysql.Statement {
         return ResultsetInspector.getUpdatedRows(statement);
     }
 
+    @Override
+    public void cancel() throws SQLException {
+        statement.cancel();
+    }
+
 }
@@ -58,4 +58,9 @@ class MySql8Statement implements org.jfleet.mysql.Statement {
         return ResultsetInspector.getUpdatedRows(statement);
     }
 
+    @Override
+    public void cancel() throws SQLException {
+        statement.cancel();
+    }
+
 }
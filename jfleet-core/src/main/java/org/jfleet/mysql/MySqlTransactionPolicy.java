@@ -19,6 +19,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 
 import org.jfleet.JFleetException;
+import org.jfleet.common.JFleetEvent;
 
 interface MySqlTransactionPolicy {
 
@@ -77,7 +78,12 @@ interface MySqlTransactionPolicy {
                 throw new JFleetException(
                         "Missed rows, processed by JFleet: " + processed + ", loaded in DB: " + updatedInDB);
             }
-            this.connection.commit();
+            JFleetEvent event = JFleetEvent.commit();
+            try {
+                this.connection.commit();
+            } finally {
+                event.rows(processed).end();
+            }
         }
 
         @Override
@@ -52,4 +52,6 @@ interface Statement extends AutoCloseable {
 
     long getUpdatedRows();
 
+    void cancel() throws SQLException;
+
 }
@@ -24,11 +24,14 @@ import org.jfleet.EntityInfo;
 import org.jfleet.JFleetException;
 import org.jfleet.WrappedException;
 import org.jfleet.common.ContentWriter;
+import org.jfleet.common.LoadTracker;
+import org.jfleet.common.LoadTracker.Cancellable;
 import org.jfleet.common.LoopAndWrite;
 import org.jfleet.common.TransactionPolicy;
 import org.jfleet.postgres.PgCopyConfiguration.PgCopyConfigurationBuilder;
+import org.postgresql.PGConnection;
 import org.postgresql.copy.CopyManager;
-import org.postgresql.jdbc.PgConnection;
+import org.postgresql.core.BaseConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,11 +59,20 @@ public class PgCopyBulkInsert<T> implements BulkInsert<T> {
 
     @Override
     public void insertAll(Connection conn, Stream<T> stream) throws JFleetException, SQLException {
+        insertAll(conn, stream, new LoadTracker());
+    }
+
+    @Override
+    public void insertAll(Connection conn, Stream<T> stream, LoadTracker tracker)
+            throws JFleetException, SQLException {
         PgCopyRowBuilder rowBuilder = new PgCopyRowBuilder(cfg.getEntityInfo());
         CopyManager copyMng = getCopyManager(conn);
+        Cancellable cancellable = getCancellable(conn);
+        tracker.register(cancellable);
         try {
             TransactionPolicy txPolicy = TransactionPolicy.getTransactionPolicy(conn, cfg.isAutocommit());
-            ContentWriter contentWriter = new PgCopyContentWriter(txPolicy, copyMng, mainSql);
+            ContentWriter contentWriter = new PgCopyContentWriter(txPolicy, copyMng, mainSql,
+                    tracker.with(cfg.getMetricsListener()), cfg.getEntityInfo());
             try {
                 LoopAndWrite loopAndWrite = new LoopAndWrite(cfg, contentWriter, rowBuilder);
                 loopAndWrite.go(stream);
@@ -69,12 +81,24 @@ public class PgCopyBulkInsert<T> implements BulkInsert<T> {
             }
         } catch (WrappedException e) {
             e.rethrow();
+        } finally {
+            tracker.unregister(cancellable);
         }
     }
 
     private CopyManager getCopyManager(Connection conn) throws SQLException {
-        PgConnection unwrapped = conn.unwrap(PgConnection.class);
+        PGConnection unwrapped = conn.unwrap(PGConnection.class);
         return unwrapped.getCopyAPI();
     }
 
+    // COPY is not executed with a Statement, the driver cancels the query running in the connection
+    private Cancellable getCancellable(Connection conn) throws SQLException {
+        if (conn.isWrapperFor(BaseConnection.class)) {
+            BaseConnection unwrapped = conn.unwrap(BaseConnection.class);
+            return unwrapped::cancelQuery;
+        }
+        return () -> {
+        };
+    }
+
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.postgres;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.jfleet.ColumnarBulkInsert;
+import org.jfleet.JFleetException;
+import org.jfleet.WrappedException;
+import org.jfleet.columnar.ColumnarBatch;
+import org.jfleet.columnar.ColumnarRowSource;
+import org.jfleet.common.ContentWriter;
+import org.jfleet.common.LoopAndWrite;
+import org.jfleet.common.RowSource;
+import org.jfleet.common.TransactionPolicy;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads a ColumnarBatch into a table serializing its arrays by row index directly to COPY text format, without
+ * creating any object per row nor boxing primitive values. The EntityInfo of the configuration defines the table and
+ * must have the columns of the batch in the same order, like the EntityInfo of the batch itself.
+ */
+public class PgCopyColumnarBulkInsert implements ColumnarBulkInsert {
+
+    private static Logger logger = LoggerFactory.getLogger(PgCopyColumnarBulkInsert.class);
+
+    private final PgCopyConfiguration cfg;
+    private final String mainSql;
+
+    public PgCopyColumnarBulkInsert(PgCopyConfiguration config) {
+        this.cfg = config;
+        this.mainSql = new SqlBuilder(config.getEntityInfo()).build();
+        logger.debug("SQL Insert for columnar batch into {}: {}", config.getEntityInfo().getTableName(), mainSql);
+        logger.debug("Batch size: {} bytes", config.getBatchSize());
+    }
+
+    @Override
+    public void insertAll(Connection conn, ColumnarBatch batch) throws JFleetException, SQLException {
+        PgCopyRowBuilder rowBuilder = new PgCopyRowBuilder(cfg.getEntityInfo());
+        RowSource rowSource = new ColumnarRowSource(batch, cfg.getEntityInfo().getNotIdentityColumns(), rowBuilder);
+        CopyManager copyMng = getCopyManager(conn);
+        try {
+            TransactionPolicy txPolicy = TransactionPolicy.getTransactionPolicy(conn, cfg.isAutocommit());
+            ContentWriter contentWriter = new PgCopyContentWriter(txPolicy, copyMng, mainSql,
+                    cfg.getMetricsListener(), cfg.getEntityInfo());
+            try {
+                LoopAndWrite loopAndWrite = new LoopAndWrite(cfg, contentWriter);
+                loopAndWrite.go(rowSource);
+            } finally {
+                txPolicy.close();
+            }
+        } catch (WrappedException e) {
+            e.rethrow();
+        }
+    }
+
+    private CopyManager getCopyManager(Connection conn) throws SQLException {
+        PGConnection unwrapped = conn.unwrap(PGConnection.class);
+        return unwrapped.getCopyAPI();
+    }
+
+}
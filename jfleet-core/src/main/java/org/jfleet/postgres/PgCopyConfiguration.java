@@ -16,9 +16,13 @@
 package org.jfleet.postgres;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.jfleet.EntityInfo;
+import org.jfleet.common.AdaptiveBatchSize;
+import org.jfleet.common.BatchMetricsListener;
 import org.jfleet.common.JFleetBatchConfig;
+import org.jfleet.common.VirtualThreads;
 import org.jfleet.inspection.JpaEntityInspector;
 
 public class PgCopyConfiguration implements JFleetBatchConfig {
@@ -28,6 +32,10 @@ public class PgCopyConfiguration implements JFleetBatchConfig {
     private boolean autocommit;
     private boolean concurrent;
     private Executor executor;
+    private BatchMetricsListener metricsListener;
+    private AdaptiveBatchSize adaptiveBatchSize;
+    private int maxBatchRows;
+    private long lingerNanos;
 
     @Override
     public EntityInfo getEntityInfo() {
@@ -54,6 +62,26 @@ public class PgCopyConfiguration implements JFleetBatchConfig {
         return executor;
     }
 
+    @Override
+    public BatchMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    @Override
+    public AdaptiveBatchSize getAdaptiveBatchSize() {
+        return adaptiveBatchSize;
+    }
+
+    @Override
+    public int getMaxBatchRows() {
+        return maxBatchRows;
+    }
+
+    @Override
+    public long getLingerNanos() {
+        return lingerNanos;
+    }
+
 
     public static class PgCopyConfigurationBuilder {
 
@@ -63,6 +91,10 @@ public class PgCopyConfiguration implements JFleetBatchConfig {
         private boolean autocommit = true;
         private boolean concurrent = true;
         private Executor executor = null;
+        private BatchMetricsListener metricsListener = BatchMetricsListener.NONE;
+        private AdaptiveBatchSize adaptiveBatchSize = null;
+        private int maxBatchRows = 0;
+        private long lingerNanos = 0;
 
         public static PgCopyConfigurationBuilder from(Class<?> clazz) {
             return new PgCopyConfigurationBuilder(clazz);
@@ -100,6 +132,73 @@ public class PgCopyConfiguration implements JFleetBatchConfig {
             return this;
         }
 
+        /**
+         * Runs the concurrent writes in virtual threads when running on Java 21 or later, or in a cached pool of
+         * daemon platform threads otherwise, instead of the default ForkJoinPool.commonPool(). See
+         * {@link VirtualThreads}.
+         *
+         * @return the builder
+         */
+        public PgCopyConfigurationBuilder virtualThreads() {
+            this.executor = VirtualThreads.executor();
+            return this;
+        }
+
+        /**
+         * Listener receiving rows, bytes and per phase timings of each batch. See
+         * {@link org.jfleet.common.AggregatedBatchMetrics} for a default implementation.
+         *
+         * @param metricsListener
+         *            the listener
+         * @return the builder
+         */
+        public PgCopyConfigurationBuilder metricsListener(BatchMetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * Adjusts the batch size between bounds from the measured throughput and latency of each batch, instead of
+         * using the fixed {@link #batchSize(int)}.
+         *
+         * @param adaptiveBatchSize
+         *            the controller, shared by all inserts using this configuration
+         * @return the builder
+         */
+        public PgCopyConfigurationBuilder adaptiveBatchSize(AdaptiveBatchSize adaptiveBatchSize) {
+            this.adaptiveBatchSize = adaptiveBatchSize;
+            return this;
+        }
+
+        /**
+         * Writes a batch when it reaches this number of rows, even if it does not reach the batch size. Useful to
+         * cap batches of very wide rows.
+         *
+         * @param maxBatchRows
+         *            maximum rows per batch, 0 for no limit
+         * @return the builder
+         */
+        public PgCopyConfigurationBuilder maxBatchRows(int maxBatchRows) {
+            this.maxBatchRows = maxBatchRows;
+            return this;
+        }
+
+        /**
+         * Writes a partially filled batch when its first row has waited this time, so rows of a slow stream are
+         * not kept in memory indefinitely. A timer thread flushes the batch while the stream is blocked waiting for
+         * more rows. Not applied to CSV loads.
+         *
+         * @param linger
+         *            maximum time a row waits in a batch, 0 to wait until the batch is filled
+         * @param unit
+         *            unit of linger
+         * @return the builder
+         */
+        public PgCopyConfigurationBuilder linger(long linger, TimeUnit unit) {
+            this.lingerNanos = unit.toNanos(linger);
+            return this;
+        }
+
         public PgCopyConfiguration build() {
             if (entityInfo == null) {
                 JpaEntityInspector inspector = new JpaEntityInspector(clazz);
@@ -110,6 +209,10 @@ public class PgCopyConfiguration implements JFleetBatchConfig {
             conf.batchSize = this.batchSize;
             conf.concurrent = this.concurrent;
             conf.executor = this.executor;
+            conf.metricsListener = this.metricsListener;
+            conf.adaptiveBatchSize = this.adaptiveBatchSize;
+            conf.maxBatchRows = this.maxBatchRows;
+            conf.lingerNanos = this.lingerNanos;
             conf.entityInfo = this.entityInfo;
             return conf;
         }
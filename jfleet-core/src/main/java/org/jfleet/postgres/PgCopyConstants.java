@@ -21,6 +21,8 @@ class PgCopyConstants {
     public static final char NEWLINE_CHAR = '\n';
     public static final char CARRIAGE_RETURN_CHAR = '\r';
     public static final char DELIMITER_CHAR = '\t';
+    public static final String ESCAPABLE_CHARS = "" + ESCAPE_CHAR + NEWLINE_CHAR + CARRIAGE_RETURN_CHAR
+            + DELIMITER_CHAR;
 
     private PgCopyConstants() {
     }
@@ -19,8 +19,12 @@ import java.io.IOException;
 import java.io.Reader;
 import java.sql.SQLException;
 
+import org.jfleet.EntityInfo;
 import org.jfleet.WrappedException;
+import org.jfleet.common.BatchMetrics;
+import org.jfleet.common.BatchMetricsListener;
 import org.jfleet.common.ContentWriter;
+import org.jfleet.common.JFleetEvent;
 import org.jfleet.common.StringBuilderReader;
 import org.jfleet.common.StringContent;
 import org.jfleet.common.TransactionPolicy;
@@ -35,29 +39,59 @@ class PgCopyContentWriter implements ContentWriter {
     private final TransactionPolicy txPolicy;
     private final CopyManager copyManager;
     private final String mainSql;
+    private final BatchMetricsListener metricsListener;
+    private final EntityInfo entityInfo;
 
-    PgCopyContentWriter(TransactionPolicy txPolicy, CopyManager copyManager, String mainSql) {
+    PgCopyContentWriter(TransactionPolicy txPolicy, CopyManager copyManager, String mainSql,
+            BatchMetricsListener metricsListener, EntityInfo entityInfo) {
+        this.entityInfo = entityInfo;
         this.txPolicy = txPolicy;
         this.copyManager = copyManager;
         this.mainSql = mainSql;
+        this.metricsListener = metricsListener;
     }
 
     @Override
     public void writeContent(StringContent stringContent) throws SQLException {
         int contentSize = stringContent.getContentSize();
         if (contentSize > 0) {
+            int records = stringContent.getRecords();
+            int batchSize = stringContent.getBatchSize();
+            long serializationNanos = stringContent.getSerializationNanos();
+            long waitNanos = stringContent.getWaitNanos();
+            long init = System.nanoTime();
+            long executed = 0;
+            long updatedInDB = -1;
+            JFleetEvent event = JFleetEvent.batchWrite();
             try {
-                long init = System.nanoTime();
                 Reader reader = new StringBuilderReader(stringContent.getContent());
-                copyManager.copyIn(mainSql, reader);
-                logger.debug("{} ms writing {} bytes for {} records", (System.nanoTime() - init) / 1_000_000,
-                        contentSize, stringContent.getRecords());
+                updatedInDB = copyManager.copyIn(mainSql, reader);
+                executed = System.nanoTime();
+                logger.debug("{} ms writing {} bytes for {} records", (executed - init) / 1_000_000,
+                        contentSize, records);
                 stringContent.reset();
                 txPolicy.commit();
             } catch (IOException e) {
-                throw new WrappedException(e);
+                WrappedException wrapped = new WrappedException(e);
+                notify(records, contentSize, batchSize, serializationNanos, waitNanos, init, executed, updatedInDB, e);
+                throw wrapped;
+            } catch (SQLException | RuntimeException e) {
+                notify(records, contentSize, batchSize, serializationNanos, waitNanos, init, executed, updatedInDB, e);
+                throw e;
+            } finally {
+                event.entity(entityInfo).rows(records).chars(contentSize).end();
             }
+            notify(records, contentSize, batchSize, serializationNanos, waitNanos, init, executed, updatedInDB, null);
         }
     }
 
+    private void notify(int records, int contentSize, int batchSize, long serializationNanos, long waitNanos,
+            long init, long executed, long updatedInDB, Throwable error) {
+        long end = System.nanoTime();
+        long executeNanos = executed == 0 ? end - init : executed - init;
+        long commitNanos = executed == 0 ? 0 : end - executed;
+        metricsListener.onBatch(new BatchMetrics(records, contentSize, batchSize, serializationNanos, waitNanos,
+                executeNanos, commitNanos, updatedInDB, error));
+    }
+
 }
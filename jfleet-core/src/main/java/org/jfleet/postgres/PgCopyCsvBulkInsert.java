@@ -0,0 +1,87 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.postgres;
+
+import static org.jfleet.postgres.PgCopyConstants.ESCAPABLE_CHARS;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.jfleet.CsvBulkInsert;
+import org.jfleet.JFleetException;
+import org.jfleet.WrappedException;
+import org.jfleet.common.ContentWriter;
+import org.jfleet.common.LoopAndWrite;
+import org.jfleet.common.RowSource;
+import org.jfleet.common.TransactionPolicy;
+import org.jfleet.csv.CsvSourceConfiguration;
+import org.jfleet.csv.CsvTranscoder;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads a CSV file into a table transcoding it directly to COPY text format,
+ * without creating any entity. The EntityInfo of the configuration defines the
+ * table and its columns in the same order than in the CSV file. Accessors and
+ * types of each column are not used.
+ */
+public class PgCopyCsvBulkInsert implements CsvBulkInsert {
+
+    private static Logger logger = LoggerFactory.getLogger(PgCopyCsvBulkInsert.class);
+
+    private final PgCopyConfiguration cfg;
+    private final CsvSourceConfiguration csvConfig;
+    private final String mainSql;
+
+    public PgCopyCsvBulkInsert(PgCopyConfiguration config, CsvSourceConfiguration csvConfig) {
+        this.cfg = config;
+        this.csvConfig = csvConfig;
+        this.mainSql = new SqlBuilder(config.getEntityInfo()).build();
+        logger.debug("SQL Insert for CSV into {}: {}", config.getEntityInfo().getTableName(), mainSql);
+        logger.debug("Batch size: {} bytes", config.getBatchSize());
+    }
+
+    @Override
+    public void insertAll(Connection conn, InputStream inputStream) throws JFleetException, SQLException {
+        int columns = cfg.getEntityInfo().getNotIdentityColumns().size();
+        InputStreamReader reader = new InputStreamReader(inputStream, csvConfig.getCharset());
+        RowSource rowSource = new CsvTranscoder(reader, csvConfig, columns, ESCAPABLE_CHARS, false);
+        CopyManager copyMng = getCopyManager(conn);
+        try {
+            TransactionPolicy txPolicy = TransactionPolicy.getTransactionPolicy(conn, cfg.isAutocommit());
+            ContentWriter contentWriter = new PgCopyContentWriter(txPolicy, copyMng, mainSql,
+                    cfg.getMetricsListener(), cfg.getEntityInfo());
+            try {
+                LoopAndWrite loopAndWrite = new LoopAndWrite(cfg, contentWriter);
+                loopAndWrite.go(rowSource);
+            } finally {
+                txPolicy.close();
+            }
+        } catch (WrappedException e) {
+            e.rethrow();
+        }
+    }
+
+    private CopyManager getCopyManager(Connection conn) throws SQLException {
+        PGConnection unwrapped = conn.unwrap(PGConnection.class);
+        return unwrapped.getCopyAPI();
+    }
+
+}
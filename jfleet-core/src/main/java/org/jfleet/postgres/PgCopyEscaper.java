@@ -52,7 +52,7 @@ class PgCopyEscaper {
         return -1;
     }
 
-    private boolean isEscapable(char character) {
+    boolean isEscapable(char character) {
         switch (character) {
         case PgCopyConstants.DELIMITER_CHAR:
         case PgCopyConstants.NEWLINE_CHAR:
@@ -16,19 +16,25 @@
 package org.jfleet.postgres;
 
 import static org.jfleet.postgres.PgCopyConstants.DELIMITER_CHAR;
+import static org.jfleet.postgres.PgCopyConstants.ESCAPE_CHAR;
 import static org.jfleet.postgres.PgCopyConstants.NEWLINE_CHAR;
 
 import java.util.List;
 
 import org.jfleet.ColumnInfo;
+import org.jfleet.EntityFieldType;
 import org.jfleet.EntityInfo;
+import org.jfleet.columnar.ColumnarBatch;
+import org.jfleet.columnar.ColumnarBatch.ValueWriter;
+import org.jfleet.columnar.ColumnarRowSource;
 import org.jfleet.common.EntityRowBuilder;
 import org.jfleet.common.StringContent;
 
-class PgCopyRowBuilder implements EntityRowBuilder {
+class PgCopyRowBuilder implements EntityRowBuilder, ColumnarRowSource.RowBuilder {
 
     private final PgCopyEscaper escaper = new PgCopyEscaper();
     private final PostgresTypeSerializer typeSerializer = new PostgresTypeSerializer();
+    private final ContentValueWriter valueWriter = new ContentValueWriter();
     private final List<ColumnInfo> columns;
 
     PgCopyRowBuilder(EntityInfo entityInfo) {
@@ -54,4 +60,60 @@ class PgCopyRowBuilder implements EntityRowBuilder {
         stringContent.append(NEWLINE_CHAR);
     }
 
+    @Override
+    public void add(StringContent stringContent, ColumnarBatch batch, int row) {
+        valueWriter.content = stringContent;
+        for (int i = 0; i < columns.size(); i++) {
+            batch.writeValue(i, row, valueWriter);
+            if (i < columns.size() - 1) {
+                stringContent.append(DELIMITER_CHAR);
+            }
+        }
+        stringContent.append(NEWLINE_CHAR);
+    }
+
+    private class ContentValueWriter implements ValueWriter {
+
+        private StringContent content;
+
+        @Override
+        public void writeNull() {
+            content.append("\\N");
+        }
+
+        @Override
+        public void writeLong(long value) {
+            content.append(value);
+        }
+
+        @Override
+        public void writeDouble(double value) {
+            content.append(value);
+        }
+
+        @Override
+        public void writeFloat(float value) {
+            content.append(value);
+        }
+
+        @Override
+        public void writeBoolean(boolean value) {
+            content.append(value ? "true" : "false");
+        }
+
+        @Override
+        public void writeChar(char value) {
+            if (escaper.isEscapable(value)) {
+                content.append(ESCAPE_CHAR);
+            }
+            content.append(value);
+        }
+
+        @Override
+        public void writeObject(Object value, EntityFieldType fieldType) {
+            content.append(escaper.escapeForStdIn(typeSerializer.toString(value, fieldType)));
+        }
+
+    }
+
 }
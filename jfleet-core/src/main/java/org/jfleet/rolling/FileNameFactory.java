@@ -0,0 +1,33 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.rolling;
+
+import java.nio.file.Path;
+
+/**
+ * Creates the path of each file written by a RollingWriter.
+ */
+@FunctionalInterface
+public interface FileNameFactory {
+
+    /**
+     * @param writerIndex index of the concurrent writer, from 0 to writers - 1
+     * @param part sequence number of the file within the writer, starting at 0
+     * @return path of the new file
+     */
+    Path create(int writerIndex, int part);
+
+}
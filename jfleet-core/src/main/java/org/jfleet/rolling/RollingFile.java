@@ -0,0 +1,64 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.rolling;
+
+import java.nio.file.Path;
+
+/**
+ * Manifest entry of a file written by a RollingWriter.
+ */
+public class RollingFile {
+
+    private final Path path;
+    private final int writerIndex;
+    private final int part;
+    private final long rows;
+    private final long bytes;
+
+    RollingFile(Path path, int writerIndex, int part, long rows, long bytes) {
+        this.path = path;
+        this.writerIndex = writerIndex;
+        this.part = part;
+        this.rows = rows;
+        this.bytes = bytes;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getWriterIndex() {
+        return writerIndex;
+    }
+
+    public int getPart() {
+        return part;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return path + " [rows=" + rows + ", bytes=" + bytes + "]";
+    }
+
+}
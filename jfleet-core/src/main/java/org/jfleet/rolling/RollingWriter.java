@@ -0,0 +1,284 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.rolling;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.jfleet.common.CountingOutputStream;
+
+/**
+ *
+ * Writes entities to a sequence of files, opening a new one when the current file reaches a number of rows or a
+ * number of bytes. Files are created with a FileNameFactory and written with any format writer created by a
+ * WriterFactory, like JFleetCsvWriter, JFleetAvroWriter or JFleetParquetWriter.
+ *
+ * Entities can be distributed across several files open at the same time, round-robin or by a key. Each writer is
+ * independently locked, so the RollingWriter can be fed concurrently, for example from a parallel stream.
+ *
+ * The byte limit is checked against the bytes already flushed to the file by the format writer. Writers that
+ * buffer content, like Parquet row groups, can exceed it in up to the size of their buffer.
+ *
+ * @param <T> Type of the object to write
+ * @param <W> Type of the format writer
+ */
+public class RollingWriter<T, W extends Closeable & Consumer<T>> implements Closeable, Consumer<T> {
+
+    private final FileNameFactory fileNameFactory;
+    private final WriterFactory<W> writerFactory;
+    private final long maxRows;
+    private final long maxBytes;
+    private final Function<T, ?> keyExtractor;
+    private final List<Slot> slots;
+    private final AtomicLong counter = new AtomicLong();
+    private final List<RollingFile> manifest = new ArrayList<>();
+    private volatile boolean closed = false;
+
+    private RollingWriter(Builder<T, W> builder) {
+        this.fileNameFactory = builder.fileNameFactory;
+        this.writerFactory = builder.writerFactory;
+        this.maxRows = builder.maxRows;
+        this.maxBytes = builder.maxBytes;
+        this.keyExtractor = builder.keyExtractor;
+        this.slots = new ArrayList<>(builder.writers);
+        for (int i = 0; i < builder.writers; i++) {
+            slots.add(new Slot(i));
+        }
+    }
+
+    public void writeAll(Collection<T> collection) throws IOException {
+        for (T entity : collection) {
+            write(entity);
+        }
+    }
+
+    public void writeAll(Stream<T> stream) throws IOException {
+        Iterator<T> iterator = stream.iterator();
+        while (iterator.hasNext()) {
+            write(iterator.next());
+        }
+    }
+
+    public void write(T entity) throws IOException {
+        Slot slot = slots.get(nextSlot(entity));
+        synchronized (slot) {
+            slot.write(entity);
+        }
+    }
+
+    /**
+     *
+     * Writes the specified Java object implementing Consumer of T
+     *
+     * @param entity object to write
+     * @throws UncheckedIOException if an error occurs while writing the records
+     */
+    @Override
+    public void accept(T entity) {
+        try {
+            write(entity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int nextSlot(T entity) {
+        if (keyExtractor != null) {
+            Object key = keyExtractor.apply(entity);
+            return key == null ? 0 : Math.floorMod(key.hashCode(), slots.size());
+        }
+        return (int) Math.floorMod(counter.getAndIncrement(), (long) slots.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        IOException exception = null;
+        for (Slot slot : slots) {
+            synchronized (slot) {
+                try {
+                    slot.close();
+                } catch (IOException e) {
+                    if (exception == null) {
+                        exception = e;
+                    } else {
+                        exception.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Returns the files completely written so far, ordered by writer and part. Once the RollingWriter is closed it
+     * contains all written files.
+     *
+     * @return manifest of written files with their rows
+     */
+    public List<RollingFile> getManifest() {
+        List<RollingFile> files;
+        synchronized (manifest) {
+            files = new ArrayList<>(manifest);
+        }
+        files.sort(Comparator.comparingInt(RollingFile::getWriterIndex).thenComparingInt(RollingFile::getPart));
+        return Collections.unmodifiableList(files);
+    }
+
+    private void addToManifest(RollingFile file) {
+        synchronized (manifest) {
+            manifest.add(file);
+        }
+    }
+
+    private class Slot {
+
+        private final int index;
+        private int part = 0;
+        private Path path;
+        private CountingOutputStream outputStream;
+        private W writer;
+        private long rows;
+
+        Slot(int index) {
+            this.index = index;
+        }
+
+        void write(T entity) throws IOException {
+            if (closed) {
+                throw new IOException("RollingWriter is closed");
+            }
+            if (writer == null) {
+                open();
+            }
+            try {
+                writer.accept(entity);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            rows++;
+            if (rows >= maxRows || outputStream.getCount() >= maxBytes) {
+                close();
+            }
+        }
+
+        private void open() throws IOException {
+            path = fileNameFactory.create(index, part);
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            outputStream = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+            writer = writerFactory.create(outputStream);
+            rows = 0;
+        }
+
+        void close() throws IOException {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.close();
+                outputStream.close();
+                addToManifest(new RollingFile(path, index, part, rows, outputStream.getCount()));
+            } finally {
+                writer = null;
+                outputStream = null;
+                part++;
+            }
+        }
+
+    }
+
+    public static class Builder<T, W extends Closeable & Consumer<T>> {
+
+        private final FileNameFactory fileNameFactory;
+        private final WriterFactory<W> writerFactory;
+        private long maxRows = Long.MAX_VALUE;
+        private long maxBytes = Long.MAX_VALUE;
+        private int writers = 1;
+        private Function<T, ?> keyExtractor;
+
+        public Builder(FileNameFactory fileNameFactory, WriterFactory<W> writerFactory) {
+            this.fileNameFactory = fileNameFactory;
+            this.writerFactory = writerFactory;
+        }
+
+        public Builder<T, W> maxRows(long maxRows) {
+            this.maxRows = maxRows;
+            return this;
+        }
+
+        public Builder<T, W> maxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Number of files written at the same time. Entities are distributed round-robin unless a key is
+         * configured with {@link #partitionBy(Function)}.
+         *
+         * @param writers number of concurrent writers
+         * @return the builder
+         */
+        public Builder<T, W> writers(int writers) {
+            this.writers = writers;
+            return this;
+        }
+
+        /**
+         * Routes all entities with the same key to the same writer.
+         *
+         * @param keyExtractor function returning the key of each entity
+         * @return the builder
+         */
+        public Builder<T, W> partitionBy(Function<T, ?> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+            return this;
+        }
+
+        public RollingWriter<T, W> build() {
+            if (maxRows <= 0 || maxBytes <= 0) {
+                throw new IllegalArgumentException("Max rows and max bytes must be positive");
+            }
+            if (writers <= 0) {
+                throw new IllegalArgumentException("Number of writers must be positive");
+            }
+            return new RollingWriter<>(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.rolling;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Creates a format writer, like JFleetCsvWriter, JFleetAvroWriter or JFleetParquetWriter, over the OutputStream
+ * of each new file.
+ *
+ * @param <W> Type of the format writer
+ */
+@FunctionalInterface
+public interface WriterFactory<W> {
+
+    W create(OutputStream outputStream) throws IOException;
+
+}
@@ -0,0 +1,508 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.sink;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.jfleet.BulkInsert;
+import org.jfleet.JFleetException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * Long lived sink that many threads can feed concurrently with single entities, which are inserted in micro batches
+ * with any BulkInsert: LoadDataBulkInsert, PgCopyBulkInsert or JdbcBulkInsert.
+ *
+ * Producers add entities to a lock free queue, consumed by a single dispatcher thread that groups them in batches of
+ * up to maxBatchRows, or the entities arrived during the linger time. Each batch is inserted by a worker with its own
+ * connection from the DataSource, and committed if the connection is not in autocommit mode. Each offered entity
+ * gets a future completed when its batch is committed, or completed exceptionally if the batch fails.
+ *
+ * The number of entities offered and not yet committed is bounded by the capacity: producers block when it is
+ * reached, so a slow database slows down producers instead of exhausting the memory.
+ *
+ * <pre>
+ * try (BulkInsertSink&lt;Employee&gt; sink = new BulkInsertSink.Builder&lt;&gt;(bulkInsert, dataSource)
+ *         .maxBatchRows(10_000).linger(100, TimeUnit.MILLISECONDS).workers(4).build()) {
+ *     CompletableFuture&lt;Void&gt; committed = sink.offer(employee);
+ *     ...
+ * }
+ * </pre>
+ *
+ * @param <T> Type of the entity to insert
+ */
+public class BulkInsertSink<T> implements AutoCloseable {
+
+    private static Logger logger = LoggerFactory.getLogger(BulkInsertSink.class);
+
+    private static final AtomicInteger SINK_COUNTER = new AtomicInteger();
+
+    private final BulkInsert<T> bulkInsert;
+    private final DataSource dataSource;
+    private final int maxBatchRows;
+    private final long lingerNanos;
+    private final Executor executor;
+    private final ExecutorService ownExecutor;
+
+    private final Queue<Entry<T>> queue = new ConcurrentLinkedQueue<>();
+    private final int maxCapacity;
+    private final Semaphore capacity;
+    private final Semaphore workers;
+    private final Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+    // First error of the batches submitted between two flushes, by the number of flushes before them
+    private final Map<Long, Throwable> failures = new ConcurrentHashMap<>();
+    private long flushes = 0;
+    private final Thread dispatcher;
+    private volatile boolean dispatcherWaiting = false;
+    private volatile boolean closed = false;
+
+    private final LongAdder committedRows = new LongAdder();
+    private final LongAdder failedRows = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private BulkInsertSink(Builder<T> builder) {
+        this.bulkInsert = builder.bulkInsert;
+        this.dataSource = builder.dataSource;
+        this.maxBatchRows = builder.maxBatchRows;
+        this.lingerNanos = builder.lingerNanos;
+        this.maxCapacity = builder.capacity;
+        this.capacity = new Semaphore(builder.capacity);
+        this.workers = new Semaphore(builder.workers);
+        int id = SINK_COUNTER.incrementAndGet();
+        if (builder.executor == null) {
+            this.ownExecutor = Executors.newFixedThreadPool(builder.workers, daemon("jfleet-sink-" + id + "-worker"));
+            this.executor = ownExecutor;
+        } else {
+            this.ownExecutor = null;
+            this.executor = builder.executor;
+        }
+        this.dispatcher = daemon("jfleet-sink-" + id + "-dispatcher").newThread(this::dispatch);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Adds an entity to the sink, waiting while the sink is at full capacity.
+     *
+     * @param entity
+     *            the entity to insert
+     * @return a future completed when the entity is committed in the database
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting for capacity
+     * @throws IllegalStateException
+     *             if the sink is closed
+     */
+    public CompletableFuture<Void> offer(T entity) throws InterruptedException {
+        checkOpen();
+        capacity.acquire();
+        return enqueue(entity);
+    }
+
+    /**
+     * Adds an entity to the sink, waiting up to the timeout while the sink is at full capacity.
+     *
+     * @param entity
+     *            the entity to insert
+     * @param timeout
+     *            maximum time to wait for capacity
+     * @param unit
+     *            unit of timeout
+     * @return a future completed when the entity is committed in the database, or null if the sink did not have
+     *         capacity before the timeout
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting for capacity
+     * @throws IllegalStateException
+     *             if the sink is closed
+     */
+    public CompletableFuture<Void> offer(T entity, long timeout, TimeUnit unit) throws InterruptedException {
+        checkOpen();
+        if (!capacity.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        return enqueue(entity);
+    }
+
+    /**
+     * Sends the entities pending in the sink without waiting for the linger time.
+     *
+     * @return a future completed when all entities offered before are committed, or completed exceptionally if any
+     *         batch failed since the previous flush
+     */
+    public CompletableFuture<Void> flush() {
+        checkOpen();
+        Entry<T> marker = new Entry<>(null, true);
+        queue.add(marker);
+        wakeUpDispatcher();
+        return marker.future;
+    }
+
+    /**
+     * Stops accepting entities, inserts the pending ones and waits until all batches finish. Errors are reported in
+     * the future of each entity and in {@link #getFailedRows()}.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        wakeUpDispatcher();
+        boolean interrupted = false;
+        while (dispatcher.isAlive()) {
+            try {
+                dispatcher.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        failPending();
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0])).handle((r, e) -> null).join();
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return entities offered and not yet committed or failed
+     */
+    public int getPendingRows() {
+        return maxCapacity - capacity.availablePermits();
+    }
+
+    public long getCommittedRows() {
+        return committedRows.sum();
+    }
+
+    public long getFailedRows() {
+        return failedRows.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    private CompletableFuture<Void> enqueue(T entity) {
+        Entry<T> entry = new Entry<>(entity, false);
+        queue.add(entry);
+        wakeUpDispatcher();
+        if (closed && !dispatcher.isAlive()) {
+            failPending();
+        }
+        return entry.future;
+    }
+
+    private void failPending() {
+        IllegalStateException closedException = new IllegalStateException("BulkInsertSink is closed");
+        Entry<T> entry;
+        while ((entry = queue.poll()) != null) {
+            fail(entry, closedException);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("BulkInsertSink is closed");
+        }
+    }
+
+    private void wakeUpDispatcher() {
+        if (dispatcherWaiting || closed) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private void dispatch() {
+        List<Entry<T>> batch = new ArrayList<>();
+        long deadline = 0;
+        try {
+            while (true) {
+                Entry<T> entry = queue.poll();
+                if (entry == null) {
+                    if (!batch.isEmpty() && System.nanoTime() - deadline >= 0) {
+                        batch = submit(batch);
+                    } else if (closed && queue.isEmpty()) {
+                        if (!batch.isEmpty()) {
+                            submit(batch);
+                        }
+                        return;
+                    } else {
+                        dispatcherWaiting = true;
+                        if (queue.isEmpty() && !closed) {
+                            if (batch.isEmpty()) {
+                                LockSupport.park(this);
+                            } else {
+                                LockSupport.parkNanos(this, deadline - System.nanoTime());
+                            }
+                        }
+                        dispatcherWaiting = false;
+                    }
+                } else if (entry.isFlush()) {
+                    if (!batch.isEmpty()) {
+                        batch = submit(batch);
+                    }
+                    completeWhenInFlightDone(entry.future, flushes++);
+                } else {
+                    if (batch.isEmpty()) {
+                        deadline = System.nanoTime() + lingerNanos;
+                    }
+                    batch.add(entry);
+                    if (batch.size() >= maxBatchRows) {
+                        batch = submit(batch);
+                    }
+                }
+            }
+        } catch (InterruptedException | RuntimeException e) {
+            logger.error("BulkInsertSink dispatcher stopped", e);
+            closed = true;
+            fail(batch, e);
+            Entry<T> entry;
+            while ((entry = queue.poll()) != null) {
+                fail(entry, e);
+            }
+        }
+    }
+
+    private void completeWhenInFlightDone(CompletableFuture<Void> flushFuture, long flush) {
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0])).whenComplete((r, e) -> {
+            // Batches already finished are not in flight, but their failures are reported to this flush
+            Throwable failure = failures.remove(flush);
+            if (failure == null) {
+                failure = e;
+            }
+            if (failure == null) {
+                flushFuture.complete(null);
+            } else {
+                flushFuture.completeExceptionally(failure);
+            }
+        });
+    }
+
+    private List<Entry<T>> submit(List<Entry<T>> batch) throws InterruptedException {
+        workers.acquire();
+        CompletableFuture<Void> batchFuture = new CompletableFuture<>();
+        long flush = flushes;
+        CompletableFuture<Void> done = batchFuture.whenComplete((r, e) -> {
+            if (e != null) {
+                failures.putIfAbsent(flush, e);
+            }
+        });
+        inFlight.add(done);
+        done.whenComplete((r, e) -> inFlight.remove(done));
+        try {
+            executor.execute(() -> insert(batch, batchFuture));
+        } catch (RuntimeException e) {
+            workers.release();
+            fail(batch, e);
+            batchFuture.completeExceptionally(e);
+        }
+        return new ArrayList<>(Math.min(maxBatchRows, 1024));
+    }
+
+    private void insert(List<Entry<T>> batch, CompletableFuture<Void> batchFuture) {
+        try {
+            try (Connection connection = dataSource.getConnection()) {
+                insert(connection, batch);
+            }
+            batches.increment();
+            committedRows.add(batch.size());
+            capacity.release(batch.size());
+            for (Entry<T> entry : batch) {
+                entry.future.complete(null);
+            }
+            batchFuture.complete(null);
+        } catch (Throwable e) {
+            // Errors also fail the batch, otherwise its producers would wait forever and its capacity would be lost
+            logger.error("Error inserting batch of " + batch.size() + " rows", e);
+            fail(batch, e);
+            batchFuture.completeExceptionally(e);
+        } finally {
+            workers.release();
+        }
+    }
+
+    private void insert(Connection connection, List<Entry<T>> batch) throws SQLException, JFleetException {
+        boolean autoCommit = connection.getAutoCommit();
+        try {
+            bulkInsert.insertAll(connection, batch.stream().map(entry -> entry.entity));
+            if (!autoCommit) {
+                connection.commit();
+            }
+        } catch (Throwable e) {
+            if (!autoCommit) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private void fail(List<Entry<T>> batch, Throwable e) {
+        for (Entry<T> entry : batch) {
+            fail(entry, e);
+        }
+    }
+
+    private void fail(Entry<T> entry, Throwable e) {
+        if (!entry.isFlush()) {
+            failedRows.increment();
+            capacity.release();
+        }
+        entry.future.completeExceptionally(e);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class Entry<T> {
+
+        private final T entity;
+        private final boolean flush;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Entry(T entity, boolean flush) {
+            this.entity = entity;
+            this.flush = flush;
+        }
+
+        boolean isFlush() {
+            return flush;
+        }
+
+    }
+
+    public static class Builder<T> {
+
+        private final BulkInsert<T> bulkInsert;
+        private final DataSource dataSource;
+        private int maxBatchRows = 10_000;
+        private long lingerNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        private int capacity = 100_000;
+        private int workers = 1;
+        private Executor executor = null;
+
+        /**
+         * @param bulkInsert
+         *            BulkInsert used to insert each batch
+         * @param dataSource
+         *            source of the connections used by the workers, usually a connection pool
+         */
+        public Builder(BulkInsert<T> bulkInsert, DataSource dataSource) {
+            this.bulkInsert = bulkInsert;
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * @param maxBatchRows
+         *            maximum entities inserted in a batch
+         * @return the builder
+         */
+        public Builder<T> maxBatchRows(int maxBatchRows) {
+            this.maxBatchRows = maxBatchRows;
+            return this;
+        }
+
+        /**
+         * @param linger
+         *            maximum time the first entity of a batch waits for more entities before the batch is inserted
+         * @param unit
+         *            unit of linger
+         * @return the builder
+         */
+        public Builder<T> linger(long linger, TimeUnit unit) {
+            this.lingerNanos = unit.toNanos(linger);
+            return this;
+        }
+
+        /**
+         * @param capacity
+         *            maximum entities offered and not yet committed, before producers block
+         * @return the builder
+         */
+        public Builder<T> capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param workers
+         *            batches inserted concurrently, each one with its own connection
+         * @return the builder
+         */
+        public Builder<T> workers(int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * @param executor
+         *            executor running the workers. By default the sink creates its own pool of workers threads
+         * @return the builder
+         */
+        public Builder<T> executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public BulkInsertSink<T> build() {
+            if (bulkInsert == null || dataSource == null) {
+                throw new IllegalArgumentException("BulkInsert and DataSource are required");
+            }
+            if (maxBatchRows <= 0 || capacity <= 0 || workers <= 0 || lingerNanos < 0) {
+                throw new IllegalArgumentException("maxBatchRows, capacity and workers must be positive, "
+                        + "and linger not negative");
+            }
+            return new BulkInsertSink<>(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.columnar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityFieldType.FieldTypeEnum;
+import org.jfleet.EntityInfo;
+import org.jfleet.columnar.ColumnarBatch.Row;
+import org.jfleet.csv.JFleetCsvWriter;
+import org.jfleet.jdbc.JdbcBulkInsert;
+import org.jfleet.jdbc.JdbcConfiguration;
+import org.jfleet.jdbc.JdbcConfiguration.JdbcConfigurationBuilder;
+import org.junit.jupiter.api.Test;
+
+public class ColumnarBatchTest {
+
+    private static String ls = System.lineSeparator();
+
+    @Test
+    public void buildsEntityInfoFromColumns() {
+        BitSet nulls = new BitSet();
+        ColumnarBatch batch = ColumnarBatch.builder("measures", 2)
+                .longColumn("id", new long[] {1, 2})
+                .doubleColumn("value", new double[] {1.5, 2.5}, nulls)
+                .column("name", FieldTypeEnum.STRING, new String[] {"a", "b"})
+                .build();
+
+        EntityInfo entityInfo = batch.getEntityInfo();
+        assertEquals("measures", entityInfo.getTableName());
+        assertEquals(Row.class, entityInfo.getEntityClass());
+        List<ColumnInfo> columns = entityInfo.getColumns();
+        assertEquals(3, columns.size());
+        assertEquals("id", columns.get(0).getColumnName());
+        assertEquals(FieldTypeEnum.LONG, columns.get(0).getFieldType().getFieldType());
+        assertTrue(columns.get(0).getFieldType().isPrimitive());
+        assertEquals(FieldTypeEnum.DOUBLE, columns.get(1).getFieldType().getFieldType());
+        assertFalse(columns.get(1).getFieldType().isPrimitive());
+        assertEquals(FieldTypeEnum.STRING, columns.get(2).getFieldType().getFieldType());
+        assertEquals(2, batch.getRowCount());
+    }
+
+    @Test
+    public void accessorsReadArraysByRowIndex() {
+        BitSet nulls = new BitSet();
+        nulls.set(1);
+        ColumnarBatch batch = ColumnarBatch.builder("measures", 3)
+                .intColumn("id", new int[] {10, 20, 30})
+                .floatColumn("value", new float[] {1.0f, 2.0f, 3.0f}, nulls)
+                .booleanColumn("valid", new boolean[] {true, false, true})
+                .column("name", FieldTypeEnum.STRING, new String[] {"a", null, "c"})
+                .build();
+
+        List<ColumnInfo> columns = batch.getEntityInfo().getColumns();
+        List<List<Object>> rows = new ArrayList<>();
+        batch.stream().forEach(row -> {
+            List<Object> values = new ArrayList<>();
+            for (ColumnInfo column : columns) {
+                values.add(column.getAccessor().apply(row));
+            }
+            rows.add(values);
+        });
+        assertEquals(3, rows.size());
+        assertEquals(10, rows.get(0).get(0));
+        assertEquals(1.0f, rows.get(0).get(1));
+        assertEquals(true, rows.get(0).get(2));
+        assertEquals("a", rows.get(0).get(3));
+        assertEquals(20, rows.get(1).get(0));
+        assertNull(rows.get(1).get(1));
+        assertNull(rows.get(1).get(3));
+        assertEquals(3.0f, rows.get(2).get(1));
+    }
+
+    @Test
+    public void streamCreatesOneRowPerIndex() {
+        ColumnarBatch batch = ColumnarBatch.builder("measures", 3)
+                .longColumn("id", new long[] {1, 2, 3})
+                .build();
+        List<Row> rows = batch.stream().collect(Collectors.toList());
+        assertEquals(3, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(i, rows.get(i).getIndex());
+        }
+        assertNotSame(rows.get(0), rows.get(2));
+    }
+
+    @Test
+    public void streamCanBeConsumedInParallel() {
+        int rowCount = 10_000;
+        long[] ids = new long[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            ids[i] = i;
+        }
+        ColumnarBatch batch = ColumnarBatch.builder("measures", rowCount).longColumn("id", ids).build();
+        ColumnInfo id = batch.getEntityInfo().getColumns().get(0);
+        Set<Object> values = batch.stream().parallel().map(id.getAccessor()).collect(Collectors.toSet());
+        assertEquals(rowCount, values.size());
+        assertTrue(values.contains(0L));
+        assertTrue(values.contains(rowCount - 1L));
+    }
+
+    @Test
+    public void columnsCanHaveMoreValuesThanRows() {
+        ColumnarBatch batch = ColumnarBatch.builder("measures", 2)
+                .longColumn("id", new long[] {1, 2, 0, 0})
+                .build();
+        assertEquals(2, batch.stream().count());
+    }
+
+    @Test
+    public void validatesColumnLength() {
+        ColumnarBatch.Builder builder = ColumnarBatch.builder("measures", 3);
+        assertThrows(IllegalArgumentException.class, () -> builder.longColumn("id", new long[] {1, 2}));
+    }
+
+    @Test
+    public void validatesDuplicatedColumns() {
+        ColumnarBatch.Builder builder = ColumnarBatch.builder("measures", 1).longColumn("id", new long[] {1});
+        assertThrows(IllegalArgumentException.class, () -> builder.intColumn("id", new int[] {1}));
+    }
+
+    @Test
+    public void insertsWithJdbcFromColumns() throws Exception {
+        BitSet nulls = new BitSet();
+        nulls.set(1);
+        ColumnarBatch batch = ColumnarBatch.builder("measures", 2)
+                .intColumn("id", new int[] {1, 2})
+                .doubleColumn("value", new double[] {1.5, 2.5}, nulls)
+                .column("name", FieldTypeEnum.STRING, new String[] {"John", "Amanda"})
+                .build();
+
+        List<List<Object>> rows = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set")) {
+                        parameters.add(method.getName().equals("setNull") ? null : args[1]);
+                    } else if (method.getName().equals("addBatch")) {
+                        rows.add(new ArrayList<>(parameters));
+                        parameters.clear();
+                    } else if (method.getName().equals("executeBatch")) {
+                        return new int[] {1, 1};
+                    }
+                    return null;
+                });
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement")) {
+                        return statement;
+                    }
+                    return method.getName().equals("getAutoCommit") ? true : null;
+                });
+
+        JdbcConfiguration config = JdbcConfigurationBuilder.from(batch.getEntityInfo()).build();
+        new JdbcBulkInsert<Row>(config).insertAll(connection, batch.stream());
+        assertEquals(2, rows.size());
+        assertEquals(Arrays.asList(1, 1.5, "John"), rows.get(0));
+        assertEquals(Arrays.asList(2, null, "Amanda"), rows.get(1));
+    }
+
+    @Test
+    public void writesCsvFromColumns() throws IOException {
+        BitSet nulls = new BitSet();
+        nulls.set(0);
+        ColumnarBatch batch = ColumnarBatch.builder("measures", 2)
+                .longColumn("id", new long[] {1, 2})
+                .shortColumn("code", new short[] {7, 8}, nulls)
+                .column("name", FieldTypeEnum.STRING, new String[] {"John", "Amanda"})
+                .build();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (JFleetCsvWriter<Row> writer = new JFleetCsvWriter<>(baos, batch.getEntityInfo())) {
+            writer.writeAll(batch.stream());
+        }
+        String result = baos.toString(Charset.defaultCharset().name());
+        assertEquals("id,code,name" + ls + "1,,John" + ls + "2,8,Amanda" + ls, result);
+    }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.jfleet.EntityInfo;
+import org.jfleet.JFleetException;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveBatchSizeTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private AdaptiveBatchSize.Builder builder() {
+        return new AdaptiveBatchSize.Builder().min(1_000).max(5_000).initial(2_000).increment(1_000)
+                .latencyCeiling(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void growsWhileThroughputDoesNotGetWorse() {
+        AdaptiveBatchSize adaptive = builder().build();
+        adaptive.record(2_000, 2_001, 2 * MS);
+        assertEquals(3_000, adaptive.getBatchSize());
+        adaptive.record(3_000, 3_001, 3 * MS);
+        assertEquals(4_000, adaptive.getBatchSize());
+        adaptive.record(4_000, 4_001, 4 * MS);
+        adaptive.record(5_000, 5_001, 5 * MS);
+        assertEquals(5_000, adaptive.getBatchSize());
+    }
+
+    @Test
+    public void stepsBackWhenThroughputGetsWorse() {
+        AdaptiveBatchSize adaptive = builder().build();
+        adaptive.record(2_000, 2_001, 2 * MS);
+        adaptive.record(3_000, 3_001, 6 * MS);
+        assertEquals(2_000, adaptive.getBatchSize());
+    }
+
+    @Test
+    public void decreasesOverLatencyCeiling() {
+        AdaptiveBatchSize adaptive = builder().initial(5_000).build();
+        adaptive.record(5_000, 5_001, 200 * MS);
+        assertEquals(2_500, adaptive.getBatchSize());
+        adaptive.record(2_500, 2_501, 200 * MS);
+        adaptive.record(1_250, 1_251, 200 * MS);
+        assertEquals(1_000, adaptive.getBatchSize());
+    }
+
+    @Test
+    public void ignoresNotFilledBatches() {
+        AdaptiveBatchSize adaptive = builder().build();
+        adaptive.record(2_000, 500, 1 * MS);
+        assertEquals(2_000, adaptive.getBatchSize());
+    }
+
+    @Test
+    public void validatesBounds() {
+        assertThrows(IllegalArgumentException.class, () -> builder().min(10_000).build());
+        assertThrows(IllegalArgumentException.class, () -> builder().decreaseFactor(1.5).build());
+        assertEquals(5_000, builder().initial(100_000).build().getBatchSize());
+    }
+
+    @Test
+    public void loopAndWriteAppliesBatchSize() throws SQLException, JFleetException {
+        AdaptiveBatchSize adaptive = new AdaptiveBatchSize.Builder().min(10).max(1_000).initial(100).increment(10)
+                .latencyCeiling(1, TimeUnit.NANOSECONDS).build();
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Integer> contentSizes = new ArrayList<>();
+        ContentWriter contentWriter = content -> {
+            batchSizes.add(content.getBatchSize());
+            contentSizes.add(content.getContentSize());
+        };
+        EntityRowBuilder rowBuilder = new EntityRowBuilder() {
+            @Override
+            public <T> void add(StringContent stringContent, T entity) {
+                stringContent.append("12345");
+            }
+        };
+        LoopAndWrite loopAndWrite = new LoopAndWrite(new AdaptiveConfig(adaptive), contentWriter, rowBuilder);
+        loopAndWrite.go(IntStream.range(0, 100).boxed());
+
+        assertEquals(500, contentSizes.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(100, batchSizes.get(0));
+        assertEquals(50, batchSizes.get(1));
+        assertEquals(25, batchSizes.get(2));
+        assertEquals(10, adaptive.getBatchSize());
+        assertTrue(contentSizes.get(0) > 100 && contentSizes.get(1) > 50);
+    }
+
+    private static class AdaptiveConfig implements JFleetBatchConfig {
+
+        private final AdaptiveBatchSize adaptiveBatchSize;
+
+        AdaptiveConfig(AdaptiveBatchSize adaptiveBatchSize) {
+            this.adaptiveBatchSize = adaptiveBatchSize;
+        }
+
+        @Override
+        public EntityInfo getEntityInfo() {
+            return null;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return 20;
+        }
+
+        @Override
+        public boolean isAutocommit() {
+            return true;
+        }
+
+        @Override
+        public boolean isConcurrent() {
+            return false;
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return null;
+        }
+
+        @Override
+        public AdaptiveBatchSize getAdaptiveBatchSize() {
+            return adaptiveBatchSize;
+        }
+
+    }
+
+}
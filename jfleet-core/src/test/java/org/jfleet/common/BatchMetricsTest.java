@@ -0,0 +1,130 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+
+import org.jfleet.EntityInfo;
+import org.jfleet.JFleetException;
+import org.junit.jupiter.api.Test;
+
+public class BatchMetricsTest {
+
+    @Test
+    public void histogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(99));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(100_000, histogram.getMaxNanos());
+        assertEquals(50_500.0, histogram.getMeanNanos(), 0.001);
+        long p50 = histogram.getPercentileNanos(50);
+        assertTrue(p50 >= 50_000 && p50 < 100_000, "p50 " + p50);
+        assertEquals(100_000, histogram.getPercentileNanos(100));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    public void aggregatesBatches() {
+        AggregatedBatchMetrics metrics = new AggregatedBatchMetrics();
+        metrics.onBatch(new BatchMetrics(100, 2_000, 10, 20, 30, 40, 100, null));
+        metrics.onBatch(new BatchMetrics(50, 1_000, 10, 20, 30, 40, 50, null));
+        metrics.onBatch(new BatchMetrics(10, 200, 10, 20, 30, 0, -1, new SQLException("fail")));
+
+        assertEquals(3, metrics.getBatches());
+        assertEquals(150, metrics.getRows());
+        assertEquals(3_200, metrics.getChars());
+        assertEquals(150, metrics.getUpdatedRows());
+        assertEquals(1, metrics.getErrors());
+        assertEquals(3, metrics.getExecuteLatency().getCount());
+        assertEquals(90, metrics.getExecuteLatency().getTotalNanos());
+        assertEquals(80, metrics.getCommitLatency().getTotalNanos());
+        metrics.reset();
+        assertEquals(0, metrics.getBatches());
+    }
+
+    @Test
+    public void loopAndWriteMeasuresSerializationAndWait() throws SQLException, JFleetException {
+        List<Long> serialization = new ArrayList<>();
+        List<Long> wait = new ArrayList<>();
+        List<Integer> records = new ArrayList<>();
+        ContentWriter contentWriter = content -> {
+            serialization.add(content.getSerializationNanos());
+            wait.add(content.getWaitNanos());
+            records.add(content.getRecords());
+        };
+        EntityRowBuilder rowBuilder = new EntityRowBuilder() {
+
+            @Override
+            public <T> void add(StringContent stringContent, T entity) {
+                stringContent.append(entity.toString());
+            }
+        };
+        LoopAndWrite loopAndWrite = new LoopAndWrite(new TestConfig(false), contentWriter, rowBuilder);
+        loopAndWrite.go(IntStream.range(0, 100).boxed());
+
+        assertEquals(100, records.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(records.size() > 1);
+        assertTrue(serialization.stream().allMatch(nanos -> nanos > 0));
+        assertTrue(wait.stream().allMatch(nanos -> nanos == 0));
+    }
+
+    private static class TestConfig implements JFleetBatchConfig {
+
+        private final boolean concurrent;
+
+        TestConfig(boolean concurrent) {
+            this.concurrent = concurrent;
+        }
+
+        @Override
+        public EntityInfo getEntityInfo() {
+            return null;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return 20;
+        }
+
+        @Override
+        public boolean isAutocommit() {
+            return true;
+        }
+
+        @Override
+        public boolean isConcurrent() {
+            return concurrent;
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return null;
+        }
+
+    }
+
+}
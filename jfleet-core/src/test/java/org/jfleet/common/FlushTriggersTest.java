@@ -0,0 +1,196 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.jfleet.EntityInfo;
+import org.jfleet.JFleetException;
+import org.junit.jupiter.api.Test;
+
+public class FlushTriggersTest {
+
+    private static final Integer END = -1;
+
+    private final EntityRowBuilder rowBuilder = new EntityRowBuilder() {
+        @Override
+        public <T> void add(StringContent stringContent, T entity) {
+            stringContent.append(entity.toString());
+        }
+    };
+
+    @Test
+    public void writesBatchOnMaxRows() throws SQLException, JFleetException {
+        List<Integer> records = new CopyOnWriteArrayList<>();
+        ContentWriter contentWriter = content -> records.add(content.getRecords());
+        LoopAndWrite loopAndWrite = new LoopAndWrite(new FlushConfig(10, 0, false), contentWriter, rowBuilder);
+        loopAndWrite.go(IntStream.range(0, 95).boxed());
+
+        assertEquals(10, records.size());
+        assertTrue(records.subList(0, 9).stream().allMatch(rows -> rows == 10));
+        assertEquals(5, records.get(9));
+    }
+
+    @Test
+    public void writesPartialBatchAfterLinger() throws Exception {
+        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+        List<Integer> records = new CopyOnWriteArrayList<>();
+        CountDownLatch firstBatch = new CountDownLatch(1);
+        ContentWriter contentWriter = content -> {
+            records.add(content.getRecords());
+            firstBatch.countDown();
+        };
+        long linger = TimeUnit.MILLISECONDS.toNanos(50);
+        LoopAndWrite loopAndWrite = new LoopAndWrite(new FlushConfig(0, linger, true), contentWriter, rowBuilder);
+        CompletableFuture<Void> load = goAsync(loopAndWrite, queue);
+
+        queue.add(1);
+        queue.add(2);
+        queue.add(3);
+        assertTrue(firstBatch.await(5, TimeUnit.SECONDS));
+        assertEquals(3, records.get(0));
+
+        queue.add(4);
+        queue.add(END);
+        load.get(5, TimeUnit.SECONDS);
+        assertEquals(4, records.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    public void rethrowsErrorOfLingerFlush() throws Exception {
+        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+        CountDownLatch failed = new CountDownLatch(1);
+        ContentWriter contentWriter = content -> {
+            failed.countDown();
+            throw new SQLException("Broken connection");
+        };
+        long linger = TimeUnit.MILLISECONDS.toNanos(10);
+        LoopAndWrite loopAndWrite = new LoopAndWrite(new FlushConfig(0, linger, false), contentWriter, rowBuilder);
+        CompletableFuture<Void> load = goAsync(loopAndWrite, queue);
+
+        queue.add(1);
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        queue.add(2);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> load.get(5, TimeUnit.SECONDS));
+        assertEquals("Broken connection", e.getCause().getCause().getMessage());
+    }
+
+    private CompletableFuture<Void> goAsync(LoopAndWrite loopAndWrite, BlockingQueue<Integer> queue) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                loopAndWrite.go(streamOf(queue));
+            } catch (SQLException | JFleetException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private static Stream<Integer> streamOf(BlockingQueue<Integer> queue) {
+        Iterator<Integer> iterator = new Iterator<Integer>() {
+
+            private Integer next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = queue.take();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return !END.equals(next);
+            }
+
+            @Override
+            public Integer next() {
+                Integer value = next;
+                next = null;
+                return value;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
+    private static class FlushConfig implements JFleetBatchConfig {
+
+        private final int maxBatchRows;
+        private final long lingerNanos;
+        private final boolean concurrent;
+
+        FlushConfig(int maxBatchRows, long lingerNanos, boolean concurrent) {
+            this.maxBatchRows = maxBatchRows;
+            this.lingerNanos = lingerNanos;
+            this.concurrent = concurrent;
+        }
+
+        @Override
+        public EntityInfo getEntityInfo() {
+            return null;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return 1_000_000;
+        }
+
+        @Override
+        public boolean isAutocommit() {
+            return true;
+        }
+
+        @Override
+        public boolean isConcurrent() {
+            return concurrent;
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return null;
+        }
+
+        @Override
+        public int getMaxBatchRows() {
+            return maxBatchRows;
+        }
+
+        @Override
+        public long getLingerNanos() {
+            return lingerNanos;
+        }
+
+    }
+
+}
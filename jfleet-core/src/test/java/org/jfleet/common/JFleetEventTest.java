@@ -0,0 +1,111 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.jfleet.EntityInfo;
+import org.jfleet.EntityInfoBuilder;
+import org.jfleet.csv.JFleetCsvWriter;
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JFleetEventTest {
+
+    public static class Person {
+
+        private String name;
+        private int age;
+
+        public Person(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+    }
+
+    @Test
+    public void eventsAreDisabledWithoutRecording() {
+        JFleetEvent event = JFleetEvent.batchWrite();
+        assertFalse(event.isRecording());
+        event.rows(10).chars(100).end();
+    }
+
+    @Test
+    public void recordsEvents() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(Person.class, "person").addFields("name", "age").build();
+        Path file = Files.createTempFile("jfleet", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.jfleet.BatchWrite").withThreshold(Duration.ZERO);
+            recording.enable("org.jfleet.FileWrite").withThreshold(Duration.ZERO);
+            recording.start();
+
+            JFleetEvent event = JFleetEvent.batchWrite().entity(entityInfo);
+            assertTrue(event.isRecording());
+            event.rows(10).chars(100).end();
+
+            try (JFleetCsvWriter<Person> writer = new JFleetCsvWriter<>(new ByteArrayOutputStream(), entityInfo)) {
+                writer.writeAll(asList(new Person("John", 10), new Person("Amanda", 34)));
+            }
+
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().startsWith("org.jfleet"))
+                .collect(Collectors.toList());
+        Files.delete(file);
+        assertEquals(2, events.size());
+
+        RecordedEvent batch = events.stream().filter(e -> e.getEventType().getName().equals("org.jfleet.BatchWrite"))
+                .findFirst().get();
+        assertEquals("person", batch.getString("table"));
+        assertEquals(Person.class.getName(), batch.getClass("entityClass").getName());
+        assertEquals(10, batch.getLong("rows"));
+        assertEquals(100, batch.getLong("chars"));
+        assertEquals(-1, batch.getLong("bytes"));
+
+        RecordedEvent csv = events.stream().filter(e -> e.getEventType().getName().equals("org.jfleet.FileWrite"))
+                .findFirst().get();
+        assertEquals("CSV", csv.getString("format"));
+        assertEquals(2, csv.getLong("rows"));
+        assertEquals("name,age\nJohn,10\nAmanda,34\n".replace("\n", System.lineSeparator()).length(),
+                csv.getLong("bytes"));
+    }
+
+}
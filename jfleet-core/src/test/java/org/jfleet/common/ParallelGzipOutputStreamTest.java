@@ -0,0 +1,183 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import org.junit.jupiter.api.Test;
+
+public class ParallelGzipOutputStreamTest {
+
+    @Test
+    public void emptyContentIsEmptyMember() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new GzipCompression.Builder().build().wrap(baos).close();
+        assertArrayEquals(new byte[0], gunzip(baos.toByteArray()));
+        assertEquals(Arrays.asList(0), memberSizes(baos.toByteArray()));
+    }
+
+    @Test
+    public void writeAfterCloseFails() throws IOException {
+        OutputStream os = new GzipCompression.Builder().build().wrap(new ByteArrayOutputStream());
+        os.write(1);
+        os.close();
+        IOException e = assertThrows(IOException.class, () -> os.write(2));
+        assertEquals("Stream closed", e.getMessage());
+        assertThrows(IOException.class, () -> os.write(new byte[10], 0, 10));
+        os.close();
+    }
+
+    @Test
+    public void contentSmallerThanBlock() throws IOException {
+        byte[] content = randomText(100);
+        assertArrayEquals(content, gunzip(compress(content, new GzipCompression.Builder().build())));
+    }
+
+    @Test
+    public void contentInMultipleBlocks() throws IOException {
+        byte[] content = randomText(100_000);
+        GzipCompression compression = new GzipCompression.Builder().blockSize(1000).maxPendingBlocks(3).build();
+        byte[] compressed = compress(content, compression);
+        assertTrue(compressed.length < content.length);
+        assertArrayEquals(content, gunzip(compressed));
+    }
+
+    @Test
+    public void writeByteByByte() throws IOException {
+        byte[] content = randomText(5000);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (OutputStream os = new GzipCompression.Builder().blockSize(333).build().wrap(baos)) {
+            for (byte b : content) {
+                os.write(b);
+            }
+        }
+        assertArrayEquals(content, gunzip(baos.toByteArray()));
+    }
+
+    @Test
+    public void flushDoesNotCutMembers() throws Exception {
+        byte[] content = randomText(2500);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        OutputStream os = new GzipCompression.Builder().executor(Runnable::run).blockSize(1000).build().wrap(baos);
+        for (int i = 0; i < 25; i++) {
+            os.write(content, i * 100, 100);
+            os.flush();
+        }
+        assertArrayEquals(Arrays.copyOf(content, 2000), gunzip(baos.toByteArray()));
+        os.close();
+        assertArrayEquals(content, gunzip(baos.toByteArray()));
+        assertEquals(Arrays.asList(1000, 1000, 500), memberSizes(baos.toByteArray()));
+    }
+
+    @Test
+    public void flushDoesNotWaitPendingBlocks() throws IOException {
+        List<Runnable> tasks = new ArrayList<>();
+        byte[] content = randomText(1000);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        OutputStream os = new GzipCompression.Builder().executor(tasks::add).blockSize(1000).build().wrap(baos);
+        os.write(content);
+        os.flush();
+        assertEquals(1, tasks.size());
+        assertEquals(0, baos.size());
+        tasks.forEach(Runnable::run);
+        os.close();
+        assertArrayEquals(content, gunzip(baos.toByteArray()));
+    }
+
+    @Test
+    public void withCustomExecutorAndLevel() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            byte[] content = randomText(50_000);
+            GzipCompression compression = new GzipCompression.Builder().executor(executor).level(9)
+                    .blockSize(4096).build();
+            assertArrayEquals(content, gunzip(compress(content, compression)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void invalidBlockSize() {
+        assertThrows(IllegalArgumentException.class, () -> new GzipCompression.Builder().blockSize(0).build());
+    }
+
+    private static byte[] compress(byte[] content, GzipCompression compression) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (OutputStream os = compression.wrap(baos)) {
+            os.write(content);
+        }
+        return baos.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] content) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                baos.write(buffer, 0, read);
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    private static List<Integer> memberSizes(byte[] gzip) throws DataFormatException {
+        List<Integer> sizes = new ArrayList<>();
+        byte[] buffer = new byte[64 * 1024];
+        int offset = 0;
+        while (offset < gzip.length) {
+            Inflater inflater = new Inflater(true);
+            int data = offset + 10;
+            inflater.setInput(gzip, data, gzip.length - data);
+            int size = 0;
+            while (!inflater.finished()) {
+                size += inflater.inflate(buffer);
+            }
+            offset = gzip.length - inflater.getRemaining() + 8;
+            inflater.end();
+            sizes.add(size);
+        }
+        return sizes;
+    }
+
+    private static byte[] randomText(int size) {
+        Random random = new Random(size);
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return content;
+    }
+
+}
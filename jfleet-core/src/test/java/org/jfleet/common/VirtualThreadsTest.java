@@ -0,0 +1,66 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+import org.jfleet.entities.SimpleEntity;
+import org.jfleet.mysql.LoadDataConfiguration;
+import org.jfleet.mysql.LoadDataConfiguration.LoadDataConfigurationBuilder;
+import org.jfleet.postgres.PgCopyConfiguration;
+import org.jfleet.postgres.PgCopyConfiguration.PgCopyConfigurationBuilder;
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void isAvailableSinceJava21() {
+        assertEquals(Runtime.version().feature() >= 21, VirtualThreads.isAvailable());
+    }
+
+    @Test
+    public void executorIsShared() {
+        assertSame(VirtualThreads.executor(), VirtualThreads.executor());
+    }
+
+    @Test
+    public void tasksDoNotRunInCommonPool() throws Exception {
+        Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, VirtualThreads.executor())
+                .get(5, TimeUnit.SECONDS);
+        assertFalse(thread instanceof ForkJoinWorkerThread);
+        assertTrue(thread.isDaemon());
+    }
+
+    @Test
+    public void configurationsUseExecutor() {
+        assertNull(LoadDataConfigurationBuilder.from(SimpleEntity.class).build().getExecutor());
+        LoadDataConfiguration loadData = LoadDataConfigurationBuilder.from(SimpleEntity.class).virtualThreads().build();
+        assertSame(VirtualThreads.executor(), loadData.getExecutor());
+        PgCopyConfiguration pgCopy = PgCopyConfigurationBuilder.from(SimpleEntity.class).virtualThreads().build();
+        assertSame(VirtualThreads.executor(), pgCopy.getExecutor());
+        assertFalse(pgCopy.getExecutor() == ForkJoinPool.commonPool());
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.jfleet.JFleetException;
+import org.jfleet.common.StringContent;
+import org.jfleet.csv.CsvSourceConfiguration.Builder;
+import org.junit.jupiter.api.Test;
+
+public class CsvTranscoderTest {
+
+    private static final String LOAD_DATA_ESCAPABLE = "\\\n\t";
+    private static final String PG_COPY_ESCAPABLE = "\\\n\r\t";
+
+    @Test
+    public void transcodeToLoadDataFormat() throws Exception {
+        String csv = "name,age\nJohn,10\nAmanda,34\n";
+        String result = transcode(csv, new Builder().build(), 2, LOAD_DATA_ESCAPABLE, true);
+        assertEquals("John\t10\t\nAmanda\t34\t\n", result);
+    }
+
+    @Test
+    public void transcodeToPgCopyFormat() throws Exception {
+        String csv = "name,age\r\nJohn,10\r\nAmanda,34";
+        String result = transcode(csv, new Builder().build(), 2, PG_COPY_ESCAPABLE, false);
+        assertEquals("John\t10\nAmanda\t34\n", result);
+    }
+
+    @Test
+    public void withoutHeader() throws Exception {
+        String csv = "John,10\n";
+        String result = transcode(csv, new Builder().header(false).build(), 2, PG_COPY_ESCAPABLE, false);
+        assertEquals("John\t10\n", result);
+    }
+
+    @Test
+    public void emptyValuesAreNull() throws Exception {
+        String csv = "name,age\n,10\nJohn,\n\"\",";
+        String result = transcode(csv, new Builder().build(), 2, PG_COPY_ESCAPABLE, false);
+        assertEquals("\\N\t10\nJohn\t\\N\n\t\\N\n", result);
+    }
+
+    @Test
+    public void emptyValuesAreNotNull() throws Exception {
+        String csv = "name,age\n,10\n";
+        String result = transcode(csv, new Builder().emptyAsNull(false).build(), 2, PG_COPY_ESCAPABLE, false);
+        assertEquals("\t10\n", result);
+    }
+
+    @Test
+    public void delimitedTextIsUnescaped() throws Exception {
+        String csv = "name,age\n\"Smith, John \"\"Jr\"\"\",10\n";
+        String result = transcode(csv, new Builder().build(), 2, PG_COPY_ESCAPABLE, false);
+        assertEquals("Smith, John \"Jr\"\t10\n", result);
+    }
+
+    @Test
+    public void specialCharsAreEscaped() throws Exception {
+        String csv = "name,age\n\"Two\nlines\",C:\\tmp\tdir\n";
+        String result = transcode(csv, new Builder().build(), 2, LOAD_DATA_ESCAPABLE, true);
+        assertEquals("Two\\\nlines\tC:\\\\tmp\\\tdir\t\n", result);
+    }
+
+    @Test
+    public void customSeparatorAndDelimiter() throws Exception {
+        String csv = "name;age\n'John;Smith';10\n";
+        CsvSourceConfiguration config = new Builder().fieldSeparator(';').textDelimiter('\'').build();
+        String result = transcode(csv, config, 2, PG_COPY_ESCAPABLE, false);
+        assertEquals("John;Smith\t10\n", result);
+    }
+
+    @Test
+    public void skippedColumnsAreNotWritten() throws Exception {
+        String csv = "id,name,\"comment\",age\n1,John,\"some, text\",10\n";
+        CsvSourceConfiguration config = new Builder().skipColumns(0, 2).build();
+        assertEquals("John\t10\n", transcode(csv, config, 2, PG_COPY_ESCAPABLE, false));
+        assertEquals("John\t10\t\n", transcode(csv, config, 2, LOAD_DATA_ESCAPABLE, true));
+    }
+
+    @Test
+    public void emptyLinesAreIgnored() throws Exception {
+        String csv = "name,age\n\nJohn,10\n\n\nAmanda,34\n\n";
+        String result = transcode(csv, new Builder().build(), 2, PG_COPY_ESCAPABLE, false);
+        assertEquals("John\t10\nAmanda\t34\n", result);
+    }
+
+    @Test
+    public void contentBiggerThanBuffer() throws Exception {
+        StringBuilder csv = new StringBuilder("name,age\n");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            csv.append("\"Name, ").append(i).append("\",").append(i).append('\n');
+            expected.append("Name, ").append(i).append('\t').append(i).append('\n');
+        }
+        String result = transcode(csv.toString(), new Builder().build(), 2, PG_COPY_ESCAPABLE, false);
+        assertEquals(expected.toString(), result);
+    }
+
+    @Test
+    public void failsWithLessColumns() {
+        String csv = "name,age\nJohn\n";
+        assertThrows(JFleetException.class,
+                () -> transcode(csv, new Builder().build(), 2, PG_COPY_ESCAPABLE, false));
+    }
+
+    @Test
+    public void failsWithMoreColumns() {
+        String csv = "name,age\nJohn,10,foo\n";
+        assertThrows(JFleetException.class,
+                () -> transcode(csv, new Builder().build(), 2, PG_COPY_ESCAPABLE, false));
+    }
+
+    @Test
+    public void failsWithNotClosedDelimiter() {
+        String csv = "name,age\n\"John,10\n";
+        assertThrows(JFleetException.class,
+                () -> transcode(csv, new Builder().build(), 2, PG_COPY_ESCAPABLE, false));
+    }
+
+    private String transcode(String csv, CsvSourceConfiguration config, int columns, String escapable,
+            boolean trailingSeparator) throws IOException, JFleetException {
+        CsvTranscoder transcoder = new CsvTranscoder(new StringReader(csv), config, columns, escapable,
+                trailingSeparator);
+        StringContent content = new StringContent(1024);
+        while (transcoder.appendRow(content)) {
+            content.inc();
+        }
+        return content.getContent().toString();
+    }
+
+}
@@ -18,12 +18,15 @@ package org.jfleet.csv;
 import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.zip.GZIPInputStream;
 
 import org.jfleet.EntityFieldType.FieldTypeEnum;
 import org.jfleet.EntityInfoBuilder;
+import org.jfleet.common.GzipCompression;
 import org.junit.jupiter.api.Test;
 
 public class JFleetCsvWriterTest {
@@ -48,4 +51,33 @@ public class JFleetCsvWriterTest {
                 + "Joe,98,true" + ls + "Peter,20,true" + ls + "Rose,16,false" + ls, result);
     }
 
+    @Test
+    public void writeGzipCompressedContent() throws IOException {
+        EntityInfoBuilder<SomeEntity> entityBuilder = new EntityInfoBuilder<>(SomeEntity.class);
+        entityBuilder.addFields("name", "age");
+        CsvConfiguration<SomeEntity> config = new CsvConfiguration.Builder<SomeEntity>(entityBuilder.build())
+                .compression(new GzipCompression.Builder().blockSize(16).build())
+                .build();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (JFleetCsvWriter<SomeEntity> writer = new JFleetCsvWriter<>(baos, config)) {
+            writer.writeAll(asList(new SomeEntity("John", 10), new SomeEntity("Amanda", 34)));
+            writer.write(new SomeEntity("Joe", 98));
+        }
+        String result = gunzip(baos.toByteArray());
+        assertEquals("name,age" + ls + "John,10" + ls + "Amanda,34" + ls + "Joe,98" + ls, result);
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                baos.write(buffer, 0, read);
+            }
+        }
+        return baos.toString(Charset.defaultCharset().name());
+    }
+
 }
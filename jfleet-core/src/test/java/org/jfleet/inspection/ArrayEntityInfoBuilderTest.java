@@ -0,0 +1,68 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.inspection;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.jfleet.ArrayEntityInfoBuilder;
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityFieldType.FieldTypeEnum;
+import org.jfleet.EntityInfo;
+import org.junit.jupiter.api.Test;
+
+public class ArrayEntityInfoBuilderTest {
+
+    @Test
+    public void readsArrayValuesByDeclarationOrder() {
+        EntityInfo entityInfo = new ArrayEntityInfoBuilder("people")
+                .addColumn("name", FieldTypeEnum.STRING)
+                .addColumn("age", FieldTypeEnum.INT)
+                .buildForArray();
+
+        assertEquals(Object[].class, entityInfo.getEntityClass());
+        assertEquals("people", entityInfo.getTableName());
+        List<ColumnInfo> columns = entityInfo.getColumns();
+        Object[] row = new Object[] {"John", 34};
+        assertEquals("name", columns.get(0).getColumnName());
+        assertEquals(FieldTypeEnum.STRING, columns.get(0).getFieldType().getFieldType());
+        assertEquals("John", columns.get(0).getAccessor().apply(row));
+        assertEquals(34, columns.get(1).getAccessor().apply(row));
+    }
+
+    @Test
+    public void readsListValuesByExplicitPosition() {
+        EntityInfo entityInfo = new ArrayEntityInfoBuilder("people")
+                .addColumn("age", FieldTypeEnum.INT, 2)
+                .addColumn("name", FieldTypeEnum.STRING, 0)
+                .buildForList();
+
+        List<ColumnInfo> columns = entityInfo.getColumns();
+        List<Object> row = asList("John", "ignored", 34);
+        assertEquals(34, columns.get(0).getAccessor().apply(row));
+        assertEquals("John", columns.get(1).getAccessor().apply(row));
+    }
+
+    @Test
+    public void columnCanNotBeDeclaredTwice() {
+        ArrayEntityInfoBuilder builder = new ArrayEntityInfoBuilder("people").addColumn("name", FieldTypeEnum.STRING);
+        assertThrows(RuntimeException.class, () -> builder.addColumn("name", FieldTypeEnum.STRING));
+    }
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.inspection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityFieldType.FieldTypeEnum;
+import org.jfleet.EntityInfo;
+import org.jfleet.MapEntityInfoBuilder;
+import org.junit.jupiter.api.Test;
+
+public class MapEntityInfoBuilderTest {
+
+    private MapEntityInfoBuilder builder() {
+        return new MapEntityInfoBuilder("people")
+                .addColumn("Name", "name", FieldTypeEnum.STRING)
+                .addColumn("age", FieldTypeEnum.INT);
+    }
+
+    @Test
+    public void readsSlotRows() {
+        MapEntityInfoBuilder builder = builder();
+        EntityInfo entityInfo = builder.build();
+        assertEquals(Map.class, entityInfo.getEntityClass());
+
+        Map<String, Object> row = builder.newRow();
+        row.put("Name", "John");
+        row.put("age", 34);
+
+        List<ColumnInfo> columns = entityInfo.getColumns();
+        assertEquals("name", columns.get(0).getColumnName());
+        assertEquals("John", columns.get(0).getAccessor().apply(row));
+        assertEquals("age", columns.get(1).getColumnName());
+        assertEquals(34, columns.get(1).getAccessor().apply(row));
+    }
+
+    @Test
+    public void readsAnyMapImplementation() {
+        EntityInfo entityInfo = builder().build();
+        Map<String, Object> row = new HashMap<>();
+        row.put("Name", "John");
+
+        List<ColumnInfo> columns = entityInfo.getColumns();
+        assertEquals("John", columns.get(0).getAccessor().apply(row));
+        assertNull(columns.get(1).getAccessor().apply(row));
+    }
+
+    @Test
+    public void slotRowsBehaveAsMaps() {
+        MapEntityInfoBuilder builder = builder();
+        Map<String, Object> row = builder.newRow();
+        assertTrue(row.isEmpty());
+        row.put("age", 34);
+        assertEquals(1, row.size());
+        assertTrue(row.containsKey("age"));
+        assertFalse(row.containsKey("Name"));
+        row.put("Name", null);
+        assertTrue(row.containsKey("Name"));
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("Name", null);
+        expected.put("age", 34);
+        assertEquals(expected, row);
+
+        assertEquals(34, row.remove("age"));
+        assertEquals(1, row.size());
+        assertThrows(IllegalArgumentException.class, () -> row.put("other", 1));
+    }
+
+    @Test
+    public void columnsCanNotBeAddedAfterBuild() {
+        MapEntityInfoBuilder builder = builder();
+        builder.build();
+        assertThrows(IllegalStateException.class, () -> builder.addColumn("other", FieldTypeEnum.INT));
+    }
+
+}
@@ -0,0 +1,247 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.jfleet.BulkInsert;
+import org.jfleet.LoadReport;
+import org.jfleet.entities.SimpleEntity;
+import org.jfleet.jdbc.JdbcConfiguration.JdbcConfigurationBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class JdbcInsertAllAsyncTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger executedBatches = new AtomicInteger();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final CountDownLatch executing = new CountDownLatch(1);
+    private volatile boolean blockExecution = false;
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void reportsLoad() throws Exception {
+        JdbcConfiguration config = JdbcConfigurationBuilder.from(SimpleEntity.class).batchSize(10).build();
+        BulkInsert<SimpleEntity> bulkInsert = new JdbcBulkInsert<>(config);
+        CompletableFuture<LoadReport> future = bulkInsert.insertAllAsync(connection(), entities(25), executor);
+        LoadReport report = future.get(5, TimeUnit.SECONDS);
+        assertEquals(25, report.getRows());
+        assertEquals(3, report.getBatches());
+        assertEquals(25, report.getUpdatedRows());
+        assertTrue(report.getElapsedNanos() > 0);
+        assertEquals(3, executedBatches.get());
+    }
+
+    @Test
+    public void completesExceptionallyOnError() {
+        BulkInsert<SimpleEntity> bulkInsert = (conn, stream) -> {
+            throw new SQLException("Table doesn't exist");
+        };
+        CompletableFuture<LoadReport> future = bulkInsert.insertAllAsync(connection(), entities(1), executor);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals("Table doesn't exist", e.getCause().getMessage());
+    }
+
+    @Test
+    public void cancelAbortsStatementInExecution() throws Exception {
+        blockExecution = true;
+        JdbcConfiguration config = JdbcConfigurationBuilder.from(SimpleEntity.class).batchSize(10).build();
+        BulkInsert<SimpleEntity> bulkInsert = new JdbcBulkInsert<>(config);
+        CompletableFuture<LoadReport> future = bulkInsert.insertAllAsync(connection(), entities(100), executor);
+        assertTrue(executing.await(5, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+        assertThrows(CancellationException.class, () -> future.get());
+        assertTrue(cancelled.get());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, executedBatches.get());
+    }
+
+    @Test
+    public void completesCancelledOnlyWhenLoadStops() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BulkInsert<SimpleEntity> bulkInsert = (conn, stream) -> {
+            executing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        CompletableFuture<LoadReport> future = bulkInsert.insertAllAsync(connection(), entities(1), executor);
+        assertTrue(executing.await(5, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+        assertFalse(future.isDone());
+        release.countDown();
+        assertThrows(CancellationException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void commitsDataSourceConnectionWithoutAutocommit() throws Exception {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        BulkInsert<SimpleEntity> bulkInsert = (conn, stream) -> stream.forEach(entity -> { });
+        bulkInsert.insertAllAsync(dataSource(calls), entities(3), executor).get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("commit", "close"), calls);
+    }
+
+    @Test
+    public void rollsBackDataSourceConnectionWithoutAutocommitOnError() {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        BulkInsert<SimpleEntity> bulkInsert = (conn, stream) -> {
+            throw new SQLException("Table doesn't exist");
+        };
+        CompletableFuture<LoadReport> future = bulkInsert.insertAllAsync(dataSource(calls), entities(1), executor);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals("Table doesn't exist", e.getCause().getMessage());
+        assertEquals(Arrays.asList("rollback", "close"), calls);
+    }
+
+    @Test
+    public void rollsBackDataSourceConnectionWithoutAutocommitOnCancel() throws Exception {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        BulkInsert<SimpleEntity> bulkInsert = (conn, stream) -> {
+            executing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stream.forEach(entity -> { });
+        };
+        CompletableFuture<LoadReport> future = bulkInsert.insertAllAsync(dataSource(calls), entities(3), executor);
+        assertTrue(executing.await(5, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+        release.countDown();
+        assertThrows(CancellationException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("rollback", "close"), calls);
+    }
+
+    @Test
+    public void usesExecutor() throws Exception {
+        Thread caller = Thread.currentThread();
+        CompletableFuture<Thread> loader = new CompletableFuture<>();
+        BulkInsert<SimpleEntity> bulkInsert = (conn, stream) -> loader.complete(Thread.currentThread());
+        bulkInsert.insertAllAsync(connection(), entities(1), executor).get(5, TimeUnit.SECONDS);
+        Thread thread = loader.get();
+        assertTrue(thread != caller);
+        assertSame(thread, executor.submit(Thread::currentThread).get());
+    }
+
+    private Stream<SimpleEntity> entities(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            SimpleEntity entity = new SimpleEntity();
+            entity.setName("name" + i);
+            return entity;
+        });
+    }
+
+    private Connection connection() {
+        AtomicInteger added = new AtomicInteger();
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "addBatch":
+                        added.incrementAndGet();
+                        return null;
+                    case "executeBatch":
+                        return executeBatch(added.getAndSet(0));
+                    case "cancel":
+                        cancelled.set(true);
+                        return null;
+                    default:
+                        return null;
+                    }
+                });
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "prepareStatement":
+                        return statement;
+                    case "getAutoCommit":
+                        return true;
+                    default:
+                        return null;
+                    }
+                });
+    }
+
+    private DataSource dataSource(List<String> calls) {
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getAutoCommit":
+                        return false;
+                    case "commit":
+                    case "rollback":
+                    case "close":
+                        calls.add(method.getName());
+                        return null;
+                    default:
+                        return null;
+                    }
+                });
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {DataSource.class},
+                (proxy, method, args) -> "getConnection".equals(method.getName()) ? connection : null);
+    }
+
+    private int[] executeBatch(int rows) throws SQLException, InterruptedException {
+        executedBatches.incrementAndGet();
+        if (blockExecution) {
+            executing.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!cancelled.get() && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            throw new SQLException("Query execution was interrupted");
+        }
+        int[] result = new int[rows];
+        Arrays.fill(result, 1);
+        return result;
+    }
+
+}
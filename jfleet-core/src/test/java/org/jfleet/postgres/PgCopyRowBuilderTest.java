@@ -0,0 +1,96 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.postgres;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import java.util.BitSet;
+
+import org.jfleet.EntityFieldType.FieldTypeEnum;
+import org.jfleet.columnar.ColumnarBatch;
+import org.jfleet.columnar.ColumnarRowSource;
+import org.jfleet.common.StringContent;
+import org.junit.jupiter.api.Test;
+
+public class PgCopyRowBuilderTest {
+
+    @Test
+    public void buildsRowsFromColumnarBatch() {
+        BitSet nulls = new BitSet();
+        nulls.set(1);
+        ColumnarBatch batch = ColumnarBatch.builder("measures", 2)
+                .longColumn("id", new long[] {1, 2})
+                .doubleColumn("value", new double[] {1.5, 2.5}, nulls)
+                .column("name", FieldTypeEnum.STRING, new String[] {"a\nb", "c"})
+                .build();
+
+        PgCopyRowBuilder rowBuilder = new PgCopyRowBuilder(batch.getEntityInfo());
+        StringContent content = new StringContent(1024);
+        batch.stream().forEach(row -> rowBuilder.add(content, row));
+        assertEquals("1\t1.5\ta\\\nb\n2\t\\N\tc\n", content.getContent().toString());
+    }
+
+    @Test
+    public void serializesColumnarRowsByIndexLikeRows() {
+        BitSet nulls = new BitSet();
+        nulls.set(0);
+        ColumnarBatch batch = ColumnarBatch.builder("measures", 2)
+                .longColumn("id", new long[] {1, Long.MAX_VALUE})
+                .intColumn("count", new int[] {-3, 4}, nulls)
+                .shortColumn("small", new short[] {5, 6})
+                .byteColumn("tiny", new byte[] {7, -8})
+                .doubleColumn("value", new double[] {1.5, 1e-10})
+                .floatColumn("ratio", new float[] {0.1f, 2.5f}, nulls)
+                .booleanColumn("active", new boolean[] {true, false})
+                .charColumn("letter", new char[] {'\t', 'x'})
+                .column("amount", FieldTypeEnum.BIGDECIMAL, new BigDecimal[] {new BigDecimal("1.10"), null})
+                .column("name", FieldTypeEnum.STRING, new String[] {"a\\b", "c\nd"})
+                .build();
+
+        PgCopyRowBuilder rowBuilder = new PgCopyRowBuilder(batch.getEntityInfo());
+        StringContent byRow = new StringContent(1024);
+        batch.stream().forEach(row -> rowBuilder.add(byRow, row));
+
+        StringContent byIndex = new StringContent(1024);
+        ColumnarRowSource rowSource = new ColumnarRowSource(batch, batch.getEntityInfo().getColumns(), rowBuilder);
+        while (rowSource.appendRow(byIndex)) {
+            byIndex.inc();
+        }
+        assertFalse(rowSource.appendRow(byIndex));
+        assertEquals(2, byIndex.getRecords());
+        assertEquals(byRow.getContent().toString(), byIndex.getContent().toString());
+    }
+
+    @Test
+    public void rejectsBatchWithOtherColumns() {
+        ColumnarBatch batch = ColumnarBatch.builder("measures", 1)
+                .longColumn("id", new long[] {1})
+                .doubleColumn("value", new double[] {1.5})
+                .build();
+        ColumnarBatch other = ColumnarBatch.builder("measures", 1)
+                .doubleColumn("value", new double[] {1.5})
+                .longColumn("id", new long[] {1})
+                .build();
+        PgCopyRowBuilder rowBuilder = new PgCopyRowBuilder(batch.getEntityInfo());
+        assertThrows(IllegalArgumentException.class,
+                () -> new ColumnarRowSource(other, batch.getEntityInfo().getColumns(), rowBuilder));
+    }
+
+}
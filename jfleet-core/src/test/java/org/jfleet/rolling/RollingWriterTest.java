@@ -0,0 +1,154 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.rolling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jfleet.EntityInfo;
+import org.jfleet.EntityInfoBuilder;
+import org.jfleet.csv.CsvConfiguration;
+import org.jfleet.csv.JFleetCsvWriter;
+import org.jfleet.csv.SomeEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RollingWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private final EntityInfo entityInfo = new EntityInfoBuilder<>(SomeEntity.class).addFields("name", "age").build();
+
+    @Test
+    public void rollByRows() throws IOException {
+        RollingWriter<SomeEntity, JFleetCsvWriter<SomeEntity>> writer = builder().maxRows(4).build();
+        try (RollingWriter<SomeEntity, JFleetCsvWriter<SomeEntity>> w = writer) {
+            w.writeAll(entities(10));
+        }
+        List<RollingFile> manifest = writer.getManifest();
+        assertEquals(3, manifest.size());
+        assertEquals(4, manifest.get(0).getRows());
+        assertEquals(4, manifest.get(1).getRows());
+        assertEquals(2, manifest.get(2).getRows());
+        assertEquals(dir.resolve("data-0-0.csv"), manifest.get(0).getPath());
+        assertEquals(dir.resolve("data-0-2.csv"), manifest.get(2).getPath());
+        List<String> lines = readLines(manifest.get(1).getPath());
+        assertEquals(5, lines.size());
+        assertEquals("name,age", lines.get(0));
+        assertEquals("name4,4", lines.get(1));
+    }
+
+    @Test
+    public void rollByBytes() throws IOException {
+        RollingWriter<SomeEntity, JFleetCsvWriter<SomeEntity>> writer = new RollingWriter.Builder<SomeEntity,
+                JFleetCsvWriter<SomeEntity>>((w, p) -> dir.resolve(w + "/" + p + ".csv"),
+                        os -> new JFleetCsvWriter<>(os, new CsvConfiguration.Builder<SomeEntity>(entityInfo)
+                                .lineDelimiter("\n").build()))
+                .maxBytes(20_000).build();
+        try (RollingWriter<SomeEntity, JFleetCsvWriter<SomeEntity>> w = writer) {
+            w.writeAll(entities(20_000));
+        }
+        List<RollingFile> manifest = writer.getManifest();
+        assertTrue(manifest.size() > 1);
+        long rows = 0;
+        for (int i = 0; i < manifest.size(); i++) {
+            RollingFile file = manifest.get(i);
+            rows += file.getRows();
+            assertEquals(Files.size(file.getPath()), file.getBytes());
+            if (i < manifest.size() - 1) {
+                assertTrue(file.getBytes() >= 20_000);
+            }
+        }
+        assertEquals(20_000, rows);
+        assertTrue(Files.exists(dir.resolve("0/1.csv")));
+    }
+
+    @Test
+    public void roundRobinAcrossWriters() throws IOException {
+        RollingWriter<SomeEntity, JFleetCsvWriter<SomeEntity>> writer = builder().writers(3).build();
+        try (RollingWriter<SomeEntity, JFleetCsvWriter<SomeEntity>> w = writer) {
+            w.writeAll(entities(10));
+        }
+        List<RollingFile> manifest = writer.getManifest();
+        assertEquals(3, manifest.size());
+        assertEquals(4, manifest.get(0).getRows());
+        assertEquals(3, manifest.get(1).getRows());
+        assertEquals(3, manifest.get(2).getRows());
+        assertEquals("name1,1", readLines(manifest.get(1).getPath()).get(1));
+    }
+
+    @Test
+    public void partitionByKey() throws IOException {
+        RollingWriter<SomeEntity, JFleetCsvWriter<SomeEntity>> writer = builder().writers(2)
+                .partitionBy(e -> e.getAge() % 2).build();
+        try (RollingWriter<SomeEntity, JFleetCsvWriter<SomeEntity>> w = writer) {
+            w.writeAll(entities(9));
+        }
+        List<RollingFile> manifest = writer.getManifest();
+        assertEquals(2, manifest.size());
+        assertEquals(5, manifest.get(0).getRows());
+        assertEquals(4, manifest.get(1).getRows());
+        List<String> odd = readLines(manifest.get(1).getPath());
+        assertTrue(odd.stream().skip(1).allMatch(l -> Integer.parseInt(l.split(",")[1]) % 2 == 1));
+    }
+
+    @Test
+    public void concurrentWrites() throws IOException {
+        RollingWriter<SomeEntity, JFleetCsvWriter<SomeEntity>> writer = builder().writers(4).maxRows(100).build();
+        try (RollingWriter<SomeEntity, JFleetCsvWriter<SomeEntity>> w = writer) {
+            entities(10_000).parallelStream().forEach(w);
+        }
+        List<RollingFile> manifest = writer.getManifest();
+        assertEquals(100, manifest.size());
+        long rows = 0;
+        for (RollingFile file : manifest) {
+            rows += file.getRows();
+            assertEquals(file.getRows() + 1, readLines(file.getPath()).size());
+        }
+        assertEquals(10_000, rows);
+    }
+
+    @Test
+    public void writeAfterCloseFails() throws IOException {
+        RollingWriter<SomeEntity, JFleetCsvWriter<SomeEntity>> writer = builder().build();
+        writer.close();
+        assertThrows(IOException.class, () -> writer.write(new SomeEntity("John", 10)));
+    }
+
+    private RollingWriter.Builder<SomeEntity, JFleetCsvWriter<SomeEntity>> builder() {
+        return new RollingWriter.Builder<>((w, p) -> dir.resolve("data-" + w + "-" + p + ".csv"),
+                os -> new JFleetCsvWriter<>(os, entityInfo));
+    }
+
+    private static List<SomeEntity> entities(int count) {
+        return IntStream.range(0, count).mapToObj(i -> new SomeEntity("name" + i, i)).collect(Collectors.toList());
+    }
+
+    private static List<String> readLines(Path path) throws IOException {
+        return Files.readAllLines(path, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,251 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.sink;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.jfleet.BulkInsert;
+import org.junit.jupiter.api.Test;
+
+public class BulkInsertSinkTest {
+
+    private final AtomicInteger commits = new AtomicInteger();
+    private final AtomicInteger rollbacks = new AtomicInteger();
+    private volatile SQLException rollbackError;
+
+    @Test
+    public void insertsRowsOfManyProducers() throws Exception {
+        Set<Integer> inserted = ConcurrentHashMap.newKeySet();
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> {
+            List<Integer> rows = stream.collect(Collectors.toList());
+            batchSizes.add(rows.size());
+            inserted.addAll(rows);
+        };
+        List<CompletableFuture<Void>> futures = new CopyOnWriteArrayList<>();
+        try (BulkInsertSink<Integer> sink = new BulkInsertSink.Builder<>(bulkInsert, dataSource(true))
+                .maxBatchRows(100).workers(3).build()) {
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < 8; p++) {
+                int producer = p;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        try {
+                            futures.add(sink.offer(producer * 1_000 + i));
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+                thread.start();
+                producers.add(thread);
+            }
+            for (Thread thread : producers) {
+                thread.join();
+            }
+            sink.flush().get(10, TimeUnit.SECONDS);
+            assertEquals(8_000, sink.getCommittedRows());
+            assertEquals(0, sink.getPendingRows());
+        }
+        assertEquals(8_000, inserted.size());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 100));
+        assertTrue(futures.stream().allMatch(future -> future.isDone() && !future.isCompletedExceptionally()));
+    }
+
+    @Test
+    public void insertsPartialBatchAfterLinger() throws Exception {
+        List<Integer> inserted = new CopyOnWriteArrayList<>();
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> stream.forEach(inserted::add);
+        try (BulkInsertSink<Integer> sink = new BulkInsertSink.Builder<>(bulkInsert, dataSource(true))
+                .maxBatchRows(100).linger(20, TimeUnit.MILLISECONDS).build()) {
+            CompletableFuture<Void> first = sink.offer(1);
+            CompletableFuture<Void> second = sink.offer(2);
+            CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+            assertEquals(2, inserted.size());
+        }
+    }
+
+    @Test
+    public void commitsWhenConnectionIsNotAutocommit() throws Exception {
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> stream.count();
+        try (BulkInsertSink<Integer> sink = new BulkInsertSink.Builder<>(bulkInsert, dataSource(false))
+                .maxBatchRows(10).build()) {
+            for (int i = 0; i < 30; i++) {
+                sink.offer(i);
+            }
+            sink.flush().get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(3, commits.get());
+    }
+
+    @Test
+    public void completesFuturesExceptionallyOnError() throws Exception {
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> {
+            throw new SQLException("Duplicate entry");
+        };
+        try (BulkInsertSink<Integer> sink = new BulkInsertSink.Builder<>(bulkInsert, dataSource(true)).build()) {
+            CompletableFuture<Void> future = sink.offer(1);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> sink.flush().get(5, TimeUnit.SECONDS));
+            assertEquals("Duplicate entry", e.getCause().getMessage());
+            assertTrue(future.isCompletedExceptionally());
+            assertEquals(1, sink.getFailedRows());
+            assertEquals(0, sink.getPendingRows());
+        }
+    }
+
+    @Test
+    public void failsBatchAndReleasesCapacityOnError() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new AssertionError("Unexpected row");
+            }
+            stream.count();
+        };
+        try (BulkInsertSink<Integer> sink = new BulkInsertSink.Builder<>(bulkInsert, dataSource(false))
+                .capacity(2).maxBatchRows(2).linger(10, TimeUnit.SECONDS).build()) {
+            CompletableFuture<Void> first = sink.offer(1);
+            CompletableFuture<Void> second = sink.offer(2);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof AssertionError);
+            assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertEquals(2, sink.getFailedRows());
+            assertEquals(1, rollbacks.get());
+            CompletableFuture<Void> third = sink.offer(3, 1, TimeUnit.SECONDS);
+            CompletableFuture<Void> fourth = sink.offer(4, 1, TimeUnit.SECONDS);
+            assertNotNull(third);
+            assertNotNull(fourth);
+            CompletableFuture.allOf(third, fourth).get(5, TimeUnit.SECONDS);
+            assertEquals(2, sink.getCommittedRows());
+        }
+    }
+
+    @Test
+    public void flushFailsWhenBatchFailedBeforeIt() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new SQLException("Duplicate entry");
+            }
+            stream.count();
+        };
+        try (BulkInsertSink<Integer> sink = new BulkInsertSink.Builder<>(bulkInsert, dataSource(true))
+                .maxBatchRows(1).build()) {
+            CompletableFuture<Void> future = sink.offer(1);
+            assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            sink.offer(2).get(5, TimeUnit.SECONDS);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> sink.flush().get(5, TimeUnit.SECONDS));
+            assertEquals("Duplicate entry", e.getCause().getMessage());
+            sink.offer(3);
+            sink.flush().get(5, TimeUnit.SECONDS);
+            assertEquals(2, sink.getCommittedRows());
+        }
+    }
+
+    @Test
+    public void keepsInsertErrorWhenRollbackFails() throws Exception {
+        rollbackError = new SQLException("Connection lost");
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> {
+            throw new SQLException("Duplicate entry");
+        };
+        try (BulkInsertSink<Integer> sink = new BulkInsertSink.Builder<>(bulkInsert, dataSource(false)).build()) {
+            CompletableFuture<Void> future = sink.offer(1);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertEquals("Duplicate entry", e.getCause().getMessage());
+            assertEquals(1, e.getCause().getSuppressed().length);
+            assertSame(rollbackError, e.getCause().getSuppressed()[0]);
+        }
+    }
+
+    @Test
+    public void blocksProducersAtFullCapacity() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        };
+        try (BulkInsertSink<Integer> sink = new BulkInsertSink.Builder<>(bulkInsert, dataSource(true))
+                .capacity(10).maxBatchRows(5).build()) {
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(sink.offer(i, 1, TimeUnit.SECONDS));
+            }
+            assertNull(sink.offer(10, 50, TimeUnit.MILLISECONDS));
+            release.countDown();
+            assertNotNull(sink.offer(10, 5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void rejectsRowsAfterClose() throws Exception {
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> stream.count();
+        BulkInsertSink<Integer> sink = new BulkInsertSink.Builder<>(bulkInsert, dataSource(true)).build();
+        CompletableFuture<Void> future = sink.offer(1);
+        sink.close();
+        assertTrue(future.isDone());
+        assertThrows(IllegalStateException.class, () -> sink.offer(2));
+        IntStream.range(0, 2).forEach(i -> sink.close());
+    }
+
+    private DataSource dataSource(boolean autocommit) {
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getAutoCommit":
+                        return autocommit;
+                    case "commit":
+                        commits.incrementAndGet();
+                        return null;
+                    case "rollback":
+                        rollbacks.incrementAndGet();
+                        if (rollbackError != null) {
+                            throw rollbackError;
+                        }
+                        return null;
+                    default:
+                        return null;
+                    }
+                });
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {DataSource.class},
+                (proxy, method, args) -> method.getName().equals("getConnection") ? connection : null);
+    }
+
+}
@@ -0,0 +1,361 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.flow;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.jfleet.BulkInsert;
+import org.jfleet.common.VirtualThreads;
+import org.jfleet.jdbc.JdbcBulkInsert;
+import org.jfleet.jdbc.JdbcConfiguration;
+import org.jfleet.mysql.LoadDataBulkInsert;
+import org.jfleet.mysql.LoadDataConfiguration;
+import org.jfleet.postgres.PgCopyBulkInsert;
+import org.jfleet.postgres.PgCopyConfiguration;
+import org.jfleet.sink.BulkInsertSink;
+
+/**
+ *
+ * Flow Subscriber that inserts the items of a Publisher in micro batches with any BulkInsert, using a
+ * {@link BulkInsertSink}.
+ *
+ * The subscriber never requests more items than fit in its buffer: it requests bufferSize items on subscription, and
+ * requests more as the batches are committed or fail. A slow database slows down the publisher, and no thread waits
+ * for the next item while the publisher has nothing to send.
+ *
+ * The sink and its threads are created on subscription. Calls to the subscription are serialized, although batches
+ * are committed in several worker threads.
+ *
+ * When the publisher completes, pending items are inserted and {@link #getResult()} completes with a
+ * {@link LoadSummary}. If the publisher signals an error, or a batch fails, the subscription is cancelled, items
+ * already received are inserted and the result completes exceptionally with the first error.
+ *
+ * <pre>
+ * BulkInsertSubscriber&lt;Employee&gt; subscriber = BulkInsertSubscriber.&lt;Employee&gt;loadData(config, dataSource)
+ *         .bufferSize(50_000).maxBatchRows(10_000).build();
+ * publisher.subscribe(subscriber);
+ * LoadSummary summary = subscriber.getResult().join();
+ * </pre>
+ *
+ * @param <T> Type of the entity to insert
+ */
+public class BulkInsertSubscriber<T> implements Flow.Subscriber<T> {
+
+    private final BulkInsertSink.Builder<T> sinkBuilder;
+    private final int bufferSize;
+    private final int requestBatch;
+    private final CompletableFuture<LoadSummary> result = new CompletableFuture<>();
+    private final AtomicLong pendingRequest = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicReference<Throwable> firstError = new AtomicReference<>();
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+    private volatile BulkInsertSink<T> sink;
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelRequested = false;
+    private boolean cancelled = false;
+    private volatile long startNanos;
+
+    private BulkInsertSubscriber(Builder<T> builder) {
+        this.bufferSize = builder.bufferSize;
+        this.requestBatch = Math.max(1, Math.min(builder.bufferSize / 2, builder.maxBatchRows));
+        this.sinkBuilder = new BulkInsertSink.Builder<>(builder.bulkInsert, builder.dataSource)
+                .capacity(builder.bufferSize)
+                .maxBatchRows(builder.maxBatchRows)
+                .linger(builder.lingerNanos, TimeUnit.NANOSECONDS)
+                .workers(builder.workers)
+                .executor(builder.executor);
+    }
+
+    /**
+     * @param config
+     *            LOAD DATA configuration
+     * @param dataSource
+     *            source of MySQL connections
+     * @param <T>
+     *            Type of the entity to insert
+     * @return a builder of subscribers inserting with {@link LoadDataBulkInsert}
+     */
+    public static <T> Builder<T> loadData(LoadDataConfiguration config, DataSource dataSource) {
+        return new Builder<>(new LoadDataBulkInsert<>(config), dataSource);
+    }
+
+    /**
+     * @param config
+     *            COPY configuration
+     * @param dataSource
+     *            source of Postgres connections
+     * @param <T>
+     *            Type of the entity to insert
+     * @return a builder of subscribers inserting with {@link PgCopyBulkInsert}
+     */
+    public static <T> Builder<T> pgCopy(PgCopyConfiguration config, DataSource dataSource) {
+        return new Builder<>(new PgCopyBulkInsert<>(config), dataSource);
+    }
+
+    /**
+     * @param config
+     *            JDBC batch configuration
+     * @param dataSource
+     *            source of connections
+     * @param <T>
+     *            Type of the entity to insert
+     * @return a builder of subscribers inserting with {@link JdbcBulkInsert}
+     */
+    public static <T> Builder<T> jdbc(JdbcConfiguration config, DataSource dataSource) {
+        return new Builder<>(new JdbcBulkInsert<>(config), dataSource);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        if (this.subscription != null || finished.get()) {
+            subscription.cancel();
+            return;
+        }
+        this.startNanos = System.nanoTime();
+        this.sink = sinkBuilder.build();
+        this.subscription = subscription;
+        pendingRequest.addAndGet(bufferSize);
+        drain();
+    }
+
+    @Override
+    public void onNext(T item) {
+        Objects.requireNonNull(item);
+        if (finished.get()) {
+            return;
+        }
+        CompletableFuture<Void> committed;
+        try {
+            committed = sink.offer(item, 0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(e);
+            return;
+        } catch (IllegalStateException e) {
+            // The sink is closed when a failed batch finishes the load between the check and the offer. onNext
+            // must not throw (Reactive Streams 2.13), so the item is dropped and the load is aborted.
+            abort(e);
+            return;
+        }
+        if (committed == null) {
+            abort(new IllegalStateException("Publisher sent more items than requested"));
+            return;
+        }
+        committed.whenComplete((r, e) -> {
+            if (e == null) {
+                replenish();
+            } else {
+                abort(e);
+            }
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable);
+        firstError.compareAndSet(null, throwable);
+        finish();
+    }
+
+    @Override
+    public void onComplete() {
+        finish();
+    }
+
+    /**
+     * @return a future completed with the summary of the load when the publisher completes and all items are
+     *         committed, or completed exceptionally if the publisher or any batch failed
+     */
+    public CompletableFuture<LoadSummary> getResult() {
+        return result;
+    }
+
+    /**
+     * @return summary of the rows loaded until now
+     */
+    public LoadSummary getSummary() {
+        BulkInsertSink<T> current = sink;
+        if (current == null) {
+            return new LoadSummary(0, 0, 0, 0);
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        return new LoadSummary(current.getCommittedRows(), current.getFailedRows(), current.getBatches(), elapsed);
+    }
+
+    private void replenish() {
+        if (pendingRequest.incrementAndGet() >= requestBatch) {
+            drain();
+        }
+    }
+
+    private void abort(Throwable error) {
+        if (firstError.compareAndSet(null, error)) {
+            cancelRequested = true;
+            drain();
+        }
+        finish();
+    }
+
+    /**
+     * Requests the replenished items or cancels the subscription. Batches are committed in several workers, so the
+     * thread entering the loop also makes the calls missed by other threads meanwhile, and request and cancel are
+     * never called concurrently (Reactive Streams 2.7).
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Flow.Subscription current = subscription;
+            if (current != null && !cancelled) {
+                if (cancelRequested) {
+                    cancelled = true;
+                    current.cancel();
+                } else if (!finished.get()) {
+                    long pending = pendingRequest.get();
+                    if (pending >= requestBatch) {
+                        pendingRequest.addAndGet(-pending);
+                        current.request(pending);
+                    }
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void finish() {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        BulkInsertSink<T> current = sink;
+        if (current == null) {
+            complete();
+            return;
+        }
+        CompletableFuture<Void> flushed;
+        try {
+            flushed = current.flush();
+        } catch (IllegalStateException e) {
+            flushed = CompletableFuture.completedFuture(null);
+        }
+        // Closing the sink joins its dispatcher and workers, so it runs out of the common pool and of the workers
+        flushed.handle((r, e) -> null).thenRunAsync(() -> {
+            current.close();
+            complete();
+        }, VirtualThreads.executor());
+    }
+
+    private void complete() {
+        Throwable error = firstError.get();
+        if (error == null) {
+            result.complete(getSummary());
+        } else {
+            result.completeExceptionally(error);
+        }
+    }
+
+    public static class Builder<T> {
+
+        private final BulkInsert<T> bulkInsert;
+        private final DataSource dataSource;
+        private int bufferSize = 100_000;
+        private int maxBatchRows = 10_000;
+        private long lingerNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        private int workers = 1;
+        private Executor executor = null;
+
+        /**
+         * @param bulkInsert
+         *            BulkInsert used to insert each batch
+         * @param dataSource
+         *            source of the connections used by the workers, usually a connection pool
+         */
+        public Builder(BulkInsert<T> bulkInsert, DataSource dataSource) {
+            this.bulkInsert = bulkInsert;
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * @param bufferSize
+         *            maximum items requested to the publisher and not yet committed
+         * @return the builder
+         */
+        public Builder<T> bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * @param maxBatchRows
+         *            maximum items inserted in a batch
+         * @return the builder
+         */
+        public Builder<T> maxBatchRows(int maxBatchRows) {
+            this.maxBatchRows = maxBatchRows;
+            return this;
+        }
+
+        /**
+         * @param linger
+         *            maximum time the first item of a batch waits for more items before the batch is inserted
+         * @param unit
+         *            unit of linger
+         * @return the builder
+         */
+        public Builder<T> linger(long linger, TimeUnit unit) {
+            this.lingerNanos = unit.toNanos(linger);
+            return this;
+        }
+
+        /**
+         * @param workers
+         *            batches inserted concurrently, each one with its own connection
+         * @return the builder
+         */
+        public Builder<T> workers(int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * @param executor
+         *            executor running the workers. By default the subscriber creates its own pool of workers threads
+         * @return the builder
+         */
+        public Builder<T> executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public BulkInsertSubscriber<T> build() {
+            return new BulkInsertSubscriber<>(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.flow;
+
+/**
+ * Summary of the rows loaded by a {@link BulkInsertSubscriber}.
+ */
+public class LoadSummary {
+
+    private final long rows;
+    private final long failedRows;
+    private final long batches;
+    private final long elapsedNanos;
+
+    public LoadSummary(long rows, long failedRows, long batches, long elapsedNanos) {
+        this.rows = rows;
+        this.failedRows = failedRows;
+        this.batches = batches;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return rows committed in the database
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return rows received that could not be inserted
+     */
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    /**
+     * @return batches committed in the database
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * @return nanoseconds since the subscription until all rows were committed or failed
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadSummary [rows=" + rows + ", failedRows=" + failedRows + ", batches=" + batches
+                + ", elapsedNanos=" + elapsedNanos + "]";
+    }
+
+}
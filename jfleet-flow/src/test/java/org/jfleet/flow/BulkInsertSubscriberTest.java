@@ -0,0 +1,292 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.jfleet.BulkInsert;
+import org.junit.jupiter.api.Test;
+
+public class BulkInsertSubscriberTest {
+
+    @Test
+    public void insertsAllPublishedItems() throws Exception {
+        List<Integer> inserted = new CopyOnWriteArrayList<>();
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> stream.forEach(inserted::add);
+        BulkInsertSubscriber<Integer> subscriber = new BulkInsertSubscriber.Builder<>(bulkInsert, dataSource())
+                .bufferSize(100).maxBatchRows(10).build();
+        try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(subscriber);
+            for (int i = 0; i < 5_000; i++) {
+                publisher.submit(i);
+            }
+        }
+        LoadSummary summary = subscriber.getResult().get(10, TimeUnit.SECONDS);
+        assertEquals(5_000, summary.getRows());
+        assertEquals(0, summary.getFailedRows());
+        assertEquals(500, summary.getBatches());
+        assertEquals(5_000, inserted.size());
+    }
+
+    @Test
+    public void requestsItemsAsBatchesAreCommitted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> {
+            await(release);
+            stream.count();
+        };
+        BulkInsertSubscriber<Integer> subscriber = new BulkInsertSubscriber.Builder<>(bulkInsert, dataSource())
+                .bufferSize(20).maxBatchRows(10).build();
+        RecordingSubscription subscription = new RecordingSubscription();
+        subscriber.onSubscribe(subscription);
+        assertEquals(20, subscription.requested.get());
+        for (int i = 0; i < 20; i++) {
+            subscriber.onNext(i);
+        }
+        Thread.sleep(50);
+        assertEquals(20, subscription.requested.get());
+
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (subscription.requested.get() < 40 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(40, subscription.requested.get());
+        subscriber.onComplete();
+        assertEquals(20, subscriber.getResult().get(5, TimeUnit.SECONDS).getRows());
+        assertFalse(subscription.cancelled.get());
+    }
+
+    @Test
+    public void cancelsSubscriptionWhenBatchFails() throws Exception {
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> {
+            throw new SQLException("Duplicate entry");
+        };
+        BulkInsertSubscriber<Integer> subscriber = new BulkInsertSubscriber.Builder<>(bulkInsert, dataSource())
+                .bufferSize(10).maxBatchRows(5).build();
+        RecordingSubscription subscription = new RecordingSubscription();
+        subscriber.onSubscribe(subscription);
+        for (int i = 0; i < 5; i++) {
+            subscriber.onNext(i);
+        }
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> subscriber.getResult().get(5, TimeUnit.SECONDS));
+        assertEquals("Duplicate entry", e.getCause().getMessage());
+        assertTrue(subscription.cancelled.get());
+        assertEquals(5, subscriber.getSummary().getFailedRows());
+    }
+
+    @Test
+    public void doesNotThrowFromOnNextWhenSinkIsClosedConcurrently() throws Exception {
+        for (int round = 0; round < 10; round++) {
+            CountDownLatch release = new CountDownLatch(1);
+            BulkInsert<Integer> bulkInsert = (conn, stream) -> {
+                await(release);
+                throw new SQLException("Duplicate entry");
+            };
+            BulkInsertSubscriber<Integer> subscriber = new BulkInsertSubscriber.Builder<>(bulkInsert, dataSource())
+                    .bufferSize(1_000_000).maxBatchRows(10_000).linger(1, TimeUnit.MILLISECONDS).build();
+            subscriber.onSubscribe(new RecordingSubscription());
+            int item = 0;
+            while (item < 10) {
+                subscriber.onNext(item++);
+            }
+            release.countDown();
+            // Items can still arrive after cancelling the subscription (Reactive Streams 2.8)
+            while (!subscriber.getResult().isDone()) {
+                subscriber.onNext(item++);
+            }
+            for (int i = 0; i < 100; i++) {
+                subscriber.onNext(item++);
+            }
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> subscriber.getResult().get(5, TimeUnit.SECONDS));
+            assertEquals("Duplicate entry", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void insertsReceivedItemsWhenPublisherFails() throws Exception {
+        List<Integer> inserted = new CopyOnWriteArrayList<>();
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> stream.forEach(inserted::add);
+        BulkInsertSubscriber<Integer> subscriber = new BulkInsertSubscriber.Builder<>(bulkInsert, dataSource())
+                .build();
+        subscriber.onSubscribe(new RecordingSubscription());
+        subscriber.onNext(1);
+        subscriber.onNext(2);
+        RuntimeException failure = new RuntimeException("Upstream failure");
+        subscriber.onError(failure);
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> subscriber.getResult().get(5, TimeUnit.SECONDS));
+        assertSame(failure, e.getCause());
+        assertEquals(2, inserted.size());
+    }
+
+    @Test
+    public void cancelsSecondSubscription() {
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> stream.count();
+        BulkInsertSubscriber<Integer> subscriber = new BulkInsertSubscriber.Builder<>(bulkInsert, dataSource())
+                .build();
+        RecordingSubscription first = new RecordingSubscription();
+        RecordingSubscription second = new RecordingSubscription();
+        subscriber.onSubscribe(first);
+        subscriber.onSubscribe(second);
+        assertFalse(first.cancelled.get());
+        assertTrue(second.cancelled.get());
+        subscriber.onComplete();
+        subscriber.getResult().join();
+    }
+
+    @Test
+    public void serializesRequestsOfManyWorkers() throws Exception {
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> stream.count();
+        BulkInsertSubscriber<Integer> subscriber = new BulkInsertSubscriber.Builder<>(bulkInsert, dataSource())
+                .bufferSize(64).maxBatchRows(1).workers(8).build();
+        RecordingSubscription subscription = new RecordingSubscription(TimeUnit.MICROSECONDS.toNanos(50));
+        subscriber.onSubscribe(subscription);
+        int items = 5_000;
+        long deadline = System.currentTimeMillis() + 10_000;
+        for (int i = 0; i < items; i++) {
+            while (subscription.requested.get() <= i) {
+                assertTrue(System.currentTimeMillis() < deadline, "Items not requested");
+                Thread.yield();
+            }
+            subscriber.onNext(i);
+        }
+        subscriber.onComplete();
+        assertEquals(items, subscriber.getResult().get(10, TimeUnit.SECONDS).getRows());
+        assertFalse(subscription.overlapped.get());
+    }
+
+    @Test
+    public void startsSinkThreadsOnSubscription() throws Exception {
+        Set<String> before = sinkThreads();
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> stream.count();
+        BulkInsertSubscriber<Integer> subscriber = new BulkInsertSubscriber.Builder<>(bulkInsert, dataSource())
+                .build();
+        assertTrue(before.containsAll(sinkThreads()));
+        assertEquals(0, subscriber.getSummary().getRows());
+
+        subscriber.onSubscribe(new RecordingSubscription());
+        assertFalse(before.containsAll(sinkThreads()));
+        subscriber.onComplete();
+        subscriber.getResult().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void completesWithoutSubscription() throws Exception {
+        BulkInsert<Integer> bulkInsert = (conn, stream) -> stream.count();
+        BulkInsertSubscriber<Integer> subscriber = new BulkInsertSubscriber.Builder<>(bulkInsert, dataSource())
+                .build();
+        RuntimeException failure = new RuntimeException("Upstream failure");
+        subscriber.onError(failure);
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> subscriber.getResult().get(5, TimeUnit.SECONDS));
+        assertSame(failure, e.getCause());
+    }
+
+    private static Set<String> sinkThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .map(Thread::getName)
+                .filter(name -> name.startsWith("jfleet-sink-"))
+                .collect(Collectors.toSet());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class RecordingSubscription implements Flow.Subscription {
+
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicBoolean overlapped = new AtomicBoolean();
+        private final long callNanos;
+
+        RecordingSubscription() {
+            this(0);
+        }
+
+        RecordingSubscription(long callNanos) {
+            this.callNanos = callNanos;
+        }
+
+        @Override
+        public void request(long n) {
+            enter();
+            requested.addAndGet(n);
+            exit();
+        }
+
+        @Override
+        public void cancel() {
+            enter();
+            cancelled.set(true);
+            exit();
+        }
+
+        private void enter() {
+            if (active.getAndIncrement() != 0) {
+                overlapped.set(true);
+            }
+            if (callNanos > 0) {
+                LockSupport.parkNanos(callNanos);
+            }
+        }
+
+        private void exit() {
+            active.decrementAndGet();
+        }
+
+    }
+
+    private DataSource dataSource() {
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> method.getName().equals("getAutoCommit") ? true : null);
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {DataSource.class},
+                (proxy, method, args) -> method.getName().equals("getConnection") ? connection : null);
+    }
+
+}
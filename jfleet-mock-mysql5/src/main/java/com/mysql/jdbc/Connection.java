@@ -15,13 +15,8 @@
  */
 package com.mysql.jdbc;
 
-public interface Connection extends AutoCloseable {
+public interface Connection extends java.sql.Connection {
 
     void setAllowLoadLocalInfile(boolean b);
 
-    java.sql.Statement createStatement();
-
-    @Override
-    void close();
-
 }
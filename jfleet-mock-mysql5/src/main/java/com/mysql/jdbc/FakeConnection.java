@@ -0,0 +1,205 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mysql.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In process stand-in for a MySQL server receiving LOAD DATA LOCAL INFILE statements.
+ *
+ * <p>Statements created from {@link #getConnection()} consume the local infile stream at the configured bandwidth,
+ * wait the configured latency once per statement, and report the parsed rows as update count. It lets measure the
+ * full LoadDataBulkInsert pipeline without a database. Only the connection methods used by JFleet are supported.</p>
+ */
+public class FakeConnection {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte LINE_TERMINATED = '\n';
+    private static final byte ESCAPED_BY = '\\';
+
+    private final double nanosPerByte;
+    private final long latencyNanos;
+    private final Connection connection;
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong statementsExecuted = new AtomicLong();
+
+    private volatile boolean allowLoadLocalInfile = false;
+    private volatile boolean autoCommit = true;
+    private volatile boolean closed = false;
+
+    /**
+     * Connection without bandwidth limit nor latency.
+     */
+    public FakeConnection() {
+        this(0, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param bytesPerSecond bandwidth used to consume the local infile stream, 0 for unlimited
+     * @param latency        time spent by each statement before reading the stream
+     * @param unit           unit of latency
+     */
+    public FakeConnection(long bytesPerSecond, long latency, TimeUnit unit) {
+        if (bytesPerSecond < 0 || latency < 0) {
+            throw new IllegalArgumentException("Bandwidth and latency can not be negative");
+        }
+        this.nanosPerByte = bytesPerSecond == 0 ? 0 : 1_000_000_000.0 / bytesPerSecond;
+        this.latencyNanos = unit.toNanos(latency);
+        this.connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> invoke(proxy, method, args));
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public long getStatementsExecuted() {
+        return statementsExecuted.get();
+    }
+
+    public void reset() {
+        rowsParsed.set(0);
+        bytesRead.set(0);
+        statementsExecuted.set(0);
+    }
+
+    boolean isAllowLoadLocalInfile() {
+        return allowLoadLocalInfile;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    long load(InputStream localInfile, StatementImpl statement) throws SQLException {
+        long start = System.nanoTime();
+        parkUntil(start + latencyNanos);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long rows = 0;
+        long read = 0;
+        boolean escaped = false;
+        boolean pendingRow = false;
+        try {
+            int n;
+            while ((n = localInfile.read(buffer)) != -1) {
+                statement.checkCancelled();
+                for (int i = 0; i < n; i++) {
+                    byte b = buffer[i];
+                    if (escaped) {
+                        escaped = false;
+                        pendingRow = true;
+                    } else if (b == ESCAPED_BY) {
+                        escaped = true;
+                        pendingRow = true;
+                    } else if (b == LINE_TERMINATED) {
+                        rows++;
+                        pendingRow = false;
+                    } else {
+                        pendingRow = true;
+                    }
+                }
+                read += n;
+                if (nanosPerByte > 0) {
+                    parkUntil(start + latencyNanos + (long) (read * nanosPerByte));
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("Error reading local infile stream", e);
+        }
+        // Like the server, a last row without line terminator is also loaded
+        if (pendingRow) {
+            rows++;
+        }
+        rowsParsed.addAndGet(rows);
+        bytesRead.addAndGet(read);
+        statementsExecuted.incrementAndGet();
+        return rows;
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    private Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "unwrap":
+            if (((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+            throw new SQLException("Can not unwrap to " + args[0]);
+        case "isWrapperFor":
+            return ((Class<?>) args[0]).isInstance(proxy);
+        case "setAllowLoadLocalInfile":
+            allowLoadLocalInfile = (Boolean) args[0];
+            return null;
+        case "createStatement":
+            checkOpen();
+            return new StatementImpl(this);
+        case "getAutoCommit":
+            checkOpen();
+            return autoCommit;
+        case "setAutoCommit":
+            checkOpen();
+            autoCommit = (Boolean) args[0];
+            return null;
+        case "commit":
+        case "rollback":
+            checkOpen();
+            return null;
+        case "close":
+            closed = true;
+            return null;
+        case "isClosed":
+            return closed;
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "equals":
+            return proxy == args[0];
+        case "toString":
+            return "FakeConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+        default:
+            throw new UnsupportedOperationException("FakeConnection does not support " + method.getName());
+        }
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection is closed");
+        }
+    }
+
+}
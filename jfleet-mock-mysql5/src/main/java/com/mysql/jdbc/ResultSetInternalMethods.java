@@ -15,10 +15,8 @@
  */
 package com.mysql.jdbc;
 
-public class ResultSetInternalMethods {
+public interface ResultSetInternalMethods {
 
-    public Long getUpdateCount() {
-        return 0L;
-    }
+    long getUpdateCount();
 
 }
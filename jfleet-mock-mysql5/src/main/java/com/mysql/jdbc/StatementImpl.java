@@ -17,31 +17,286 @@ package com.mysql.jdbc;
 
 import java.io.InputStream;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
 
+/**
+ * Fake statement created by {@link FakeConnection}. Executes LOAD DATA LOCAL INFILE statements consuming the local
+ * infile stream and exposes the parsed rows through {@link #getResultSetInternal()}, like the MySQL driver does.
+ */
 public class StatementImpl implements Statement {
 
+    private static final String LOAD_DATA = "LOAD DATA LOCAL INFILE";
+
+    private final FakeConnection connection;
+    private InputStream localInfile;
+    private long updateCount = -1;
+    private volatile boolean cancelled = false;
+    private boolean closed = false;
+
+    StatementImpl(FakeConnection connection) {
+        this.connection = connection;
+    }
+
     public ResultSetInternalMethods getResultSetInternal() {
-        return null;
+        long rows = updateCount;
+        return () -> rows;
     }
 
     @Override
-    public void close() {
+    public void setLocalInfileInputStream(InputStream inputStream) {
+        this.localInfile = inputStream;
+    }
 
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        checkOpen();
+        if (!sql.startsWith(LOAD_DATA)) {
+            throw unsupported("execute of statements other than " + LOAD_DATA);
+        }
+        if (!connection.isAllowLoadLocalInfile()) {
+            throw new SQLException("Load data local infile forbidden");
+        }
+        if (localInfile == null) {
+            throw new SQLException("No local infile input stream configured");
+        }
+        cancelled = false;
+        updateCount = connection.load(localInfile, this);
+        return false;
     }
 
     @Override
-    public void execute(String sql) {
+    public int getUpdateCount() {
+        return (int) updateCount;
+    }
 
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    void checkCancelled() throws SQLException {
+        if (cancelled) {
+            throw new SQLException("Query execution was interrupted");
+        }
     }
 
     @Override
-    public void setLocalInfileInputStream(InputStream inputStream) {
+    public void close() {
+        closed = true;
+    }
 
+    @Override
+    public boolean isClosed() {
+        return closed;
     }
 
     @Override
-    public ResultSet executeQuery(String sql) {
+    public java.sql.Connection getConnection() {
+        return connection.getConnection();
+    }
+
+    @Override
+    public SQLWarning getWarnings() {
         return null;
     }
 
+    @Override
+    public void clearWarnings() {
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Can not unwrap to " + iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        throw unsupported("executeQuery");
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        throw unsupported("executeUpdate");
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        throw unsupported("getMaxFieldSize");
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        throw unsupported("setMaxFieldSize");
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        throw unsupported("getMaxRows");
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        throw unsupported("setMaxRows");
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        throw unsupported("setEscapeProcessing");
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        throw unsupported("getQueryTimeout");
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        throw unsupported("setQueryTimeout");
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        throw unsupported("setCursorName");
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        throw unsupported("getResultSet");
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        throw unsupported("getMoreResults");
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        throw unsupported("setFetchDirection");
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        throw unsupported("getFetchDirection");
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        throw unsupported("setFetchSize");
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        throw unsupported("getFetchSize");
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        throw unsupported("getResultSetConcurrency");
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        throw unsupported("getResultSetType");
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        throw unsupported("addBatch");
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        throw unsupported("clearBatch");
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        throw unsupported("executeBatch");
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        throw unsupported("getMoreResults");
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        throw unsupported("getGeneratedKeys");
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        throw unsupported("executeUpdate");
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        throw unsupported("executeUpdate");
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        throw unsupported("executeUpdate");
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        throw unsupported("execute");
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        throw unsupported("execute");
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        throw unsupported("execute");
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        throw unsupported("getResultSetHoldability");
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        throw unsupported("setPoolable");
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        throw unsupported("isPoolable");
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        throw unsupported("closeOnCompletion");
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        throw unsupported("isCloseOnCompletion");
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed || connection.isClosed()) {
+            throw new SQLException("Statement is closed");
+        }
+    }
+
+    private static SQLFeatureNotSupportedException unsupported(String operation) {
+        return new SQLFeatureNotSupportedException("FakeConnection does not support " + operation);
+    }
+
 }
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mysql.jdbc;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class FakeConnectionTest {
+
+    private static final String LOAD_SQL = "LOAD DATA LOCAL INFILE '' INTO TABLE person CHARACTER SET UTF8 "
+            + "FIELDS TERMINATED BY '\t' ENCLOSED BY '' ESCAPED BY '\\\\' LINES TERMINATED BY '\n' (id, name, age)";
+
+    private final FakeConnection fake = new FakeConnection();
+
+    @Test
+    void countsRowsWithEscapedTerminators() throws SQLException {
+        String content = "1\tJohn\\\tDoe\t\\N\t\n2\tMulti\\\nline\t33\t\n3\tBack\\\\\t44\t\n";
+        assertEquals(3, load(fake, content));
+        assertEquals(3, fake.getRowsParsed());
+        assertEquals(content.getBytes(UTF_8).length, fake.getBytesRead());
+        assertEquals(1, fake.getStatementsExecuted());
+    }
+
+    @Test
+    void countsLastRowWithoutLineTerminator() throws SQLException {
+        assertEquals(2, load(fake, "1\ta\t2\t\n2\tb\t3\t"));
+        assertEquals(1, load(fake, "1\ta\\\n"));
+        assertEquals(1, load(fake, "1\ta\\"));
+        assertEquals(0, load(fake, ""));
+        assertEquals(4, fake.getRowsParsed());
+    }
+
+    @Test
+    void exposesUpdatedRowsInResultSet() throws SQLException {
+        StatementImpl statement = createStatement(fake);
+        statement.setLocalInfileInputStream(stream("1\ta\t2\t\n2\tb\t3\t\n"));
+        statement.execute(LOAD_SQL);
+        assertEquals(2, statement.getUpdateCount());
+        assertEquals(2, statement.getResultSetInternal().getUpdateCount());
+    }
+
+    @Test
+    void rejectsLoadWithoutLocalInfileAllowed() throws SQLException {
+        java.sql.Statement statement = fake.getConnection().createStatement();
+        ((Statement) statement).setLocalInfileInputStream(stream("1\ta\t2\t\n"));
+        assertThrows(SQLException.class, () -> statement.execute(LOAD_SQL));
+    }
+
+    @Test
+    void waitsConfiguredLatency() throws SQLException {
+        FakeConnection slow = new FakeConnection(0, 50, TimeUnit.MILLISECONDS);
+        long init = System.nanoTime();
+        load(slow, "1\ta\t2\t\n");
+        assertTrue(System.nanoTime() - init >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void throttlesToConfiguredBandwidth() throws SQLException {
+        FakeConnection throttled = new FakeConnection(1_000_000, 0, TimeUnit.NANOSECONDS);
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 100_000) {
+            content.append("1\tsome name\t2\t\n");
+        }
+        long init = System.nanoTime();
+        load(throttled, content.toString());
+        assertTrue(System.nanoTime() - init >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void cancelStopsParsingRows() throws SQLException {
+        StatementImpl statement = createStatement(fake);
+        byte[] row = "1\tsome name\t2\t\n".getBytes(UTF_8);
+        int totalRows = 1_000_000;
+        long[] read = new long[1];
+        statement.setLocalInfileInputStream(new InputStream() {
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (read[0] >= (long) totalRows * row.length) {
+                    return -1;
+                }
+                if (read[0] > 0) {
+                    statement.cancel();
+                }
+                for (int i = 0; i < len; i++) {
+                    b[off + i] = row[(int) ((read[0] + i) % row.length)];
+                }
+                read[0] += len;
+                return len;
+            }
+        });
+        SQLException e = assertThrows(SQLException.class, () -> statement.execute(LOAD_SQL));
+        assertEquals("Query execution was interrupted", e.getMessage());
+        assertTrue(read[0] < (long) totalRows * row.length);
+        assertEquals(0, fake.getRowsParsed());
+        assertEquals(0, fake.getStatementsExecuted());
+    }
+
+    private static long load(FakeConnection connection, String content) throws SQLException {
+        StatementImpl statement = createStatement(connection);
+        statement.setLocalInfileInputStream(stream(content));
+        statement.execute(LOAD_SQL);
+        return statement.getUpdateCount();
+    }
+
+    private static StatementImpl createStatement(FakeConnection connection) throws SQLException {
+        Connection conn = connection.getConnection();
+        conn.setAllowLoadLocalInfile(true);
+        return (StatementImpl) conn.createStatement();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(UTF_8));
+    }
+
+}
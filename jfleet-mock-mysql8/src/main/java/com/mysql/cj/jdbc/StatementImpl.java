@@ -16,9 +16,15 @@
 package com.mysql.cj.jdbc;
 
 import java.io.InputStream;
+import java.sql.SQLException;
 
 import com.mysql.cj.jdbc.result.ResultSetInternalMethods;
 
+/**
+ * Compile only stub of the MySQL 8 driver statement, so jfleet-core builds against both driver versions. It is never
+ * executed: at runtime the real driver provides the implementation. Tests cancelling loads use the FakeConnection of
+ * jfleet-mock-mysql5.
+ */
 public class StatementImpl implements JdbcStatement {
 
     @Override
@@ -37,4 +43,7 @@ public class StatementImpl implements JdbcStatement {
         return null;
     }
 
+    public void cancel() throws SQLException {
+    }
+
 }
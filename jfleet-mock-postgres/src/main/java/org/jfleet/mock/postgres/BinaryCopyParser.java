@@ -0,0 +1,162 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.mock.postgres;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Validates a COPY binary format stream: signature, flags and header extension, tuples with the same number of
+ * fields than columns, valid field lengths and the file trailer.
+ */
+class BinaryCopyParser {
+
+    private static final byte[] SIGNATURE = { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 };
+    private static final int OIDS_FLAG = 1 << 16;
+    private static final int CRITICAL_FLAGS = 0xFFFF;
+    private static final short TRAILER = -1;
+
+    private final CopyCommand command;
+    private long rows = 0;
+    private long bytes = 0;
+
+    BinaryCopyParser(CopyCommand command) {
+        this.command = command;
+    }
+
+    long parse(InputStream inputStream, Throttle throttle) throws SQLException, IOException {
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new ThrottledInputStream(inputStream, throttle)));
+        try {
+            byte[] signature = new byte[SIGNATURE.length];
+            in.readFully(signature);
+            if (!Arrays.equals(SIGNATURE, signature)) {
+                throw error("COPY file signature not recognized");
+            }
+            int flags = in.readInt();
+            if ((flags & CRITICAL_FLAGS) != 0) {
+                throw error("unrecognized critical flags in COPY file header");
+            }
+            boolean oids = (flags & OIDS_FLAG) != 0;
+            int extension = in.readInt();
+            if (extension < 0) {
+                throw error("invalid COPY file header (missing length)");
+            }
+            skipFully(in, extension);
+
+            int columns = command.getColumns();
+            short fieldCount;
+            while ((fieldCount = in.readShort()) != TRAILER) {
+                throttle.checkCancelled();
+                if (columns >= 0 && fieldCount != columns) {
+                    throw error("row field count is " + fieldCount + ", expected " + columns);
+                }
+                if (oids) {
+                    readField(in);
+                }
+                for (int i = 0; i < fieldCount; i++) {
+                    readField(in);
+                }
+                rows++;
+            }
+        } catch (EOFException e) {
+            throw error("unexpected EOF in COPY data");
+        }
+        return rows;
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    private void readField(DataInputStream in) throws SQLException, IOException {
+        int length = in.readInt();
+        if (length < -1) {
+            throw error("invalid field size");
+        }
+        if (length > 0) {
+            skipFully(in, length);
+        }
+    }
+
+    private static void skipFully(InputStream in, long length) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                if (in.read() == -1) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private SQLException error(String message) {
+        return new SQLException(message + ", COPY " + command.getTable() + ", line " + (rows + 1), "22P04");
+    }
+
+    private class ThrottledInputStream extends FilterInputStream {
+
+        private final Throttle throttle;
+
+        ThrottledInputStream(InputStream in, Throttle throttle) {
+            super(in);
+            this.throttle = throttle;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                consumed(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                consumed(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                consumed(skipped);
+            }
+            return skipped;
+        }
+
+        private void consumed(long n) {
+            bytes += n;
+            throttle.consumed(bytes);
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.mock.postgres;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed COPY ... FROM STDIN statement. Supports the text and binary formats, with the options syntax and the
+ * legacy BINARY and DELIMITER keywords.
+ */
+class CopyCommand {
+
+    private static final Pattern COPY = Pattern.compile(
+            "^\\s*COPY\\s+(\\S+?)\\s*(?:\\(([^)]*)\\))?\\s*FROM\\s+STDIN\\b(.*)$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern FORMAT = Pattern.compile("\\bFORMAT\\s+'?(\\w+)'?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LEGACY_FORMAT = Pattern.compile("\\b(BINARY|CSV)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DELIMITER = Pattern.compile("\\bDELIMITER\\s+(?:AS\\s+)?(E?)'([^']*)'",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final String table;
+    private final int columns;
+    private final boolean binary;
+    private final char delimiter;
+
+    private CopyCommand(String table, int columns, boolean binary, char delimiter) {
+        this.table = table;
+        this.columns = columns;
+        this.binary = binary;
+        this.delimiter = delimiter;
+    }
+
+    static CopyCommand parse(String sql) throws SQLException {
+        Matcher matcher = COPY.matcher(sql);
+        if (!matcher.matches()) {
+            throw new SQLException("Only COPY ... FROM STDIN statements are supported: " + sql, "42601");
+        }
+        String table = matcher.group(1);
+        String columnList = matcher.group(2);
+        int columns = columnList == null ? -1 : columnList.split(",").length;
+        String options = matcher.group(3);
+
+        String format = "text";
+        Matcher formatMatcher = FORMAT.matcher(options);
+        Matcher legacyMatcher = LEGACY_FORMAT.matcher(options);
+        if (formatMatcher.find()) {
+            format = formatMatcher.group(1).toLowerCase();
+        } else if (legacyMatcher.find()) {
+            format = legacyMatcher.group(1).toLowerCase();
+        }
+        if (format.equals("csv")) {
+            throw new SQLFeatureNotSupportedException("COPY CSV format is not supported by the fake CopyManager");
+        }
+        if (!format.equals("text") && !format.equals("binary")) {
+            throw new SQLException("COPY format \"" + format + "\" not recognized", "22023");
+        }
+
+        char delimiter = '\t';
+        Matcher delimiterMatcher = DELIMITER.matcher(options);
+        if (delimiterMatcher.find()) {
+            String value = delimiterMatcher.group(2);
+            if (!delimiterMatcher.group(1).isEmpty()) {
+                value = value.replace("\\t", "\t").replace("\\\\", "\\");
+            }
+            if (value.length() != 1) {
+                throw new SQLException("COPY delimiter must be a single one-byte character", "0A000");
+            }
+            delimiter = value.charAt(0);
+        }
+        return new CopyCommand(table, columns, format.equals("binary"), delimiter);
+    }
+
+    String getTable() {
+        return table;
+    }
+
+    /**
+     * @return number of columns in the column list, or -1 if the statement has no column list
+     */
+    int getColumns() {
+        return columns;
+    }
+
+    boolean isBinary() {
+        return binary;
+    }
+
+    char getDelimiter() {
+        return delimiter;
+    }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.mock.postgres;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+import org.postgresql.copy.CopyDual;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.CopyOut;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.util.ByteStreamWriter;
+
+/**
+ * CopyManager returned by {@link FakePgConnection}. COPY FROM STDIN statements parse and validate the whole stream,
+ * waiting the latency and bandwidth of the connection, and return the number of rows like the server does. Streaming
+ * COPY operations and COPY TO are not supported.
+ */
+public class FakeCopyManager extends CopyManager {
+
+    private final FakePgConnection fakeConnection;
+
+    FakeCopyManager(FakePgConnection fakeConnection, BaseConnection connection) throws SQLException {
+        super(connection);
+        this.fakeConnection = fakeConnection;
+    }
+
+    @Override
+    public long copyIn(String sql, Reader from) throws SQLException, IOException {
+        CopyCommand command = CopyCommand.parse(sql);
+        if (command.isBinary()) {
+            throw new SQLException("COPY BINARY data must be provided as an InputStream", "22P04");
+        }
+        return copyText(command, from);
+    }
+
+    @Override
+    public long copyIn(String sql, Reader from, int bufferSize) throws SQLException, IOException {
+        return copyIn(sql, from);
+    }
+
+    @Override
+    public long copyIn(String sql, InputStream from) throws SQLException, IOException {
+        CopyCommand command = CopyCommand.parse(sql);
+        if (command.isBinary()) {
+            return copyBinary(command, from);
+        }
+        return copyText(command, new InputStreamReader(from, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public long copyIn(String sql, InputStream from, int bufferSize) throws SQLException, IOException {
+        return copyIn(sql, from);
+    }
+
+    @Override
+    public long copyIn(String sql, ByteStreamWriter from) throws SQLException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(from.getLength(), 32));
+        from.writeTo(() -> out);
+        return copyIn(sql, new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Override
+    public CopyIn copyIn(String sql) throws SQLException {
+        throw unsupported("CopyIn streaming");
+    }
+
+    @Override
+    public CopyOut copyOut(String sql) throws SQLException {
+        throw unsupported("COPY TO");
+    }
+
+    @Override
+    public CopyDual copyDual(String sql) throws SQLException {
+        throw unsupported("CopyDual");
+    }
+
+    @Override
+    public long copyOut(String sql, Writer to) throws SQLException {
+        throw unsupported("COPY TO");
+    }
+
+    @Override
+    public long copyOut(String sql, OutputStream to) throws SQLException {
+        throw unsupported("COPY TO");
+    }
+
+    private long copyText(CopyCommand command, Reader from) throws SQLException, IOException {
+        fakeConnection.checkOpen();
+        TextCopyParser parser = new TextCopyParser(command);
+        long rows = parser.parse(from, fakeConnection.newThrottle());
+        fakeConnection.copied(rows, parser.getBytes());
+        return rows;
+    }
+
+    private long copyBinary(CopyCommand command, InputStream from) throws SQLException, IOException {
+        fakeConnection.checkOpen();
+        BinaryCopyParser parser = new BinaryCopyParser(command);
+        long rows = parser.parse(from, fakeConnection.newThrottle());
+        fakeConnection.copied(rows, parser.getBytes());
+        return rows;
+    }
+
+    private static SQLFeatureNotSupportedException unsupported(String operation) {
+        return new SQLFeatureNotSupportedException("FakeCopyManager does not support " + operation);
+    }
+
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.mock.postgres;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.postgresql.PGConnection;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.Encoding;
+
+/**
+ * In process stand-in for a PostgreSQL connection used by PgCopyBulkInsert.
+ *
+ * <p>{@link #getConnection()} returns a connection that unwraps to {@link PGConnection}, whose CopyManager parses
+ * and validates COPY text and binary streams, counts rows and simulates the server latency and bandwidth. Like the
+ * server, {@code cancelQuery} aborts the running COPY. It lets measure the COPY pipeline without a database. Only
+ * the connection methods used by JFleet are supported.</p>
+ */
+public class FakePgConnection {
+
+    private final double nanosPerByte;
+    private final long latencyNanos;
+    private final BaseConnection connection;
+    private final FakeCopyManager copyManager;
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong copiesExecuted = new AtomicLong();
+
+    private volatile boolean autoCommit = true;
+    private volatile boolean closed = false;
+    private volatile boolean cancelled = false;
+
+    /**
+     * Connection without bandwidth limit nor latency.
+     */
+    public FakePgConnection() {
+        this(0, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param bytesPerSecond bandwidth used to consume COPY streams, 0 for unlimited
+     * @param latency        time spent by each COPY before reading the stream
+     * @param unit           unit of latency
+     */
+    public FakePgConnection(long bytesPerSecond, long latency, TimeUnit unit) {
+        if (bytesPerSecond < 0 || latency < 0) {
+            throw new IllegalArgumentException("Bandwidth and latency can not be negative");
+        }
+        this.nanosPerByte = bytesPerSecond == 0 ? 0 : 1_000_000_000.0 / bytesPerSecond;
+        this.latencyNanos = unit.toNanos(latency);
+        this.connection = (BaseConnection) Proxy.newProxyInstance(BaseConnection.class.getClassLoader(),
+                new Class<?>[] { BaseConnection.class }, (proxy, method, args) -> invoke(proxy, method, args));
+        try {
+            this.copyManager = new FakeCopyManager(this, connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public FakeCopyManager getCopyManager() {
+        return copyManager;
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public long getCopiesExecuted() {
+        return copiesExecuted.get();
+    }
+
+    public void reset() {
+        rowsParsed.set(0);
+        bytesRead.set(0);
+        copiesExecuted.set(0);
+    }
+
+    Throttle newThrottle() {
+        cancelled = false;
+        return new Throttle(nanosPerByte, latencyNanos, () -> cancelled);
+    }
+
+    void copied(long rows, long bytes) {
+        rowsParsed.addAndGet(rows);
+        bytesRead.addAndGet(bytes);
+        copiesExecuted.incrementAndGet();
+    }
+
+    void checkOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("This connection has been closed.", "08003");
+        }
+    }
+
+    private Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+        case "unwrap":
+            if (((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+            throw new SQLException("Cannot unwrap to " + args[0]);
+        case "isWrapperFor":
+            return ((Class<?>) args[0]).isInstance(proxy);
+        case "getCopyAPI":
+            checkOpen();
+            return copyManager;
+        case "getEncoding":
+            return Encoding.defaultEncoding();
+        case "getQueryExecutor":
+            return null;
+        case "getAutoCommit":
+            checkOpen();
+            return autoCommit;
+        case "setAutoCommit":
+            checkOpen();
+            autoCommit = (Boolean) args[0];
+            return null;
+        case "commit":
+        case "rollback":
+            checkOpen();
+            return null;
+        case "cancelQuery":
+            cancelled = true;
+            return null;
+        case "close":
+            closed = true;
+            return null;
+        case "isClosed":
+            return closed;
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "equals":
+            return proxy == args[0];
+        case "toString":
+            return "FakePgConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+        default:
+            throw new UnsupportedOperationException("FakePgConnection does not support " + method.getName());
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.mock.postgres;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.SQLException;
+
+/**
+ * Validates a COPY text format stream like the server does: fields separated by the delimiter, rows terminated by
+ * new line, backslash escapes, no literal carriage returns and the same number of fields than columns in each row.
+ * An end of data marker line stops the parsing.
+ */
+class TextCopyParser {
+
+    private static final int BUFFER_SIZE = 32 * 1024;
+    private static final char ESCAPE = '\\';
+    private static final char NEWLINE = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+
+    private final CopyCommand command;
+    private final char delimiter;
+
+    private long rows = 0;
+    private long bytes = 0;
+    private int fields = 1;
+    private int lineLength = 0;
+    private boolean escaped = false;
+    private boolean endMarker = false;
+    private boolean endOfData = false;
+
+    TextCopyParser(CopyCommand command) {
+        this.command = command;
+        this.delimiter = command.getDelimiter();
+    }
+
+    long parse(Reader reader, Throttle throttle) throws SQLException, IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        int n;
+        while (!endOfData && (n = reader.read(buffer)) != -1) {
+            for (int i = 0; i < n && !endOfData; i++) {
+                char c = buffer[i];
+                bytes += utf8Length(c);
+                parse(c);
+            }
+            throttle.consumed(bytes);
+            throttle.checkCancelled();
+        }
+        if (escaped) {
+            throw error("unterminated backslash escape at end of data");
+        }
+        if (!endOfData && !endMarker && lineLength > 0) {
+            endRow();
+        }
+        return rows;
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    private void parse(char c) throws SQLException {
+        if (endMarker) {
+            if (c != NEWLINE) {
+                throw error("end-of-copy marker corrupt");
+            }
+            endOfData = true;
+            return;
+        }
+        lineLength++;
+        if (escaped) {
+            escaped = false;
+            endMarker = c == '.' && lineLength == 2;
+            return;
+        }
+        if (c == ESCAPE) {
+            escaped = true;
+        } else if (c == delimiter) {
+            fields++;
+        } else if (c == NEWLINE) {
+            endRow();
+        } else if (c == CARRIAGE_RETURN) {
+            throw error("literal carriage return found in data");
+        }
+    }
+
+    private void endRow() throws SQLException {
+        int columns = command.getColumns();
+        if (columns >= 0 && fields > columns) {
+            throw error("extra data after last expected column");
+        }
+        if (columns >= 0 && fields < columns) {
+            throw error("missing data for column " + (fields + 1));
+        }
+        rows++;
+        fields = 1;
+        lineLength = 0;
+    }
+
+    private SQLException error(String message) {
+        return new SQLException(message + ", COPY " + command.getTable() + ", line " + (rows + 1), "22P04");
+    }
+
+    private static int utf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800 || Character.isSurrogate(c)) {
+            return 2;
+        }
+        return 3;
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.mock.postgres;
+
+import java.sql.SQLException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Delays the consumer of a COPY stream to simulate server latency and bandwidth, and tells it when the running COPY
+ * has been cancelled.
+ */
+class Throttle {
+
+    private final double nanosPerByte;
+    private final BooleanSupplier cancelled;
+    private final long start;
+
+    Throttle(double nanosPerByte, long latencyNanos, BooleanSupplier cancelled) {
+        this.nanosPerByte = nanosPerByte;
+        this.cancelled = cancelled;
+        this.start = System.nanoTime() + latencyNanos;
+        parkUntil(start);
+    }
+
+    void consumed(long bytes) {
+        if (nanosPerByte > 0) {
+            parkUntil(start + (long) (bytes * nanosPerByte));
+        }
+    }
+
+    void checkCancelled() throws SQLException {
+        if (cancelled.getAsBoolean()) {
+            throw new SQLException("ERROR: canceling statement due to user request", "57014");
+        }
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.mock.postgres;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+public class FakeCopyManagerTest {
+
+    private static final String TEXT_SQL = "COPY person (id, name, age) FROM STDIN WITH (ENCODING 'UTF-8', "
+            + "DELIMITER '\t', HEADER false)";
+    private static final String BINARY_SQL = "COPY person (id, name, age) FROM STDIN WITH (FORMAT binary)";
+
+    private final FakePgConnection fake = new FakePgConnection();
+
+    @Test
+    void countsTextRowsWithEscapedCharacters() throws SQLException, IOException {
+        CopyManager copyManager = fake.getConnection().unwrap(PGConnection.class).getCopyAPI();
+        String content = "1\tJohn\\\tDoe\t\\N\n2\tMulti\\\nline\t33\n3\tBack\\\\slash\t44\n\\.\n";
+        assertEquals(3, copyManager.copyIn(TEXT_SQL, new StringReader(content)));
+        assertEquals(3, fake.getRowsParsed());
+        assertEquals(1, fake.getCopiesExecuted());
+    }
+
+    @Test
+    void countsLastTextRowWithoutNewLine() throws SQLException, IOException {
+        assertEquals(2, fake.getCopyManager().copyIn(TEXT_SQL, new StringReader("1\ta\t2\n2\tb\t3")));
+    }
+
+    @Test
+    void rejectsTextRowsWithWrongColumnCount() {
+        CopyManager copyManager = fake.getCopyManager();
+        SQLException missing = assertThrows(SQLException.class,
+                () -> copyManager.copyIn(TEXT_SQL, new StringReader("1\ta\t2\n2\tb\n")));
+        assertEquals("missing data for column 3, COPY person, line 2", missing.getMessage());
+        SQLException extra = assertThrows(SQLException.class,
+                () -> copyManager.copyIn(TEXT_SQL, new StringReader("1\ta\t2\t3\n")));
+        assertEquals("22P04", extra.getSQLState());
+    }
+
+    @Test
+    void rejectsLiteralCarriageReturn() {
+        assertThrows(SQLException.class,
+                () -> fake.getCopyManager().copyIn(TEXT_SQL, new StringReader("1\ta\r\t2\n")));
+    }
+
+    @Test
+    void countsBinaryRows() throws SQLException, IOException {
+        byte[] content = binary(3, 3);
+        assertEquals(2, fake.getCopyManager().copyIn(BINARY_SQL, new ByteArrayInputStream(content)));
+        assertEquals(content.length, fake.getBytesRead());
+    }
+
+    @Test
+    void rejectsBinaryRowsWithWrongFieldCount() {
+        byte[] content = binary(3, 2);
+        assertThrows(SQLException.class,
+                () -> fake.getCopyManager().copyIn(BINARY_SQL, new ByteArrayInputStream(content)));
+    }
+
+    @Test
+    void waitsConfiguredLatency() throws SQLException, IOException {
+        FakePgConnection slow = new FakePgConnection(0, 50, TimeUnit.MILLISECONDS);
+        long init = System.nanoTime();
+        slow.getCopyManager().copyIn(TEXT_SQL, new StringReader("1\ta\t2\n"));
+        assertTrue(System.nanoTime() - init >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void cancelStopsParsingTextRows() {
+        byte[] row = "1\tsome name\t2\n".getBytes(StandardCharsets.UTF_8);
+        assertCancelStopsParsing(TEXT_SQL, new byte[0], row);
+    }
+
+    @Test
+    void cancelStopsParsingBinaryRows() {
+        byte[] content = binary(3, 3);
+        int header = 19;
+        int rowLength = (content.length - header - 2) / 2;
+        byte[] row = Arrays.copyOfRange(content, header, header + rowLength);
+        assertCancelStopsParsing(BINARY_SQL, Arrays.copyOf(content, header), row);
+    }
+
+    private void assertCancelStopsParsing(String sql, byte[] header, byte[] row) {
+        long total = header.length + 1_000_000L * row.length;
+        long[] read = new long[1];
+        InputStream stream = new InputStream() {
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (read[0] >= total) {
+                    return -1;
+                }
+                if (read[0] > 0) {
+                    cancelQuery();
+                }
+                int n = (int) Math.min(len, total - read[0]);
+                for (int i = 0; i < n; i++) {
+                    long pos = read[0] + i;
+                    b[off + i] = pos < header.length ? header[(int) pos]
+                            : row[(int) ((pos - header.length) % row.length)];
+                }
+                read[0] += n;
+                return n;
+            }
+
+        };
+        SQLException e = assertThrows(SQLException.class, () -> fake.getCopyManager().copyIn(sql, stream));
+        assertEquals("57014", e.getSQLState());
+        assertTrue(read[0] < total);
+        assertEquals(0, fake.getRowsParsed());
+        assertEquals(0, fake.getCopiesExecuted());
+    }
+
+    private void cancelQuery() {
+        try {
+            fake.getConnection().unwrap(BaseConnection.class).cancelQuery();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] binary(int firstRowFields, int secondRowFields) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(new byte[] { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 });
+            out.writeInt(0);
+            out.writeInt(0);
+            for (int fields : new int[] { firstRowFields, secondRowFields }) {
+                out.writeShort(fields);
+                out.writeInt(4);
+                out.writeInt(1);
+                out.writeInt(-1);
+                for (int i = 2; i < fields; i++) {
+                    out.writeInt(3);
+                    out.write(new byte[] { 'a', 'b', 'c' });
+                }
+            }
+            out.writeShort(-1);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
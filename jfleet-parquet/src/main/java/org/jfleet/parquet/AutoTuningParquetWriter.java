@@ -0,0 +1,113 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityInfo;
+
+/**
+ * Collects the statistics of the first rows as they arrive, chooses the encoding settings from them and then opens
+ * the real writer, replaying the sampled rows.
+ *
+ * Rows are not kept: the column values of each sampled row are copied when it is written, so entities reused or
+ * modified by the caller after write are replayed with the values they had.
+ * Column values themselves are not deep copied.
+ */
+class AutoTuningParquetWriter<T> implements JFleetParquetWriter.EntityWriter<T> {
+
+    private final JFleetParquetConfigBuilder<T> builder;
+    private final List<ColumnInfo> columns;
+    private final int sampleRows;
+    private final ParquetEncodingTuner tuner;
+    private List<SampledRow> sample;
+    private JFleetParquetWriter.EntityWriter<T> writer;
+
+    AutoTuningParquetWriter(JFleetParquetConfigBuilder<T> builder, int sampleRows) {
+        this.builder = builder;
+        this.columns = builder.getEntityInfo().getColumns();
+        this.sampleRows = sampleRows;
+        this.tuner = builder.buildTuner();
+        this.sample = new ArrayList<>(Math.min(sampleRows, 1024));
+    }
+
+    @Override
+    public void write(T value) throws IOException {
+        if (writer != null) {
+            writer.write(value);
+            return;
+        }
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = columns.get(i).getAccessor().apply(value);
+        }
+        tuner.add(values);
+        sample.add(new SampledRow(values));
+        if (sample.size() >= sampleRows) {
+            openWriter();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer == null) {
+            openWriter();
+        }
+        writer.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void openWriter() throws IOException {
+        builder.tune(tuner);
+        builder.withEntityInfo(replaying(builder.getEntityInfo()));
+        writer = JFleetParquetWriter.open(builder);
+        for (SampledRow row : sample) {
+            writer.write((T) row);
+        }
+        sample = null;
+    }
+
+    /**
+     * Wraps the column accessors so the writer also reads the copied values of the sampled rows
+     */
+    private static EntityInfo replaying(EntityInfo entityInfo) {
+        List<ColumnInfo> columns = entityInfo.getColumns();
+        List<ColumnInfo> replaying = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            int index = i;
+            ColumnInfo column = columns.get(i);
+            Function<Object, Object> accessor = column.getAccessor();
+            replaying.add(new ColumnInfo(column.getColumnName(), column.getFieldType(),
+                    row -> row instanceof SampledRow ? ((SampledRow) row).values[index] : accessor.apply(row)));
+        }
+        return new EntityInfo(entityInfo.getEntityClass(), entityInfo.getTableName(), replaying);
+    }
+
+    private static final class SampledRow {
+
+        private final Object[] values;
+
+        SampledRow(Object[] values) {
+            this.values = values;
+        }
+
+    }
+
+}
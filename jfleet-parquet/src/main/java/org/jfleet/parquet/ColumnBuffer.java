@@ -0,0 +1,317 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import java.util.Arrays;
+
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.PrimitiveType;
+
+/**
+ * Buffers the values of a column of a row group in a primitive array, so the column chunk can be encoded later
+ * independently of other columns. Values are received through the RecordConsumer methods, reusing the conversions
+ * of the record based writer.
+ */
+abstract class ColumnBuffer extends RecordConsumer {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxDefinitionLevel;
+    private boolean[] nulls = new boolean[INITIAL_CAPACITY];
+    protected int size = 0;
+    protected long estimatedSize = 0;
+
+    ColumnBuffer(int maxDefinitionLevel) {
+        this.maxDefinitionLevel = maxDefinitionLevel;
+    }
+
+    static ColumnBuffer create(PrimitiveType type, int maxDefinitionLevel) {
+        switch (type.getPrimitiveTypeName()) {
+        case INT32:
+            return new IntBuffer(maxDefinitionLevel);
+        case INT64:
+            return new LongBuffer(maxDefinitionLevel);
+        case FLOAT:
+            return new FloatBuffer(maxDefinitionLevel);
+        case DOUBLE:
+            return new DoubleBuffer(maxDefinitionLevel);
+        case BOOLEAN:
+            return new BooleanBuffer(maxDefinitionLevel);
+        default:
+            return new BinaryBuffer(maxDefinitionLevel);
+        }
+    }
+
+    void addNull() {
+        ensureNullsCapacity();
+        nulls[size++] = true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    /**
+     * Writes the row of the buffer to the column writer. Null values are written with definition level 0.
+     */
+    void writeTo(ColumnWriter writer, int row) {
+        if (nulls[row]) {
+            writer.writeNull(0, 0);
+        } else {
+            writeValue(writer, row, maxDefinitionLevel);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(nulls, 0, size, false);
+        size = 0;
+        estimatedSize = 0;
+    }
+
+    protected abstract void writeValue(ColumnWriter writer, int row, int definitionLevel);
+
+    protected boolean isFull(int capacity) {
+        ensureNullsCapacity();
+        return size >= capacity;
+    }
+
+    protected int grow(int capacity) {
+        return Math.max(capacity * 2, size + 1);
+    }
+
+    private void ensureNullsCapacity() {
+        if (size == nulls.length) {
+            nulls = Arrays.copyOf(nulls, nulls.length * 2);
+        }
+    }
+
+    @Override
+    public void startMessage() {
+    }
+
+    @Override
+    public void endMessage() {
+    }
+
+    @Override
+    public void startField(String field, int index) {
+    }
+
+    @Override
+    public void endField(String field, int index) {
+    }
+
+    @Override
+    public void startGroup() {
+        throw new UnsupportedOperationException("Nested groups are not supported");
+    }
+
+    @Override
+    public void endGroup() {
+        throw new UnsupportedOperationException("Nested groups are not supported");
+    }
+
+    @Override
+    public void addInteger(int value) {
+        throw unexpectedType("int");
+    }
+
+    @Override
+    public void addLong(long value) {
+        throw unexpectedType("long");
+    }
+
+    @Override
+    public void addBoolean(boolean value) {
+        throw unexpectedType("boolean");
+    }
+
+    @Override
+    public void addBinary(Binary value) {
+        throw unexpectedType("binary");
+    }
+
+    @Override
+    public void addFloat(float value) {
+        throw unexpectedType("float");
+    }
+
+    @Override
+    public void addDouble(double value) {
+        throw unexpectedType("double");
+    }
+
+    private IllegalStateException unexpectedType(String type) {
+        return new IllegalStateException("Unexpected " + type + " value in " + getClass().getSimpleName());
+    }
+
+    private static class IntBuffer extends ColumnBuffer {
+
+        private int[] values = new int[INITIAL_CAPACITY];
+
+        IntBuffer(int maxDefinitionLevel) {
+            super(maxDefinitionLevel);
+        }
+
+        @Override
+        public void addInteger(int value) {
+            if (isFull(values.length)) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[size++] = value;
+            estimatedSize += Integer.BYTES;
+        }
+
+        @Override
+        protected void writeValue(ColumnWriter writer, int row, int definitionLevel) {
+            writer.write(values[row], 0, definitionLevel);
+        }
+
+    }
+
+    private static class LongBuffer extends ColumnBuffer {
+
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        LongBuffer(int maxDefinitionLevel) {
+            super(maxDefinitionLevel);
+        }
+
+        @Override
+        public void addLong(long value) {
+            if (isFull(values.length)) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[size++] = value;
+            estimatedSize += Long.BYTES;
+        }
+
+        @Override
+        protected void writeValue(ColumnWriter writer, int row, int definitionLevel) {
+            writer.write(values[row], 0, definitionLevel);
+        }
+
+    }
+
+    private static class FloatBuffer extends ColumnBuffer {
+
+        private float[] values = new float[INITIAL_CAPACITY];
+
+        FloatBuffer(int maxDefinitionLevel) {
+            super(maxDefinitionLevel);
+        }
+
+        @Override
+        public void addFloat(float value) {
+            if (isFull(values.length)) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[size++] = value;
+            estimatedSize += Float.BYTES;
+        }
+
+        @Override
+        protected void writeValue(ColumnWriter writer, int row, int definitionLevel) {
+            writer.write(values[row], 0, definitionLevel);
+        }
+
+    }
+
+    private static class DoubleBuffer extends ColumnBuffer {
+
+        private double[] values = new double[INITIAL_CAPACITY];
+
+        DoubleBuffer(int maxDefinitionLevel) {
+            super(maxDefinitionLevel);
+        }
+
+        @Override
+        public void addDouble(double value) {
+            if (isFull(values.length)) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[size++] = value;
+            estimatedSize += Double.BYTES;
+        }
+
+        @Override
+        protected void writeValue(ColumnWriter writer, int row, int definitionLevel) {
+            writer.write(values[row], 0, definitionLevel);
+        }
+
+    }
+
+    private static class BooleanBuffer extends ColumnBuffer {
+
+        private boolean[] values = new boolean[INITIAL_CAPACITY];
+
+        BooleanBuffer(int maxDefinitionLevel) {
+            super(maxDefinitionLevel);
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+            if (isFull(values.length)) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[size++] = value;
+            estimatedSize += 1;
+        }
+
+        @Override
+        protected void writeValue(ColumnWriter writer, int row, int definitionLevel) {
+            writer.write(values[row], 0, definitionLevel);
+        }
+
+    }
+
+    private static class BinaryBuffer extends ColumnBuffer {
+
+        private Binary[] values = new Binary[INITIAL_CAPACITY];
+
+        BinaryBuffer(int maxDefinitionLevel) {
+            super(maxDefinitionLevel);
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            if (isFull(values.length)) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[size++] = value;
+            estimatedSize += value.length() + Integer.BYTES;
+        }
+
+        @Override
+        protected void writeValue(ColumnWriter writer, int row, int definitionLevel) {
+            writer.write(values[row], 0, definitionLevel);
+        }
+
+        @Override
+        void clear() {
+            Arrays.fill(values, 0, size, null);
+            super.clear();
+        }
+
+    }
+
+}
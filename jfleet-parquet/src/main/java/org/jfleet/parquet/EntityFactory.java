@@ -0,0 +1,395 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityInfo;
+
+/**
+ * Creates entities from the values of a row, in EntityInfo column order. Records are created with their canonical
+ * constructor, and the rest of classes with their no-args constructor and the setter, or the field, of each column.
+ *
+ * Records are detected by reflection because the module targets Java 8.
+ */
+abstract class EntityFactory<T> {
+
+    private final Class<?>[] types;
+
+    EntityFactory(Class<?>[] types) {
+        this.types = types;
+    }
+
+    /**
+     * @return Java type of each column, used to convert Parquet values
+     */
+    Class<?> getType(int column) {
+        return types[column];
+    }
+
+    abstract T create(Object[] values);
+
+    /**
+     * @param projected columns that will have values, the rest are not resolved and keep their default values
+     */
+    static <T> EntityFactory<T> create(EntityInfo entityInfo, boolean[] projected, Map<String, String> fieldPaths,
+            Map<String, BiConsumer<T, Object>> setters) {
+        Class<?> entityClass = entityInfo.getEntityClass();
+        Object[] components = recordComponents(entityClass);
+        if (components != null) {
+            return new RecordFactory<>(entityInfo, components);
+        }
+        return new BeanFactory<>(entityInfo, projected, fieldPaths, setters);
+    }
+
+    private static Object[] recordComponents(Class<?> entityClass) {
+        try {
+            Method isRecord = Class.class.getMethod("isRecord");
+            if (!((Boolean) isRecord.invoke(entityClass))) {
+                return null;
+            }
+            return (Object[]) Class.class.getMethod("getRecordComponents").invoke(entityClass);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Can not inspect record " + entityClass.getName(), e);
+        }
+    }
+
+    private static Object invoke(Object target, String method) {
+        try {
+            return target.getClass().getMethod(method).invoke(target);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Can not inspect record component " + target, e);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase();
+    }
+
+    private static final class RecordFactory<T> extends EntityFactory<T> {
+
+        private final Constructor<T> constructor;
+        private final int[] argumentIndex;
+        private final Object[] defaults;
+
+        private RecordFactory(EntityInfo entityInfo, Object[] components) {
+            this(entityInfo, components, componentTypes(components));
+        }
+
+        @SuppressWarnings("unchecked")
+        private RecordFactory(EntityInfo entityInfo, Object[] components, Class<?>[] componentTypes) {
+            super(columnTypes(entityInfo, components, componentTypes));
+            Class<T> recordClass = (Class<T>) entityInfo.getEntityClass();
+            try {
+                this.constructor = recordClass.getDeclaredConstructor(componentTypes);
+                this.constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Canonical constructor not found in " + recordClass.getName(), e);
+            }
+            this.argumentIndex = argumentIndex(entityInfo, components);
+            this.defaults = new Object[componentTypes.length];
+            for (int i = 0; i < componentTypes.length; i++) {
+                defaults[i] = defaultValue(componentTypes[i]);
+            }
+        }
+
+        @Override
+        T create(Object[] values) {
+            Object[] args = defaults.clone();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    args[argumentIndex[i]] = values[i];
+                }
+            }
+            try {
+                return constructor.newInstance(args);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Can not create " + constructor.getDeclaringClass().getName(), e);
+            }
+        }
+
+        private static Class<?>[] componentTypes(Object[] components) {
+            Class<?>[] types = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                types[i] = (Class<?>) invoke(components[i], "getType");
+            }
+            return types;
+        }
+
+        private static Class<?>[] columnTypes(EntityInfo entityInfo, Object[] components, Class<?>[] types) {
+            int[] index = argumentIndex(entityInfo, components);
+            Class<?>[] columnTypes = new Class<?>[index.length];
+            for (int i = 0; i < index.length; i++) {
+                columnTypes[i] = types[index[i]];
+            }
+            return columnTypes;
+        }
+
+        /**
+         * Columns are matched with components by name. EntityInfo built from a record has a column per component, in
+         * the same order, but with names that can be changed by naming strategies or aliases, so when it has as many
+         * columns as components, a column without a component of the same name takes the component at its position.
+         */
+        private static int[] argumentIndex(EntityInfo entityInfo, Object[] components) {
+            List<ColumnInfo> columns = entityInfo.getColumns();
+            String[] componentNames = new String[components.length];
+            for (int j = 0; j < components.length; j++) {
+                componentNames[j] = normalize((String) invoke(components[j], "getName"));
+            }
+            int[] index = new int[columns.size()];
+            boolean[] bound = new boolean[components.length];
+            for (int i = 0; i < index.length; i++) {
+                String columnName = normalize(columns.get(i).getColumnName());
+                index[i] = -1;
+                for (int j = 0; j < components.length; j++) {
+                    if (!bound[j] && componentNames[j].equals(columnName)) {
+                        index[i] = j;
+                        bound[j] = true;
+                        break;
+                    }
+                }
+            }
+            boolean positional = columns.size() == components.length;
+            for (int i = 0; i < index.length; i++) {
+                if (index[i] < 0 && positional && !bound[i]) {
+                    index[i] = i;
+                    bound[i] = true;
+                }
+                if (index[i] < 0) {
+                    throw new IllegalArgumentException("No record component for column "
+                            + columns.get(i).getColumnName() + " in " + entityInfo.getEntityClass().getName());
+                }
+            }
+            return index;
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            if (!type.isPrimitive()) {
+                return null;
+            }
+            if (type == boolean.class) {
+                return false;
+            }
+            if (type == char.class) {
+                return '\0';
+            }
+            if (type == byte.class) {
+                return (byte) 0;
+            }
+            if (type == short.class) {
+                return (short) 0;
+            }
+            if (type == int.class) {
+                return 0;
+            }
+            if (type == long.class) {
+                return 0L;
+            }
+            if (type == float.class) {
+                return 0F;
+            }
+            return 0D;
+        }
+
+    }
+
+    private static final class BeanFactory<T> extends EntityFactory<T> {
+
+        private final Constructor<T> constructor;
+        private final BiConsumer<Object, Object>[] setters;
+
+        private BeanFactory(EntityInfo entityInfo, boolean[] projected, Map<String, String> fieldPaths,
+                Map<String, BiConsumer<T, Object>> customSetters) {
+            this(entityInfo, resolve(entityInfo, projected, fieldPaths, customSetters));
+        }
+
+        @SuppressWarnings("unchecked")
+        private BeanFactory(EntityInfo entityInfo, Resolved resolved) {
+            super(resolved.types);
+            Class<T> entityClass = (Class<T>) entityInfo.getEntityClass();
+            try {
+                this.constructor = entityClass.getDeclaredConstructor();
+                this.constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("No args constructor not found in " + entityClass.getName(), e);
+            }
+            this.setters = resolved.setters;
+        }
+
+        @Override
+        T create(Object[] values) {
+            T entity;
+            try {
+                entity = constructor.newInstance();
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Can not create " + constructor.getDeclaringClass().getName(), e);
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    setters[i].accept(entity, values[i]);
+                }
+            }
+            return entity;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Resolved resolve(EntityInfo entityInfo, boolean[] projected,
+                Map<String, String> fieldPaths, Map<String, BiConsumer<T, Object>> customSetters) {
+            List<ColumnInfo> columns = entityInfo.getColumns();
+            Resolved resolved = new Resolved(columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                resolved.types[i] = Object.class;
+                if (!projected[i]) {
+                    continue;
+                }
+                String columnName = columns.get(i).getColumnName();
+                BiConsumer<T, Object> custom = customSetters.get(columnName);
+                if (custom != null) {
+                    resolved.setters[i] = (BiConsumer<Object, Object>) custom;
+                    continue;
+                }
+                String fieldPath = fieldPaths.get(columnName);
+                Class<?> owner = entityInfo.getEntityClass();
+                if (fieldPath == null) {
+                    fieldPath = findField(owner, columnName);
+                }
+                resolved.setters[i] = pathSetter(owner, fieldPath.split("\\."), 0);
+                resolved.types[i] = pathType(owner, fieldPath.split("\\."));
+            }
+            return resolved;
+        }
+
+        private static String findField(Class<?> entityClass, String columnName) {
+            for (Class<?> c = entityClass; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (field.getName().equals(columnName)) {
+                        return field.getName();
+                    }
+                }
+            }
+            for (Class<?> c = entityClass; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (normalize(field.getName()).equals(normalize(columnName))) {
+                        return field.getName();
+                    }
+                }
+            }
+            throw new IllegalArgumentException("No field for column " + columnName + " in " + entityClass.getName()
+                    + ". Configure a setter for it or remove it from the projection");
+        }
+
+        private static Field field(Class<?> owner, String name) {
+            for (Class<?> c = owner; c != null && c != Object.class; c = c.getSuperclass()) {
+                try {
+                    Field field = c.getDeclaredField(name);
+                    field.setAccessible(true);
+                    return field;
+                } catch (NoSuchFieldException e) {
+                    continue;
+                }
+            }
+            throw new IllegalArgumentException("No field " + name + " in " + owner.getName());
+        }
+
+        private static Class<?> pathType(Class<?> owner, String[] path) {
+            Class<?> type = owner;
+            for (String name : path) {
+                type = field(type, name).getType();
+            }
+            return type;
+        }
+
+        /**
+         * Embedded paths like "address.city" create the intermediate objects with their no-args constructor when they
+         * are null.
+         */
+        private static BiConsumer<Object, Object> pathSetter(Class<?> owner, String[] path, int idx) {
+            Field field = field(owner, path[idx]);
+            BiConsumer<Object, Object> setter = setter(owner, field);
+            if (idx == path.length - 1) {
+                return setter;
+            }
+            BiConsumer<Object, Object> next = pathSetter(field.getType(), path, idx + 1);
+            Constructor<?> constructor;
+            try {
+                constructor = field.getType().getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("No args constructor not found in " + field.getType().getName(), e);
+            }
+            return (target, value) -> {
+                try {
+                    Object child = field.get(target);
+                    if (child == null) {
+                        child = constructor.newInstance();
+                        setter.accept(target, child);
+                    }
+                    next.accept(child, value);
+                } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                    throw new IllegalStateException("Can not set " + field.getName(), e);
+                }
+            };
+        }
+
+        private static BiConsumer<Object, Object> setter(Class<?> owner, Field field) {
+            String name = field.getName();
+            String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            try {
+                Method writeMethod = owner.getMethod(setterName, field.getType());
+                return (target, value) -> {
+                    try {
+                        writeMethod.invoke(target, value);
+                    } catch (IllegalAccessException | InvocationTargetException e) {
+                        throw new IllegalStateException("Can not invoke " + writeMethod.getName(), e);
+                    }
+                };
+            } catch (NoSuchMethodException e) {
+                // Without a public setter the field is set directly
+            }
+            return (target, value) -> {
+                try {
+                    field.set(target, value);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Can not set " + field.getName(), e);
+                }
+            };
+        }
+
+        private static final class Resolved {
+
+            private final BiConsumer<Object, Object>[] setters;
+            private final Class<?>[] types;
+
+            @SuppressWarnings("unchecked")
+            private Resolved(int size) {
+                this.setters = (BiConsumer<Object, Object>[]) new BiConsumer<?, ?>[size];
+                this.types = new Class<?>[size];
+            }
+
+        }
+
+    }
+
+}
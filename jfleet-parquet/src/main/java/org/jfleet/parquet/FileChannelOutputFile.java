@@ -0,0 +1,150 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+/**
+ * OutputFile that writes a local file through a FileChannel, without Hadoop FileSystem. Content is accumulated in a
+ * direct buffer and written to the channel each time the buffer is full.
+ */
+public class FileChannelOutputFile implements OutputFile {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private final Path path;
+    private final int bufferSize;
+
+    public FileChannelOutputFile(Path path) {
+        this(path, DEFAULT_BUFFER_SIZE);
+    }
+
+    public FileChannelOutputFile(Path path, int bufferSize) {
+        this.path = path;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public PositionOutputStream create(long blockSizeHint) throws IOException {
+        return new ChannelPositionOutputStream(FileChannel.open(path, CREATE_NEW, WRITE), bufferSize);
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+        OpenOption[] options = {CREATE, WRITE, TRUNCATE_EXISTING};
+        return new ChannelPositionOutputStream(FileChannel.open(path, options), bufferSize);
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+        return false;
+    }
+
+    @Override
+    public long defaultBlockSize() {
+        return 0;
+    }
+
+    @Override
+    public String getPath() {
+        return path.toString();
+    }
+
+    static class ChannelPositionOutputStream extends PositionOutputStream {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long pos = 0;
+        private boolean closed = false;
+
+        ChannelPositionOutputStream(FileChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        @Override
+        public long getPos() throws IOException {
+            return pos;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            buffer.put((byte) b);
+            pos++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > buffer.remaining()) {
+                flushBuffer();
+                if (len > buffer.capacity()) {
+                    writeFully(ByteBuffer.wrap(b, off, len));
+                    pos += len;
+                    return;
+                }
+            }
+            buffer.put(b, off, len);
+            pos += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                flushBuffer();
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+
+    }
+
+}
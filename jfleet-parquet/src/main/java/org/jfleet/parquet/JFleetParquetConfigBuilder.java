@@ -15,20 +15,46 @@
  */
 package org.jfleet.parquet;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.crypto.FileEncryptionProperties;
+import org.apache.parquet.hadoop.ParquetFileWriter.Mode;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.io.OutputFile;
 import org.apache.parquet.schema.MessageType;
 import org.jfleet.EntityInfo;
+import org.jfleet.parquet.ParquetEncodingDecisions.ColumnDecision;
 
+/**
+ * ParquetWriter builder that also keeps a copy of the writer settings, because ParquetWriter.Builder doesn't expose
+ * them and the parallel column writer needs them to create its own ParquetFileWriter.
+ */
 class JFleetParquetConfigBuilder<T> extends ParquetWriter.Builder<T, JFleetParquetConfigBuilder<T>> {
 
+    private final OutputFile file;
     private EntityInfo entityInfo = null;
     private Map<String, String> extraMetaData = new HashMap<>();
+    private int decimalPrecision = ParquetSchemaBuilder.DEFAULT_DECIMAL_PRECISION;
+    private int decimalScale = ParquetSchemaBuilder.DEFAULT_DECIMAL_SCALE;
+    private Configuration conf;
+    private Mode mode = Mode.CREATE;
+    private CompressionCodecName codecName = ParquetWriter.DEFAULT_COMPRESSION_CODEC_NAME;
+    private long rowGroupSize = ParquetWriter.DEFAULT_BLOCK_SIZE;
+    private int maxPaddingSize = ParquetWriter.MAX_PADDING_SIZE_DEFAULT;
+    private boolean encrypted = false;
+    private final ParquetProperties.Builder encodingProps = ParquetProperties.builder();
+    private Executor parallelColumnExecutor = null;
+    private int autoTuningSampleRows = 0;
+    private Consumer<ParquetEncodingDecisions> autoTuningListener = null;
 
     public static <T> JFleetParquetConfigBuilder<T> builder(OutputFile file, EntityInfo entityInfo) {
         return new JFleetParquetConfigBuilder<>(file, entityInfo);
@@ -36,6 +62,7 @@ class JFleetParquetConfigBuilder<T> extends ParquetWriter.Builder<T, JFleetParqu
 
     private JFleetParquetConfigBuilder(OutputFile file, EntityInfo entityInfo) {
         super(file);
+        this.file = file;
         this.entityInfo = entityInfo;
     }
 
@@ -44,6 +71,223 @@ class JFleetParquetConfigBuilder<T> extends ParquetWriter.Builder<T, JFleetParqu
         return this;
     }
 
+    public JFleetParquetConfigBuilder<T> withDecimal(int precision, int scale) {
+        this.decimalPrecision = precision;
+        this.decimalScale = scale;
+        return this;
+    }
+
+    public JFleetParquetConfigBuilder<T> withParallelColumnEncoding(Executor executor) {
+        this.parallelColumnExecutor = executor;
+        return this;
+    }
+
+    public JFleetParquetConfigBuilder<T> withAutoTuning(int sampleRows,
+            Consumer<ParquetEncodingDecisions> listener) {
+        this.autoTuningSampleRows = sampleRows;
+        this.autoTuningListener = listener;
+        return this;
+    }
+
+    EntityInfo getEntityInfo() {
+        return entityInfo;
+    }
+
+    void withEntityInfo(EntityInfo entityInfo) {
+        this.entityInfo = entityInfo;
+    }
+
+    boolean isAutoTuning() {
+        return autoTuningSampleRows > 0;
+    }
+
+    int getAutoTuningSampleRows() {
+        return autoTuningSampleRows;
+    }
+
+    ParquetEncodingTuner buildTuner() {
+        ParquetProperties props = encodingProps.build();
+        return new ParquetEncodingTuner(entityInfo, buildSchema(), rowGroupSize, props.getPageSizeThreshold(),
+                props.getDictionaryPageSizeThreshold(), props.getPageRowCountLimit());
+    }
+
+    /**
+     * Chooses the encoding settings from the rows sampled by the tuner, applies them to this builder and reports them
+     * to the listener.
+     */
+    void tune(ParquetEncodingTuner tuner) {
+        ParquetEncodingDecisions decisions = tuner.tune();
+        for (ColumnDecision column : decisions.getColumns()) {
+            withDictionaryEncoding(column.getColumnName(), column.isDictionary());
+            if (column.isBloomFilter()) {
+                withBloomFilterEnabled(column.getColumnName(), true);
+                withBloomFilterNDV(column.getColumnName(), column.getBloomFilterNdv());
+            }
+        }
+        withByteStreamSplitEncoding(decisions.isByteStreamSplit());
+        withDictionaryPageSize(decisions.getDictionaryPageSize());
+        withPageRowCountLimit(decisions.getPageRowCountLimit());
+        if (autoTuningListener != null) {
+            autoTuningListener.accept(decisions);
+        }
+    }
+
+    boolean isParallelColumnEncoding() {
+        return parallelColumnExecutor != null;
+    }
+
+    ParallelColumnParquetWriter<T> buildParallelColumnWriter() throws IOException {
+        if (encrypted) {
+            throw new UnsupportedOperationException("Parallel column encoding doesn't support encryption");
+        }
+        return new ParallelColumnParquetWriter<>(file, mode, entityInfo, buildSchema(), conf, codecName,
+                encodingProps.build(), rowGroupSize, maxPaddingSize, extraMetaData, parallelColumnExecutor);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withConf(Configuration conf) {
+        this.conf = conf;
+        return super.withConf(conf);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withWriteMode(Mode mode) {
+        this.mode = mode;
+        return super.withWriteMode(mode);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withCompressionCodec(CompressionCodecName codecName) {
+        this.codecName = codecName;
+        return super.withCompressionCodec(codecName);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withEncryption(FileEncryptionProperties encryptionProperties) {
+        this.encrypted = encryptionProperties != null;
+        return super.withEncryption(encryptionProperties);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withRowGroupSize(long rowGroupSize) {
+        this.rowGroupSize = rowGroupSize;
+        return super.withRowGroupSize(rowGroupSize);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withMaxPaddingSize(int maxPaddingSize) {
+        this.maxPaddingSize = maxPaddingSize;
+        return super.withMaxPaddingSize(maxPaddingSize);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withPageSize(int pageSize) {
+        encodingProps.withPageSize(pageSize);
+        return super.withPageSize(pageSize);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withPageRowCountLimit(int rowCount) {
+        encodingProps.withPageRowCountLimit(rowCount);
+        return super.withPageRowCountLimit(rowCount);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withDictionaryPageSize(int dictionaryPageSize) {
+        encodingProps.withDictionaryPageSize(dictionaryPageSize);
+        return super.withDictionaryPageSize(dictionaryPageSize);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> enableDictionaryEncoding() {
+        encodingProps.withDictionaryEncoding(true);
+        return super.enableDictionaryEncoding();
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withDictionaryEncoding(boolean enableDictionary) {
+        encodingProps.withDictionaryEncoding(enableDictionary);
+        return super.withDictionaryEncoding(enableDictionary);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withDictionaryEncoding(String columnPath, boolean enableDictionary) {
+        encodingProps.withDictionaryEncoding(columnPath, enableDictionary);
+        return super.withDictionaryEncoding(columnPath, enableDictionary);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withByteStreamSplitEncoding(boolean enableByteStreamSplit) {
+        encodingProps.withByteStreamSplitEncoding(enableByteStreamSplit);
+        return super.withByteStreamSplitEncoding(enableByteStreamSplit);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withWriterVersion(WriterVersion version) {
+        encodingProps.withWriterVersion(version);
+        return super.withWriterVersion(version);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> enablePageWriteChecksum() {
+        encodingProps.withPageWriteChecksumEnabled(true);
+        return super.enablePageWriteChecksum();
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withPageWriteChecksumEnabled(boolean enablePageWriteChecksum) {
+        encodingProps.withPageWriteChecksumEnabled(enablePageWriteChecksum);
+        return super.withPageWriteChecksumEnabled(enablePageWriteChecksum);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withBloomFilterNDV(String columnPath, long ndv) {
+        encodingProps.withBloomFilterNDV(columnPath, ndv);
+        return super.withBloomFilterNDV(columnPath, ndv);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withBloomFilterFPP(String columnPath, double fpp) {
+        encodingProps.withBloomFilterFPP(columnPath, fpp);
+        return super.withBloomFilterFPP(columnPath, fpp);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withBloomFilterEnabled(boolean enabled) {
+        encodingProps.withBloomFilterEnabled(enabled);
+        return super.withBloomFilterEnabled(enabled);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withBloomFilterEnabled(String columnPath, boolean enabled) {
+        encodingProps.withBloomFilterEnabled(columnPath, enabled);
+        return super.withBloomFilterEnabled(columnPath, enabled);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withMinRowCountForPageSizeCheck(int min) {
+        encodingProps.withMinRowCountForPageSizeCheck(min);
+        return super.withMinRowCountForPageSizeCheck(min);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withMaxRowCountForPageSizeCheck(int max) {
+        encodingProps.withMaxRowCountForPageSizeCheck(max);
+        return super.withMaxRowCountForPageSizeCheck(max);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withColumnIndexTruncateLength(int length) {
+        encodingProps.withColumnIndexTruncateLength(length);
+        return super.withColumnIndexTruncateLength(length);
+    }
+
+    @Override
+    public JFleetParquetConfigBuilder<T> withStatisticsTruncateLength(int length) {
+        encodingProps.withStatisticsTruncateLength(length);
+        return super.withStatisticsTruncateLength(length);
+    }
+
     @Override
     protected JFleetParquetConfigBuilder<T> self() {
         return this;
@@ -51,8 +295,11 @@ class JFleetParquetConfigBuilder<T> extends ParquetWriter.Builder<T, JFleetParqu
 
     @Override
     protected WriteSupport<T> getWriteSupport(Configuration conf) {
-        MessageType schema = new ParquetSchemaBuilder(entityInfo).build();
-        return new JFleetWriteSupport<>(entityInfo, schema, extraMetaData);
+        return new JFleetWriteSupport<>(entityInfo, buildSchema(), extraMetaData);
+    }
+
+    private MessageType buildSchema() {
+        return new ParquetSchemaBuilder(entityInfo, decimalPrecision, decimalScale).build();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.io.InputFile;
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityInfo;
+import org.jfleet.FieldInfo;
+import org.jfleet.inspection.JpaEntityInspector;
+import org.jfleet.inspection.JpaFieldsInspector;
+
+/**
+ * Reads a Parquet file into Java objects described by an EntityInfo. Only the projected columns are read, and a
+ * filter predicate can skip row groups using their statistics, dictionaries and bloom filters.
+ *
+ * Objects are created with the canonical constructor of records, or with the no-args constructor and the setter or
+ * field of each column for the rest of classes.
+ *
+ * @param <T> Type of the object to read
+ */
+public class JFleetParquetReader<T> implements Closeable {
+
+    private final ParquetReader<T> reader;
+
+    private JFleetParquetReader(ParquetReader<T> reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next object of the file
+     *
+     * @return next object, or null at the end of the file
+     * @throws IOException if an error occurs while reading the file
+     */
+    public T read() throws IOException {
+        return reader.read();
+    }
+
+    /**
+     * Returns a lazy Stream with the remaining objects of the file. Closing the stream closes the reader.
+     *
+     * @return stream of objects
+     */
+    public Stream<T> stream() {
+        Iterator<T> iterator = new Iterator<T>() {
+
+            private T next = readNext();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                T current = next;
+                next = readNext();
+                return current;
+            }
+        };
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private T readNext() {
+        try {
+            return reader.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    public static class Builder<T> {
+
+        private final InputFile file;
+        private final EntityInfo entityInfo;
+        private final Map<String, String> fieldPaths = new HashMap<>();
+        private final Map<String, BiConsumer<T, Object>> setters = new HashMap<>();
+        private Set<String> projection = null;
+        private FilterPredicate filter = null;
+        private Configuration conf = new Configuration(false);
+
+        public Builder(InputFile file, Class<T> recordClass) {
+            this(file, new JpaEntityInspector(recordClass).inspect());
+            List<FieldInfo> fields = new JpaFieldsInspector().getFieldsFromClass(recordClass);
+            for (FieldInfo field : fields) {
+                fieldPaths.put(field.getColumnName(), field.getFieldName());
+            }
+        }
+
+        public Builder(InputFile file, EntityInfo entityInfo) {
+            this.file = file;
+            this.entityInfo = entityInfo;
+        }
+
+        public Builder(Path path, Class<T> recordClass) {
+            this(new FileChannelInputFile(path), recordClass);
+        }
+
+        public Builder(Path path, EntityInfo entityInfo) {
+            this(new FileChannelInputFile(path), entityInfo);
+        }
+
+        /**
+         * Reads only the specified columns. The rest of fields keep their default values.
+         *
+         * @param columnNames columns to read
+         * @return the builder
+         */
+        public Builder<T> project(String... columnNames) {
+            Set<String> available = new HashSet<>();
+            for (ColumnInfo column : entityInfo.getColumns()) {
+                available.add(column.getColumnName());
+            }
+            for (String columnName : columnNames) {
+                if (!available.contains(columnName)) {
+                    throw new IllegalArgumentException("Column " + columnName + " not found");
+                }
+            }
+            this.projection = new HashSet<>(Arrays.asList(columnNames));
+            return this;
+        }
+
+        /**
+         * Filters rows with a predicate built with org.apache.parquet.filter2.predicate.FilterApi. Row groups that
+         * can not match are skipped using their statistics, dictionaries and bloom filters, and the remaining rows
+         * are filtered while reading. Predicate values use the physical representation of each column: dates as
+         * days from epoch, timestamps as microseconds, and strings as Binary.
+         *
+         * @param filter predicate over the file columns
+         * @return the builder
+         */
+        public Builder<T> filter(FilterPredicate filter) {
+            this.filter = filter;
+            return this;
+        }
+
+        /**
+         * Sets the value of a column with a custom setter, instead of looking for a field with the column name.
+         * Not used with records.
+         *
+         * @param columnName column name
+         * @param setter function that sets the value in the object
+         * @return the builder
+         */
+        public Builder<T> withSetter(String columnName, BiConsumer<T, Object> setter) {
+            setters.put(columnName, setter);
+            return this;
+        }
+
+        public Builder<T> withConf(Configuration conf) {
+            this.conf = conf;
+            return this;
+        }
+
+        public JFleetParquetReader<T> build() throws IOException {
+            List<ColumnInfo> columns = entityInfo.getColumns();
+            boolean[] projected = new boolean[columns.size()];
+            for (int i = 0; i < projected.length; i++) {
+                projected[i] = projection == null || projection.contains(columns.get(i).getColumnName());
+            }
+            EntityFactory<T> entityFactory = EntityFactory.create(entityInfo, projected, fieldPaths, setters);
+            JFleetReadSupport<T> readSupport = new JFleetReadSupport<>(entityInfo, projected, entityFactory);
+            ParquetReader.Builder<T> builder = new ParquetReader.Builder<T>(file) {
+
+                @Override
+                protected ReadSupport<T> getReadSupport() {
+                    return readSupport;
+                }
+            };
+            builder.withConf(conf)
+                    .useStatsFilter()
+                    .useDictionaryFilter()
+                    .useBloomFilter()
+                    .useColumnIndexFilter()
+                    .useRecordFilter();
+            if (filter != null) {
+                builder.withFilter(FilterCompat.get(filter));
+            }
+            return new JFleetParquetReader<>(builder.build());
+        }
+
+    }
+
+}
@@ -24,13 +24,22 @@ import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.apache.parquet.hadoop.ParquetWriter;
+import org.jfleet.common.JFleetEvent;
 
 public class JFleetParquetWriter<T> implements Closeable, Consumer<T> {
 
-    private final ParquetWriter<T> writer;
+    private final EntityWriter<T> writer;
+    private final JFleetEvent event;
+    private long rows = 0;
 
     public JFleetParquetWriter(ParquetConfiguration<T> config) throws IOException {
-        this.writer = config.getWriterBuilder().build();
+        JFleetParquetConfigBuilder<T> builder = config.getWriterBuilder();
+        this.event = JFleetEvent.fileWrite("Parquet").entity(builder.getEntityInfo());
+        if (builder.isAutoTuning()) {
+            this.writer = new AutoTuningParquetWriter<>(builder, builder.getAutoTuningSampleRows());
+        } else {
+            this.writer = open(builder);
+        }
     }
 
     /**
@@ -42,7 +51,7 @@ public class JFleetParquetWriter<T> implements Closeable, Consumer<T> {
      */
     public void writeAll(Collection<T> collection) throws IOException {
         for (T value : collection) {
-            writer.write(value);
+            write(value);
         }
     }
 
@@ -57,7 +66,7 @@ public class JFleetParquetWriter<T> implements Closeable, Consumer<T> {
     public void writeAll(Stream<T> stream) throws IOException {
         Iterator<T> it = stream.iterator();
         while (it.hasNext()) {
-            writer.write(it.next());
+            write(it.next());
         }
     }
 
@@ -70,6 +79,7 @@ public class JFleetParquetWriter<T> implements Closeable, Consumer<T> {
      */
     public void write(T value) throws IOException {
         writer.write(value);
+        rows++;
     }
 
     /**
@@ -82,7 +92,7 @@ public class JFleetParquetWriter<T> implements Closeable, Consumer<T> {
     @Override
     public void accept(T value) {
         try {
-            writer.write(value);
+            write(value);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -90,6 +100,35 @@ public class JFleetParquetWriter<T> implements Closeable, Consumer<T> {
 
     @Override
     public void close() throws IOException {
-        writer.close();
+        try {
+            writer.close();
+        } finally {
+            event.rows(rows).end();
+        }
+    }
+
+    static <T> EntityWriter<T> open(JFleetParquetConfigBuilder<T> builder) throws IOException {
+        if (builder.isParallelColumnEncoding()) {
+            return builder.buildParallelColumnWriter();
+        }
+        ParquetWriter<T> parquetWriter = builder.build();
+        return new EntityWriter<T>() {
+
+            @Override
+            public void write(T value) throws IOException {
+                parquetWriter.write(value);
+            }
+
+            @Override
+            public void close() throws IOException {
+                parquetWriter.close();
+            }
+        };
+    }
+
+    interface EntityWriter<T> extends Closeable {
+
+        void write(T value) throws IOException;
+
     }
 }
@@ -0,0 +1,281 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityFieldType.FieldTypeEnum;
+import org.jfleet.EntityInfo;
+
+/**
+ * ReadSupport that requests only the projected EntityInfo columns present in the file and materializes each row
+ * with an EntityFactory, without intermediate records.
+ */
+class JFleetReadSupport<T> extends ReadSupport<T> {
+
+    private final EntityInfo entityInfo;
+    private final boolean[] projected;
+    private final EntityFactory<T> entityFactory;
+
+    JFleetReadSupport(EntityInfo entityInfo, boolean[] projected, EntityFactory<T> entityFactory) {
+        this.entityInfo = entityInfo;
+        this.projected = projected;
+        this.entityFactory = entityFactory;
+    }
+
+    @Override
+    public ReadContext init(InitContext context) {
+        MessageType fileSchema = context.getFileSchema();
+        List<Type> fields = new ArrayList<>();
+        List<ColumnInfo> columns = entityInfo.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            String columnName = columns.get(i).getColumnName();
+            if (projected[i] && fileSchema.containsField(columnName)) {
+                fields.add(fileSchema.getType(columnName));
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("None of the projected columns is present in the file");
+        }
+        return new ReadContext(new MessageType(fileSchema.getName(), fields));
+    }
+
+    @Override
+    public RecordMaterializer<T> prepareForRead(Configuration configuration, Map<String, String> keyValueMetaData,
+            MessageType fileSchema, ReadContext readContext) {
+        return new EntityMaterializer<>(entityInfo, readContext.getRequestedSchema(), entityFactory);
+    }
+
+    private static class EntityMaterializer<T> extends RecordMaterializer<T> {
+
+        private final Object[] values;
+        private final EntityFactory<T> entityFactory;
+        private final GroupConverter root;
+        private T current;
+
+        EntityMaterializer(EntityInfo entityInfo, MessageType requestedSchema, EntityFactory<T> entityFactory) {
+            List<ColumnInfo> columns = entityInfo.getColumns();
+            this.values = new Object[columns.size()];
+            this.entityFactory = entityFactory;
+            Converter[] converters = new Converter[requestedSchema.getFieldCount()];
+            for (int i = 0; i < converters.length; i++) {
+                PrimitiveType type = requestedSchema.getType(i).asPrimitiveType();
+                int idx = columnIndex(columns, type.getName());
+                converters[i] = new ColumnConverter(values, idx, columns.get(idx), type, entityFactory.getType(idx));
+            }
+            this.root = new GroupConverter() {
+
+                @Override
+                public Converter getConverter(int fieldIndex) {
+                    return converters[fieldIndex];
+                }
+
+                @Override
+                public void start() {
+                    Arrays.fill(values, null);
+                }
+
+                @Override
+                public void end() {
+                    current = EntityMaterializer.this.entityFactory.create(values);
+                }
+            };
+        }
+
+        private static int columnIndex(List<ColumnInfo> columns, String name) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).getColumnName().equals(name)) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("Column " + name + " not found");
+        }
+
+        @Override
+        public T getCurrentRecord() {
+            return current;
+        }
+
+        @Override
+        public GroupConverter getRootConverter() {
+            return root;
+        }
+
+    }
+
+    /**
+     * Converts the physical Parquet value to the Java type of the column. Binary columns decode each dictionary
+     * entry once, because all their Java values are immutable.
+     */
+    private static class ColumnConverter extends PrimitiveConverter {
+
+        private final Object[] values;
+        private final int idx;
+        private final FieldTypeEnum fieldType;
+        private final PrimitiveType type;
+        private final Class<?> target;
+        private final int decimalScale;
+        private Object[] dictionary;
+
+        ColumnConverter(Object[] values, int idx, ColumnInfo column, PrimitiveType type, Class<?> target) {
+            this.values = values;
+            this.idx = idx;
+            this.fieldType = column.getFieldType().getFieldType();
+            this.type = type;
+            this.target = target;
+            LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+            if (annotation instanceof DecimalLogicalTypeAnnotation) {
+                this.decimalScale = ((DecimalLogicalTypeAnnotation) annotation).getScale();
+            } else {
+                this.decimalScale = 0;
+            }
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return type.getPrimitiveTypeName() == PrimitiveTypeName.BINARY
+                    || type.getPrimitiveTypeName() == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+        }
+
+        @Override
+        public void setDictionary(Dictionary dict) {
+            dictionary = new Object[dict.getMaxId() + 1];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = fromBinary(dict.decodeToBinary(i));
+            }
+        }
+
+        @Override
+        public void addValueFromDictionary(int dictionaryId) {
+            values[idx] = dictionary[dictionaryId];
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            values[idx] = fromBinary(value);
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+            values[idx] = value;
+        }
+
+        @Override
+        public void addDouble(double value) {
+            values[idx] = value;
+        }
+
+        @Override
+        public void addFloat(float value) {
+            values[idx] = value;
+        }
+
+        @Override
+        public void addInt(int value) {
+            values[idx] = fromInt(value);
+        }
+
+        @Override
+        public void addLong(long value) {
+            values[idx] = fromLong(value);
+        }
+
+        private Object fromBinary(Binary value) {
+            switch (fieldType) {
+            case CHAR:
+                return value.toStringUsingUTF8().charAt(0);
+            case ENUMSTRING:
+                return enumByName(value.toStringUsingUTF8());
+            case BIGDECIMAL:
+            case BIGINTEGER:
+                return ParquetLogicalTypes.fromUnscaledDecimal(new BigInteger(value.getBytes()), decimalScale,
+                        target);
+            default:
+                return value.toStringUsingUTF8();
+            }
+        }
+
+        private Object fromInt(int value) {
+            switch (fieldType) {
+            case SHORT:
+                return (short) value;
+            case BYTE:
+                return (byte) value;
+            case ENUMORDINAL:
+                return target.isEnum() ? target.getEnumConstants()[value] : value;
+            case DATE:
+                return ParquetLogicalTypes.fromEpochDay(value, target);
+            case LOCALDATE:
+                return ParquetLogicalTypes.fromEpochDay(value, LocalDate.class);
+            case BIGDECIMAL:
+            case BIGINTEGER:
+                return ParquetLogicalTypes.fromUnscaledDecimal(BigInteger.valueOf(value), decimalScale, target);
+            default:
+                return value;
+            }
+        }
+
+        private Object fromLong(long value) {
+            switch (fieldType) {
+            case TIME:
+                return ParquetLogicalTypes.fromTimeMicros(value, target);
+            case LOCALTIME:
+                return ParquetLogicalTypes.fromTimeMicros(value, LocalTime.class);
+            case TIMESTAMP:
+                return ParquetLogicalTypes.fromTimestampMicros(value, target);
+            case LOCALDATETIME:
+                return ParquetLogicalTypes.fromLocalTimestampMicros(value);
+            case BIGDECIMAL:
+            case BIGINTEGER:
+                return ParquetLogicalTypes.fromUnscaledDecimal(BigInteger.valueOf(value), decimalScale, target);
+            default:
+                return value;
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object enumByName(String name) {
+            if (target.isEnum()) {
+                return Enum.valueOf((Class<Enum>) target, name);
+            }
+            return name;
+        }
+
+    }
+
+}
@@ -19,9 +19,9 @@ import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.parquet.hadoop.api.WriteSupport;
-import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.RecordConsumer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
 import org.jfleet.ColumnInfo;
 import org.jfleet.EntityInfo;
 
@@ -45,7 +45,7 @@ class JFleetWriteSupport<T> extends WriteSupport<T> {
 
     @Override
     public void prepareForWrite(RecordConsumer recordConsumer) {
-        writer = new RecordWriter<>(entityInfo, recordConsumer);
+        writer = new RecordWriter<>(entityInfo, schema, recordConsumer);
     }
 
     @Override
@@ -57,10 +57,15 @@ class JFleetWriteSupport<T> extends WriteSupport<T> {
 
         private final EntityInfo entityInfo;
         private final RecordConsumer recordConsumer;
+        private final PrimitiveType[] columnTypes;
 
-        private RecordWriter(EntityInfo entityInfo, RecordConsumer recordConsumer) {
+        private RecordWriter(EntityInfo entityInfo, MessageType schema, RecordConsumer recordConsumer) {
             this.recordConsumer = recordConsumer;
             this.entityInfo = entityInfo;
+            this.columnTypes = new PrimitiveType[schema.getFieldCount()];
+            for (int i = 0; i < columnTypes.length; i++) {
+                columnTypes[i] = schema.getType(i).asPrimitiveType();
+            }
         }
 
         private void write(T record) {
@@ -70,7 +75,7 @@ class JFleetWriteSupport<T> extends WriteSupport<T> {
                 Object value = col.getAccessor().apply(record);
                 if (value != null) {
                     recordConsumer.startField(col.getColumnName(), idx);
-                    addField(value, col);
+                    ParquetValues.addValue(recordConsumer, value, col, columnTypes[idx]);
                     recordConsumer.endField(col.getColumnName(), idx);
                 }
                 idx++;
@@ -78,43 +83,5 @@ class JFleetWriteSupport<T> extends WriteSupport<T> {
             recordConsumer.endMessage();
         }
 
-        private void addField(Object value, ColumnInfo col) {
-            switch (col.getFieldType().getFieldType()) {
-            case STRING:
-                recordConsumer.addBinary(Binary.fromString((String) value));
-                break;
-            case ENUMSTRING:
-                recordConsumer.addBinary(Binary.fromString(((Enum<?>) value).name()));
-                break;
-            case ENUMORDINAL:
-                recordConsumer.addInteger(((Enum<?>) value).ordinal());
-                break;
-            case INT:
-                recordConsumer.addInteger((int) value);
-                break;
-            case SHORT:
-                recordConsumer.addInteger(((Short) value).intValue());
-                break;
-            case BYTE:
-                recordConsumer.addInteger(((Byte) value).intValue());
-                break;
-            case LONG:
-                recordConsumer.addLong((long) value);
-                break;
-            case DOUBLE:
-                recordConsumer.addDouble((double) value);
-                break;
-            case FLOAT:
-                recordConsumer.addFloat((float) value);
-                break;
-            case BOOLEAN:
-                recordConsumer.addBoolean((boolean) value);
-                break;
-            default:
-                throw new UnsupportedTypeException(
-                        String.format("Unsupported type: %s", col.getFieldType().getFieldType()));
-            }
-        }
-
     }
 }
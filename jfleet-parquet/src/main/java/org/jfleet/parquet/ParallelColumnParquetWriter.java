@@ -0,0 +1,261 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.compression.CompressionCodecFactory.BytesInputCompressor;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.apache.parquet.hadoop.ColumnChunkPageWriteStore;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetFileWriter.Mode;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.InvalidRecordException;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type.Repetition;
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityInfo;
+
+/**
+ * Parquet writer that buffers each row group in columnar form and encodes and compresses its column chunks in
+ * parallel. Column chunks are appended to the file in schema order as soon as they and the previous ones are ready,
+ * producing the same file layout as the record based ParquetWriter.
+ *
+ * The row group is flushed when the raw size of the buffered values reaches the row group size, so encoded row groups
+ * are usually smaller than the configured size. If a row group can not be written the file is left incomplete: next
+ * writes fail and close only releases the codecs.
+ */
+class ParallelColumnParquetWriter<T> implements JFleetParquetWriter.EntityWriter<T> {
+
+    private final List<ColumnInfo> columns;
+    private final ParquetProperties props;
+    private final Executor executor;
+    private final long rowGroupSize;
+    private final Map<String, String> extraMetaData;
+    private final ParquetFileWriter fileWriter;
+    private final EncodedColumn[] encodedColumns;
+    private final ColumnBuffer[] buffers;
+    private final PrimitiveType[] columnTypes;
+    private final boolean[] required;
+    private int rowCount = 0;
+    private boolean failed = false;
+    private boolean closed = false;
+
+    ParallelColumnParquetWriter(OutputFile file, Mode mode, EntityInfo entityInfo, MessageType schema,
+            Configuration conf, CompressionCodecName codecName, ParquetProperties props, long rowGroupSize,
+            int maxPaddingSize, Map<String, String> extraMetaData, Executor executor) throws IOException {
+        this.columns = entityInfo.getColumns();
+        this.props = props;
+        this.executor = executor;
+        this.rowGroupSize = rowGroupSize;
+        this.extraMetaData = extraMetaData;
+        int columnCount = schema.getFieldCount();
+        this.encodedColumns = new EncodedColumn[columnCount];
+        this.buffers = new ColumnBuffer[columnCount];
+        this.columnTypes = new PrimitiveType[columnCount];
+        this.required = new boolean[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            PrimitiveType type = schema.getType(i).asPrimitiveType();
+            MessageType columnSchema = new MessageType(schema.getName(), type);
+            ColumnDescriptor descriptor = columnSchema.getColumns().get(0);
+            columnTypes[i] = type;
+            required[i] = type.isRepetition(Repetition.REQUIRED);
+            buffers[i] = ColumnBuffer.create(type, descriptor.getMaxDefinitionLevel());
+            encodedColumns[i] = new EncodedColumn(columnSchema, descriptor,
+                    new CodecFactory(conf, props.getPageSizeThreshold()), codecName);
+        }
+        this.fileWriter = new ParquetFileWriter(file, schema, mode, rowGroupSize, maxPaddingSize,
+                props.getColumnIndexTruncateLength(), props.getStatisticsTruncateLength(),
+                props.getPageWriteChecksumEnabled());
+        this.fileWriter.start();
+    }
+
+    @Override
+    public void write(T entity) throws IOException {
+        if (failed) {
+            throw new IOException("Can not write after a failed row group");
+        }
+        long size = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            ColumnInfo col = columns.get(i);
+            Object value = col.getAccessor().apply(entity);
+            ColumnBuffer buffer = buffers[i];
+            if (value == null) {
+                if (required[i]) {
+                    throw new InvalidRecordException(col.getColumnName() + " is a required column");
+                }
+                buffer.addNull();
+            } else {
+                ParquetValues.addValue(buffer, value, col, columnTypes[i]);
+            }
+            size += buffer.getEstimatedSize();
+        }
+        rowCount++;
+        if (size >= rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // After a failure the file writer can be in the middle of a block, and the data is lost anyway
+            if (!failed) {
+                if (rowCount > 0) {
+                    flushRowGroup();
+                }
+                fileWriter.end(extraMetaData);
+            }
+        } finally {
+            for (EncodedColumn encodedColumn : encodedColumns) {
+                encodedColumn.codecFactory.release();
+            }
+        }
+    }
+
+    private void flushRowGroup() throws IOException {
+        failed = true;
+        List<CompletableFuture<ColumnChunk>> chunks = new ArrayList<>(buffers.length);
+        for (int i = 0; i < buffers.length; i++) {
+            chunks.add(encodeAsync(encodedColumns[i], buffers[i]));
+        }
+        fileWriter.startBlock(rowCount);
+        // Every chunk is joined and closed before reporting the first failure
+        Throwable failure = null;
+        for (CompletableFuture<ColumnChunk> future : chunks) {
+            ColumnChunk chunk;
+            try {
+                chunk = future.join();
+            } catch (CompletionException e) {
+                failure = failure == null ? e.getCause() : failure;
+                continue;
+            }
+            try {
+                if (failure == null) {
+                    chunk.pageStore.flushToFileWriter(fileWriter);
+                }
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            } finally {
+                try {
+                    chunk.columnStore.close();
+                } catch (RuntimeException e) {
+                    failure = failure == null ? e : failure;
+                }
+            }
+        }
+        if (failure != null) {
+            throw rethrow(failure);
+        }
+        fileWriter.endBlock();
+        for (ColumnBuffer buffer : buffers) {
+            buffer.clear();
+        }
+        rowCount = 0;
+        failed = false;
+    }
+
+    private CompletableFuture<ColumnChunk> encodeAsync(EncodedColumn encodedColumn, ColumnBuffer buffer) {
+        try {
+            return CompletableFuture.supplyAsync(() -> encodedColumn.encode(buffer, props), executor);
+        } catch (RuntimeException e) {
+            CompletableFuture<ColumnChunk> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+
+    private static IOException rethrow(Throwable failure) {
+        if (failure instanceof UncheckedIOException) {
+            return ((UncheckedIOException) failure).getCause();
+        }
+        if (failure instanceof IOException) {
+            return (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return new IOException(failure);
+    }
+
+    private static class EncodedColumn {
+
+        private final MessageType schema;
+        private final ColumnDescriptor descriptor;
+        private final CodecFactory codecFactory;
+        private final BytesInputCompressor compressor;
+
+        EncodedColumn(MessageType schema, ColumnDescriptor descriptor, CodecFactory codecFactory,
+                CompressionCodecName codecName) {
+            this.schema = schema;
+            this.descriptor = descriptor;
+            this.codecFactory = codecFactory;
+            this.compressor = codecFactory.getCompressor(codecName);
+        }
+
+        // ColumnChunkPageWriteStore only accepts the deprecated BytesCompressor, which CodecFactory returns
+        @SuppressWarnings("deprecation")
+        private ColumnChunk encode(ColumnBuffer buffer, ParquetProperties props) {
+            ColumnChunkPageWriteStore pageStore = new ColumnChunkPageWriteStore(
+                    (CodecFactory.BytesCompressor) compressor, schema,
+                    props.getAllocator(), props.getColumnIndexTruncateLength(), props.getPageWriteChecksumEnabled());
+            ColumnWriteStore columnStore = props.newColumnWriteStore(schema, pageStore, pageStore);
+            ColumnWriter writer = columnStore.getColumnWriter(descriptor);
+            int size = buffer.size();
+            for (int row = 0; row < size; row++) {
+                buffer.writeTo(writer, row);
+                columnStore.endRecord();
+            }
+            columnStore.flush();
+            return new ColumnChunk(pageStore, columnStore);
+        }
+
+    }
+
+    private static class ColumnChunk {
+
+        private final ColumnChunkPageWriteStore pageStore;
+        private final ColumnWriteStore columnStore;
+
+        ColumnChunk(ColumnChunkPageWriteStore pageStore, ColumnWriteStore columnStore) {
+            this.pageStore = pageStore;
+            this.columnStore = columnStore;
+        }
+
+    }
+
+}
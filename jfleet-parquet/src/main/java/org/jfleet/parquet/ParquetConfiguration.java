@@ -16,7 +16,11 @@
 package org.jfleet.parquet;
 
 import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
@@ -29,6 +33,8 @@ import org.jfleet.inspection.JpaEntityInspector;
 
 public class ParquetConfiguration<T> {
 
+    public static final int DEFAULT_AUTO_TUNING_SAMPLE_ROWS = 10_000;
+
     private final JFleetParquetConfigBuilder<T> builder;
 
     ParquetConfiguration(JFleetParquetConfigBuilder<T> builder) {
@@ -50,7 +56,16 @@ public class ParquetConfiguration<T> {
         public Builder(OutputFile path, EntityInfo entityInfo) {
             JFleetParquetConfigBuilder<T> jgleetBuilder = JFleetParquetConfigBuilder.builder(path, entityInfo);
             this.builder = jgleetBuilder.withWriteMode(Mode.OVERWRITE)
-                    .withCompressionCodec(CompressionCodecName.SNAPPY);
+                    .withCompressionCodec(CompressionCodecName.SNAPPY)
+                    .withConf(new Configuration(false));
+        }
+
+        public Builder(Path path, Class<T> recordClass) {
+            this(new FileChannelOutputFile(path), recordClass);
+        }
+
+        public Builder(Path path, EntityInfo entityInfo) {
+            this(new FileChannelOutputFile(path), entityInfo);
         }
 
         public Builder(OutputStream outputStream, Class<T> recordClass) {
@@ -61,6 +76,13 @@ public class ParquetConfiguration<T> {
             this(new OutputStreamOutputFile(outputStream), entityInfo);
         }
 
+        /**
+         * By default, the Hadoop Configuration doesn't load core-default.xml and core-site.xml resources. Provide a
+         * Configuration to use Hadoop defaults or site properties.
+         *
+         * @param conf Hadoop configuration
+         * @return the builder
+         */
         public Builder<T> withConf(Configuration conf) {
             builder.withConf(conf);
             return this;
@@ -186,6 +208,73 @@ public class ParquetConfiguration<T> {
             return this;
         }
 
+        /**
+         * Precision and scale of the decimal logical type used for BigDecimal columns. BigInteger columns use the
+         * same precision with scale 0. Decimals are stored as INT32 up to precision 9, INT64 up to precision 18 and
+         * FIXED_LEN_BYTE_ARRAY otherwise. Values that can not be represented without rounding fail on write.
+         *
+         * @param precision maximum number of digits
+         * @param scale number of digits to the right of the decimal point
+         * @return the builder
+         */
+        public Builder<T> withDecimal(int precision, int scale) {
+            builder.withDecimal(precision, scale);
+            return this;
+        }
+
+        /**
+         * Buffers each row group in columnar form and encodes and compresses its column chunks in parallel on the
+         * common ForkJoinPool. Useful for wide entities, where page encoding on a single thread is the bottleneck.
+         * Encryption is not supported in this mode.
+         *
+         * @return the builder
+         */
+        public Builder<T> withParallelColumnEncoding() {
+            return withParallelColumnEncoding(ForkJoinPool.commonPool());
+        }
+
+        /**
+         * Buffers each row group in columnar form and encodes and compresses its column chunks in parallel on the
+         * provided executor. Encryption is not supported in this mode.
+         *
+         * @param executor executor where column chunks are encoded
+         * @return the builder
+         */
+        public Builder<T> withParallelColumnEncoding(Executor executor) {
+            builder.withParallelColumnEncoding(executor);
+            return this;
+        }
+
+        /**
+         * Buffers the first rows and chooses dictionary encoding, byte stream split, bloom filters, dictionary page
+         * size and page row count limit from their statistics before opening the writer. Chosen settings are
+         * applied over the ones configured in the builder.
+         *
+         * @return the builder
+         */
+        public Builder<T> withAutoTuning() {
+            return withAutoTuning(DEFAULT_AUTO_TUNING_SAMPLE_ROWS, null);
+        }
+
+        /**
+         * Buffers the first sampleRows rows and chooses dictionary encoding, byte stream split, bloom filters,
+         * dictionary page size and page row count limit from their statistics before opening the writer. Chosen
+         * settings are applied over the ones configured in the builder, and reported to the listener so they can be
+         * persisted or reused. The column values of the sampled rows are copied as they are written, so entities can
+         * be reused or modified after being written.
+         *
+         * @param sampleRows number of rows to buffer and analyze
+         * @param listener callback receiving the chosen settings, can be null
+         * @return the builder
+         */
+        public Builder<T> withAutoTuning(int sampleRows, Consumer<ParquetEncodingDecisions> listener) {
+            if (sampleRows <= 0) {
+                throw new IllegalArgumentException("Sample rows must be positive");
+            }
+            builder.withAutoTuning(sampleRows, listener);
+            return this;
+        }
+
         public ParquetConfiguration<T> build() {
             return new ParquetConfiguration<>(builder);
         }
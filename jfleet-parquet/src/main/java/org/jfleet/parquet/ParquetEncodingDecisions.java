@@ -0,0 +1,142 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import java.util.List;
+
+/**
+ * Encoding settings chosen by the auto-tune mode from a sample of the first rows, together with the column statistics
+ * used to choose them.
+ */
+public class ParquetEncodingDecisions {
+
+    private final int sampledRows;
+    private final boolean byteStreamSplit;
+    private final int dictionaryPageSize;
+    private final int pageRowCountLimit;
+    private final List<ColumnDecision> columns;
+
+    ParquetEncodingDecisions(int sampledRows, boolean byteStreamSplit, int dictionaryPageSize, int pageRowCountLimit,
+            List<ColumnDecision> columns) {
+        this.sampledRows = sampledRows;
+        this.byteStreamSplit = byteStreamSplit;
+        this.dictionaryPageSize = dictionaryPageSize;
+        this.pageRowCountLimit = pageRowCountLimit;
+        this.columns = columns;
+    }
+
+    public int getSampledRows() {
+        return sampledRows;
+    }
+
+    /**
+     * Parquet applies byte stream split to all FLOAT and DOUBLE columns, and only columns without dictionary encoding
+     * end up using it.
+     *
+     * @return if byte stream split encoding is enabled
+     */
+    public boolean isByteStreamSplit() {
+        return byteStreamSplit;
+    }
+
+    public int getDictionaryPageSize() {
+        return dictionaryPageSize;
+    }
+
+    public int getPageRowCountLimit() {
+        return pageRowCountLimit;
+    }
+
+    public List<ColumnDecision> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public String toString() {
+        return "ParquetEncodingDecisions [sampledRows=" + sampledRows + ", byteStreamSplit=" + byteStreamSplit
+                + ", dictionaryPageSize=" + dictionaryPageSize + ", pageRowCountLimit=" + pageRowCountLimit
+                + ", columns=" + columns + "]";
+    }
+
+    public static class ColumnDecision {
+
+        private final String columnName;
+        private final int distinctValues;
+        private final double nullRatio;
+        private final double averageWidth;
+        private final boolean dictionary;
+        private final boolean byteStreamSplit;
+        private final long bloomFilterNdv;
+
+        ColumnDecision(String columnName, int distinctValues, double nullRatio, double averageWidth,
+                boolean dictionary, boolean byteStreamSplit, long bloomFilterNdv) {
+            this.columnName = columnName;
+            this.distinctValues = distinctValues;
+            this.nullRatio = nullRatio;
+            this.averageWidth = averageWidth;
+            this.dictionary = dictionary;
+            this.byteStreamSplit = byteStreamSplit;
+            this.bloomFilterNdv = bloomFilterNdv;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public int getDistinctValues() {
+            return distinctValues;
+        }
+
+        public double getNullRatio() {
+            return nullRatio;
+        }
+
+        /**
+         * @return average plain encoded size in bytes of the non null values
+         */
+        public double getAverageWidth() {
+            return averageWidth;
+        }
+
+        public boolean isDictionary() {
+            return dictionary;
+        }
+
+        public boolean isByteStreamSplit() {
+            return byteStreamSplit;
+        }
+
+        public boolean isBloomFilter() {
+            return bloomFilterNdv > 0;
+        }
+
+        /**
+         * @return expected number of distinct values per row group, or 0 if the bloom filter is disabled
+         */
+        public long getBloomFilterNdv() {
+            return bloomFilterNdv;
+        }
+
+        @Override
+        public String toString() {
+            return "ColumnDecision [columnName=" + columnName + ", distinctValues=" + distinctValues
+                    + ", nullRatio=" + nullRatio + ", averageWidth=" + averageWidth + ", dictionary=" + dictionary
+                    + ", byteStreamSplit=" + byteStreamSplit + ", bloomFilterNdv=" + bloomFilterNdv + "]";
+        }
+
+    }
+
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityInfo;
+import org.jfleet.parquet.ParquetEncodingDecisions.ColumnDecision;
+
+/**
+ * Chooses encoding settings from the statistics of a sample of rows:
+ * <ul>
+ * <li>Dictionary encoding for columns where at most half of the sampled values are distinct.</li>
+ * <li>Byte stream split for FLOAT and DOUBLE columns without dictionary.</li>
+ * <li>Bloom filters for the rest of high cardinality columns, with the NDV extrapolated to a row group.</li>
+ * <li>A dictionary page size big enough for the largest sampled dictionary, and a page row count limit that lets the
+ * narrowest column fill a page.</li>
+ * </ul>
+ */
+class ParquetEncodingTuner {
+
+    static final double MAX_DICTIONARY_DISTINCT_RATIO = 0.5;
+    static final int MAX_DICTIONARY_PAGE_SIZE = 8 * 1024 * 1024;
+    static final int MAX_PAGE_ROW_COUNT_LIMIT = 100_000;
+
+    private final List<ColumnStats> stats;
+    private final long rowGroupSize;
+    private final int pageSize;
+    private final int dictionaryPageSize;
+    private final int pageRowCountLimit;
+    private int sampledRows = 0;
+
+    ParquetEncodingTuner(EntityInfo entityInfo, MessageType schema, long rowGroupSize, int pageSize,
+            int dictionaryPageSize, int pageRowCountLimit) {
+        List<ColumnInfo> columns = entityInfo.getColumns();
+        this.stats = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            stats.add(new ColumnStats(columns.get(i), schema.getType(i).asPrimitiveType()));
+        }
+        this.rowGroupSize = rowGroupSize;
+        this.pageSize = pageSize;
+        this.dictionaryPageSize = dictionaryPageSize;
+        this.pageRowCountLimit = pageRowCountLimit;
+    }
+
+    /**
+     * Adds the column values of a sampled row to the statistics. Values are added as they arrive, so the tuner
+     * doesn't keep any reference to the row.
+     *
+     * @param values values of the row in column order
+     */
+    void add(Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            stats.get(i).add(values[i]);
+        }
+        sampledRows++;
+    }
+
+    ParquetEncodingDecisions tune() {
+        double rowWidth = 0;
+        for (ColumnStats columnStats : stats) {
+            rowWidth += columnStats.averageWidth() * (1 - columnStats.nullRatio());
+        }
+        long rowsPerRowGroup = rowWidth > 0 ? (long) (rowGroupSize / rowWidth) : rowGroupSize;
+
+        List<ColumnDecision> decisions = new ArrayList<>(stats.size());
+        boolean byteStreamSplit = false;
+        long maxDictionarySize = 0;
+        double minWidth = Double.MAX_VALUE;
+        for (ColumnStats columnStats : stats) {
+            PrimitiveTypeName typeName = columnStats.type.getPrimitiveTypeName();
+            boolean floating = typeName == PrimitiveTypeName.FLOAT || typeName == PrimitiveTypeName.DOUBLE;
+            double distinctRatio = columnStats.distinctRatio();
+            boolean dictionary = typeName != PrimitiveTypeName.BOOLEAN
+                    && distinctRatio <= MAX_DICTIONARY_DISTINCT_RATIO;
+            boolean columnByteStreamSplit = floating && !dictionary;
+            long bloomFilterNdv = 0;
+            if (!dictionary && !floating && typeName != PrimitiveTypeName.BOOLEAN && columnStats.nonNulls > 0) {
+                bloomFilterNdv = Math.max(1, (long) (distinctRatio * rowsPerRowGroup * (1 - columnStats.nullRatio())));
+            }
+            if (dictionary) {
+                maxDictionarySize = Math.max(maxDictionarySize,
+                        (long) (columnStats.distinct.size() * columnStats.averageWidth()));
+            }
+            if (typeName != PrimitiveTypeName.BOOLEAN && columnStats.nonNulls > 0) {
+                minWidth = Math.min(minWidth, columnStats.averageWidth());
+            }
+            byteStreamSplit |= columnByteStreamSplit;
+            decisions.add(new ColumnDecision(columnStats.column.getColumnName(), columnStats.distinct.size(),
+                    columnStats.nullRatio(), columnStats.averageWidth(), dictionary, columnByteStreamSplit,
+                    bloomFilterNdv));
+        }
+        int tunedDictionaryPageSize = (int) Math.max(dictionaryPageSize,
+                Math.min(MAX_DICTIONARY_PAGE_SIZE, 2 * maxDictionarySize));
+        int tunedPageRowCountLimit = pageRowCountLimit;
+        if (minWidth != Double.MAX_VALUE) {
+            tunedPageRowCountLimit = (int) Math.max(pageRowCountLimit,
+                    Math.min(MAX_PAGE_ROW_COUNT_LIMIT, pageSize / minWidth));
+        }
+        return new ParquetEncodingDecisions(sampledRows, byteStreamSplit, tunedDictionaryPageSize,
+                tunedPageRowCountLimit, decisions);
+    }
+
+    private static class ColumnStats extends RecordConsumer {
+
+        private final ColumnInfo column;
+        private final PrimitiveType type;
+        private final Set<Object> distinct = new HashSet<>();
+        private int nulls = 0;
+        private int nonNulls = 0;
+        private double width = 0;
+
+        ColumnStats(ColumnInfo column, PrimitiveType type) {
+            this.column = column;
+            this.type = type;
+        }
+
+        void add(Object value) {
+            if (value == null) {
+                nulls++;
+            } else {
+                nonNulls++;
+                ParquetValues.addValue(this, value, column, type);
+            }
+        }
+
+        double nullRatio() {
+            int total = nulls + nonNulls;
+            return total == 0 ? 0 : (double) nulls / total;
+        }
+
+        double distinctRatio() {
+            return nonNulls == 0 ? 0 : (double) distinct.size() / nonNulls;
+        }
+
+        double averageWidth() {
+            return nonNulls == 0 ? 0 : width / nonNulls;
+        }
+
+        private void value(Object value, double valueWidth) {
+            distinct.add(value);
+            width += valueWidth;
+        }
+
+        @Override
+        public void addInteger(int value) {
+            value(value, Integer.BYTES);
+        }
+
+        @Override
+        public void addLong(long value) {
+            value(value, Long.BYTES);
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+            value(value, 1.0 / Byte.SIZE);
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            boolean fixedLength = type.getPrimitiveTypeName() == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+            value(value, fixedLength ? value.length() : value.length() + Integer.BYTES);
+        }
+
+        @Override
+        public void addFloat(float value) {
+            value(value, Float.BYTES);
+        }
+
+        @Override
+        public void addDouble(double value) {
+            value(value, Double.BYTES);
+        }
+
+        @Override
+        public void startMessage() {
+        }
+
+        @Override
+        public void endMessage() {
+        }
+
+        @Override
+        public void startField(String field, int index) {
+        }
+
+        @Override
+        public void endField(String field, int index) {
+        }
+
+        @Override
+        public void startGroup() {
+        }
+
+        @Override
+        public void endGroup() {
+        }
+
+    }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.apache.parquet.io.ParquetEncodingException;
+import org.apache.parquet.io.api.Binary;
+
+/**
+ * Conversion of Java temporal and numeric values to and from the physical representation of Parquet logical types.
+ * java.util.Date values without time zone information are interpreted in the default time zone, like the rest of
+ * JFleet serializers.
+ */
+final class ParquetLogicalTypes {
+
+    static final int MAX_INT32_DECIMAL_PRECISION = 9;
+    static final int MAX_INT64_DECIMAL_PRECISION = 18;
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long MICROS_PER_DAY = 86_400L * MICROS_PER_SECOND;
+
+    private ParquetLogicalTypes() {
+    }
+
+    static int epochDay(Object value) {
+        if (value instanceof LocalDate) {
+            return (int) ((LocalDate) value).toEpochDay();
+        }
+        if (value instanceof java.sql.Date) {
+            return (int) ((java.sql.Date) value).toLocalDate().toEpochDay();
+        }
+        if (value instanceof Date) {
+            return (int) ((Date) value).toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+        }
+        throw unsupportedValue(value, "date");
+    }
+
+    static long timestampMicros(Object value) {
+        if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) value;
+            long seconds = Math.floorDiv(timestamp.getTime(), 1000L);
+            return seconds * MICROS_PER_SECOND + timestamp.getNanos() / 1000;
+        }
+        if (value instanceof Date) {
+            return ((Date) value).getTime() * 1000L;
+        }
+        throw unsupportedValue(value, "timestamp");
+    }
+
+    static long localTimestampMicros(Object value) {
+        if (value instanceof LocalDateTime) {
+            LocalDateTime dateTime = (LocalDateTime) value;
+            return dateTime.toLocalDate().toEpochDay() * MICROS_PER_DAY + dateTime.toLocalTime().toNanoOfDay() / 1000;
+        }
+        throw unsupportedValue(value, "local timestamp");
+    }
+
+    static long timeMicros(Object value) {
+        if (value instanceof LocalTime) {
+            return ((LocalTime) value).toNanoOfDay() / 1000;
+        }
+        if (value instanceof java.sql.Time) {
+            return ((java.sql.Time) value).toLocalTime().toNanoOfDay() / 1000;
+        }
+        if (value instanceof Date) {
+            LocalTime time = ((Date) value).toInstant().atZone(ZoneId.systemDefault()).toLocalTime();
+            return time.toNanoOfDay() / 1000;
+        }
+        throw unsupportedValue(value, "time");
+    }
+
+    static Object fromEpochDay(int epochDay, Class<?> target) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        if (target == LocalDate.class) {
+            return date;
+        }
+        if (target == java.sql.Date.class) {
+            return java.sql.Date.valueOf(date);
+        }
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    static Object fromTimestampMicros(long micros, Class<?> target) {
+        long seconds = Math.floorDiv(micros, MICROS_PER_SECOND);
+        long microOfSecond = Math.floorMod(micros, MICROS_PER_SECOND);
+        if (target == Timestamp.class) {
+            Timestamp timestamp = new Timestamp(seconds * 1000L);
+            timestamp.setNanos((int) (microOfSecond * 1000));
+            return timestamp;
+        }
+        return new Date(seconds * 1000L + microOfSecond / 1000);
+    }
+
+    static LocalDateTime fromLocalTimestampMicros(long micros) {
+        long epochDay = Math.floorDiv(micros, MICROS_PER_DAY);
+        long microOfDay = Math.floorMod(micros, MICROS_PER_DAY);
+        return LocalDate.ofEpochDay(epochDay).atTime(LocalTime.ofNanoOfDay(microOfDay * 1000));
+    }
+
+    static Object fromTimeMicros(long micros, Class<?> target) {
+        LocalTime time = LocalTime.ofNanoOfDay(micros * 1000);
+        if (target == LocalTime.class) {
+            return time;
+        }
+        if (target == java.sql.Time.class) {
+            return java.sql.Time.valueOf(time);
+        }
+        return Date.from(LocalDate.ofEpochDay(0).atTime(time).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    static Object fromUnscaledDecimal(BigInteger unscaled, int scale, Class<?> target) {
+        BigDecimal decimal = new BigDecimal(unscaled, scale);
+        if (target == BigInteger.class) {
+            return decimal.toBigInteger();
+        }
+        return decimal;
+    }
+
+    static BigInteger unscaledDecimal(Object value, int precision, int scale) {
+        BigDecimal decimal;
+        if (value instanceof BigDecimal) {
+            decimal = (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            decimal = new BigDecimal((BigInteger) value);
+        } else {
+            throw unsupportedValue(value, "decimal");
+        }
+        BigDecimal scaled;
+        try {
+            scaled = decimal.setScale(scale, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new ParquetEncodingException("Cannot encode decimal " + value + " with scale " + scale);
+        }
+        if (scaled.precision() > precision) {
+            throw new ParquetEncodingException("Cannot encode decimal " + value + " with precision " + precision);
+        }
+        return scaled.unscaledValue();
+    }
+
+    static Binary fixedLengthDecimal(BigInteger unscaled, int length) {
+        byte[] bytes = unscaled.toByteArray();
+        if (bytes.length == length) {
+            return Binary.fromConstantByteArray(bytes);
+        }
+        byte[] fixed = new byte[length];
+        byte padding = (byte) (unscaled.signum() < 0 ? 0xFF : 0x00);
+        int offset = length - bytes.length;
+        for (int i = 0; i < offset; i++) {
+            fixed[i] = padding;
+        }
+        System.arraycopy(bytes, 0, fixed, offset, bytes.length);
+        return Binary.fromConstantByteArray(fixed);
+    }
+
+    static int decimalLength(int precision) {
+        int bits = BigInteger.TEN.pow(precision).subtract(BigInteger.ONE).bitLength() + 1;
+        return (bits + 7) / 8;
+    }
+
+    private static UnsupportedTypeException unsupportedValue(Object value, String type) {
+        return new UnsupportedTypeException(
+                String.format("Unsupported value class %s for %s column", value.getClass().getName(), type));
+    }
+
+}
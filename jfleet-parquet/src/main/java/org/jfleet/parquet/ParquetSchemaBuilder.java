@@ -15,9 +15,14 @@
  */
 package org.jfleet.parquet;
 
+import static org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit.MICROS;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.dateType;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.decimalType;
 import static org.apache.parquet.schema.LogicalTypeAnnotation.enumType;
 import static org.apache.parquet.schema.LogicalTypeAnnotation.intType;
 import static org.apache.parquet.schema.LogicalTypeAnnotation.stringType;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.timeType;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.timestampType;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
 
 import java.util.ArrayList;
@@ -34,10 +39,21 @@ import org.jfleet.EntityInfo;
 
 class ParquetSchemaBuilder {
 
+    static final int DEFAULT_DECIMAL_PRECISION = 38;
+    static final int DEFAULT_DECIMAL_SCALE = 9;
+
     private final EntityInfo entityInfo;
+    private final int decimalPrecision;
+    private final int decimalScale;
 
     ParquetSchemaBuilder(EntityInfo entityInfo) {
+        this(entityInfo, DEFAULT_DECIMAL_PRECISION, DEFAULT_DECIMAL_SCALE);
+    }
+
+    ParquetSchemaBuilder(EntityInfo entityInfo, int decimalPrecision, int decimalScale) {
         this.entityInfo = entityInfo;
+        this.decimalPrecision = decimalPrecision;
+        this.decimalScale = decimalScale;
     }
 
     public MessageType build() {
@@ -57,6 +73,7 @@ class ParquetSchemaBuilder {
         String name = columnInfo.getColumnName();
         switch (columnInfo.getFieldType().getFieldType()) {
         case STRING:
+        case CHAR:
             return Types.primitive(BINARY, repetition).as(stringType()).named(name);
         case ENUMSTRING:
             return Types.primitive(BINARY, repetition).as(enumType()).named(name);
@@ -76,10 +93,37 @@ class ParquetSchemaBuilder {
             return new PrimitiveType(repetition, PrimitiveTypeName.FLOAT, name);
         case BOOLEAN:
             return new PrimitiveType(repetition, PrimitiveTypeName.BOOLEAN, name);
+        case DATE:
+        case LOCALDATE:
+            return Types.primitive(PrimitiveTypeName.INT32, repetition).as(dateType()).named(name);
+        case TIME:
+        case LOCALTIME:
+            return Types.primitive(PrimitiveTypeName.INT64, repetition).as(timeType(false, MICROS)).named(name);
+        case TIMESTAMP:
+            return Types.primitive(PrimitiveTypeName.INT64, repetition).as(timestampType(true, MICROS)).named(name);
+        case LOCALDATETIME:
+            return Types.primitive(PrimitiveTypeName.INT64, repetition).as(timestampType(false, MICROS))
+                    .named(name);
+        case BIGDECIMAL:
+            return decimal(name, repetition, decimalPrecision, decimalScale);
+        case BIGINTEGER:
+            return decimal(name, repetition, decimalPrecision, 0);
         default:
             throw new UnsupportedTypeException(
                     String.format("Unsupported type: %s", columnInfo.getFieldType().getFieldType()));
         }
     }
 
+    private Type decimal(String name, Repetition repetition, int precision, int scale) {
+        if (precision <= ParquetLogicalTypes.MAX_INT32_DECIMAL_PRECISION) {
+            return Types.primitive(PrimitiveTypeName.INT32, repetition).as(decimalType(scale, precision)).named(name);
+        }
+        if (precision <= ParquetLogicalTypes.MAX_INT64_DECIMAL_PRECISION) {
+            return Types.primitive(PrimitiveTypeName.INT64, repetition).as(decimalType(scale, precision)).named(name);
+        }
+        return Types.primitive(PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY, repetition)
+                .length(ParquetLogicalTypes.decimalLength(precision))
+                .as(decimalType(scale, precision)).named(name);
+    }
+
 }
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import java.math.BigInteger;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.jfleet.ColumnInfo;
+
+final class ParquetValues {
+
+    private ParquetValues() {
+    }
+
+    static void addValue(RecordConsumer recordConsumer, Object value, ColumnInfo col, PrimitiveType type) {
+        switch (col.getFieldType().getFieldType()) {
+        case STRING:
+            recordConsumer.addBinary(Binary.fromString((String) value));
+            break;
+        case ENUMSTRING:
+            recordConsumer.addBinary(Binary.fromString(((Enum<?>) value).name()));
+            break;
+        case ENUMORDINAL:
+            recordConsumer.addInteger(((Enum<?>) value).ordinal());
+            break;
+        case INT:
+            recordConsumer.addInteger((int) value);
+            break;
+        case SHORT:
+            recordConsumer.addInteger(((Short) value).intValue());
+            break;
+        case BYTE:
+            recordConsumer.addInteger(((Byte) value).intValue());
+            break;
+        case LONG:
+            recordConsumer.addLong((long) value);
+            break;
+        case DOUBLE:
+            recordConsumer.addDouble((double) value);
+            break;
+        case FLOAT:
+            recordConsumer.addFloat((float) value);
+            break;
+        case BOOLEAN:
+            recordConsumer.addBoolean((boolean) value);
+            break;
+        case CHAR:
+            recordConsumer.addBinary(Binary.fromString(String.valueOf((char) value)));
+            break;
+        case DATE:
+        case LOCALDATE:
+            recordConsumer.addInteger(ParquetLogicalTypes.epochDay(value));
+            break;
+        case TIME:
+        case LOCALTIME:
+            recordConsumer.addLong(ParquetLogicalTypes.timeMicros(value));
+            break;
+        case TIMESTAMP:
+            recordConsumer.addLong(ParquetLogicalTypes.timestampMicros(value));
+            break;
+        case LOCALDATETIME:
+            recordConsumer.addLong(ParquetLogicalTypes.localTimestampMicros(value));
+            break;
+        case BIGDECIMAL:
+        case BIGINTEGER:
+            addDecimal(recordConsumer, value, type);
+            break;
+        default:
+            throw new UnsupportedTypeException(
+                    String.format("Unsupported type: %s", col.getFieldType().getFieldType()));
+        }
+    }
+
+    private static void addDecimal(RecordConsumer recordConsumer, Object value, PrimitiveType type) {
+        DecimalLogicalTypeAnnotation decimal = (DecimalLogicalTypeAnnotation) type.getLogicalTypeAnnotation();
+        BigInteger unscaled = ParquetLogicalTypes.unscaledDecimal(value, decimal.getPrecision(), decimal.getScale());
+        switch (type.getPrimitiveTypeName()) {
+        case INT32:
+            recordConsumer.addInteger(unscaled.intValue());
+            break;
+        case INT64:
+            recordConsumer.addLong(unscaled.longValue());
+            break;
+        default:
+            recordConsumer.addBinary(ParquetLogicalTypes.fixedLengthDecimal(unscaled, type.getTypeLength()));
+        }
+    }
+
+}
@@ -0,0 +1,325 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.jfleet.ColumnInfo;
+import org.jfleet.EntityInfo;
+import org.jfleet.common.TypeSerializer;
+import org.jfleet.csv.CsvTypeSerializer;
+import org.jfleet.inspection.JpaEntityInspector;
+
+/**
+ *
+ * Writes a Hive-style partitioned Parquet dataset. Each entity is written to a file under a directory named after
+ * the value of its partition columns, like baseDir/date=2023-05-06/region=EU/part-0.parquet. Partition columns are
+ * not included in the Parquet files schema.
+ *
+ * A bounded number of writers is kept open. When a new partition needs a writer and the limit is reached, the least
+ * recently used writer is closed in the background and a later entity of that partition creates a new part file.
+ * Each open writer buffers up to a row group in memory, so the memory budget is roughly the maximum number of open
+ * writers multiplied by the row group size.
+ *
+ * @param <T> Type of the object to write
+ */
+public class PartitionedParquetWriter<T> implements Closeable, Consumer<T> {
+
+    private static final String DEFAULT_PARTITION_NAME = "__HIVE_DEFAULT_PARTITION__";
+    private static final String ESCAPED_CHARS = "\"#%'*/:=?\\\u007F{[]^";
+
+    private final Path baseDir;
+    private final List<ColumnInfo> partitionColumns;
+    private final EntityInfo fileEntityInfo;
+    private final int maxOpenWriters;
+    private final Consumer<ParquetConfiguration.Builder<T>> configurer;
+    private final Executor executor;
+    private final TypeSerializer typeSerializer = new CsvTypeSerializer();
+    private final LinkedHashMap<String, JFleetParquetWriter<T>> openWriters = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> partCounters = new HashMap<>();
+    private final List<CompletableFuture<IOException>> pendingCloses = new ArrayList<>();
+    private final List<Path> files = new ArrayList<>();
+
+    private PartitionedParquetWriter(Builder<T> builder) {
+        this.baseDir = builder.baseDir;
+        this.maxOpenWriters = builder.maxOpenWriters;
+        this.configurer = builder.configurer;
+        this.executor = builder.executor;
+        this.partitionColumns = new ArrayList<>();
+        List<ColumnInfo> fileColumns = new ArrayList<>(builder.entityInfo.getColumns());
+        for (String partitionColumn : builder.partitionColumns) {
+            ColumnInfo column = fileColumns.stream().filter(c -> c.getColumnName().equals(partitionColumn))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Partition column " + partitionColumn
+                            + " not found"));
+            fileColumns.remove(column);
+            partitionColumns.add(column);
+        }
+        EntityInfo entityInfo = builder.entityInfo;
+        this.fileEntityInfo = new EntityInfo(entityInfo.getEntityClass(), entityInfo.getTableName(), fileColumns);
+    }
+
+    public void writeAll(Collection<T> collection) throws IOException {
+        for (T entity : collection) {
+            write(entity);
+        }
+    }
+
+    public void writeAll(Stream<T> stream) throws IOException {
+        Iterator<T> iterator = stream.iterator();
+        while (iterator.hasNext()) {
+            write(iterator.next());
+        }
+    }
+
+    /**
+     *
+     * Writes the specified Java object to the file of its partition
+     *
+     * @param entity object to write
+     * @throws IOException if an error occurs while writing the records
+     */
+    public synchronized void write(T entity) throws IOException {
+        checkFailedCloses();
+        String partition = partitionPath(entity);
+        JFleetParquetWriter<T> writer = openWriters.get(partition);
+        if (writer == null) {
+            writer = openWriter(partition);
+        }
+        writer.write(entity);
+    }
+
+    /**
+     *
+     * Writes the specified Java object to the file of its partition implementing Consumer of T
+     *
+     * @param entity object to write
+     * @throws UncheckedIOException if an error occurs while writing the records
+     */
+    @Override
+    public void accept(T entity) {
+        try {
+            write(entity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the files created so far, including files of currently open writers.
+     *
+     * @return list of created files
+     */
+    public synchronized List<Path> getFiles() {
+        return new ArrayList<>(files);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (JFleetParquetWriter<T> writer : openWriters.values()) {
+            closeInBackground(writer);
+        }
+        openWriters.clear();
+        IOException exception = null;
+        for (CompletableFuture<IOException> pending : pendingCloses) {
+            IOException e = waitFor(pending);
+            if (e != null) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        pendingCloses.clear();
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private JFleetParquetWriter<T> openWriter(String partition) throws IOException {
+        if (openWriters.size() >= maxOpenWriters) {
+            Iterator<Entry<String, JFleetParquetWriter<T>>> eldest = openWriters.entrySet().iterator();
+            closeInBackground(eldest.next().getValue());
+            eldest.remove();
+        }
+        int part = partCounters.merge(partition, 1, Integer::sum) - 1;
+        Path dir = baseDir.resolve(partition);
+        Files.createDirectories(dir);
+        Path file = dir.resolve("part-" + part + ".parquet");
+        ParquetConfiguration.Builder<T> configBuilder = new ParquetConfiguration.Builder<>(file, fileEntityInfo);
+        configurer.accept(configBuilder);
+        JFleetParquetWriter<T> writer = new JFleetParquetWriter<>(configBuilder.build());
+        openWriters.put(partition, writer);
+        files.add(file);
+        return writer;
+    }
+
+    // Failed closes are kept until close(), because the last row group and footer of their file were lost
+    private void closeInBackground(JFleetParquetWriter<T> writer) {
+        pendingCloses.removeIf(PartitionedParquetWriter::isClosedSuccessfully);
+        pendingCloses.add(CompletableFuture.supplyAsync(() -> {
+            try {
+                writer.close();
+                return null;
+            } catch (IOException e) {
+                return e;
+            } catch (RuntimeException e) {
+                return new IOException(e);
+            }
+        }, executor));
+    }
+
+    private void checkFailedCloses() throws IOException {
+        for (CompletableFuture<IOException> pending : pendingCloses) {
+            if (pending.isDone() && !isClosedSuccessfully(pending)) {
+                throw new IOException("Error closing a partition file", waitFor(pending));
+            }
+        }
+    }
+
+    private static boolean isClosedSuccessfully(CompletableFuture<IOException> pending) {
+        return pending.isDone() && !pending.isCompletedExceptionally() && pending.join() == null;
+    }
+
+    private IOException waitFor(CompletableFuture<IOException> pending) {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new IOException(e);
+        } catch (ExecutionException e) {
+            return new IOException(e.getCause());
+        }
+    }
+
+    private String partitionPath(T entity) {
+        StringBuilder sb = new StringBuilder();
+        for (ColumnInfo column : partitionColumns) {
+            if (sb.length() > 0) {
+                sb.append('/');
+            }
+            Object value = column.getAccessor().apply(entity);
+            sb.append(escape(column.getColumnName())).append('=');
+            if (value == null) {
+                sb.append(DEFAULT_PARTITION_NAME);
+            } else {
+                sb.append(escape(typeSerializer.toString(value, column.getFieldType())));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < ' ' || ESCAPED_CHARS.indexOf(c) >= 0) {
+                if (sb == null) {
+                    sb = new StringBuilder(value.substring(0, i));
+                }
+                sb.append('%').append(String.format("%02X", (int) c));
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb == null ? value : sb.toString();
+    }
+
+    public static class Builder<T> {
+
+        private final Path baseDir;
+        private final EntityInfo entityInfo;
+        private final List<String> partitionColumns = new ArrayList<>();
+        private int maxOpenWriters = 16;
+        private Consumer<ParquetConfiguration.Builder<T>> configurer = b -> {
+        };
+        private Executor executor = ForkJoinPool.commonPool();
+
+        public Builder(Path baseDir, Class<T> recordClass) {
+            this(baseDir, new JpaEntityInspector(recordClass).inspect());
+        }
+
+        public Builder(Path baseDir, EntityInfo entityInfo) {
+            this.baseDir = baseDir;
+            this.entityInfo = entityInfo;
+        }
+
+        public Builder<T> partitionBy(String... columnNames) {
+            for (String columnName : columnNames) {
+                partitionColumns.add(columnName);
+            }
+            return this;
+        }
+
+        public Builder<T> maxOpenWriters(int maxOpenWriters) {
+            this.maxOpenWriters = maxOpenWriters;
+            return this;
+        }
+
+        /**
+         * Customizes the configuration of each Parquet file writer: compression codec, row group size...
+         *
+         * @param configurer function applied to the configuration builder of each file
+         * @return the builder
+         */
+        public Builder<T> configure(Consumer<ParquetConfiguration.Builder<T>> configurer) {
+            this.configurer = configurer;
+            return this;
+        }
+
+        /**
+         * Executor where evicted writers are closed, flushing their last row group.
+         *
+         * @param executor executor to close writers
+         * @return the builder
+         */
+        public Builder<T> executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public PartitionedParquetWriter<T> build() {
+            if (partitionColumns.isEmpty()) {
+                throw new IllegalArgumentException("At least one partition column is required");
+            }
+            if (maxOpenWriters <= 0) {
+                throw new IllegalArgumentException("Max open writers must be positive");
+            }
+            return new PartitionedParquetWriter<>(this);
+        }
+
+    }
+
+}
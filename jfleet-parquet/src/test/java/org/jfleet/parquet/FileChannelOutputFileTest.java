@@ -0,0 +1,82 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.apache.parquet.io.PositionOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileChannelOutputFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldWriteContentAndTrackPosition() throws IOException {
+        Path path = dir.resolve("file.bin");
+        byte[] content = new byte[1000];
+        new Random(1).nextBytes(content);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+
+        FileChannelOutputFile outputFile = new FileChannelOutputFile(path, 64);
+        try (PositionOutputStream os = outputFile.create(0)) {
+            os.write(content, 0, 10);
+            expected.write(content, 0, 10);
+            assertEquals(10, os.getPos());
+            os.write(7);
+            expected.write(7);
+            os.write(content, 10, 60);
+            expected.write(content, 10, 60);
+            os.write(content, 70, 200);
+            expected.write(content, 70, 200);
+            os.write(content);
+            expected.write(content);
+            assertEquals(1271, os.getPos());
+        }
+        assertArrayEquals(expected.toByteArray(), Files.readAllBytes(path));
+    }
+
+    @Test
+    void shouldFailCreatingExistingFile() throws IOException {
+        Path path = Files.createFile(dir.resolve("existing.bin"));
+        FileChannelOutputFile outputFile = new FileChannelOutputFile(path);
+        assertThrows(FileAlreadyExistsException.class, () -> outputFile.create(0));
+    }
+
+    @Test
+    void shouldOverwriteExistingFile() throws IOException {
+        Path path = dir.resolve("existing.bin");
+        Files.write(path, new byte[100]);
+        FileChannelOutputFile outputFile = new FileChannelOutputFile(path);
+        try (PositionOutputStream os = outputFile.createOrOverwrite(0)) {
+            os.write(new byte[] {1, 2, 3});
+        }
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(path));
+        assertEquals(path.toString(), outputFile.getPath());
+    }
+
+}
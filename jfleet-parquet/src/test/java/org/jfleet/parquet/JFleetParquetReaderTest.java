@@ -0,0 +1,295 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.and;
+import static org.apache.parquet.filter2.predicate.FilterApi.binaryColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.gtEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.intColumn;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.BIGDECIMAL;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.BIGINTEGER;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.BOOLEAN;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.BYTE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.CHAR;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.DATE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.DOUBLE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.ENUMORDINAL;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.ENUMSTRING;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.FLOAT;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.INT;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALDATE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALDATETIME;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALTIME;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LONG;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.SHORT;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.STRING;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.TIMESTAMP;
+import static org.jfleet.parquet.TestEntityWithEnum.WeekDays.FRIDAY;
+import static org.jfleet.parquet.TestEntityWithEnum.WeekDays.MONDAY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.parquet.io.api.Binary;
+import org.jfleet.EntityInfo;
+import org.jfleet.EntityInfoBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JFleetParquetReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private final EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+            .addColumn("fooString", STRING, TestEntity::getFooString)
+            .addColumn("fooInt", INT, TestEntity::getFooInt)
+            .addColumn("foo_short", SHORT, TestEntity::getFooShort)
+            .addColumn("fooByte", BYTE, TestEntity::getFooByte)
+            .addColumn("fooDouble", DOUBLE, TestEntity::getFooDouble)
+            .addColumn("fooLong", LONG, TestEntity::getFooLong)
+            .addColumn("fooFloat", FLOAT, TestEntity::getFooFloat)
+            .addColumn("fooBoolean", BOOLEAN, TestEntity::getFooBoolean)
+            .build();
+
+    @Test
+    void shouldReadEntities() throws IOException {
+        List<TestEntity> entities = entities(100);
+        Path path = write(entityInfo, entities, Function.identity());
+
+        try (JFleetParquetReader<TestEntity> reader = new JFleetParquetReader.Builder<TestEntity>(path, entityInfo)
+                .build()) {
+            for (TestEntity expected : entities) {
+                TestEntity actual = reader.read();
+                assertEquals(expected.getFooString(), actual.getFooString());
+                assertEquals(expected.getFooInt(), actual.getFooInt());
+                assertEquals(expected.getFooShort(), actual.getFooShort());
+                assertEquals(expected.getFooByte(), actual.getFooByte());
+                assertEquals(expected.getFooDouble(), actual.getFooDouble());
+                assertEquals(expected.getFooLong(), actual.getFooLong());
+                assertEquals(expected.getFooFloat(), actual.getFooFloat());
+                assertEquals(expected.getFooBoolean(), actual.getFooBoolean());
+            }
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void shouldReadOnlyProjectedColumns() throws IOException {
+        Path path = write(entityInfo, entities(10), Function.identity());
+
+        try (JFleetParquetReader<TestEntity> reader = new JFleetParquetReader.Builder<TestEntity>(path, entityInfo)
+                .project("fooInt", "fooLong")
+                .build()) {
+            TestEntity actual = reader.read();
+            assertEquals(0, actual.getFooInt());
+            assertEquals(0L, actual.getFooLong());
+            assertNull(actual.getFooString());
+            assertNull(actual.getFooDouble());
+        }
+    }
+
+    @Test
+    void unknownProjectedColumnFails() {
+        JFleetParquetReader.Builder<TestEntity> builder = new JFleetParquetReader.Builder<TestEntity>(
+                dir.resolve("foo.parquet"), entityInfo);
+        assertThrows(IllegalArgumentException.class, () -> builder.project("bar"));
+    }
+
+    @Test
+    void shouldFilterRows() throws IOException {
+        Path path = write(entityInfo, entities(10000), b -> b.withRowGroupSize(16 * 1024)
+                .withBloomFilterEnabled("fooString", true));
+
+        try (JFleetParquetReader<TestEntity> reader = new JFleetParquetReader.Builder<TestEntity>(path, entityInfo)
+                .filter(and(gtEq(intColumn("fooInt"), 9000), eq(binaryColumn("fooString"),
+                        Binary.fromString("foo9500"))))
+                .build()) {
+            List<TestEntity> result = reader.stream().collect(Collectors.toList());
+            assertEquals(1, result.size());
+            assertEquals(9500, result.get(0).getFooInt());
+        }
+    }
+
+    @Test
+    void shouldStreamEntities() throws IOException {
+        Path path = write(entityInfo, entities(1000), b -> b.withRowGroupSize(8 * 1024));
+
+        JFleetParquetReader<TestEntity> reader = new JFleetParquetReader.Builder<TestEntity>(path, entityInfo)
+                .project("fooInt")
+                .build();
+        try (Stream<TestEntity> stream = reader.stream()) {
+            assertEquals(499500, stream.mapToInt(TestEntity::getFooInt).sum());
+        }
+    }
+
+    @Test
+    void shouldReadEnums() throws IOException {
+        EntityInfo enumInfo = new EntityInfoBuilder<>(TestEntityWithEnum.class)
+                .addColumn("foo", ENUMORDINAL, TestEntityWithEnum::getFoo)
+                .addColumn("bar", ENUMSTRING, TestEntityWithEnum::getBar)
+                .build();
+        TestEntityWithEnum entity = new TestEntityWithEnum();
+        entity.setFoo(MONDAY);
+        entity.setBar(FRIDAY);
+        Path path = write(enumInfo, Arrays.asList(entity, new TestEntityWithEnum()), Function.identity());
+
+        try (JFleetParquetReader<TestEntityWithEnum> reader = new JFleetParquetReader.Builder<TestEntityWithEnum>(
+                path, enumInfo).build()) {
+            TestEntityWithEnum actual = reader.read();
+            assertEquals(MONDAY, actual.getFoo());
+            assertEquals(FRIDAY, actual.getBar());
+            actual = reader.read();
+            assertNull(actual.getFoo());
+            assertNull(actual.getBar());
+        }
+    }
+
+    @Test
+    void shouldReadLogicalTypes() throws IOException {
+        EntityInfo logicalInfo = new EntityInfoBuilder<>(TestEntityWithLogicalTypes.class)
+                .addColumn("date", DATE, TestEntityWithLogicalTypes::getDate)
+                .addColumn("local_date", LOCALDATE, TestEntityWithLogicalTypes::getLocalDate)
+                .addColumn("localTime", LOCALTIME, TestEntityWithLogicalTypes::getLocalTime)
+                .addColumn("localDateTime", LOCALDATETIME, TestEntityWithLogicalTypes::getLocalDateTime)
+                .addColumn("timestamp", TIMESTAMP, TestEntityWithLogicalTypes::getTimestamp)
+                .addColumn("decimal", BIGDECIMAL, TestEntityWithLogicalTypes::getDecimal)
+                .addColumn("integer", BIGINTEGER, TestEntityWithLogicalTypes::getInteger)
+                .addColumn("fooChar", CHAR, true, TestEntityWithLogicalTypes::getFooChar)
+                .build();
+        TestEntityWithLogicalTypes entity = new TestEntityWithLogicalTypes();
+        LocalDate localDate = LocalDate.of(2023, 5, 6);
+        entity.setDate(java.sql.Date.valueOf(localDate));
+        entity.setLocalDate(localDate);
+        entity.setLocalTime(LocalTime.of(10, 20, 30, 123456000));
+        entity.setLocalDateTime(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999999000));
+        Timestamp timestamp = Timestamp.valueOf("2023-05-06 10:20:30.123456");
+        entity.setTimestamp(timestamp);
+        entity.setDecimal(new BigDecimal("-12345.678900000"));
+        entity.setInteger(new BigInteger("123456789012345678901234567890"));
+        Path path = write(logicalInfo, Arrays.asList(entity), Function.identity());
+
+        try (JFleetParquetReader<TestEntityWithLogicalTypes> reader =
+                new JFleetParquetReader.Builder<TestEntityWithLogicalTypes>(path, logicalInfo).build()) {
+            TestEntityWithLogicalTypes actual = reader.read();
+            assertEquals(Date.class, actual.getDate().getClass());
+            assertEquals(java.sql.Date.valueOf(localDate).getTime(), actual.getDate().getTime());
+            assertEquals(localDate, actual.getLocalDate());
+            assertEquals(entity.getLocalTime(), actual.getLocalTime());
+            assertEquals(entity.getLocalDateTime(), actual.getLocalDateTime());
+            assertEquals(timestamp, actual.getTimestamp());
+            assertEquals(entity.getDecimal(), actual.getDecimal());
+            assertEquals(entity.getInteger(), actual.getInteger());
+            assertEquals('\0', actual.getFooChar());
+        }
+    }
+
+    @Test
+    void shouldUseCustomSetters() throws IOException {
+        Path path = write(entityInfo, entities(3), Function.identity());
+
+        List<Object> values = new ArrayList<>();
+        try (JFleetParquetReader<TestEntity> reader = new JFleetParquetReader.Builder<TestEntity>(path, entityInfo)
+                .project("fooString")
+                .withSetter("fooString", (entity, value) -> values.add(value))
+                .build()) {
+            assertEquals(3, reader.stream().count());
+        }
+        assertEquals(Arrays.asList("foo0", "foo1", "foo2"), values);
+    }
+
+    record Measure(String name, String unit, int count, int total) {
+    }
+
+    @Test
+    void shouldBindRecordComponentsByNameWithReorderedColumns() throws IOException {
+        EntityInfo measureInfo = new EntityInfoBuilder<>(Measure.class)
+                .addColumn("unit", STRING, Measure::unit)
+                .addColumn("name", STRING, Measure::name)
+                .addColumn("total", INT, Measure::total)
+                .addColumn("count", INT, Measure::count)
+                .build();
+        Measure measure = new Measure("speed", "km/h", 3, 10);
+        Path path = write(measureInfo, Arrays.asList(measure), Function.identity());
+
+        try (JFleetParquetReader<Measure> reader = new JFleetParquetReader.Builder<Measure>(path, measureInfo)
+                .build()) {
+            assertEquals(measure, reader.read());
+        }
+    }
+
+    @Test
+    void shouldBindRenamedRecordColumnsByPosition() throws IOException {
+        EntityInfo measureInfo = new EntityInfoBuilder<>(Measure.class)
+                .addColumn("measure_name", STRING, Measure::name)
+                .addColumn("unit", STRING, Measure::unit)
+                .addColumn("measure_count", INT, Measure::count)
+                .addColumn("total", INT, Measure::total)
+                .build();
+        Measure measure = new Measure("speed", "km/h", 3, 10);
+        Path path = write(measureInfo, Arrays.asList(measure), Function.identity());
+
+        try (JFleetParquetReader<Measure> reader = new JFleetParquetReader.Builder<Measure>(path, measureInfo)
+                .build()) {
+            assertEquals(measure, reader.read());
+        }
+    }
+
+    private List<TestEntity> entities(int count) {
+        List<TestEntity> entities = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TestEntity entity = new TestEntity();
+            entity.setFooString("foo" + i);
+            entity.setFooInt(i);
+            entity.setFooShort((short) i);
+            entity.setFooByte((byte) i);
+            entity.setFooDouble(i % 3 == 0 ? null : i * 1.5);
+            entity.setFooLong(i * 1000L);
+            entity.setFooFloat(i / 2.0F);
+            entity.setFooBoolean(i % 2 == 0);
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    private <T> Path write(EntityInfo info, List<T> entities,
+            Function<ParquetConfiguration.Builder<T>, ParquetConfiguration.Builder<T>> customizer) throws IOException {
+        Path path = dir.resolve("file" + System.nanoTime() + ".parquet");
+        ParquetConfiguration<T> config = customizer.apply(new ParquetConfiguration.Builder<T>(path, info)).build();
+        try (JFleetParquetWriter<T> writer = new JFleetParquetWriter<>(config)) {
+            writer.writeAll(entities);
+        }
+        return path;
+    }
+
+}
@@ -16,19 +16,28 @@
 package org.jfleet.parquet;
 
 import static org.jfleet.EntityFieldType.FieldTypeEnum.BIGDECIMAL;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.BIGINTEGER;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.BOOLEAN;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.BYTE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.CHAR;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.DATE;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.DOUBLE;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.ENUMORDINAL;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.ENUMSTRING;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.FLOAT;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.INT;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALDATE;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALDATETIME;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LOCALTIME;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.LONG;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.SHORT;
 import static org.jfleet.EntityFieldType.FieldTypeEnum.STRING;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.TIME;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.TIMESTAMP;
 import static org.jfleet.parquet.TestEntityWithEnum.WeekDays.FRIDAY;
 import static org.jfleet.parquet.TestEntityWithEnum.WeekDays.SATURDAY;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -40,26 +49,48 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Arrays;
-
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import org.apache.avro.Conversions;
 import org.apache.avro.Schema;
+import org.apache.avro.data.TimeConversions;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.util.Utf8;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.Encoding;
 import org.apache.parquet.avro.AvroParquetReader;
 import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.hadoop.util.HadoopInputFile;
 import org.apache.parquet.io.InputFile;
 import org.apache.parquet.io.InvalidRecordException;
+import org.apache.parquet.io.ParquetEncodingException;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.Type.Repetition;
 import org.jfleet.EntityInfo;
 import org.jfleet.EntityInfoBuilder;
+import org.jfleet.columnar.ColumnarBatch;
 import org.junit.jupiter.api.Test;
 
 class JFleetParquetWriterTest {
@@ -91,6 +122,36 @@ class JFleetParquetWriterTest {
         }
     }
 
+    @Test
+    void shouldWriteToLocalPath() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("fooString", STRING, TestEntity::getFooString)
+                .addColumn("fooInt", INT, TestEntity::getFooInt)
+                .build();
+
+        java.nio.file.Path path = Files.createTempFile("local", ".parquet");
+        ParquetConfiguration<TestEntity> parquetConfiguration = new ParquetConfiguration.Builder<TestEntity>(path,
+                entityInfo).withCompressionCodec(CompressionCodecName.GZIP).build();
+        try (JFleetParquetWriter<TestEntity> parquetWriter = new JFleetParquetWriter<>(parquetConfiguration)) {
+            for (int i = 0; i < 1000; i++) {
+                TestEntity testEntity = new TestEntity();
+                testEntity.setFooString("foo" + i);
+                testEntity.setFooInt(i);
+                parquetWriter.write(testEntity);
+            }
+        }
+
+        InputFile file = HadoopInputFile.fromPath(new Path(path.toString()), new Configuration());
+        try (ParquetReader<GenericRecord> parquetReader = AvroParquetReader.<GenericRecord>builder(file).build()) {
+            for (int i = 0; i < 1000; i++) {
+                GenericRecord genericRecord = parquetReader.read();
+                assertEquals(new Utf8("foo" + i), genericRecord.get("fooString"));
+                assertEquals(i, genericRecord.get("fooInt"));
+            }
+            assertNull(parquetReader.read());
+        }
+    }
+
     @Test
     void shouldFillOutputStream() throws IOException {
         EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
@@ -404,7 +465,7 @@ class JFleetParquetWriterTest {
     @Test
     void shouldThrowUnsupportedTypeException() {
         EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
-                .addColumn("foo", BIGDECIMAL, a -> BigDecimal.ZERO)
+                .addColumn("foo", DATE, a -> "2023-05-06")
                 .build();
 
         ParquetConfiguration<TestEntity> parquetConfiguration = new ParquetConfiguration.Builder<TestEntity>(
@@ -453,20 +514,416 @@ class JFleetParquetWriterTest {
         }
     }
 
+    @Test
+    void shouldCreateSchemaWithLogicalTypes() {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("localDate", LOCALDATE, e -> null)
+                .addColumn("date", DATE, e -> null)
+                .addColumn("localTime", LOCALTIME, e -> null)
+                .addColumn("time", TIME, e -> null)
+                .addColumn("localDateTime", LOCALDATETIME, e -> null)
+                .addColumn("timestamp", TIMESTAMP, e -> null)
+                .addColumn("char", CHAR, e -> null)
+                .addColumn("decimal", BIGDECIMAL, e -> null)
+                .addColumn("integer", BIGINTEGER, e -> null)
+                .build();
+
+        MessageType schema = new ParquetSchemaBuilder(entityInfo).build();
+        assertEquals("optional int32 localDate (DATE)", schema.getType("localDate").toString());
+        assertEquals("optional int32 date (DATE)", schema.getType("date").toString());
+        assertEquals("optional int64 localTime (TIME(MICROS,false))", schema.getType("localTime").toString());
+        assertEquals("optional int64 time (TIME(MICROS,false))", schema.getType("time").toString());
+        assertEquals("optional int64 localDateTime (TIMESTAMP(MICROS,false))",
+                schema.getType("localDateTime").toString());
+        assertEquals("optional int64 timestamp (TIMESTAMP(MICROS,true))", schema.getType("timestamp").toString());
+        assertEquals("optional binary char (STRING)", schema.getType("char").toString());
+        assertEquals("optional fixed_len_byte_array(16) decimal (DECIMAL(38,9))",
+                schema.getType("decimal").toString());
+        assertEquals("optional fixed_len_byte_array(16) integer (DECIMAL(38,0))",
+                schema.getType("integer").toString());
+    }
+
+    @Test
+    void shouldUseIntegerPhysicalTypesForSmallDecimals() {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("decimal", BIGDECIMAL, e -> null)
+                .build();
+
+        assertEquals("optional int32 decimal (DECIMAL(9,2))",
+                new ParquetSchemaBuilder(entityInfo, 9, 2).build().getType("decimal").toString());
+        assertEquals("optional int64 decimal (DECIMAL(18,2))",
+                new ParquetSchemaBuilder(entityInfo, 18, 2).build().getType("decimal").toString());
+        assertEquals("optional fixed_len_byte_array(9) decimal (DECIMAL(19,2))",
+                new ParquetSchemaBuilder(entityInfo, 19, 2).build().getType("decimal").toString());
+    }
+
+    @Test
+    void shouldConvertTemporalTypesToParquet() throws IOException {
+        LocalDateTime dateTime = LocalDateTime.of(2023, 5, 6, 7, 8, 9, 123456000);
+        Timestamp timestamp = Timestamp.valueOf(dateTime);
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("localDate", LOCALDATE, e -> dateTime.toLocalDate())
+                .addColumn("date", DATE, e -> java.sql.Date.valueOf(dateTime.toLocalDate()))
+                .addColumn("localTime", LOCALTIME, e -> dateTime.toLocalTime())
+                .addColumn("time", TIME, e -> java.sql.Time.valueOf(dateTime.toLocalTime()))
+                .addColumn("localDateTime", LOCALDATETIME, e -> dateTime)
+                .addColumn("timestamp", TIMESTAMP, e -> timestamp)
+                .addColumn("char", CHAR, e -> 'Z')
+                .build();
+
+        try (ParquetReader<GenericRecord> parquetReader = serializeAndReadAvro(entityInfo, b -> b,
+                new TestEntity())) {
+            GenericRecord genericRecord = parquetReader.read();
+            assertEquals(dateTime.toLocalDate(), genericRecord.get("localDate"));
+            assertEquals(dateTime.toLocalDate(), genericRecord.get("date"));
+            assertEquals(dateTime.toLocalTime(), genericRecord.get("localTime"));
+            assertEquals(dateTime.toLocalTime().withNano(0), genericRecord.get("time"));
+            // parquet-avro reads local timestamps as instants in UTC
+            assertEquals(dateTime.toInstant(ZoneOffset.UTC), genericRecord.get("localDateTime"));
+            assertEquals(timestamp.toInstant(), genericRecord.get("timestamp"));
+            assertEquals(new Utf8("Z"), genericRecord.get("char"));
+        }
+    }
+
+    @Test
+    void shouldConvertDecimalTypesToParquet() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("decimal", BIGDECIMAL, e -> new BigDecimal("-1234.5"))
+                .addColumn("integer", BIGINTEGER, e -> new BigInteger("-123456789012345678901234567890"))
+                .build();
+
+        try (ParquetReader<GenericRecord> parquetReader = serializeAndReadAvro(entityInfo, b -> b,
+                new TestEntity())) {
+            GenericRecord genericRecord = parquetReader.read();
+            assertEquals(new BigDecimal("-1234.500000000"), genericRecord.get("decimal"));
+            assertEquals(new BigDecimal("-123456789012345678901234567890"), genericRecord.get("integer"));
+        }
+    }
+
+    @Test
+    void shouldConvertSmallDecimalTypesToParquet() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("decimal", BIGDECIMAL, e -> new BigDecimal("-1234.5"))
+                .addColumn("integer", BIGINTEGER, e -> BigInteger.valueOf(98765))
+                .build();
+
+        try (ParquetReader<GenericRecord> parquetReader = serializeAndReadAvro(entityInfo,
+                b -> b.withDecimal(8, 2), new TestEntity())) {
+            GenericRecord genericRecord = parquetReader.read();
+            // parquet-avro reads INT32 decimals as their unscaled value
+            assertEquals(-123450, genericRecord.get("decimal"));
+            assertEquals(98765, genericRecord.get("integer"));
+        }
+    }
+
+    @Test
+    void shouldFailWithDecimalThatNeedsRounding() {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("decimal", BIGDECIMAL, e -> new BigDecimal("1.2345"))
+                .build();
+
+        ParquetConfiguration<TestEntity> parquetConfiguration = new ParquetConfiguration.Builder<TestEntity>(
+                new ByteArrayOutputStream(), entityInfo).withDecimal(10, 2).build();
+
+        assertThrows(ParquetEncodingException.class, () -> {
+            try (JFleetParquetWriter<TestEntity> writer = new JFleetParquetWriter<>(parquetConfiguration)) {
+                writer.write(new TestEntity());
+            }
+        });
+    }
+
+    @Test
+    void shouldWriteSameRecordsWithParallelColumnEncoding() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("fooString", STRING, TestEntity::getFooString)
+                .addColumn("fooInt", INT, TestEntity::getFooInt)
+                .addColumn("fooLong", LONG, TestEntity::getFooLong)
+                .addColumn("fooDouble", DOUBLE, TestEntity::getFooDouble)
+                .addColumn("fooFloat", FLOAT, TestEntity::getFooFloat)
+                .addColumn("fooBoolean", BOOLEAN, TestEntity::getFooBoolean)
+                .addColumn("fooDecimal", BIGDECIMAL, e -> e.getFooInt() == null ? null
+                        : BigDecimal.valueOf(e.getFooInt(), 2))
+                .build();
+        TestEntity[] entities = new TestEntity[20000];
+        for (int i = 0; i < entities.length; i++) {
+            TestEntity testEntity = new TestEntity();
+            testEntity.setFooString(i % 7 == 0 ? null : "foo" + (i % 100));
+            testEntity.setFooInt(i % 11 == 0 ? null : i);
+            testEntity.setFooLong((long) i * 1000);
+            testEntity.setFooDouble(i / 3.0);
+            testEntity.setFooFloat(i % 13 == 0 ? null : i / 7.0F);
+            testEntity.setFooBoolean(i % 2 == 0);
+            entities[i] = testEntity;
+        }
+
+        UnaryOperator<ParquetConfiguration.Builder<TestEntity>> smallRowGroups = b -> b.withRowGroupSize(64 * 1024)
+                .withPageSize(8 * 1024);
+        try (ParquetReader<GenericRecord> expected = serializeAndReadAvro(entityInfo, smallRowGroups, entities);
+                ParquetReader<GenericRecord> parallel = serializeAndReadAvro(entityInfo,
+                        b -> smallRowGroups.apply(b).withParallelColumnEncoding(), entities)) {
+            for (int i = 0; i < entities.length; i++) {
+                assertEquals(expected.read().toString(), parallel.read().toString());
+            }
+            assertNull(parallel.read());
+        }
+    }
+
+    @Test
+    void shouldWriteSeveralRowGroupsWithParallelColumnEncoding() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("fooString", STRING, TestEntity::getFooString)
+                .addColumn("fooLong", LONG, TestEntity::getFooLong)
+                .build();
+
+        java.nio.file.Path path = Files.createTempFile("parallel", ".parquet");
+        ParquetConfiguration<TestEntity> parquetConfiguration = new ParquetConfiguration.Builder<TestEntity>(path,
+                entityInfo).withRowGroupSize(16 * 1024).withParallelColumnEncoding().build();
+        try (JFleetParquetWriter<TestEntity> parquetWriter = new JFleetParquetWriter<>(parquetConfiguration)) {
+            for (int i = 0; i < 10000; i++) {
+                TestEntity testEntity = new TestEntity();
+                testEntity.setFooString("foo" + i);
+                testEntity.setFooLong((long) i);
+                parquetWriter.write(testEntity);
+            }
+        }
+
+        InputFile file = HadoopInputFile.fromPath(new Path(path.toString()), new Configuration());
+        try (ParquetFileReader reader = new ParquetFileReader(file, ParquetReadOptions.builder().build())) {
+            assertTrue(reader.getRowGroups().size() > 1);
+            assertEquals(10000, reader.getRecordCount());
+        }
+    }
+
+    @Test
+    void shouldFailWithNullInRequiredColumnWithParallelColumnEncoding() {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("fooInt", INT, true, TestEntity::getFooInt)
+                .build();
+
+        ParquetConfiguration<TestEntity> parquetConfiguration = new ParquetConfiguration.Builder<TestEntity>(
+                new ByteArrayOutputStream(), entityInfo).withParallelColumnEncoding().build();
+
+        assertThrows(InvalidRecordException.class, () -> {
+            try (JFleetParquetWriter<TestEntity> writer = new JFleetParquetWriter<>(parquetConfiguration)) {
+                writer.write(new TestEntity());
+            }
+        });
+    }
+
+    @Test
+    void shouldFinishEncodingAllColumnsBeforeFailingWithParallelColumnEncoding() throws Exception {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("fooString", STRING, TestEntity::getFooString)
+                .addColumn("fooLong", LONG, TestEntity::getFooLong)
+                .build();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        AtomicInteger submitted = new AtomicInteger();
+        CountDownLatch firstEncoding = new CountDownLatch(1);
+        Executor executor = task -> {
+            if (submitted.incrementAndGet() > 1) {
+                throw new RejectedExecutionException("Encoder not available");
+            }
+            pool.execute(() -> {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                firstEncoding.countDown();
+                task.run();
+            });
+        };
+        ParquetConfiguration<TestEntity> parquetConfiguration = new ParquetConfiguration.Builder<TestEntity>(
+                new ByteArrayOutputStream(), entityInfo).withParallelColumnEncoding(executor).build();
+        try {
+            JFleetParquetWriter<TestEntity> writer = new JFleetParquetWriter<>(parquetConfiguration);
+            TestEntity testEntity = new TestEntity();
+            testEntity.setFooString("foo");
+            testEntity.setFooLong(1L);
+            writer.write(testEntity);
+            RejectedExecutionException e = assertThrows(RejectedExecutionException.class, writer::close);
+            assertEquals("Encoder not available", e.getMessage());
+            assertEquals(0, firstEncoding.getCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void shouldNotFlushAgainOnCloseAfterFailedRowGroupWithParallelColumnEncoding() {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("fooString", STRING, TestEntity::getFooString)
+                .addColumn("fooLong", LONG, TestEntity::getFooLong)
+                .build();
+        Executor executor = task -> {
+            throw new RejectedExecutionException("Encoder not available");
+        };
+        ParquetConfiguration<TestEntity> parquetConfiguration = new ParquetConfiguration.Builder<TestEntity>(
+                new ByteArrayOutputStream(), entityInfo).withRowGroupSize(1L)
+                .withParallelColumnEncoding(executor).build();
+        TestEntity testEntity = new TestEntity();
+        testEntity.setFooString("foo");
+        testEntity.setFooLong(1L);
+        RejectedExecutionException e = assertThrows(RejectedExecutionException.class, () -> {
+            try (JFleetParquetWriter<TestEntity> writer = new JFleetParquetWriter<>(parquetConfiguration)) {
+                writer.write(testEntity);
+            }
+        });
+        assertEquals("Encoder not available", e.getMessage());
+        assertEquals(0, e.getSuppressed().length);
+    }
+
+    @Test
+    void shouldChooseEncodingsWithAutoTuning() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("fooString", STRING, TestEntity::getFooString)
+                .addColumn("fooLong", LONG, TestEntity::getFooLong)
+                .addColumn("fooDouble", DOUBLE, TestEntity::getFooDouble)
+                .addColumn("fooBoolean", BOOLEAN, TestEntity::getFooBoolean)
+                .build();
+
+        java.nio.file.Path path = Files.createTempFile("tuned", ".parquet");
+        AtomicReference<ParquetEncodingDecisions> decisions = new AtomicReference<>();
+        ParquetConfiguration<TestEntity> parquetConfiguration = new ParquetConfiguration.Builder<TestEntity>(path,
+                entityInfo).withAutoTuning(1000, decisions::set).build();
+        Random random = new Random(1);
+        try (JFleetParquetWriter<TestEntity> parquetWriter = new JFleetParquetWriter<>(parquetConfiguration)) {
+            for (int i = 0; i < 3000; i++) {
+                TestEntity testEntity = new TestEntity();
+                testEntity.setFooString(i % 10 == 0 ? null : "category" + (i % 5));
+                testEntity.setFooLong((long) i);
+                testEntity.setFooDouble(random.nextDouble());
+                testEntity.setFooBoolean(i % 2 == 0);
+                parquetWriter.write(testEntity);
+            }
+        }
+
+        assertEquals(1000, decisions.get().getSampledRows());
+        assertTrue(decisions.get().isByteStreamSplit());
+        ParquetEncodingDecisions.ColumnDecision category = decisions.get().getColumns().get(0);
+        assertEquals(5, category.getDistinctValues());
+        assertEquals(0.1, category.getNullRatio(), 0.001);
+        assertTrue(category.isDictionary());
+        assertFalse(category.isBloomFilter());
+        ParquetEncodingDecisions.ColumnDecision id = decisions.get().getColumns().get(1);
+        assertFalse(id.isDictionary());
+        assertTrue(id.getBloomFilterNdv() > 1000);
+        ParquetEncodingDecisions.ColumnDecision measure = decisions.get().getColumns().get(2);
+        assertFalse(measure.isDictionary());
+        assertTrue(measure.isByteStreamSplit());
+        assertFalse(measure.isBloomFilter());
+
+        InputFile file = HadoopInputFile.fromPath(new Path(path.toString()), new Configuration());
+        try (ParquetFileReader reader = new ParquetFileReader(file, ParquetReadOptions.builder().build())) {
+            assertEquals(3000, reader.getRecordCount());
+            List<ColumnChunkMetaData> chunks = reader.getRowGroups().get(0).getColumns();
+            assertTrue(chunks.get(0).getEncodings().contains(Encoding.PLAIN_DICTIONARY));
+            assertFalse(chunks.get(1).getEncodings().contains(Encoding.PLAIN_DICTIONARY));
+            assertTrue(chunks.get(1).getBloomFilterOffset() > 0);
+            assertTrue(chunks.get(2).getEncodings().contains(Encoding.BYTE_STREAM_SPLIT));
+        }
+    }
+
+    @Test
+    void shouldWriteSampleWhenClosingBeforeAutoTuning() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("foo", STRING, TestEntity::getFooString)
+                .build();
+        TestEntity testEntity = new TestEntity();
+        testEntity.setFooString("foo");
+
+        AtomicReference<ParquetEncodingDecisions> decisions = new AtomicReference<>();
+        try (ParquetReader<GenericRecord> parquetReader = serializeAndReadAvro(entityInfo,
+                b -> b.withAutoTuning(100, decisions::set), testEntity, testEntity)) {
+            assertEquals(new Utf8("foo"), parquetReader.read().get("foo"));
+            assertEquals(new Utf8("foo"), parquetReader.read().get("foo"));
+            assertNull(parquetReader.read());
+        }
+        assertEquals(2, decisions.get().getSampledRows());
+    }
+
+    @Test
+    void shouldReplaySampledValuesOfReusedEntitiesWithAutoTuning() throws IOException {
+        EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+                .addColumn("fooString", STRING, TestEntity::getFooString)
+                .addColumn("fooLong", LONG, TestEntity::getFooLong)
+                .build();
+
+        java.nio.file.Path path = Files.createTempFile("reused", ".parquet");
+        AtomicReference<ParquetEncodingDecisions> decisions = new AtomicReference<>();
+        ParquetConfiguration<TestEntity> parquetConfiguration = new ParquetConfiguration.Builder<TestEntity>(path,
+                entityInfo).withAutoTuning(100, decisions::set).build();
+        TestEntity reused = new TestEntity();
+        try (JFleetParquetWriter<TestEntity> parquetWriter = new JFleetParquetWriter<>(parquetConfiguration)) {
+            for (int i = 0; i < 150; i++) {
+                reused.setFooString("foo" + i);
+                reused.setFooLong((long) i);
+                parquetWriter.write(reused);
+            }
+        }
+
+        assertEquals(100, decisions.get().getSampledRows());
+        assertEquals(100, decisions.get().getColumns().get(1).getDistinctValues());
+        InputFile file = HadoopInputFile.fromPath(new Path(path.toString()), new Configuration());
+        try (ParquetReader<GenericRecord> parquetReader = AvroParquetReader.<GenericRecord>builder(file).build()) {
+            for (int i = 0; i < 150; i++) {
+                GenericRecord record = parquetReader.read();
+                assertEquals(new Utf8("foo" + i), record.get("fooString"));
+                assertEquals((long) i, record.get("fooLong"));
+            }
+            assertNull(parquetReader.read());
+        }
+    }
+
+    @Test
+    void shouldWriteColumnarBatch() throws IOException {
+        BitSet nulls = new BitSet();
+        nulls.set(1);
+        ColumnarBatch batch = ColumnarBatch.builder("measures", 2)
+                .longColumn("id", new long[] {1, 2})
+                .doubleColumn("value", new double[] {1.5, 2.5}, nulls)
+                .column("name", STRING, new String[] {"John", "Amanda"})
+                .build();
+
+        try (ParquetReader<GenericRecord> parquetReader = serializeAndReadAvro(batch.getEntityInfo(),
+                batch.stream().toArray(ColumnarBatch.Row[]::new))) {
+            GenericRecord first = parquetReader.read();
+            assertEquals(1L, first.get("id"));
+            assertEquals(1.5, first.get("value"));
+            assertEquals(new Utf8("John"), first.get("name"));
+            GenericRecord second = parquetReader.read();
+            assertEquals(2L, second.get("id"));
+            assertNull(second.get("value"));
+            assertEquals(new Utf8("Amanda"), second.get("name"));
+            assertNull(parquetReader.read());
+        }
+    }
+
     private <T> ParquetReader<GenericRecord> serializeAndReadAvro(EntityInfo entityInfo, T... testEntity)
             throws IOException {
+        return serializeAndReadAvro(entityInfo, b -> b, testEntity);
+    }
+
+    private <T> ParquetReader<GenericRecord> serializeAndReadAvro(EntityInfo entityInfo,
+            UnaryOperator<ParquetConfiguration.Builder<T>> customizer, T... testEntity) throws IOException {
         File testFile = Files.createTempFile("foo", ".parquet").toFile();
         try (FileOutputStream outputStream = new FileOutputStream(testFile)) {
-            ParquetConfiguration<T> parquetConfiguration = new ParquetConfiguration.Builder<T>(outputStream, entityInfo)
-                    .withValidation(true)
+            ParquetConfiguration<T> parquetConfiguration = customizer.apply(
+                    new ParquetConfiguration.Builder<T>(outputStream, entityInfo).withValidation(true))
                     .build();
             try (JFleetParquetWriter<T> parquetWriter = new JFleetParquetWriter<>(parquetConfiguration)) {
                 parquetWriter.writeAll(Arrays.asList(testEntity));
             }
         }
+        GenericData model = new GenericData();
+        model.addLogicalTypeConversion(new TimeConversions.DateConversion());
+        model.addLogicalTypeConversion(new TimeConversions.TimeMicrosConversion());
+        model.addLogicalTypeConversion(new TimeConversions.TimestampMicrosConversion());
+        model.addLogicalTypeConversion(new TimeConversions.LocalTimestampMicrosConversion());
+        model.addLogicalTypeConversion(new Conversions.DecimalConversion());
         InputFile file = HadoopInputFile.fromPath(new Path(testFile.toString()), new Configuration());
         return AvroParquetReader.<GenericRecord>builder(file)
-                .withDataModel(GenericData.get())
+                .withDataModel(model)
                 .build();
     }
 
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.parquet;
+
+import static org.jfleet.EntityFieldType.FieldTypeEnum.INT;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.LONG;
+import static org.jfleet.EntityFieldType.FieldTypeEnum.STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.jfleet.EntityInfo;
+import org.jfleet.EntityInfoBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PartitionedParquetWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private final EntityInfo entityInfo = new EntityInfoBuilder<>(TestEntity.class)
+            .addColumn("fooString", STRING, TestEntity::getFooString)
+            .addColumn("fooInt", INT, TestEntity::getFooInt)
+            .addColumn("fooLong", LONG, TestEntity::getFooLong)
+            .build();
+
+    @Test
+    void shouldWriteHiveLayoutWithoutPartitionColumns() throws IOException {
+        PartitionedParquetWriter<TestEntity> writer = new PartitionedParquetWriter.Builder<TestEntity>(dir,
+                entityInfo).partitionBy("fooString", "fooInt")
+                .configure(c -> c.withCompressionCodec(CompressionCodecName.SNAPPY))
+                .build();
+        try (PartitionedParquetWriter<TestEntity> w = writer) {
+            w.write(entity("EU", 1, 10L));
+            w.write(entity("US", 1, 11L));
+            w.write(entity("EU", 1, 12L));
+            w.write(entity("EU", 2, 13L));
+        }
+
+        assertEquals(3, writer.getFiles().size());
+        List<GenericRecord> eu1 = read(dir.resolve("fooString=EU/fooInt=1/part-0.parquet"));
+        assertEquals(2, eu1.size());
+        assertEquals(1, eu1.get(0).getSchema().getFields().size());
+        assertNull(eu1.get(0).getSchema().getField("fooString"));
+        assertNull(eu1.get(0).getSchema().getField("fooInt"));
+        assertEquals("10", eu1.get(0).get("fooLong").toString());
+        assertEquals("12", eu1.get(1).get("fooLong").toString());
+        assertEquals(1, read(dir.resolve("fooString=US/fooInt=1/part-0.parquet")).size());
+        assertEquals(1, read(dir.resolve("fooString=EU/fooInt=2/part-0.parquet")).size());
+    }
+
+    @Test
+    void shouldEscapePartitionValues() throws IOException {
+        try (PartitionedParquetWriter<TestEntity> writer = new PartitionedParquetWriter.Builder<TestEntity>(dir,
+                entityInfo).partitionBy("fooString").build()) {
+            writer.write(entity("a/b=c%d", 1, 1L));
+            writer.write(entity(null, 2, 2L));
+        }
+        assertTrue(Files.exists(dir.resolve("fooString=a%2Fb%3Dc%25d/part-0.parquet")));
+        assertTrue(Files.exists(dir.resolve("fooString=__HIVE_DEFAULT_PARTITION__/part-0.parquet")));
+    }
+
+    @Test
+    void shouldCloseLeastRecentlyUsedWriter() throws IOException {
+        PartitionedParquetWriter<TestEntity> writer = new PartitionedParquetWriter.Builder<TestEntity>(dir,
+                entityInfo).partitionBy("fooString").maxOpenWriters(2).build();
+        try (PartitionedParquetWriter<TestEntity> w = writer) {
+            w.write(entity("A", 1, 1L));
+            w.write(entity("B", 1, 2L));
+            w.write(entity("A", 1, 3L));
+            w.write(entity("C", 1, 4L));
+            w.write(entity("B", 1, 5L));
+            w.write(entity("A", 1, 6L));
+        }
+
+        assertEquals(Arrays.asList(dir.resolve("fooString=A/part-0.parquet"),
+                dir.resolve("fooString=B/part-0.parquet"),
+                dir.resolve("fooString=C/part-0.parquet"),
+                dir.resolve("fooString=B/part-1.parquet"),
+                dir.resolve("fooString=A/part-1.parquet")), writer.getFiles());
+        assertEquals(2, read(dir.resolve("fooString=A/part-0.parquet")).size());
+        assertEquals(1, read(dir.resolve("fooString=B/part-0.parquet")).size());
+        assertEquals(1, read(dir.resolve("fooString=B/part-1.parquet")).size());
+        assertEquals(1, read(dir.resolve("fooString=A/part-1.parquet")).size());
+    }
+
+    @Test
+    void shouldReportErrorClosingEvictedWriter() throws IOException {
+        AtomicInteger files = new AtomicInteger();
+        Executor failingEncoder = task -> {
+            throw new RejectedExecutionException("Encoder not available");
+        };
+        PartitionedParquetWriter<TestEntity> writer = new PartitionedParquetWriter.Builder<TestEntity>(dir,
+                entityInfo).partitionBy("fooString").maxOpenWriters(1).executor(Runnable::run)
+                .configure(c -> {
+                    if (files.getAndIncrement() == 0) {
+                        c.withParallelColumnEncoding(failingEncoder);
+                    }
+                })
+                .build();
+        writer.write(entity("A", 1, 1L));
+        writer.write(entity("B", 1, 2L));
+
+        IOException onWrite = assertThrows(IOException.class, () -> writer.write(entity("B", 1, 3L)));
+        assertEquals("Encoder not available", onWrite.getCause().getCause().getMessage());
+        IOException onClose = assertThrows(IOException.class, writer::close);
+        assertEquals("Encoder not available", onClose.getCause().getMessage());
+        assertEquals(1, read(dir.resolve("fooString=B/part-0.parquet")).size());
+    }
+
+    @Test
+    void unknownPartitionColumnFails() {
+        PartitionedParquetWriter.Builder<TestEntity> builder = new PartitionedParquetWriter.Builder<TestEntity>(dir,
+                entityInfo).partitionBy("bar");
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    private static TestEntity entity(String fooString, int fooInt, long fooLong) {
+        TestEntity entity = new TestEntity();
+        entity.setFooString(fooString);
+        entity.setFooInt(fooInt);
+        entity.setFooLong(fooLong);
+        return entity;
+    }
+
+    private static List<GenericRecord> read(Path path) throws IOException {
+        List<GenericRecord> records = new ArrayList<>();
+        org.apache.hadoop.fs.Path hadoopPath = new org.apache.hadoop.fs.Path(path.toString());
+        try (ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(
+                HadoopInputFile.fromPath(hadoopPath, new Configuration())).build()) {
+            GenericRecord record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+}
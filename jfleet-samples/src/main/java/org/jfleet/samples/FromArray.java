@@ -24,9 +24,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
 
+import org.jfleet.ArrayEntityInfoBuilder;
 import org.jfleet.BulkInsert;
 import org.jfleet.EntityInfo;
-import org.jfleet.EntityInfoBuilder;
 import org.jfleet.JFleetException;
 import org.jfleet.mysql.LoadDataBulkInsert;
 import org.jfleet.samples.shared.CSVParser;
@@ -45,23 +45,23 @@ public class FromArray {
             TableHelper.createTable(connection);
             CitiBikeReader<List<Object>> reader = new CitiBikeReader<>("/tmp", str -> new TripParserToMap(str));
 
-            EntityInfo entityInfo= new EntityInfoBuilder<>(List.class, "bike_trip")
-                    .addColumn("tripduration", INT, map -> map.get(0))
-                    .addColumn("starttime", TIMESTAMP, map -> map.get(1))
-                    .addColumn("stoptime", TIMESTAMP, map -> map.get(2))
-                    .addColumn("start_station_id", INT, map -> map.get(3))
-                    .addColumn("start_station_name", STRING, map -> map.get(4))
-                    .addColumn("start_station_latitude", DOUBLE, map -> map.get(5))
-                    .addColumn("start_station_longitude", DOUBLE, map -> map.get(6))
-                    .addColumn("end_station_id", INT, map -> map.get(7))
-                    .addColumn("end_station_name", STRING, map -> map.get(8))
-                    .addColumn("end_station_latitude", DOUBLE, map -> map.get(9))
-                    .addColumn("end_station_longitude", DOUBLE, map -> map.get(10))
-                    .addColumn("bike_id", LONG, map -> map.get(11))
-                    .addColumn("user_type", STRING, map -> map.get(12))
-                    .addColumn("birth_year", INT, map -> map.get(13))
-                    .addColumn("gender", CHAR, map -> map.get(14))
-                    .build();
+            EntityInfo entityInfo = new ArrayEntityInfoBuilder("bike_trip")
+                    .addColumn("tripduration", INT)
+                    .addColumn("starttime", TIMESTAMP)
+                    .addColumn("stoptime", TIMESTAMP)
+                    .addColumn("start_station_id", INT)
+                    .addColumn("start_station_name", STRING)
+                    .addColumn("start_station_latitude", DOUBLE)
+                    .addColumn("start_station_longitude", DOUBLE)
+                    .addColumn("end_station_id", INT)
+                    .addColumn("end_station_name", STRING)
+                    .addColumn("end_station_latitude", DOUBLE)
+                    .addColumn("end_station_longitude", DOUBLE)
+                    .addColumn("bike_id", LONG)
+                    .addColumn("user_type", STRING)
+                    .addColumn("birth_year", INT)
+                    .addColumn("gender", CHAR)
+                    .buildForList();
 
             BulkInsert<List<Object>> bulkInsert = new LoadDataBulkInsert<>(entityInfo);
             reader.forEachCsvInZip(trips -> {
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jfleet.samples;
+
+import static org.jfleet.EntityFieldType.FieldTypeEnum.STRING;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.jfleet.CsvBulkInsert;
+import org.jfleet.EntityInfo;
+import org.jfleet.EntityInfoBuilder;
+import org.jfleet.JFleetException;
+import org.jfleet.csv.CsvSourceConfiguration;
+import org.jfleet.mysql.LoadDataConfiguration.LoadDataConfigurationBuilder;
+import org.jfleet.mysql.LoadDataCsvBulkInsert;
+import org.jfleet.samples.shared.TableHelper;
+import org.jfleet.util.MySqlTestConnectionProvider;
+
+/*
+ * This example loads CSV files directly into the database, without parsing them into objects.
+ * Each CSV record is transcoded to LOAD DATA format and columns are mapped by position.
+ */
+public class FromCsvFile {
+
+    public static void main(String[] args) throws IOException, SQLException, JFleetException {
+        Supplier<Connection> connectionSuplier = new MySqlTestConnectionProvider();
+        try (Connection connection = connectionSuplier.get()) {
+            TableHelper.createTable(connection);
+
+            EntityInfoBuilder<Object> builder = new EntityInfoBuilder<>(Object.class, "bike_trip");
+            Stream.of("tripduration", "starttime", "stoptime", "start_station_id", "start_station_name",
+                    "start_station_latitude", "start_station_longitude", "end_station_id", "end_station_name",
+                    "end_station_latitude", "end_station_longitude", "bike_id", "user_type", "birth_year", "gender")
+                    .forEach(column -> builder.addColumn(column, STRING, null));
+            EntityInfo entityInfo = builder.build();
+
+            CsvSourceConfiguration csvConfig = new CsvSourceConfiguration.Builder().header(true).build();
+            CsvBulkInsert bulkInsert = new LoadDataCsvBulkInsert(LoadDataConfigurationBuilder.from(entityInfo).build(),
+                    csvConfig);
+
+            File[] files = new File("/tmp").listFiles((dir, name) -> name.contains("citibike-tripdata")
+                    && name.endsWith(".zip"));
+            for (File file : files) {
+                try (ZipInputStream zis = new ZipInputStream(new FileInputStream(file))) {
+                    ZipEntry ze = zis.getNextEntry();
+                    while (ze != null) {
+                        bulkInsert.insertAll(connection, zis);
+                        ze = zis.getNextEntry();
+                    }
+                }
+            }
+        }
+    }
+
+}
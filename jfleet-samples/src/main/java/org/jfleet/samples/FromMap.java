@@ -20,14 +20,13 @@ import static org.jfleet.EntityFieldType.FieldTypeEnum.*;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Supplier;
 
 import org.jfleet.BulkInsert;
 import org.jfleet.EntityInfo;
-import org.jfleet.EntityInfoBuilder;
 import org.jfleet.JFleetException;
+import org.jfleet.MapEntityInfoBuilder;
 import org.jfleet.mysql.LoadDataBulkInsert;
 import org.jfleet.samples.shared.CSVParser;
 import org.jfleet.samples.shared.CitiBikeReader;
@@ -35,34 +34,35 @@ import org.jfleet.samples.shared.TableHelper;
 import org.jfleet.util.MySqlTestConnectionProvider;
 
 /*
- * This example shows how to use JFleet to persist a collection of Maps. Probably it's more expensive
- * than using an object, but it's a sample of the flexibility of JFleet mapping
+ * This example shows how to use JFleet to persist a collection of Maps. Rows created by MapEntityInfoBuilder
+ * store values by slot position, so columns are read without hashing keys
  */
 public class FromMap {
 
+    private static final MapEntityInfoBuilder TRIP_ROW = new MapEntityInfoBuilder("bike_trip")
+            .addColumn("TripDuration", "tripduration", INT)
+            .addColumn("StartTime", "starttime", TIMESTAMP)
+            .addColumn("StopTime", "stoptime", TIMESTAMP)
+            .addColumn("StartStationId", "start_station_id", INT)
+            .addColumn("StartStationName", "start_station_name", STRING)
+            .addColumn("StartStationLatitude", "start_station_latitude", DOUBLE)
+            .addColumn("StartStationLongitude", "start_station_longitude", DOUBLE)
+            .addColumn("EndStationId", "end_station_id", INT)
+            .addColumn("EndStationName", "end_station_name", STRING)
+            .addColumn("EndStationLatitude", "end_station_latitude", DOUBLE)
+            .addColumn("EndStationLongitude", "end_station_longitude", DOUBLE)
+            .addColumn("BikeId", "bike_id", LONG)
+            .addColumn("UserType", "user_type", STRING)
+            .addColumn("BirthYear", "birth_year", INT)
+            .addColumn("Gender", "gender", CHAR);
+
     public static void main(String[] args) throws IOException, SQLException {
         Supplier<Connection> connectionSuplier = new MySqlTestConnectionProvider();
         try (Connection connection = connectionSuplier.get()) {
             TableHelper.createTable(connection);
             CitiBikeReader<Map<String, Object>> reader = new CitiBikeReader<>("/tmp", str -> new TripParserToMap(str));
 
-            EntityInfo entityInfo= new EntityInfoBuilder<>(Map.class, "bike_trip")
-                    .addColumn("tripduration", INT, map -> map.get("TripDuration"))
-                    .addColumn("starttime", TIMESTAMP, map -> map.get("StartTime"))
-                    .addColumn("stoptime", TIMESTAMP, map -> map.get("StopTime"))
-                    .addColumn("start_station_id", INT, map -> map.get("StartStationId"))
-                    .addColumn("start_station_name", STRING, map -> map.get("StartStationName"))
-                    .addColumn("start_station_latitude", DOUBLE, map -> map.get("StartStationLatitude"))
-                    .addColumn("start_station_longitude", DOUBLE, map -> map.get("StartStationLongitude"))
-                    .addColumn("end_station_id", INT, map -> map.get("EndStationId"))
-                    .addColumn("end_station_name", STRING, map -> map.get("EndStationName"))
-                    .addColumn("end_station_latitude", DOUBLE, map -> map.get("EndStationLatitude"))
-                    .addColumn("end_station_longitude", DOUBLE, map -> map.get("EndStationLongitude"))
-                    .addColumn("bike_id", LONG, map -> map.get("BikeId"))
-                    .addColumn("user_type", STRING, map -> map.get("UserType"))
-                    .addColumn("birth_year", INT, map -> map.get("BirthYear"))
-                    .addColumn("gender", CHAR, map -> map.get("Gender"))
-                    .build();
+            EntityInfo entityInfo = TRIP_ROW.build();
 
             BulkInsert<Map<String, Object>> bulkInsert = new LoadDataBulkInsert<>(entityInfo);
             reader.forEachCsvInZip(trips -> {
@@ -83,7 +83,7 @@ public class FromMap {
 
         @Override
         public Map<String, Object> parse() {
-            Map<String, Object> trip = new HashMap<>();
+            Map<String, Object> trip = TRIP_ROW.newRow();
             trip.put("TripDuration", nextInteger());
             trip.put("StartTime", nextDate());
             trip.put("StopTime", nextDate());